@@ -47,11 +47,21 @@ android {
     kotlinOptions {
         jvmTarget = JavaVersion.VERSION_17.toString()
     }
+    testOptions {
+        // Unit tests run on the JVM, where Android methods return default values instead of throwing.
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
     compileOnly(project(mapOf("path" to ":dummy")))
     compileOnly("androidx.annotation:annotation:1.7.0")
+
+    testImplementation(project(mapOf("path" to ":dummy")))
+    testImplementation("androidx.annotation:annotation:1.7.0")
+    testImplementation("junit:junit:4.13.2")
+    // The android.jar used by unit tests has only stubs of org.json.
+    testImplementation("org.json:json:20231013")
 }
 
 tasks.register("publish") { dependsOn("build") }
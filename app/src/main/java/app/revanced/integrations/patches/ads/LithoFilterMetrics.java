@@ -0,0 +1,223 @@
+package app.revanced.integrations.patches.ads;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.revanced.integrations.settings.SettingsEnum;
+
+/**
+ * Opt-in timing and hit counts of the litho filters.
+ * <p>
+ * Recorded for each {@link Filter}, for each {@link FilterGroup} of a filter,
+ * and for each complete search of a litho component.
+ * Filter and group times are the time spent in
+ * {@link Filter#isFiltered(String, String, String, byte[], FilterGroupList, FilterGroup, int)}
+ * after a pattern matched. The search time also includes the prefix tree searches.
+ * <p>
+ * Latencies are kept in histograms with power of 2 nanosecond buckets.
+ * All values are updated without locking, and a report taken while litho is filtering
+ * can be slightly inconsistent (such as a call counted but its time not yet added).
+ * <p>
+ * When {@link SettingsEnum#ENABLE_DEBUG_LITHO_FILTER_METRICS} is off, nothing is recorded
+ * and the only cost is checking the setting.
+ */
+public final class LithoFilterMetrics {
+    /**
+     * Bucket 0 is zero nanoseconds, and bucket i holds [2^(i-1), 2^i) nanoseconds.
+     * The last bucket also holds all larger values (about 1 second and greater).
+     */
+    static final int NUMBER_OF_BUCKETS = 32;
+
+    static final class Metric {
+        @NonNull
+        final String name;
+        final LongAdder calls = new LongAdder();
+        final LongAdder matches = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanoseconds = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+        Metric(@NonNull String name) {
+            this.name = name;
+        }
+
+        void record(long nanoseconds, boolean matched) {
+            calls.increment();
+            if (matched) matches.increment();
+            totalNanoseconds.add(nanoseconds);
+            histogram.incrementAndGet(bucketOf(nanoseconds));
+        }
+
+        void recordFailure(long nanoseconds) {
+            failures.increment();
+            record(nanoseconds, false);
+        }
+
+        void reset() {
+            calls.reset();
+            matches.reset();
+            failures.reset();
+            totalNanoseconds.reset();
+            for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+
+        /**
+         * @param fraction Percentile as a fraction, such as 0.99
+         * @return Upper bound of the histogram bucket that contains the percentile, or zero if nothing is recorded.
+         */
+        long percentileNanoseconds(double fraction) {
+            long count = 0;
+            long[] buckets = new long[NUMBER_OF_BUCKETS];
+            for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+                buckets[i] = histogram.get(i);
+                count += buckets[i];
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long target = Math.max(1, (long) Math.ceil(count * fraction));
+            long seen = 0;
+            for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(NUMBER_OF_BUCKETS - 1);
+        }
+
+        void appendTo(@NonNull StringBuilder builder) {
+            final long callCount = calls.sum();
+            final long total = totalNanoseconds.sum();
+            builder.append(name)
+                    .append("\n  calls: ").append(callCount)
+                    .append(" matched: ").append(matches.sum())
+                    .append(" failed: ").append(failures.sum())
+                    .append("\n  total: ").append(formatMilliseconds(total)).append("ms")
+                    .append(" mean: ").append(formatMicroseconds(callCount == 0 ? 0 : total / callCount)).append("us")
+                    .append(" p50: <").append(formatMicroseconds(percentileNanoseconds(0.50))).append("us")
+                    .append(" p90: <").append(formatMicroseconds(percentileNanoseconds(0.90))).append("us")
+                    .append(" p99: <").append(formatMicroseconds(percentileNanoseconds(0.99))).append("us")
+                    .append('\n');
+        }
+    }
+
+    private record RankedMetric(long totalNanoseconds, Metric metric) {
+    }
+
+    private static final Metric searchMetric = new Metric("All filters (complete search)");
+    private static final Map<String, Metric> filterMetrics = new ConcurrentHashMap<>();
+    private static final Map<String, Metric> groupMetrics = new ConcurrentHashMap<>();
+
+    private LithoFilterMetrics() {
+    } // utility class
+
+    public static boolean isEnabled() {
+        return SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_METRICS.getBoolean();
+    }
+
+    static int bucketOf(long nanoseconds) {
+        if (nanoseconds <= 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(nanoseconds), NUMBER_OF_BUCKETS - 1);
+    }
+
+    static long bucketUpperBound(int bucket) {
+        return 1L << bucket;
+    }
+
+    @NonNull
+    private static String formatMicroseconds(long nanoseconds) {
+        return String.format(Locale.ROOT, "%.1f", nanoseconds / 1000.0);
+    }
+
+    @NonNull
+    private static String formatMilliseconds(long nanoseconds) {
+        return String.format(Locale.ROOT, "%.1f", nanoseconds / 1_000_000.0);
+    }
+
+    @NonNull
+    static String filterName(@NonNull Filter filter) {
+        return filter.getClass().getSimpleName();
+    }
+
+    @NonNull
+    static String groupName(@NonNull Filter filter, @NonNull FilterGroup<?> group) {
+        return filterName(filter) + " / " + group;
+    }
+
+    /**
+     * Records a complete search of one litho component.
+     */
+    static void recordSearch(long nanoseconds, boolean filtered) {
+        searchMetric.record(nanoseconds, filtered);
+    }
+
+    /**
+     * Records one call of {@link Filter#isFiltered(String, String, String, byte[], FilterGroupList, FilterGroup, int)}.
+     *
+     * @param failed If the filter threw an exception.
+     */
+    static void recordFilter(@NonNull String filterName, @NonNull String groupName,
+                             long nanoseconds, boolean filtered, boolean failed) {
+        Metric filterMetric = filterMetrics.computeIfAbsent(filterName, Metric::new);
+        Metric groupMetric = groupMetrics.computeIfAbsent(groupName, Metric::new);
+        if (failed) {
+            filterMetric.recordFailure(nanoseconds);
+            groupMetric.recordFailure(nanoseconds);
+        } else {
+            filterMetric.record(nanoseconds, filtered);
+            groupMetric.record(nanoseconds, filtered);
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public static void reset() {
+        searchMetric.reset();
+        filterMetrics.clear();
+        groupMetrics.clear();
+    }
+
+    /**
+     * @return A plain text report of all recorded values, with the most expensive filters and groups first.
+     */
+    @NonNull
+    public static String getReport() {
+        StringBuilder builder = new StringBuilder();
+        searchMetric.appendTo(builder);
+        appendSection(builder, "Filters", filterMetrics);
+        appendSection(builder, "Filter groups", groupMetrics);
+        return builder.toString();
+    }
+
+    private static void appendSection(@NonNull StringBuilder builder, @NonNull String title,
+                                      @NonNull Map<String, Metric> metrics) {
+        // Sort using a snapshot of the totals, as the values can change while sorting.
+        List<RankedMetric> sorted = new ArrayList<>(metrics.size());
+        for (Metric metric : metrics.values()) {
+            sorted.add(new RankedMetric(metric.totalNanoseconds.sum(), metric));
+        }
+        sorted.sort(Comparator.comparingLong(RankedMetric::totalNanoseconds).reversed());
+
+        builder.append("\n").append(title).append(":\n");
+        if (sorted.isEmpty()) {
+            builder.append("(none)\n");
+        }
+        for (RankedMetric ranked : sorted) {
+            ranked.metric.appendTo(builder);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package app.revanced.integrations.patches.ads;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -8,9 +9,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import app.revanced.integrations.settings.DerivedSetting;
+import app.revanced.integrations.settings.SettingsChangeBus;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.utils.ByteTrieSearch;
 import app.revanced.integrations.utils.LogHelper;
@@ -42,10 +49,28 @@ abstract class FilterGroup<T> {
 
     /**
      * @return If {@link FilterGroupList} should include this group when searching.
-     * By default, all filters are included except non enabled settings that require reboot.
+     * By default, only enabled groups are included.
+     * The search is rebuilt when any of {@link #getSettings()} change.
      */
     public boolean includeInSearch() {
-        return isEnabled() || !setting.rebootApp;
+        return isEnabled();
+    }
+
+    /**
+     * @return The current filter patterns.
+     */
+    public T[] getFilters() {
+        return filters;
+    }
+
+    /**
+     * @return Settings that change if this group is enabled or change the filter patterns.
+     */
+    @NonNull
+    public SettingsEnum[] getSettings() {
+        return setting == null
+                ? new SettingsEnum[0]
+                : new SettingsEnum[]{setting};
     }
 
     @NonNull
@@ -116,7 +141,7 @@ class StringFilterGroup extends FilterGroup<String> {
         int matchedIndex = -1;
         int matchedLength = 0;
         if (isEnabled()) {
-            for (String pattern : filters) {
+            for (String pattern : getFilters()) {
                 if (!string.isEmpty()) {
                     final int indexOf = pattern.indexOf(string);
                     if (indexOf >= 0) {
@@ -132,9 +157,24 @@ class StringFilterGroup extends FilterGroup<String> {
 }
 
 final class CustomFilterGroup extends StringFilterGroup {
+    private final SettingsEnum filter;
+    private final DerivedSetting<String[]> patterns;
 
     public CustomFilterGroup(final SettingsEnum setting, final SettingsEnum filter) {
         super(setting, filter.getString().split("\\s+"));
+        this.filter = filter;
+        patterns = new DerivedSetting<>(filter, value -> ((String) value).split("\\s+"), new String[0]);
+    }
+
+    @Override
+    public String[] getFilters() {
+        return patterns.get();
+    }
+
+    @NonNull
+    @Override
+    public SettingsEnum[] getSettings() {
+        return new SettingsEnum[]{setting, filter};
     }
 }
 
@@ -228,31 +268,113 @@ final class ByteArrayAsStringFilterGroup extends ByteArrayFilterGroup {
     }
 }
 
+/**
+ * A search structure built from the current settings.
+ * <p>
+ * After any subscribed setting changes, the next {@link #get()} builds a new search and swaps it in.
+ * Each built search is tagged with the generation it was built for, and a search built
+ * from settings that changed while building is never used.
+ * Settings changes never block. While one thread rebuilds, other threads searching at the same time
+ * do not wait and continue to use the previous search, built from the settings before the change.
+ * Only the first build blocks, as no previous search exists.
+ */
+final class RebuildableSearch<S> {
+
+    interface Builder<S> {
+        @NonNull
+        S build();
+    }
+
+    private record Built<S>(int generation, @NonNull S search) {
+    }
+
+    @NonNull
+    private final Builder<S> builder;
+    private final AtomicInteger generation = new AtomicInteger();
+    private final SettingsChangeBus.Listener settingsListener = setting -> invalidate();
+    /**
+     * Held while building.
+     */
+    private final ReentrantLock buildLock = new ReentrantLock();
+    @Nullable
+    private volatile Built<S> built;
+
+    RebuildableSearch(@NonNull Builder<S> builder) {
+        this.builder = Objects.requireNonNull(builder);
+    }
+
+    /**
+     * Rebuilds the search if any of the settings change.
+     */
+    void subscribe(@NonNull SettingsEnum... settings) {
+        SettingsChangeBus.subscribe(settingsListener, settings);
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @NonNull
+    S get() {
+        Built<S> current = built;
+        if (current != null) {
+            if (current.generation == generation.get()) {
+                return current.search;
+            }
+            if (!buildLock.tryLock()) {
+                return current.search; // Another thread is rebuilding.
+            }
+        } else {
+            buildLock.lock(); // Nothing to use until the first build is done.
+        }
+        try {
+            return rebuild();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @GuardedBy("buildLock")
+    @NonNull
+    private S rebuild() {
+        // Must read the generation before the builder reads any settings.
+        final int buildGeneration = generation.get();
+        Built<S> current = built;
+        if (current != null && current.generation == buildGeneration) {
+            return current.search; // Thread race and another thread already rebuilt the search.
+        }
+        S search = builder.build();
+        built = new Built<>(buildGeneration, search);
+        return search;
+    }
+}
+
 abstract class FilterGroupList<V, T extends FilterGroup<V>> implements Iterable<T> {
 
     private final List<T> filterGroups = new ArrayList<>();
     /**
-     * Search graph. Created only if needed.
+     * Search graph of the enabled groups. Created only if needed.
      */
-    private volatile TrieSearch<V> search;
+    private final RebuildableSearch<TrieSearch<V>> search = new RebuildableSearch<>(this::buildSearch);
 
     @SafeVarargs
     protected final void addAll(final T... groups) {
         filterGroups.addAll(Arrays.asList(groups));
-        search = null; // Rebuild, if already created.
+        for (T group : groups) {
+            search.subscribe(group.getSettings());
+        }
+        search.invalidate(); // Rebuild, if already created.
     }
 
-    protected final synchronized void buildSearch() {
-        // Since litho filtering is multi-threaded, this method can be concurrently called by multiple threads.
-        if (search != null)
-            return; // Thread race and another thread already initialized the search.
+    @NonNull
+    private TrieSearch<V> buildSearch() {
         LogHelper.printDebug(LithoFilterPatch.class, "Creating prefix search tree for: " + this);
         TrieSearch<V> search = createSearchGraph();
         for (T group : filterGroups) {
             if (!group.includeInSearch()) {
                 continue;
             }
-            for (V pattern : group.filters) {
+            for (V pattern : group.getFilters()) {
                 search.addPattern(pattern, (textSearched, matchedStartIndex, matchedLength, callbackParameter) -> {
                     if (group.isEnabled()) {
                         FilterGroup.FilterGroupResult result = (FilterGroup.FilterGroupResult) callbackParameter;
@@ -263,7 +385,7 @@ abstract class FilterGroupList<V, T extends FilterGroup<V>> implements Iterable<
                 });
             }
         }
-        this.search = search; // Must set after it's completely initialized.
+        return search;
     }
 
     @NonNull
@@ -284,13 +406,9 @@ abstract class FilterGroupList<V, T extends FilterGroup<V>> implements Iterable<
     }
 
     protected FilterGroup.FilterGroupResult check(V stack) {
-        if (search == null) {
-            buildSearch(); // Lazy load.
-        }
         FilterGroup.FilterGroupResult result = new FilterGroup.FilterGroupResult();
-        search.matches(stack, result);
+        search.get().matches(stack, result);
         return result;
-
     }
 
     protected abstract TrieSearch<V> createSearchGraph();
@@ -355,9 +473,15 @@ public final class LithoFilterPatch {
     private static final Filter[] filters = new Filter[]{
             new DummyFilter() // Replaced by patch.
     };
-    private static final StringTrieSearch pathSearchTree = new StringTrieSearch();
-    private static final StringTrieSearch identifierSearchTree = new StringTrieSearch();
-    private static final StringTrieSearch allValueSearchTree = new StringTrieSearch();
+    /**
+     * Search trees of the enabled filter groups, rebuilt when a filter group setting changes.
+     */
+    private static final RebuildableSearch<StringTrieSearch> pathSearchTree =
+            new RebuildableSearch<>(() -> buildSearchTree("path", filter -> filter.pathFilterGroupList));
+    private static final RebuildableSearch<StringTrieSearch> identifierSearchTree =
+            new RebuildableSearch<>(() -> buildSearchTree("identifier", filter -> filter.identifierFilterGroupList));
+    private static final RebuildableSearch<StringTrieSearch> allValueSearchTree =
+            new RebuildableSearch<>(() -> buildSearchTree("allValue", filter -> filter.allValueFilterGroupList));
 
     /**
      * Because litho filtering is multi-threaded and the buffer is passed in from a different injection point,
@@ -367,30 +491,58 @@ public final class LithoFilterPatch {
 
     static {
         for (Filter filter : filters) {
-            filterGroupLists(pathSearchTree, filter, filter.pathFilterGroupList);
-            filterGroupLists(identifierSearchTree, filter, filter.identifierFilterGroupList);
-            filterGroupLists(allValueSearchTree, filter, filter.allValueFilterGroupList);
+            subscribeToGroupSettings(pathSearchTree, filter.pathFilterGroupList);
+            subscribeToGroupSettings(identifierSearchTree, filter.identifierFilterGroupList);
+            subscribeToGroupSettings(allValueSearchTree, filter.allValueFilterGroupList);
+        }
+    }
+
+    private static void subscribeToGroupSettings(RebuildableSearch<?> search, StringFilterGroupList list) {
+        for (StringFilterGroup group : list) {
+            search.subscribe(group.getSettings());
         }
+    }
 
-        LogHelper.printDebug(LithoFilterPatch.class, "Using: "
-                + pathSearchTree.numberOfPatterns() + " path filters"
-                + " (" + pathSearchTree.getEstimatedMemorySize() + " KB), "
-                + identifierSearchTree.numberOfPatterns() + " identifier filters"
-                + " (" + identifierSearchTree.getEstimatedMemorySize() + " KB), ");
+    @NonNull
+    private static StringTrieSearch buildSearchTree(String name, Function<Filter, StringFilterGroupList> groupList) {
+        StringTrieSearch searchTree = new StringTrieSearch();
+        for (Filter filter : filters) {
+            filterGroupLists(searchTree, filter, groupList.apply(filter));
+        }
+        LogHelper.printDebug(LithoFilterPatch.class, "Using: " + searchTree.numberOfPatterns() + " " + name
+                + " filters (" + searchTree.getEstimatedMemorySize() + " KB)");
+        return searchTree;
     }
 
     private static <T> void filterGroupLists(TrieSearch<T> pathSearchTree,
                                              Filter filter, FilterGroupList<T, ? extends FilterGroup<T>> list) {
+        final String filterName = LithoFilterMetrics.filterName(filter);
         for (FilterGroup<T> group : list) {
             if (!group.includeInSearch()) {
                 continue;
             }
-            for (T pattern : group.filters) {
+            final String groupName = LithoFilterMetrics.groupName(filter, group);
+            for (T pattern : group.getFilters()) {
                 pathSearchTree.addPattern(pattern, (textSearched, matchedStartIndex, matchedLength, callbackParameter) -> {
                             if (!group.isEnabled()) return false;
                             LithoFilterParameters parameters = (LithoFilterParameters) callbackParameter;
-                            return filter.isFiltered(parameters.path, parameters.identifier, parameters.allValue, parameters.protoBuffer,
-                                    list, group, matchedStartIndex);
+                            if (!LithoFilterMetrics.isEnabled()) {
+                                return filter.isFiltered(parameters.path, parameters.identifier, parameters.allValue,
+                                        parameters.protoBuffer, list, group, matchedStartIndex);
+                            }
+
+                            final long start = System.nanoTime();
+                            boolean failed = true;
+                            boolean filtered = false;
+                            try {
+                                filtered = filter.isFiltered(parameters.path, parameters.identifier, parameters.allValue,
+                                        parameters.protoBuffer, list, group, matchedStartIndex);
+                                failed = false;
+                                return filtered;
+                            } finally {
+                                LithoFilterMetrics.recordFilter(filterName, groupName,
+                                        System.nanoTime() - start, filtered, failed);
+                            }
                         }
                 );
             }
@@ -415,6 +567,22 @@ public final class LithoFilterPatch {
     @SuppressWarnings("unused")
     public static boolean filter(@NonNull String lithoPath, @Nullable String lithoIdentifier,
                                  @NonNull String allValue) {
+        final boolean filtered;
+        if (LithoFilterMetrics.isEnabled()) {
+            final long start = System.nanoTime();
+            filtered = search(lithoPath, lithoIdentifier, allValue);
+            LithoFilterMetrics.recordSearch(System.nanoTime() - start, filtered);
+        } else {
+            filtered = search(lithoPath, lithoIdentifier, allValue);
+        }
+        if (LithoFilterRecorder.isEnabled()) {
+            LithoFilterRecorder.record(lithoPath, lithoIdentifier, allValue, bufferThreadLocal.get(), filtered);
+        }
+        return filtered;
+    }
+
+    private static boolean search(@NonNull String lithoPath, @Nullable String lithoIdentifier,
+                                  @NonNull String allValue) {
         try {
             ByteBuffer protobufBuffer = bufferThreadLocal.get();
             if (protobufBuffer == null) {
@@ -426,10 +594,10 @@ public final class LithoFilterPatch {
             LogHelper.printDebug(LithoFilterPatch.class, "Searching " + parameter);
 
             if (parameter.identifier != null) {
-                if (identifierSearchTree.matches(parameter.identifier, parameter)) return true;
+                if (identifierSearchTree.get().matches(parameter.identifier, parameter)) return true;
             }
-            if (pathSearchTree.matches(parameter.path, parameter)) return true;
-            if (allValueSearchTree.matches(parameter.allValue, parameter)) return true;
+            if (pathSearchTree.get().matches(parameter.path, parameter)) return true;
+            if (allValueSearchTree.get().matches(parameter.allValue, parameter)) return true;
         } catch (Exception ex) {
             LogHelper.printException(LithoFilterPatch.class, "Litho filter failure", ex);
         }
@@ -0,0 +1,202 @@
+package app.revanced.integrations.patches.ads;
+
+import android.content.Context;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.revanced.integrations.settings.SettingsChangeBus;
+import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.utils.LogHelper;
+import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
+
+/**
+ * Opt-in recorder of sampled litho filter inputs and decisions, for replay with the LithoFilterReplay unit test tool.
+ * <p>
+ * While {@link SettingsEnum#ENABLE_DEBUG_LITHO_FILTER_RECORDING} is on, about 1 of every
+ * {@link #SAMPLE_INTERVAL} litho components are copied and written to a file
+ * on a background thread, using the {@link LithoFilterRecording} format.
+ * Each time recording is turned on, a new file replaces the previous recording.
+ * <p>
+ * Samples are dropped (and never block the litho threads) if the writer falls behind.
+ */
+public final class LithoFilterRecorder {
+    private static final String FILE_NAME = "revanced_litho_filter_recording.bin";
+
+    private static final int SAMPLE_INTERVAL = 10;
+    /**
+     * Recording stops after this many records.
+     */
+    private static final int MAX_RECORDS = 10000;
+    /**
+     * Maximum records waiting to be written.
+     */
+    private static final int MAX_PENDING_RECORDS = 200;
+
+    private static final Queue<LithoFilterRecording.Record> pendingRecords = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pendingCount = new AtomicInteger();
+    private static final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    @GuardedBy("LithoFilterRecorder.class")
+    @Nullable
+    private static LithoFilterRecording.Writer writer;
+    @GuardedBy("LithoFilterRecorder.class")
+    private static int recordCount;
+    /**
+     * If the current recording is finished, and nothing more is recorded until recording is turned on again.
+     */
+    private static volatile boolean finished;
+
+    static {
+        SettingsChangeBus.subscribe(setting -> {
+            if (!setting.getBoolean()) {
+                TaskLane.COMPUTATION.execute(LithoFilterRecorder::stopRecording, TaskLane.PRIORITY_LOW);
+            }
+        }, SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_RECORDING);
+    }
+
+    private LithoFilterRecorder() {
+    } // utility class
+
+    public static boolean isEnabled() {
+        return SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_RECORDING.getBoolean();
+    }
+
+    /**
+     * Samples a filtered litho component. Called off the main thread.
+     * Never throws, so recording cannot break filtering.
+     */
+    static void record(@NonNull String path, @Nullable String identifier, @NonNull String allValue,
+                       @Nullable ByteBuffer protobufBuffer, boolean filtered) {
+        try {
+            if (finished || protobufBuffer == null || !protobufBuffer.hasArray()
+                    || ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+                return;
+            }
+            if (pendingCount.get() >= MAX_PENDING_RECORDS) {
+                return;
+            }
+            // Copy the buffer, as litho can reuse it.
+            byte[] buffer = protobufBuffer.array().clone();
+            if (pendingCount.incrementAndGet() > MAX_PENDING_RECORDS) {
+                pendingCount.decrementAndGet();
+                return;
+            }
+            pendingRecords.add(new LithoFilterRecording.Record(path, identifier, allValue, buffer, filtered));
+
+            if (writeScheduled.compareAndSet(false, true)) {
+                TaskLane.COMPUTATION.execute(LithoFilterRecorder::writePendingRecords, TaskLane.PRIORITY_LOW);
+            }
+        } catch (Exception ex) {
+            LogHelper.printException(LithoFilterRecorder.class, "record failure", ex);
+        }
+    }
+
+    private static void writePendingRecords() {
+        // Clear before writing, so records added while writing schedule another write.
+        writeScheduled.set(false);
+        synchronized (LithoFilterRecorder.class) {
+            try {
+                LithoFilterRecording.Record record;
+                while ((record = pendingRecords.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    if (finished || !isEnabled()) {
+                        continue;
+                    }
+                    if (writer == null) {
+                        File file = getFile();
+                        if (file == null) {
+                            finished = true;
+                            continue;
+                        }
+                        LogHelper.printDebug(LithoFilterRecorder.class, "Starting recording: " + file);
+                        writer = new LithoFilterRecording.Writer(new FileOutputStream(file));
+                        recordCount = 0;
+                    }
+                    writer.write(record);
+                    if (++recordCount >= MAX_RECORDS) {
+                        LogHelper.printDebug(LithoFilterRecorder.class, "Recording is full");
+                        finished = true;
+                        closeWriter();
+                    }
+                }
+                if (writer != null) {
+                    writer.flush();
+                }
+            } catch (IOException ex) {
+                LogHelper.printException(LithoFilterRecorder.class, "Failed to write recording", ex);
+                finished = true;
+                closeWriter();
+            }
+        }
+    }
+
+    private static synchronized void stopRecording() {
+        pendingRecords.clear();
+        pendingCount.set(0);
+        closeWriter();
+        finished = false; // Allow a new recording if turned on again.
+    }
+
+    @GuardedBy("LithoFilterRecorder.class")
+    private static void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            LogHelper.printDebug(LithoFilterRecorder.class, "Recording closed with: " + recordCount + " records");
+        } catch (IOException ex) {
+            LogHelper.printException(LithoFilterRecorder.class, "Failed to close recording", ex);
+        }
+        writer = null;
+    }
+
+    @Nullable
+    private static File getFile() {
+        Context context = ReVancedUtils.getContext();
+        if (context == null) {
+            LogHelper.printException(LithoFilterRecorder.class, "Context is null");
+            return null;
+        }
+        return new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    /**
+     * Copies the last recording, including all records written so far if recording is still in progress.
+     *
+     * @throws FileNotFoundException If nothing was recorded.
+     */
+    public static synchronized void exportRecording(@NonNull OutputStream out) throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        File file = getFile();
+        if (file == null) {
+            throw new IOException("Context is null");
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+}
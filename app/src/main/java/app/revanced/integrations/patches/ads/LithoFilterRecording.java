@@ -0,0 +1,201 @@
+package app.revanced.integrations.patches.ads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File format of recorded litho filter inputs and decisions.
+ * <p>
+ * The file starts with an uncompressed int magic value and int format version,
+ * followed by a gzip stream of records. Each record is:
+ * <pre>
+ * byte    flags (1 = filtered, 2 = has identifier)
+ * string  path
+ * string  identifier (only if flag 2 is set)
+ * string  all value
+ * bytes   protobuf buffer
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes, and bytes are an int length followed by the bytes.
+ * <p>
+ * The gzip stream is flushed after each batch of records,
+ * so a recording cut short by the app closing can still be read up to the last flush.
+ */
+final class LithoFilterRecording {
+    private static final int FILE_MAGIC = 0x52564C52; // "RVLR"
+    static final int FILE_VERSION = 1;
+
+    private static final int FLAG_FILTERED = 1;
+    private static final int FLAG_HAS_IDENTIFIER = 1 << 1;
+    /**
+     * Maximum length of a string or buffer. Larger values are treated as a corrupt file.
+     */
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+
+    private LithoFilterRecording() {
+    } // utility class
+
+    static final class Record {
+        @NonNull
+        final String path;
+        @Nullable
+        final String identifier;
+        @NonNull
+        final String allValue;
+        @NonNull
+        final byte[] buffer;
+        /**
+         * Decision of the filters when recorded.
+         */
+        final boolean filtered;
+
+        Record(@NonNull String path, @Nullable String identifier, @NonNull String allValue,
+               @NonNull byte[] buffer, boolean filtered) {
+            this.path = path;
+            this.identifier = identifier;
+            this.allValue = allValue;
+            this.buffer = buffer;
+            this.filtered = filtered;
+        }
+    }
+
+    static final class Writer implements Closeable {
+        @NonNull
+        private final DataOutputStream out;
+
+        /**
+         * Writes the file header.
+         */
+        Writer(@NonNull OutputStream stream) throws IOException {
+            DataOutputStream header = new DataOutputStream(stream);
+            header.writeInt(FILE_MAGIC);
+            header.writeInt(FILE_VERSION);
+            header.flush();
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream, true)));
+        }
+
+        void write(@NonNull Record record) throws IOException {
+            int flags = 0;
+            if (record.filtered) flags |= FLAG_FILTERED;
+            if (record.identifier != null) flags |= FLAG_HAS_IDENTIFIER;
+            out.writeByte(flags);
+            writeString(record.path);
+            if (record.identifier != null) {
+                writeString(record.identifier);
+            }
+            writeString(record.allValue);
+            writeBytes(record.buffer);
+        }
+
+        private void writeString(@NonNull String string) throws IOException {
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(@NonNull byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Flushes all written records to the stream.
+         */
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static final class Reader implements Closeable {
+        @NonNull
+        private final DataInputStream in;
+        private boolean truncated;
+
+        /**
+         * Reads and validates the file header.
+         *
+         * @throws IOException If the stream is not a recording, or the format version is not supported.
+         */
+        Reader(@NonNull InputStream stream) throws IOException {
+            DataInputStream header = new DataInputStream(stream);
+            if (header.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a litho filter recording");
+            }
+            final int version = header.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported recording version: " + version);
+            }
+            in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        }
+
+        /**
+         * @return The next record, or null if there are no more records.
+         */
+        @Nullable
+        Record read() throws IOException {
+            if (truncated) {
+                return null;
+            }
+            try {
+                final int flags = in.read();
+                if (flags < 0) {
+                    return null;
+                }
+                String path = readString();
+                String identifier = (flags & FLAG_HAS_IDENTIFIER) != 0
+                        ? readString()
+                        : null;
+                String allValue = readString();
+                byte[] buffer = readBytes();
+                return new Record(path, identifier, allValue, buffer, (flags & FLAG_FILTERED) != 0);
+            } catch (EOFException ex) {
+                // Recording was not closed, and the last record is incomplete.
+                truncated = true;
+                return null;
+            }
+        }
+
+        /**
+         * @return If the recording ended with an incomplete record.
+         */
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @NonNull
+        private String readString() throws IOException {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        @NonNull
+        private byte[] readBytes() throws IOException {
+            final int length = in.readInt();
+            if (length < 0 || length > MAX_FIELD_LENGTH) {
+                throw new IOException("Corrupt recording, field length: " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -1,37 +1,30 @@
 package app.revanced.integrations.patches.ads;
 
-import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
 
 import app.revanced.integrations.patches.utils.ReturnYouTubeDislikePatch;
 import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.utils.ByteTrieSearch;
 import app.revanced.integrations.utils.LogHelper;
-import app.revanced.integrations.utils.TrieSearch;
 
 public final class ReturnYouTubeDislikeFilterPatch extends Filter {
 
     /**
-     * Last unique video id's loaded.  Value is ignored and Map is treated as a Set.
-     * Cannot use {@link LinkedHashSet} because it's missing #removeEldestEntry().
+     * Number of video id's to keep track of for searching thru the buffer.
+     * A minimum value of 3 should be sufficient, but check a few more just in case.
      */
-    @GuardedBy("itself")
-    private static final Map<String, Boolean> lastVideoIds = new LinkedHashMap<>() {
-        /**
-         * Number of video id's to keep track of for searching thru the buffer.
-         * A minimum value of 3 should be sufficient, but check a few more just in case.
-         */
-        private static final int NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK = 5;
+    static final int NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK = 5;
+
+    /**
+     * Last unique video id's loaded, and a search for all of them.
+     * Replaced (never modified) when a new video id is loaded.
+     */
+    private static final AtomicReference<RecentVideoIds> lastVideoIds = new AtomicReference<>(RecentVideoIds.EMPTY);
 
-        @Override
-        protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK;
-        }
-    };
     private final ByteArrayFilterGroupList videoIdFilterGroup = new ByteArrayFilterGroupList();
 
     public ReturnYouTubeDislikeFilterPatch() {
@@ -55,9 +48,15 @@ public final class ReturnYouTubeDislikeFilterPatch extends Filter {
             if (!SettingsEnum.RYD_SHORTS.getBoolean()) {
                 return;
             }
-            synchronized (lastVideoIds) {
-                if (lastVideoIds.put(videoId, Boolean.TRUE) == null) {
+            while (true) {
+                RecentVideoIds current = lastVideoIds.get();
+                RecentVideoIds updated = current.with(videoId);
+                if (updated == current) {
+                    break;
+                }
+                if (lastVideoIds.compareAndSet(current, updated)) {
                     LogHelper.printDebug(ReturnYouTubeDislikeFilterPatch.class, "New video id: " + videoId);
+                    break;
                 }
             }
         } catch (Exception ex) {
@@ -65,26 +64,6 @@ public final class ReturnYouTubeDislikeFilterPatch extends Filter {
         }
     }
 
-    /**
-     * This could use {@link TrieSearch}, but since the video ids are constantly changing
-     * the overhead of updating the Trie might negate the search performance gain.
-     */
-    private static boolean byteArrayContainsString(@NonNull byte[] array, @NonNull String text) {
-        for (int i = 0, lastArrayStartIndex = array.length - text.length(); i <= lastArrayStartIndex; i++) {
-            boolean found = true;
-            for (int j = 0, textLength = text.length(); j < textLength; j++) {
-                if (array[i + j] != (byte) text.charAt(j)) {
-                    found = false;
-                    break;
-                }
-            }
-            if (found) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     boolean isFiltered(String path, @Nullable String identifier, String allValue, byte[] protobufBufferArray,
                        FilterGroupList matchedList, FilterGroup matchedGroup, int matchedIndex) {
@@ -103,13 +82,68 @@ public final class ReturnYouTubeDislikeFilterPatch extends Filter {
 
     @Nullable
     private String findVideoId(byte[] protobufBufferArray) {
-        synchronized (lastVideoIds) {
-            for (String videoId : lastVideoIds.keySet()) {
-                if (byteArrayContainsString(protobufBufferArray, videoId)) {
-                    return videoId;
+        return lastVideoIds.get().find(protobufBufferArray);
+    }
+
+    /**
+     * Immutable window of recent video ids, oldest first,
+     * with a search that finds all of them in a single pass over a buffer.
+     */
+    static final class RecentVideoIds {
+        static final RecentVideoIds EMPTY = new RecentVideoIds(new String[0]);
+
+        @NonNull
+        private final String[] videoIds;
+        @NonNull
+        private final ByteTrieSearch search = new ByteTrieSearch();
+
+        private RecentVideoIds(@NonNull String[] videoIds) {
+            this.videoIds = videoIds;
+            for (int i = 0; i < videoIds.length; i++) {
+                final int order = i;
+                search.addPattern(videoIds[i].getBytes(StandardCharsets.US_ASCII),
+                        (textSearched, matchedStartIndex, matchedLength, callbackParameter) -> {
+                            int[] bestOrder = (int[]) callbackParameter;
+                            if (order < bestOrder[0]) {
+                                bestOrder[0] = order;
+                            }
+                            // No other id can take priority over the oldest id.
+                            return order == 0;
+                        });
+            }
+        }
+
+        /**
+         * @return This instance if the video id is already present,
+         * otherwise a new window that includes the id and drops the oldest id if full.
+         */
+        @NonNull
+        RecentVideoIds with(@NonNull String videoId) {
+            for (String existing : videoIds) {
+                if (existing.equals(videoId)) {
+                    return this;
                 }
             }
-            return null;
+            final int keep = Math.min(videoIds.length, NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK - 1);
+            String[] updated = new String[keep + 1];
+            System.arraycopy(videoIds, videoIds.length - keep, updated, 0, keep);
+            updated[keep] = videoId;
+            return new RecentVideoIds(updated);
+        }
+
+        /**
+         * @return The oldest video id found in the buffer, or null if none are found.
+         */
+        @Nullable
+        String find(@NonNull byte[] buffer) {
+            if (videoIds.length == 0) {
+                return null;
+            }
+            int[] bestOrder = {Integer.MAX_VALUE};
+            search.matches(buffer, bestOrder);
+            return bestOrder[0] == Integer.MAX_VALUE
+                    ? null
+                    : videoIds[bestOrder[0]];
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package app.revanced.integrations.patches.button;
+
+import android.view.View;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+import app.revanced.integrations.settings.SettingsChangeBus;
+import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.utils.ReVancedUtils;
+
+/**
+ * A button over the video player, that fades in and out with the player controls.
+ * <p>
+ * A button is enabled if all of its settings are enabled. The enabled state is updated when a setting changes,
+ * and a disabled button is hidden and skips all player controls visibility changes.
+ * <p>
+ * Visibility methods must be called on the main thread.
+ *
+ * @see PlayerOverlayButtons
+ */
+public final class PlayerOverlayButton {
+    @NonNull
+    private final String name;
+    @NonNull
+    private final SettingsEnum[] settings;
+    /**
+     * Additional condition checked each time the button is shown, such as the state of the current video.
+     */
+    @Nullable
+    private final BooleanSupplier showCondition;
+
+    private volatile boolean enabled;
+    @NonNull
+    private WeakReference<ImageView> buttonView = new WeakReference<>(null);
+    private boolean isShowing;
+    private boolean isScrubbed;
+
+    /**
+     * @param name          Name used for logging.
+     * @param showCondition Checked each time the button is shown, or null if the button only depends on settings.
+     * @param settings      Boolean settings that must all be enabled to show the button.
+     */
+    public PlayerOverlayButton(@NonNull String name, @Nullable BooleanSupplier showCondition,
+                               @NonNull SettingsEnum... settings) {
+        this.name = Objects.requireNonNull(name);
+        this.showCondition = showCondition;
+        this.settings = settings;
+        enabled = settingsEnabled();
+        SettingsChangeBus.subscribe(setting -> onSettingChanged(), settings);
+    }
+
+    private boolean settingsEnabled() {
+        for (SettingsEnum setting : settings) {
+            if (!setting.getBoolean()) return false;
+        }
+        return true;
+    }
+
+    private void onSettingChanged() {
+        enabled = settingsEnabled();
+        if (!enabled) {
+            ReVancedUtils.runOnMainThreadNowOrLater(() -> {
+                if (!enabled) hide();
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Nullable
+    public ImageView getView() {
+        return buttonView.get();
+    }
+
+    /**
+     * Uses a new button view, and hides it until the player controls are shown.
+     */
+    public void attach(@NonNull ImageView imageView) {
+        buttonView = new WeakReference<>(imageView);
+        isShowing = true;
+        isScrubbed = false;
+        changeVisibility(false, true);
+    }
+
+    /**
+     * @param immediate If the change is not animated.
+     */
+    public void changeVisibility(boolean visible, boolean immediate) {
+        ImageView imageView = buttonView.get();
+        if (isShowing == visible || imageView == null) return;
+        isShowing = visible;
+
+        if (visible) {
+            if (!enabled || (showCondition != null && !showCondition.getAsBoolean())) {
+                return;
+            }
+            imageView.clearAnimation();
+            // After scrubbing the controls are already showing, so do not fade in again.
+            if (!immediate && !isScrubbed) {
+                imageView.startAnimation(PlayerOverlayButtons.getFadeIn());
+            }
+            isScrubbed = false;
+            imageView.setVisibility(View.VISIBLE);
+        } else if (imageView.getVisibility() == View.VISIBLE) {
+            imageView.clearAnimation();
+            if (!immediate) {
+                imageView.startAnimation(PlayerOverlayButtons.getFadeOut());
+            }
+            imageView.setVisibility(View.GONE);
+        }
+    }
+
+    public void changeVisibilityNegatedImmediate(boolean isUserScrubbing) {
+        ImageView imageView = buttonView.get();
+        if (imageView == null || !isUserScrubbing) return;
+
+        isShowing = false;
+        isScrubbed = true;
+        imageView.setVisibility(View.GONE);
+    }
+
+    private void hide() {
+        ImageView imageView = buttonView.get();
+        if (imageView == null) return;
+
+        isShowing = false;
+        imageView.clearAnimation();
+        imageView.setVisibility(View.GONE);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,95 @@
+package app.revanced.integrations.patches.button;
+
+import static app.revanced.integrations.utils.ResourceUtils.anim;
+import static app.revanced.integrations.utils.ResourceUtils.integer;
+
+import android.view.animation.Animation;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import app.revanced.integrations.utils.LogHelper;
+
+/**
+ * Registry of all {@link PlayerOverlayButton}s.
+ * <p>
+ * The fade animations are loaded once and shared by all buttons.
+ * Each player controls visibility change is dispatched to all enabled buttons in a single pass.
+ * Buttons that are disabled are skipped without any view lookups or animation.
+ */
+public final class PlayerOverlayButtons {
+    private static final List<PlayerOverlayButton> buttons = new CopyOnWriteArrayList<>();
+
+    private static Animation fadeIn;
+    private static Animation fadeOut;
+
+    private PlayerOverlayButtons() {
+    } // utility class
+
+    @NonNull
+    public static PlayerOverlayButton register(@NonNull PlayerOverlayButton button) {
+        buttons.add(button);
+        LogHelper.printDebug(PlayerOverlayButtons.class, "Registered overlay button: " + button);
+        return button;
+    }
+
+    @NonNull
+    static Animation getFadeIn() {
+        if (fadeIn == null) {
+            fadeIn = anim("fade_in");
+            fadeIn.setDuration(integer("fade_duration_fast"));
+        }
+        return fadeIn;
+    }
+
+    @NonNull
+    static Animation getFadeOut() {
+        if (fadeOut == null) {
+            fadeOut = anim("fade_out");
+            fadeOut.setDuration(integer("fade_duration_scheduled"));
+        }
+        return fadeOut;
+    }
+
+    /**
+     * Injection point.
+     */
+    public static void changeVisibility(boolean visible) {
+        changeVisibility(visible, false);
+    }
+
+    /**
+     * Injection point.
+     */
+    public static void changeVisibilityImmediate(boolean visible) {
+        changeVisibility(visible, true);
+    }
+
+    private static void changeVisibility(boolean visible, boolean immediate) {
+        for (PlayerOverlayButton button : buttons) {
+            if (!button.isEnabled()) continue;
+            try {
+                button.changeVisibility(visible, immediate);
+            } catch (Exception ex) {
+                LogHelper.printException(PlayerOverlayButtons.class, "changeVisibility failure: " + button, ex);
+            }
+        }
+    }
+
+    /**
+     * Injection point.
+     */
+    public static void changeVisibilityNegatedImmediate(boolean isUserScrubbing) {
+        if (!isUserScrubbing) return;
+        for (PlayerOverlayButton button : buttons) {
+            if (!button.isEnabled()) continue;
+            try {
+                button.changeVisibilityNegatedImmediate(true);
+            } catch (Exception ex) {
+                LogHelper.printException(PlayerOverlayButtons.class, "changeVisibilityNegatedImmediate failure: " + button, ex);
+            }
+        }
+    }
+}
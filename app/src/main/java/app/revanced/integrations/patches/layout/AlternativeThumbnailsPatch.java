@@ -12,11 +12,13 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.utils.LogHelper;
-import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 
 /**
  * Alternative YouTube thumbnails, showing the beginning/middle/end of the video.
@@ -33,8 +35,6 @@ import app.revanced.integrations.utils.ReVancedUtils;
  * Ideas for improvements:
  * - Selectively allow using original thumbnails in some situations,
  * such as videos subscription feed, watch history, or in search results.
- * - Save to a temporary file the video id's verified to have alt thumbnails.
- * This would speed up loading the watch history and users saved playlists.
  */
 public final class AlternativeThumbnailsPatch {
     private static final int TIMEOUT_DEFAULT_MILLISECONDS = 5000;
@@ -47,6 +47,26 @@ public final class AlternativeThumbnailsPatch {
             LogHelper.printException(AlternativeThumbnailsPatch.class, "Invalid alt thumbnail type: " + altThumbnailType);
             SettingsEnum.ALT_THUMBNAIL_TYPE.saveValue(SettingsEnum.ALT_THUMBNAIL_TYPE.defaultValue);
         }
+
+        if (SettingsEnum.ALT_THUMBNAIL_ENABLED.getBoolean()) {
+            VerifiedThumbnailStore.getInstance().loadAsync();
+        }
+    }
+
+    /**
+     * Fast check if a url could be a video thumbnail, using only a few character comparisons.
+     * Matches 'https://i.ytimg.com/vi' and 'https://i9.ytimg.com/vi' style urls.
+     * Avatars, banners and all other images are rejected without any parsing.
+     */
+    static boolean mightBeThumbnailUrl(@NonNull String url) {
+        if (url.length() < DecodedThumbnailUrl.YOUTUBE_THUMBNAIL_PREFIX.length() + 1
+                || url.charAt(8) != 'i') {
+            return false;
+        }
+        // Skip the optional server number (i1.ytimg.com).
+        final int hostOffset = Character.isDigit(url.charAt(9)) ? 1 : 0;
+        return url.startsWith("https://")
+                && url.startsWith(".ytimg.com/vi", 9 + hostOffset);
     }
 
     @NonNull
@@ -71,6 +91,16 @@ public final class AlternativeThumbnailsPatch {
             if (!SettingsEnum.ALT_THUMBNAIL_ENABLED.getBoolean()) {
                 return originalUrl;
             }
+            if (!mightBeThumbnailUrl(originalUrl)) {
+                return originalUrl;
+            }
+
+            final int settingsKey = RewrittenUrlCache.currentSettingsKey();
+            String cachedUrl = RewrittenUrlCache.get(originalUrl, settingsKey);
+            if (cachedUrl != null) {
+                return cachedUrl;
+            }
+
             if (originalUrl.contains("_live.")) return originalUrl; // Livestream video in feed.
 
             DecodedThumbnailUrl decodedUrl = DecodedThumbnailUrl.decodeImageUrl(originalUrl);
@@ -79,7 +109,11 @@ public final class AlternativeThumbnailsPatch {
             }
 
             ThumbnailQuality qualityToUse = ThumbnailQuality.getQualityToUse(decodedUrl.imageQuality);
-            if (qualityToUse == null) return originalUrl; // Video is a short.
+            if (qualityToUse == null) {
+                // Video is a short, or the url was already rewritten.
+                RewrittenUrlCache.put(originalUrl, originalUrl, settingsKey);
+                return originalUrl;
+            }
 
             // Images could be upgraded to webp if they are not already, but this fails quite often,
             // especially for new videos uploaded in the last hour.
@@ -98,7 +132,8 @@ public final class AlternativeThumbnailsPatch {
             builder.append(decodedUrl.urlTrackingParameters);
 
             String sanitizedReplacement = builder.toString();
-            if (!VerifiedQualities.verifyAltThumbnailExist(decodedUrl.videoId, qualityToUse, sanitizedReplacement)) {
+            Verification verification = VerifiedQualities.verifyAltThumbnailExist(decodedUrl.videoId, qualityToUse, sanitizedReplacement);
+            if (verification == Verification.DOES_NOT_EXIST || verification == Verification.NOT_VERIFIED) {
                 builder.setLength(0);
                 builder.append(originalUrl);
             }
@@ -108,7 +143,14 @@ public final class AlternativeThumbnailsPatch {
                 builder.insert(0, String.format(DE_ARROW_THUMBNAILS_API, decodedUrl.videoId));
             }
 
-            return builder.toString();
+            String replacement = builder.toString();
+            if (verification == Verification.EXISTS || verification == Verification.DOES_NOT_EXIST) {
+                // Only urls verified by the server are cached.
+                // Assumed urls may fail to load and then the original must be used,
+                // and unverified urls are checked again the next time they load.
+                RewrittenUrlCache.put(originalUrl, replacement, settingsKey);
+            }
+            return replacement;
         } catch (Exception ex) {
             LogHelper.printException(AlternativeThumbnailsPatch.class, "Alt thumbnails failure", ex);
             return originalUrl;
@@ -142,12 +184,85 @@ public final class AlternativeThumbnailsPatch {
                     return; // Video is a short or unknown quality, but the url returned 404. Should never happen.
                 }
                 VerifiedQualities.setAltThumbnailDoesNotExist(decodedUrl.videoId, quality);
+                // Forget any rewritten urls of this video, so the original thumbnail is used when it reloads.
+                RewrittenUrlCache.removeVideo(decodedUrl.videoId);
             }
         } catch (Exception ex) {
             LogHelper.printException(AlternativeThumbnailsPatch.class, "Alt thumbnails callback failure", ex);
         }
     }
 
+    private enum Verification {
+        EXISTS,
+        DOES_NOT_EXIST,
+        /**
+         * Not verified, because checking is turned off.
+         */
+        ASSUMED_TO_EXIST,
+        /**
+         * Check was not done because the network lane was saturated,
+         * or the server did not give a definite answer (network error, timeout, 5xx, 429).
+         * Nothing is saved, and it can be checked again later.
+         */
+        NOT_VERIFIED
+    }
+
+    /**
+     * Memo of original urls to the url to use.
+     * Feed cells are recycled and load the same urls repeatedly,
+     * and this reduces repeat requests to a single map lookup.
+     * <p>
+     * All entries are discarded if any alt thumbnail setting changes.
+     */
+    static class RewrittenUrlCache {
+        private static final int CACHE_LIMIT = 500;
+
+        private static final Map<String, String> cache = new ConcurrentHashMap<>(CACHE_LIMIT);
+        private static volatile int cachedSettingsKey;
+
+        /**
+         * @return All settings that affect the rewritten url, packed into an int.
+         */
+        static int currentSettingsKey() {
+            return SettingsEnum.ALT_THUMBNAIL_TYPE.getInt()
+                    | (SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING.getBoolean() ? 1 << 8 : 0)
+                    | (SettingsEnum.ALT_THUMBNAIL_DEARROW.getBoolean() ? 1 << 9 : 0);
+        }
+
+        @Nullable
+        static String get(@NonNull String originalUrl, int settingsKey) {
+            if (settingsKey != cachedSettingsKey) {
+                return null;
+            }
+            return cache.get(originalUrl);
+        }
+
+        static void put(@NonNull String originalUrl, @NonNull String replacementUrl, int settingsKey) {
+            if (settingsKey != cachedSettingsKey) {
+                // Setting changed. Multiple threads can clear at the same time, which is harmless.
+                cache.clear();
+                cachedSettingsKey = settingsKey;
+            } else if (cache.size() >= CACHE_LIMIT) {
+                // Clearing is much simpler than LRU, and the cache refills quickly with the urls currently on screen.
+                cache.clear();
+            }
+            cache.put(originalUrl, replacementUrl);
+            if (!originalUrl.equals(replacementUrl)) {
+                // The replacement url may be passed in again.
+                cache.put(replacementUrl, replacementUrl);
+            }
+        }
+
+        /**
+         * Removes all urls of a video, such as after an alt image is found to not exist.
+         */
+        static void removeVideo(@NonNull String videoId) {
+            final String videoIdPath = "/" + videoId + "/";
+            cache.entrySet().removeIf(entry -> entry.getKey().contains(videoIdPath)
+                    || entry.getValue().contains(videoIdPath));
+        }
+    }
+
     private enum ThumbnailQuality {
         // In order of lowest to highest resolution.
         DEFAULT("default", ""), // effective alt name is 1.jpg, 2.jpg, 3.jpg
@@ -240,6 +355,8 @@ public final class AlternativeThumbnailsPatch {
     /**
      * Keeps track of what thumbnail qualities have been verified as available and not available,
      * and does HTTP HEAD requests to verify alt images exist.
+     * <p>
+     * Results are also saved to {@link VerifiedThumbnailStore}, so they are not lost on eviction or app restart.
      */
     private static class VerifiedQualities {
         /**
@@ -254,6 +371,8 @@ public final class AlternativeThumbnailsPatch {
                 return size() > CACHE_LIMIT; // Evict oldest entry if over the cache limit.
             }
         };
+        @NonNull
+        final String videoId;
         /**
          * Highest quality verified as existing.
          */
@@ -265,17 +384,37 @@ public final class AlternativeThumbnailsPatch {
         @Nullable
         ThumbnailQuality lowestQualityNotAvailable;
 
-        static boolean verifyAltThumbnailExist(@NonNull String videoId, @NonNull ThumbnailQuality quality,
-                                               @NonNull String imageUrl) {
+        private VerifiedQualities(@NonNull String videoId) {
+            this.videoId = videoId;
+            final int stored = VerifiedThumbnailStore.getInstance().get(videoId);
+            if (stored != 0) {
+                highestQualityVerified = ordinalToQuality(VerifiedThumbnailStore.valueHighestVerified(stored));
+                lowestQualityNotAvailable = ordinalToQuality(VerifiedThumbnailStore.valueLowestNotAvailable(stored));
+            }
+        }
+
+        @Nullable
+        private static ThumbnailQuality ordinalToQuality(int ordinal) {
+            ThumbnailQuality[] values = ThumbnailQuality.values();
+            return ordinal < values.length ? values[ordinal] : null;
+        }
+
+        private static int qualityToOrdinal(@Nullable ThumbnailQuality quality) {
+            return quality == null ? VerifiedThumbnailStore.QUALITY_NONE : quality.ordinal();
+        }
+
+        @NonNull
+        static Verification verifyAltThumbnailExist(@NonNull String videoId, @NonNull ThumbnailQuality quality,
+                                                    @NonNull String imageUrl) {
             VerifiedQualities verified;
             synchronized (altVideoIdLookup) {
                 verified = altVideoIdLookup.get(videoId);
                 if (verified == null) {
                     if (SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING.getBoolean()) {
                         // For fast quality, skip checking if the alt thumbnail exists.
-                        return true;
+                        return Verification.ASSUMED_TO_EXIST;
                     }
-                    verified = new VerifiedQualities();
+                    verified = new VerifiedQualities(videoId);
                     altVideoIdLookup.put(videoId, verified);
                 }
             }
@@ -289,7 +428,7 @@ public final class AlternativeThumbnailsPatch {
             synchronized (altVideoIdLookup) {
                 verified = altVideoIdLookup.get(videoId);
                 if (verified == null) {
-                    verified = new VerifiedQualities();
+                    verified = new VerifiedQualities(videoId);
                     altVideoIdLookup.put(videoId, verified);
                 }
             }
@@ -297,63 +436,98 @@ public final class AlternativeThumbnailsPatch {
             verified.setQualityVerified(quality, false);
         }
 
+        /**
+         * Records a server answer. A newer answer replaces any older answer it contradicts,
+         * such as a quality verified as existing that now returns 404.
+         */
         synchronized void setQualityVerified(ThumbnailQuality quality, boolean isVerified) {
+            final ThumbnailQuality previousHighest = highestQualityVerified;
+            final ThumbnailQuality previousLowest = lowestQualityNotAvailable;
+            ThumbnailQuality[] values = ThumbnailQuality.values();
             if (isVerified) {
                 if (highestQualityVerified == null || highestQualityVerified.ordinal() < quality.ordinal()) {
                     highestQualityVerified = quality;
                 }
+                if (lowestQualityNotAvailable != null && lowestQualityNotAvailable.ordinal() <= quality.ordinal()) {
+                    final int higher = quality.ordinal() + 1;
+                    lowestQualityNotAvailable = higher < values.length ? values[higher] : null;
+                }
             } else {
                 if (lowestQualityNotAvailable == null || lowestQualityNotAvailable.ordinal() > quality.ordinal()) {
                     lowestQualityNotAvailable = quality;
                 }
+                if (highestQualityVerified != null && highestQualityVerified.ordinal() >= quality.ordinal()) {
+                    final int lower = quality.ordinal() - 1;
+                    highestQualityVerified = lower >= 0 ? values[lower] : null;
+                }
+            }
+            if (previousHighest == highestQualityVerified && previousLowest == lowestQualityNotAvailable) {
+                return;
             }
+            VerifiedThumbnailStore.getInstance().put(videoId,
+                    qualityToOrdinal(highestQualityVerified), qualityToOrdinal(lowestQualityNotAvailable));
         }
 
         /**
          * Verify if a video alt thumbnail exists.  Does so by making a minimal HEAD http request.
          */
-        synchronized boolean verifyYouTubeThumbnailExists(@NonNull ThumbnailQuality quality,
-                                                          @NonNull String imageUrl) {
+        @NonNull
+        synchronized Verification verifyYouTubeThumbnailExists(@NonNull ThumbnailQuality quality,
+                                                               @NonNull String imageUrl) {
             if (highestQualityVerified != null && highestQualityVerified.ordinal() >= quality.ordinal()) {
-                return true; // Previously verified as existing.
+                return Verification.EXISTS; // Previously verified as existing.
             }
             if (lowestQualityNotAvailable != null && lowestQualityNotAvailable.ordinal() <= quality.ordinal()) {
-                return false; // Previously verified as not existing.
+                return Verification.DOES_NOT_EXIST; // Previously verified as not existing.
             }
             if (SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING.getBoolean()) {
-                return true; // Unknown if it exists or not.  Use the URL anyways and update afterwards if loading fails.
+                // Unknown if it exists or not.  Use the URL anyways and update afterwards if loading fails.
+                return Verification.ASSUMED_TO_EXIST;
             }
 
-            boolean imageFileFound;
+            Verification verification;
             try {
-                // This hooked code is running on a low priority thread, and it's slightly faster
-                // to run the url connection thru the integrations thread pool which runs at the highest priority.
-                imageFileFound = ReVancedUtils.submitOnBackgroundThread(() -> {
+                // Run the url connection thru the bounded network lane,
+                // so a fast scrolling feed cannot start an unlimited number of connections.
+                verification = TaskLane.NETWORK.submit(() -> {
                     HttpURLConnection connection = getHttpURLConnection(imageUrl);
                     final int responseCode = connection.getResponseCode();
                     if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
                         String contentType = connection.getContentType();
-                        return (contentType != null && contentType.startsWith("image"));
+                        if (contentType != null && contentType.startsWith("image")) {
+                            return Verification.EXISTS;
+                        }
+                        LogHelper.printDebug(AlternativeThumbnailsPatch.class, "Unexpected content type: " + contentType + " for url: " + imageUrl);
+                        return Verification.NOT_VERIFIED;
                     }
-                    if (responseCode != HttpURLConnection.HTTP_NOT_FOUND) {
-                        LogHelper.printDebug(AlternativeThumbnailsPatch.class, "Unexpected response code: " + responseCode + " for url: " + imageUrl);
+                    if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                        return Verification.DOES_NOT_EXIST;
                     }
-                    return false;
+                    // Server error or rate limiting. Can be different the next time it's checked.
+                    LogHelper.printDebug(AlternativeThumbnailsPatch.class, "Unexpected response code: " + responseCode + " for url: " + imageUrl);
+                    return Verification.NOT_VERIFIED;
                 }).get();
+            } catch (CancellationException ex) {
+                LogHelper.printDebug(AlternativeThumbnailsPatch.class, "Check was rejected: " + imageUrl);
+                return Verification.NOT_VERIFIED;
             } catch (ExecutionException | InterruptedException ex) {
+                // No connection, DNS failure, or timeout. Can be different the next time it's checked.
                 LogHelper.printException(AlternativeThumbnailsPatch.class, "Could not verify alt url: " + imageUrl, ex);
-                imageFileFound = false;
+                return Verification.NOT_VERIFIED;
             }
 
-            setQualityVerified(quality, imageFileFound);
-            return imageFileFound;
+            // Only definite answers from the server are saved.
+            if (verification != Verification.NOT_VERIFIED) {
+                setQualityVerified(quality, verification == Verification.EXISTS);
+            }
+            return verification;
         }
     }
 
     /**
      * YouTube video thumbnail url, decoded into it's relevant parts.
      */
-    private static class DecodedThumbnailUrl {
+    static class DecodedThumbnailUrl {
         /**
          * YouTube thumbnail URL prefix. Can be '/vi/' or '/vi_webp/'
          */
@@ -6,12 +6,17 @@ import android.view.ViewGroup;
 import android.widget.ListView;
 import android.widget.TextView;
 
+import java.util.Set;
+
 import app.revanced.integrations.patches.ads.VideoQualityMenuFilter;
+import app.revanced.integrations.settings.DerivedSetting;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
 
 public class FlyoutPanelPatch {
+    private static final DerivedSetting<Set<String>> feedFlyoutPanelFilters =
+            DerivedSetting.lineSet(SettingsEnum.HIDE_FEED_FLYOUT_PANEL_FILTER_STRINGS);
 
     public static void enableOldQualityMenu(ListView listView) {
         if (!SettingsEnum.ENABLE_OLD_QUALITY_LAYOUT.getBoolean())
@@ -34,13 +39,8 @@ public class FlyoutPanelPatch {
         if (charSequence == null || !SettingsEnum.HIDE_FEED_FLYOUT_PANEL.getBoolean())
             return charSequence;
 
-        String[] blockList = SettingsEnum.HIDE_FEED_FLYOUT_PANEL_FILTER_STRINGS.getString().split("\\n");
-        String targetString = charSequence.toString();
-
-        for (String filter : blockList) {
-            if (targetString.equals(filter) && !filter.isEmpty())
-                return null;
-        }
+        if (feedFlyoutPanelFilters.get().contains(charSequence.toString()))
+            return null;
 
         return charSequence;
     }
@@ -58,13 +58,8 @@ public class FlyoutPanelPatch {
         if (textView.getParent() == null || !(textView.getParent() instanceof View parentView))
             return;
 
-        String[] blockList = SettingsEnum.HIDE_FEED_FLYOUT_PANEL_FILTER_STRINGS.getString().split("\\n");
-        String targetString = charSequence.toString();
-
-        for (String filter : blockList) {
-            if (targetString.equals(filter) && !filter.isEmpty())
-                ReVancedUtils.hideViewByLayoutParams(parentView);
-        }
+        if (feedFlyoutPanelFilters.get().contains(charSequence.toString()))
+            ReVancedUtils.hideViewByLayoutParams(parentView);
     }
 
     public static void hideFooterCaptions(View view) {
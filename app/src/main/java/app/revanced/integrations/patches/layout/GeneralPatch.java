@@ -14,6 +14,9 @@ import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
 
+import java.util.List;
+
+import app.revanced.integrations.settings.DerivedSetting;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.shared.PlayerType;
 import app.revanced.integrations.utils.ResourceType;
@@ -47,16 +50,20 @@ public class GeneralPatch {
         return SettingsEnum.ENABLE_WIDE_SEARCH_BAR.getBoolean();
     }
 
+    private static final DerivedSetting<List<String>> accountMenuFilters =
+            DerivedSetting.lines(SettingsEnum.HIDE_ACCOUNT_MENU_FILTER_STRINGS);
+
     public static void hideAccountMenu(@NonNull Spanned span) {
         if (!(compactLink instanceof ViewGroup viewGroup) || !SettingsEnum.HIDE_ACCOUNT_MENU.getBoolean())
             return;
 
-        String[] blockList = SettingsEnum.HIDE_ACCOUNT_MENU_FILTER_STRINGS.getString().split("\\n");
+        final String spanString = span.toString();
 
-        for (String filter : blockList) {
-            if (span.toString().contains(filter) && !filter.isEmpty()) {
+        for (String filter : accountMenuFilters.get()) {
+            if (spanString.contains(filter)) {
                 if (!(viewGroup.getLayoutParams() instanceof MarginLayoutParams))
                     viewGroup.setLayoutParams(new LayoutParams(0, 0));
+                return;
             }
         }
     }
@@ -1,11 +1,11 @@
 package app.revanced.integrations.patches.layout;
 
-import android.graphics.Color;
 import android.view.View;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import app.revanced.integrations.settings.DerivedSetting;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.utils.VideoHelpers;
 
@@ -15,12 +15,16 @@ public class SeekBarPatch {
      */
     public static final int ORIGINAL_SEEKBAR_COLOR = 0xFFFF0000;
 
+    private static final DerivedSetting<Integer> customSeekbarColor =
+            DerivedSetting.color(SettingsEnum.ENABLE_CUSTOM_SEEKBAR_COLOR_VALUE);
+
+    private static final Pattern TIME_STAMP_INFORMATION_PATTERN = Pattern.compile("\\((.*?)\\)");
+
     public static String appendTimeStampInformation(String original) {
         if (!SettingsEnum.APPEND_TIME_STAMP_INFORMATION.getBoolean())
             return original;
 
-        final String regex = "\\((.*?)\\)";
-        final Matcher matcher = Pattern.compile(regex).matcher(original);
+        final Matcher matcher = TIME_STAMP_INFORMATION_PATTERN.matcher(original);
 
         if (matcher.find()) {
             String matcherGroup = matcher.group(1);
@@ -30,7 +34,7 @@ public class SeekBarPatch {
                             ? VideoHelpers.getFormattedQualityString(matcherGroup)
                             : VideoHelpers.getFormattedSpeedString(matcherGroup)
             );
-            return original.replaceAll(regex, "") + appendString;
+            return matcher.replaceAll("") + appendString;
         } else {
             String appendString = String.format(
                     "\u2009(%s)",
@@ -116,9 +120,10 @@ public class SeekBarPatch {
      */
     public static int overrideSeekbarColor(final int colorValue) {
         try {
-            return SettingsEnum.ENABLE_CUSTOM_SEEKBAR_COLOR.getBoolean()
-                    ? Color.parseColor(SettingsEnum.ENABLE_CUSTOM_SEEKBAR_COLOR_VALUE.getString())
-                    : colorValue;
+            if (SettingsEnum.ENABLE_CUSTOM_SEEKBAR_COLOR.getBoolean()) {
+                Integer customColor = customSeekbarColor.get();
+                if (customColor != null) return customColor;
+            }
         } catch (Exception ignored) {
         }
         return colorValue;
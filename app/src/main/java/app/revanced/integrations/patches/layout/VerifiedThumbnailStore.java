@@ -0,0 +1,453 @@
+package app.revanced.integrations.patches.layout;
+
+import android.content.Context;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import app.revanced.integrations.utils.LogHelper;
+import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
+
+/**
+ * Disk cache of alt thumbnail qualities verified as existing or not existing,
+ * so the same videos do not need HEAD requests again after the app restarts.
+ * <p>
+ * Each entry is 12 bytes: the video id packed into a long,
+ * and an int with the hours since epoch the entry was saved and the quality bits.
+ * <p>
+ * The file is loaded off the main thread on first use. Until then all lookups are a miss.
+ * A bloom filter of the loaded ids skips the binary search for ids that are not stored.
+ * <p>
+ * Safe to use from any thread.
+ */
+final class VerifiedThumbnailStore {
+    /**
+     * Quality ordinal value used if no quality was verified.
+     */
+    static final int QUALITY_NONE = 7;
+
+    private static final String FILE_NAME = "revanced_alt_thumbnail_qualities.bin";
+    private static final int FILE_MAGIC = 0x52565451; // "RVTQ"
+    private static final int FILE_VERSION = 1;
+
+    private static final int MAX_ENTRIES = 20000;
+    /**
+     * Maximum age of an entry.
+     */
+    private static final int MAX_AGE_HOURS = 30 * 24;
+    /**
+     * Maximum age of a quality verified as not existing.
+     * Alt images of newly uploaded videos can appear later.
+     */
+    private static final int MAX_AGE_HOURS_NOT_AVAILABLE = 12;
+    private static final long SAVE_DELAY_MILLISECONDS = 30 * 1000;
+
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASH_COUNT = 4;
+
+    /**
+     * Loaded entries, sorted by id.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new int[0]);
+
+        final long[] ids;
+        final int[] values;
+        final long[] bloom;
+        final int bloomBitCount;
+
+        Snapshot(long[] ids, int[] values) {
+            this.ids = ids;
+            this.values = values;
+            bloomBitCount = Math.max(64, ids.length * BLOOM_BITS_PER_ENTRY);
+            bloom = new long[(bloomBitCount + 63) >>> 6];
+            for (long id : ids) {
+                final long hash = mix(id);
+                for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+                    final int bit = bloomBit(hash, i);
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        private int bloomBit(long hash, int i) {
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32);
+            return ((h1 + i * h2) & Integer.MAX_VALUE) % bloomBitCount;
+        }
+
+        boolean mightContain(long id) {
+            final long hash = mix(id);
+            for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+                final int bit = bloomBit(hash, i);
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return Stored value, or zero if not found.
+         */
+        int get(long id) {
+            final int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? values[index] : 0;
+        }
+    }
+
+    private static final VerifiedThumbnailStore instance = new VerifiedThumbnailStore();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    @GuardedBy("this")
+    private boolean loadStarted;
+    /**
+     * Entries changed since the last save.
+     */
+    @GuardedBy("this")
+    private final Map<Long, Integer> pending = new HashMap<>();
+    @GuardedBy("this")
+    private boolean saveScheduled;
+
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong bloomRejectCount = new AtomicLong();
+
+    private VerifiedThumbnailStore() {
+    }
+
+    @NonNull
+    static VerifiedThumbnailStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Packs a video id into a long. All 11 characters are base64url,
+     * and the last character uses only 4 bits, so the id fits exactly in 64 bits.
+     *
+     * @return The packed id, or zero if the id is not a valid video id.
+     */
+    static long encodeVideoId(@NonNull String videoId) {
+        if (videoId.length() != 11) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < 10; i++) {
+            final int value = base64UrlValue(videoId.charAt(i));
+            if (value < 0) return 0;
+            packed = (packed << 6) | value;
+        }
+        final int last = base64UrlValue(videoId.charAt(10));
+        if (last < 0 || (last & 3) != 0) {
+            return 0;
+        }
+        return (packed << 4) | (last >>> 2);
+    }
+
+    @NonNull
+    static String decodeVideoId(long packed) {
+        char[] chars = new char[11];
+        chars[10] = base64UrlChar((int) (packed & 0xF) << 2);
+        packed >>>= 4;
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = base64UrlChar((int) (packed & 0x3F));
+            packed >>>= 6;
+        }
+        return new String(chars);
+    }
+
+    private static int base64UrlValue(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a' + 26;
+        if (c >= '0' && c <= '9') return c - '0' + 52;
+        if (c == '-') return 62;
+        if (c == '_') return 63;
+        return -1;
+    }
+
+    private static char base64UrlChar(int value) {
+        if (value < 26) return (char) ('A' + value);
+        if (value < 52) return (char) ('a' + value - 26);
+        if (value < 62) return (char) ('0' + value - 52);
+        return value == 62 ? '-' : '_';
+    }
+
+    static int encodeValue(int hoursSinceEpoch, int highestVerified, int lowestNotAvailable) {
+        return (hoursSinceEpoch << 6) | (lowestNotAvailable << 3) | highestVerified;
+    }
+
+    static int valueHours(int value) {
+        return value >>> 6;
+    }
+
+    static int valueHighestVerified(int value) {
+        return value & 7;
+    }
+
+    static int valueLowestNotAvailable(int value) {
+        return (value >>> 3) & 7;
+    }
+
+    private static int currentHour() {
+        return (int) TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    /**
+     * SplitMix64 finalizer, to spread the bits of packed ids for the bloom filter.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Starts loading the file on a background thread, if not already started.
+     */
+    void loadAsync() {
+        synchronized (this) {
+            if (loadStarted) return;
+            loadStarted = true;
+        }
+        TaskLane.COMPUTATION.execute(() -> {
+            File file = getFile();
+            if (file != null) {
+                snapshot = readSnapshot(file, currentHour());
+                LogHelper.printDebug(VerifiedThumbnailStore.class, "Loaded entries: " + snapshot.ids.length);
+            }
+            loaded = true;
+        }, TaskLane.PRIORITY_HIGH);
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return The stored value, or zero if the video is not stored (or the file is not yet loaded).
+     */
+    int get(@NonNull String videoId) {
+        final long id = encodeVideoId(videoId);
+        if (id == 0) return 0;
+        lookupCount.incrementAndGet();
+
+        synchronized (this) {
+            Integer value = pending.get(id);
+            if (value != null) {
+                hitCount.incrementAndGet();
+                return value;
+            }
+        }
+
+        Snapshot current = snapshot;
+        if (!current.mightContain(id)) {
+            bloomRejectCount.incrementAndGet();
+            return 0;
+        }
+        final int value = current.get(id);
+        if (value != 0) hitCount.incrementAndGet();
+        return value;
+    }
+
+    void put(@NonNull String videoId, int highestVerified, int lowestNotAvailable) {
+        final long id = encodeVideoId(videoId);
+        if (id == 0) return;
+        synchronized (this) {
+            pending.put(id, encodeValue(currentHour(), highestVerified, lowestNotAvailable));
+            if (saveScheduled) return;
+            saveScheduled = true;
+        }
+        ReVancedUtils.runOnMainThreadDelayed(() -> TaskLane.COMPUTATION.execute(this::save), SAVE_DELAY_MILLISECONDS);
+    }
+
+    private void save() {
+        if (!loaded) {
+            // Cannot merge yet. Try again later.
+            ReVancedUtils.runOnMainThreadDelayed(() -> TaskLane.COMPUTATION.execute(this::save), SAVE_DELAY_MILLISECONDS);
+            return;
+        }
+        Map<Long, Integer> toSave;
+        synchronized (this) {
+            toSave = new HashMap<>(pending);
+            saveScheduled = false;
+        }
+        if (toSave.isEmpty()) return;
+
+        Snapshot merged = merge(snapshot, toSave, currentHour());
+        File file = getFile();
+        if (file != null && writeSnapshot(file, merged)) {
+            LogHelper.printDebug(VerifiedThumbnailStore.class, "Saved entries: " + merged.ids.length
+                    + " lookups: " + lookupCount.get() + " hits: " + hitCount.get()
+                    + " bloom filter rejects: " + bloomRejectCount.get());
+        }
+        snapshot = merged;
+        synchronized (this) {
+            // Remove only entries that did not change while saving.
+            for (Map.Entry<Long, Integer> entry : toSave.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Merges new entries into a snapshot, and removes expired and the oldest entries if over the entry limit.
+     */
+    @NonNull
+    static Snapshot merge(@NonNull Snapshot old, @NonNull Map<Long, Integer> newEntries, int nowHours) {
+        Map<Long, Integer> all = new HashMap<>(old.ids.length + newEntries.size());
+        for (int i = 0; i < old.ids.length; i++) {
+            all.put(old.ids[i], old.values[i]);
+        }
+        all.putAll(newEntries);
+        return buildSnapshot(all, nowHours);
+    }
+
+    @NonNull
+    private static Snapshot buildSnapshot(@NonNull Map<Long, Integer> entries, int nowHours) {
+        long[] ids = new long[entries.size()];
+        int[] values = new int[entries.size()];
+        int count = 0;
+        for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+            int value = expire(entry.getValue(), nowHours);
+            if (value != 0) {
+                ids[count] = entry.getKey();
+                values[count] = value;
+                count++;
+            }
+        }
+
+        if (count > MAX_ENTRIES) {
+            // Keep only the newest entries.
+            int[] sortedHours = new int[count];
+            for (int i = 0; i < count; i++) {
+                sortedHours[i] = valueHours(values[i]);
+            }
+            Arrays.sort(sortedHours);
+            final int minimumHour = sortedHours[count - MAX_ENTRIES];
+            // Entries newer than the minimum hour all fit. Fill the remaining space with entries of the minimum hour.
+            int minimumHourSlots = MAX_ENTRIES;
+            for (int i = 0; i < count; i++) {
+                if (valueHours(values[i]) > minimumHour) minimumHourSlots--;
+            }
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                final int hours = valueHours(values[i]);
+                if (hours > minimumHour || (hours == minimumHour && minimumHourSlots-- > 0)) {
+                    ids[kept] = ids[i];
+                    values[kept] = values[i];
+                    kept++;
+                }
+            }
+            count = kept;
+        }
+
+        // Sort ids, and keep the values in the same order.
+        long[] sortedIds = Arrays.copyOf(ids, count);
+        Arrays.sort(sortedIds);
+        Map<Long, Integer> idToValue = new HashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            idToValue.put(ids[i], values[i]);
+        }
+        int[] sortedValues = new int[count];
+        for (int i = 0; i < count; i++) {
+            //noinspection ConstantConditions
+            sortedValues[i] = idToValue.get(sortedIds[i]);
+        }
+        return new Snapshot(sortedIds, sortedValues);
+    }
+
+    /**
+     * @return The value with expired data removed, or zero if the entire entry is expired.
+     */
+    private static int expire(int value, int nowHours) {
+        final int age = nowHours - valueHours(value);
+        if (age > MAX_AGE_HOURS || age < 0) {
+            return 0;
+        }
+        int lowestNotAvailable = valueLowestNotAvailable(value);
+        if (age > MAX_AGE_HOURS_NOT_AVAILABLE) {
+            lowestNotAvailable = QUALITY_NONE;
+        }
+        final int highestVerified = valueHighestVerified(value);
+        if (highestVerified == QUALITY_NONE && lowestNotAvailable == QUALITY_NONE) {
+            return 0;
+        }
+        return encodeValue(valueHours(value), highestVerified, lowestNotAvailable);
+    }
+
+    @Nullable
+    private static File getFile() {
+        Context context = ReVancedUtils.getContext();
+        if (context == null) {
+            LogHelper.printException(VerifiedThumbnailStore.class, "Context is null");
+            return null;
+        }
+        return new File(context.getCacheDir(), FILE_NAME);
+    }
+
+    @NonNull
+    static Snapshot readSnapshot(@NonNull File file, int nowHours) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                LogHelper.printDebug(VerifiedThumbnailStore.class, "Ignoring unknown file format");
+                return Snapshot.EMPTY;
+            }
+            final int count = in.readInt();
+            if (count < 0 || count > MAX_ENTRIES) {
+                return Snapshot.EMPTY;
+            }
+            Map<Long, Integer> entries = new HashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.put(in.readLong(), in.readInt());
+            }
+            return buildSnapshot(entries, nowHours);
+        } catch (FileNotFoundException ex) {
+            return Snapshot.EMPTY; // First run.
+        } catch (IOException ex) {
+            LogHelper.printException(VerifiedThumbnailStore.class, "Failed to read file", ex);
+            return Snapshot.EMPTY;
+        }
+    }
+
+    static boolean writeSnapshot(@NonNull File file, @NonNull Snapshot snapshot) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(snapshot.ids.length);
+            for (int i = 0; i < snapshot.ids.length; i++) {
+                out.writeLong(snapshot.ids[i]);
+                out.writeInt(snapshot.values[i]);
+            }
+        } catch (IOException ex) {
+            LogHelper.printException(VerifiedThumbnailStore.class, "Failed to write file", ex);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return false;
+        }
+        // Rename is atomic, so a crash while writing never leaves a partial file.
+        if (!temp.renameTo(file)) {
+            LogHelper.printException(VerifiedThumbnailStore.class, "Failed to rename file");
+            return false;
+        }
+        return true;
+    }
+}
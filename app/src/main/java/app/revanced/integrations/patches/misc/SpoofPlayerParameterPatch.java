@@ -6,6 +6,7 @@ import androidx.annotation.Nullable;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -15,7 +16,8 @@ import app.revanced.integrations.patches.video.VideoInformation;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.shared.PlayerType;
 import app.revanced.integrations.utils.LogHelper;
-import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
+import app.revanced.integrations.utils.VideoTaskScope;
 
 /**
  * @noinspection ALL
@@ -110,7 +112,8 @@ public class SpoofPlayerParameterPatch {
 
     private static void fetchStoryboardRenderer(String videoId) {
         if (!videoId.equals(lastPlayerResponseVideoId)) {
-            rendererFuture = ReVancedUtils.submitOnBackgroundThread(() -> getStoryboardRenderer(videoId));
+            rendererFuture = VideoTaskScope.forVideo(videoId).submit(TaskLane.LATENCY_CRITICAL,
+                    () -> getStoryboardRenderer(videoId), TaskLane.PRIORITY_NORMAL);
             lastPlayerResponseVideoId = videoId;
         }
         // Block until the fetch is completed.  Without this, occasionally when a new video is opened
@@ -128,6 +131,8 @@ public class SpoofPlayerParameterPatch {
                 return rendererFuture.get(5000, TimeUnit.MILLISECONDS);
             } catch (TimeoutException ex) {
                 LogHelper.printDebug(SpoofPlayerParameterPatch.class, "Could not get renderer (get timed out)");
+            } catch (CancellationException ex) {
+                LogHelper.printDebug(SpoofPlayerParameterPatch.class, "Could not get renderer (video changed)");
             } catch (ExecutionException | InterruptedException ex) {
                 // Should never happen.
                 LogHelper.printException(SpoofPlayerParameterPatch.class, "Could not get renderer", ex);
@@ -0,0 +1,59 @@
+package app.revanced.integrations.patches.utils;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Classifies litho conversion contexts as like/dislike buttons.
+ * <p>
+ * Litho text hooks are called for every text element of the app, and almost all are unrelated to dislikes.
+ * The context string is scanned once for the suffix shared by all dislike buttons,
+ * and only a match is checked for the specific button prefixes.
+ * <p>
+ * Safe to use from any thread.
+ */
+final class ConversionContextClassifier {
+    /**
+     * Context is a regular video like/dislike segmented button.
+     */
+    static final int SEGMENTED_LIKE_DISLIKE_BUTTON = 1;
+    /**
+     * Context is a litho Shorts dislike button.
+     */
+    static final int SHORTS_DISLIKE_BUTTON = 1 << 1;
+
+    private static final String DISLIKE_BUTTON_SUFFIX = "dislike_button.eml|";
+    private static final String SEGMENTED_PREFIX = "|segmented_like_";
+    private static final String SHORTS_PREFIX = "|shorts_";
+
+    private ConversionContextClassifier() {
+    } // utility class
+
+    /**
+     * @return Bit flags of {@link #SEGMENTED_LIKE_DISLIKE_BUTTON} and {@link #SHORTS_DISLIKE_BUTTON},
+     * or zero if the context is not a dislike button.
+     */
+    static int classify(@NonNull Object conversionContext) {
+        // Results cannot be cached by context identity,
+        // as litho reuses context objects and the string changes with the path.
+        return classify(conversionContext.toString());
+    }
+
+    static int classify(@NonNull String conversionContext) {
+        int classification = 0;
+        int index = conversionContext.indexOf(DISLIKE_BUTTON_SUFFIX);
+        while (index >= 0) {
+            if (matchesPrefix(conversionContext, index, SEGMENTED_PREFIX)) {
+                classification |= SEGMENTED_LIKE_DISLIKE_BUTTON;
+            } else if (matchesPrefix(conversionContext, index, SHORTS_PREFIX)) {
+                classification |= SHORTS_DISLIKE_BUTTON;
+            }
+            index = conversionContext.indexOf(DISLIKE_BUTTON_SUFFIX, index + DISLIKE_BUTTON_SUFFIX.length());
+        }
+        return classification;
+    }
+
+    private static boolean matchesPrefix(@NonNull String string, int suffixIndex, @NonNull String prefix) {
+        final int prefixIndex = suffixIndex - prefix.length();
+        return prefixIndex >= 0 && string.startsWith(prefix, prefixIndex);
+    }
+}
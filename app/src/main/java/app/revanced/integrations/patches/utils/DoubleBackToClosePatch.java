@@ -2,13 +2,19 @@ package app.revanced.integrations.patches.utils;
 
 import android.app.Activity;
 
+import app.revanced.integrations.settings.SettingsChangeBus;
 import app.revanced.integrations.settings.SettingsEnum;
 
 public class DoubleBackToClosePatch {
     /**
      * Time between two back button presses
      */
-    private static final long PRESSED_TIMEOUT_MILLISECONDS = SettingsEnum.DOUBLE_BACK_TIMEOUT.getInt() * 1000L;
+    private static volatile long pressedTimeoutMilliseconds = getPressedTimeout();
+
+    static {
+        SettingsChangeBus.subscribe(setting -> pressedTimeoutMilliseconds = getPressedTimeout(),
+                SettingsEnum.DOUBLE_BACK_TIMEOUT);
+    }
 
     /**
      * Last time back button was pressed
@@ -20,6 +26,10 @@ public class DoubleBackToClosePatch {
      */
     private static boolean isScrollTop = false;
 
+    private static long getPressedTimeout() {
+        return SettingsEnum.DOUBLE_BACK_TIMEOUT.getInt() * 1000L;
+    }
+
     /**
      * Detect event when back button is pressed
      *
@@ -29,10 +39,10 @@ public class DoubleBackToClosePatch {
         // Check scroll position reaches the top in home feed
         if (!isScrollTop) return;
 
-        // If the time between two back button presses does not reach PRESSED_TIMEOUT_MILLISECONDS,
+        // If the time between two back button presses does not reach pressedTimeoutMilliseconds,
         // set lastTimeBackPressed to the current time.
-        if (System.currentTimeMillis() - lastTimeBackPressed < PRESSED_TIMEOUT_MILLISECONDS ||
-                PRESSED_TIMEOUT_MILLISECONDS == 0L)
+        if (System.currentTimeMillis() - lastTimeBackPressed < pressedTimeoutMilliseconds ||
+                pressedTimeoutMilliseconds == 0L)
             activity.finish();
         else
             lastTimeBackPressed = System.currentTimeMillis();
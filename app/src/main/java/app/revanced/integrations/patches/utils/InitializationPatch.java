@@ -14,6 +14,7 @@ import androidx.annotation.NonNull;
 
 import app.revanced.integrations.BuildConfig;
 import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.settings.SettingsLoader;
 import app.revanced.integrations.sponsorblock.SegmentPlaybackController;
 import app.revanced.integrations.utils.ReVancedHelper;
 
@@ -76,6 +77,8 @@ public class InitializationPatch {
     }
 
     public static void setDeviceInformation(@NonNull Context context) {
+        // Start reading settings on a background thread, before the main thread first needs them.
+        SettingsLoader.preloadInBackground();
         ReVancedHelper.setApplicationLabel(context);
         ReVancedHelper.setIsTablet(context);
         ReVancedHelper.setPackageName(context);
@@ -29,6 +29,7 @@ import app.revanced.integrations.shared.PlayerType;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
 import app.revanced.integrations.utils.ResourceType;
+import app.revanced.integrations.utils.TaskLane;
 
 /**
  * Handles all interaction of UI patch components.
@@ -211,9 +212,10 @@ public class ReturnYouTubeDislikePatch {
                 return original;
             }
 
-            String conversionContextString = conversionContext.toString();
-            if (!conversionContextString.contains("|shorts_dislike_button.eml|"))
+            if ((ConversionContextClassifier.classify(conversionContext)
+                    & ConversionContextClassifier.SHORTS_DISLIKE_BUTTON) == 0) {
                 return original;
+            }
 
             ReturnYouTubeDislike videoData = ReturnYouTubeDislike.getFetchForVideoId(VideoInformation.getVideoId());
             videoData.setVideoIdIsShort(true);
@@ -251,12 +253,14 @@ public class ReturnYouTubeDislikePatch {
                 return original;
             }
 
-            String conversionContextString = conversionContext.toString();
-            // Remove this log statement after the a/b new litho dislikes is fixed.
-            LogHelper.printDebug(ReturnYouTubeDislikePatch.class, "conversionContext: " + conversionContextString);
+            if (SettingsEnum.ENABLE_DEBUG_LOGGING.getBoolean()) {
+                // Remove this log statement after the a/b new litho dislikes is fixed.
+                LogHelper.printDebug(ReturnYouTubeDislikePatch.class, "conversionContext: " + conversionContext);
+            }
 
+            final int classification = ConversionContextClassifier.classify(conversionContext);
             final Spanned replacement;
-            if (conversionContextString.contains("|segmented_like_dislike_button.eml|")) {
+            if ((classification & ConversionContextClassifier.SEGMENTED_LIKE_DISLIKE_BUTTON) != 0) {
                 // Regular video
                 ReturnYouTubeDislike videoData = currentVideoData;
                 if (videoData == null) {
@@ -266,7 +270,7 @@ public class ReturnYouTubeDislikePatch {
                 // When spoofing between 17.09.xx and 17.30.xx the UI is the old layout but uses litho
                 // and the dislikes is "|dislike_button.eml|"
                 // but spoofing to that range gives a broken UI layout so no point checking for that.
-            } else if (conversionContextString.contains("|shorts_dislike_button.eml|")) {
+            } else if ((classification & ConversionContextClassifier.SHORTS_DISLIKE_BUTTON) != 0) {
                 // Litho Shorts player.
                 if (!SettingsEnum.RYD_SHORTS.getBoolean()) {
                     // Must clear the current video here, otherwise if the user opens a regular video
@@ -397,7 +401,7 @@ public class ReturnYouTubeDislikePatch {
             if (videoData.fetchCompleted()) {
                 update.run(); // Network call is completed, no need to wait on background thread.
             } else {
-                ReVancedUtils.runOnBackgroundThread(update);
+                TaskLane.LATENCY_CRITICAL.execute(update);
             }
         } catch (Exception ex) {
             LogHelper.printException(ReturnYouTubeDislikePatch.class, "updateOnScreenShortsTextViews failure", ex);
@@ -0,0 +1,120 @@
+package app.revanced.integrations.patches.video;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Estimates the current playback position between the player position updates.
+ * <p>
+ * The player reports the position at a coarse interval. Each report is saved with the monotonic time it was received,
+ * and while the video is playing the position is extrapolated using the elapsed time and the playback speed.
+ * <p>
+ * Extrapolation is limited to {@link #MAXIMUM_EXTRAPOLATION_MILLISECONDS} after the last report,
+ * so if the player stops reporting (such as while buffering) the estimate does not run ahead of the video.
+ * <p>
+ * Updates must be made on the main thread. The position can be read from any thread.
+ */
+final class PlaybackClock {
+
+    interface TimeSource {
+        /**
+         * @return Monotonic time in milliseconds.
+         */
+        long uptimeMillis();
+    }
+
+    /**
+     * Player position updates are about 1000ms apart.
+     * Allow some extra time for a late update, but not so much that a buffering video is far ahead of the estimate.
+     */
+    static final long MAXIMUM_EXTRAPOLATION_MILLISECONDS = 1200;
+
+    /**
+     * Immutable so the position can be read from any thread without locking.
+     */
+    private static final class Anchor {
+        /**
+         * Position of the video in milliseconds, or -1 if not known.
+         */
+        final long position;
+        /**
+         * {@link TimeSource#uptimeMillis()} when the position was set.
+         */
+        final long time;
+        final boolean playing;
+
+        Anchor(long position, long time, boolean playing) {
+            this.position = position;
+            this.time = time;
+            this.playing = playing;
+        }
+    }
+
+    @NonNull
+    private final TimeSource timeSource;
+
+    @NonNull
+    private volatile Anchor anchor;
+
+    PlaybackClock() {
+        this(SystemClock::uptimeMillis);
+    }
+
+    PlaybackClock(@NonNull TimeSource timeSource) {
+        this.timeSource = Objects.requireNonNull(timeSource);
+        anchor = new Anchor(-1, timeSource.uptimeMillis(), false);
+    }
+
+    /**
+     * Clears the position, such as when a new player is created.
+     */
+    void reset(boolean playing) {
+        anchor = new Anchor(-1, timeSource.uptimeMillis(), playing);
+    }
+
+    /**
+     * The player reported the playback position.
+     */
+    void onPositionReported(long position) {
+        anchor = new Anchor(position, timeSource.uptimeMillis(), anchor.playing);
+    }
+
+    /**
+     * The video was seeked.
+     */
+    void onSeek(long position) {
+        anchor = new Anchor(position, timeSource.uptimeMillis(), anchor.playing);
+    }
+
+    /**
+     * Playback was started or stopped. The position is frozen while not playing.
+     */
+    void onPlayingChanged(boolean playing, float speed) {
+        final long now = timeSource.uptimeMillis();
+        Anchor current = anchor;
+        if (current.playing == playing) return;
+        anchor = new Anchor(extrapolate(current, now, speed), now, playing);
+    }
+
+    /**
+     * @param speed Current playback speed.
+     * @return The estimated playback position in milliseconds, or -1 if not known.
+     */
+    long getPosition(float speed) {
+        return extrapolate(anchor, timeSource.uptimeMillis(), speed);
+    }
+
+    private static long extrapolate(@NonNull Anchor anchor, long now, float speed) {
+        if (!anchor.playing || anchor.position < 0) {
+            return anchor.position;
+        }
+        if (speed <= 0) {
+            speed = 1.0f; // Speed is not yet known.
+        }
+        final long elapsed = Math.min(Math.max(0, now - anchor.time), MAXIMUM_EXTRAPOLATION_MILLISECONDS);
+        return anchor.position + (long) (elapsed * speed);
+    }
+}
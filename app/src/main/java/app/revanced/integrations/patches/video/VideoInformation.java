@@ -14,6 +14,7 @@ import app.revanced.integrations.shared.VideoState;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
 import app.revanced.integrations.utils.VideoHelpers;
+import app.revanced.integrations.utils.VideoTaskScope;
 
 /**
  * Hooking class for the current playing video.
@@ -30,6 +31,15 @@ public final class VideoInformation {
     private static long videoLength = 0;
     private static long videoTime = -1;
 
+    private static final PlaybackClock playbackClock = new PlaybackClock();
+
+    static {
+        VideoState.getOnChange().addObserver((VideoState state) -> {
+            playbackClock.onPlayingChanged(state == VideoState.PLAYING, VideoHelpers.getCurrentSpeed());
+            return null;
+        });
+    }
+
     /**
      * Injection point.
      *
@@ -40,6 +50,7 @@ public final class VideoInformation {
             playerControllerRef = new WeakReference<>(Objects.requireNonNull(playerController));
             videoLength = 0;
             videoTime = -1;
+            playbackClock.reset(VideoState.getCurrent() == VideoState.PLAYING);
 
             seekMethod = playerController.getClass().getMethod(SEEK_METHOD_NAME, Long.TYPE);
             seekMethod.setAccessible(true);
@@ -61,7 +72,11 @@ public final class VideoInformation {
     public static boolean seekTo(long millisecond) {
         ReVancedUtils.verifyOnMainThread();
         try {
-            return (Boolean) seekMethod.invoke(playerControllerRef.get(), millisecond);
+            final boolean seekResult = (Boolean) seekMethod.invoke(playerControllerRef.get(), millisecond);
+            if (seekResult) {
+                playbackClock.onSeek(millisecond);
+            }
+            return seekResult;
         } catch (Exception ex) {
             LogHelper.printException(VideoInformation.class, "Failed to seek", ex);
             return false;
@@ -69,7 +84,7 @@ public final class VideoInformation {
     }
 
     public static void seekToRelative(long millisecondsRelative) {
-        seekTo(videoTime + millisecondsRelative);
+        seekTo(getPlaybackTime() + millisecondsRelative);
     }
 
     public static void reloadVideo() {
@@ -123,6 +138,7 @@ public final class VideoInformation {
             return;
 
         videoId = newlyLoadedVideoId;
+        VideoTaskScope.setCurrentVideoId(newlyLoadedVideoId);
     }
 
     /**
@@ -161,6 +177,21 @@ public final class VideoInformation {
         return videoTime;
     }
 
+    /**
+     * Estimated playback time of the current video playing.  Includes Shorts.
+     * <p>
+     * Unlike {@link #getVideoTime()}, this does not lag behind the actual playback time.
+     * The last time reported by the player is extrapolated using the elapsed time and the playback speed,
+     * and is not extrapolated while the video is paused.
+     *
+     * @return The time of the video in milliseconds. -1 if not set yet.
+     */
+    public static long getPlaybackTime() {
+        final long time = playbackClock.getPosition(VideoHelpers.getCurrentSpeed());
+        final long length = videoLength;
+        return (length > 0 && time > length) ? length : time;
+    }
+
     /**
      * Injection point.
      * Called on the main thread every 1000ms.
@@ -169,6 +200,7 @@ public final class VideoInformation {
      */
     public static void setVideoTime(final long time) {
         videoTime = time;
+        playbackClock.onPositionReported(time);
     }
 
     /**
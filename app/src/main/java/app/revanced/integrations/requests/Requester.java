@@ -8,6 +8,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
@@ -20,6 +21,7 @@ public class Requester {
     }
 
     public static HttpURLConnection getConnectionFromCompiledRoute(String apiUrl, Route.CompiledRoute route) throws IOException {
+        throwIfCancelled();
         String url = apiUrl + route.getCompiledRoute();
         HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
         connection.setRequestMethod(route.getMethod().name());
@@ -27,6 +29,18 @@ public class Requester {
         return connection;
     }
 
+    /**
+     * Stops the request if the calling task was cancelled,
+     * such as a task of a {@link app.revanced.integrations.utils.VideoTaskScope} for a video the user is no longer watching.
+     *
+     * @throws InterruptedIOException if the calling thread was interrupted.
+     */
+    public static void throwIfCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Request cancelled");
+        }
+    }
+
     /**
      * Parse the {@link HttpURLConnection}, and closes the underlying InputStream.
      */
@@ -44,6 +58,7 @@ public class Requester {
             StringBuilder jsonBuilder = new StringBuilder();
             String line;
             while ((line = reader.readLine()) != null) {
+                throwIfCancelled();
                 jsonBuilder.append(line);
                 if (!stripNewLineCharacters)
                     jsonBuilder.append("\n");
@@ -0,0 +1,186 @@
+package app.revanced.integrations.returnyoutubedislike;
+
+import android.icu.text.CompactDecimalFormat;
+
+import androidx.annotation.NonNull;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.revanced.integrations.utils.LogHelper;
+
+/**
+ * Formats dislike counts and percentages. Safe to use from any thread.
+ * <p>
+ * Each thread keeps its own formatters, as the formatters are not thread safe,
+ * and recently formatted values are shared by all threads.
+ */
+final class DislikeValueFormatter {
+
+    /**
+     * Number formatters for one locale. Not thread safe.
+     */
+    interface Formatters {
+        @NonNull
+        String formatCount(long dislikeCount);
+
+        @NonNull
+        String formatPercentage(float dislikePercentage);
+    }
+
+    interface FormattersFactory {
+        @NonNull
+        Formatters create(@NonNull Locale locale);
+    }
+
+    /**
+     * Formats using the Android ICU formatters.
+     */
+    static final FormattersFactory ICU_FORMATTERS = IcuFormatters::new;
+
+    private static final class IcuFormatters implements Formatters {
+        /**
+         * For formatting dislikes as number.
+         */
+        @NonNull
+        private final CompactDecimalFormat countFormatter;
+        /**
+         * For formatting dislikes as percentage. Shows only whole percentage points.
+         */
+        @NonNull
+        private final NumberFormat percentageFormatter;
+        /**
+         * For formatting dislikes less than 1%. Shows up to 1 digit precision.
+         */
+        @NonNull
+        private final NumberFormat smallPercentageFormatter;
+
+        IcuFormatters(@NonNull Locale locale) {
+            // Note: Java number formatters will use the locale specific number characters.
+            // such as Arabic which formats "1.234" into "۱,۲۳٤"
+            // But YouTube disregards locale specific number characters
+            // and instead shows english number characters everywhere.
+            countFormatter = CompactDecimalFormat.getInstance(locale, CompactDecimalFormat.CompactStyle.SHORT);
+            percentageFormatter = NumberFormat.getPercentInstance(locale);
+            percentageFormatter.setMaximumFractionDigits(0);
+            smallPercentageFormatter = NumberFormat.getPercentInstance(locale);
+            smallPercentageFormatter.setMaximumFractionDigits(1);
+        }
+
+        @NonNull
+        @Override
+        public String formatCount(long dislikeCount) {
+            return countFormatter.format(dislikeCount);
+        }
+
+        @NonNull
+        @Override
+        public String formatPercentage(float dislikePercentage) {
+            return (dislikePercentage >= 0.01) // at least 1%
+                    ? percentageFormatter.format(dislikePercentage)
+                    : smallPercentageFormatter.format(dislikePercentage);
+        }
+    }
+
+    private static final class ThreadFormatters {
+        @NonNull
+        final Locale locale;
+        @NonNull
+        final Formatters formatters;
+
+        ThreadFormatters(@NonNull Locale locale, @NonNull Formatters formatters) {
+            this.locale = locale;
+            this.formatters = formatters;
+        }
+    }
+
+    /**
+     * Formatted values of one locale. Safe to use from any thread.
+     */
+    private static final class FormattedValueCache {
+        @NonNull
+        final Locale locale;
+        final Map<Long, String> counts = new ConcurrentHashMap<>();
+        final Map<Float, String> percentages = new ConcurrentHashMap<>();
+
+        FormattedValueCache(@NonNull Locale locale) {
+            this.locale = locale;
+        }
+    }
+
+    /**
+     * Maximum number of values of each type.
+     * The cache is cleared when full, as the values seen again are mostly those of the current screen.
+     */
+    static final int CACHE_LIMIT = 200;
+
+    @NonNull
+    private final FormattersFactory factory;
+    /**
+     * Number formatters of the current thread.
+     */
+    private final ThreadLocal<ThreadFormatters> threadFormatters = new ThreadLocal<>();
+    /**
+     * Recently formatted dislike counts and percentages.
+     * Many videos and comments show the same values, and formatting is much slower than a lookup.
+     */
+    @NonNull
+    private volatile FormattedValueCache formattedValueCache = new FormattedValueCache(Locale.ROOT);
+
+    DislikeValueFormatter(@NonNull FormattersFactory factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    @NonNull
+    private Formatters getFormatters(@NonNull Locale locale) {
+        ThreadFormatters current = threadFormatters.get();
+        if (current == null || !current.locale.equals(locale)) {
+            LogHelper.printDebug(DislikeValueFormatter.class, "Locale: " + locale);
+            current = new ThreadFormatters(locale, factory.create(locale));
+            threadFormatters.set(current);
+        }
+        return current.formatters;
+    }
+
+    @NonNull
+    private FormattedValueCache getFormattedValueCache(@NonNull Locale locale) {
+        FormattedValueCache cache = formattedValueCache;
+        if (!cache.locale.equals(locale)) {
+            cache = new FormattedValueCache(locale);
+            formattedValueCache = cache;
+        }
+        return cache;
+    }
+
+    private static <T> void put(@NonNull Map<T, String> cache, @NonNull T value, @NonNull String formatted) {
+        if (cache.size() >= CACHE_LIMIT) {
+            cache.clear();
+        }
+        cache.put(value, formatted);
+    }
+
+    @NonNull
+    String formatCount(@NonNull Locale locale, long dislikeCount) {
+        Map<Long, String> counts = getFormattedValueCache(locale).counts;
+        String formatted = counts.get(dislikeCount);
+        if (formatted == null) {
+            formatted = getFormatters(locale).formatCount(dislikeCount);
+            put(counts, dislikeCount, formatted);
+        }
+        return formatted;
+    }
+
+    @NonNull
+    String formatPercentage(@NonNull Locale locale, float dislikePercentage) {
+        Map<Float, String> percentages = getFormattedValueCache(locale).percentages;
+        String formatted = percentages.get(dislikePercentage);
+        if (formatted == null) {
+            formatted = getFormatters(locale).formatPercentage(dislikePercentage);
+            put(percentages, dislikePercentage, formatted);
+        }
+        return formatted;
+    }
+}
@@ -9,7 +9,6 @@ import android.graphics.drawable.Drawable;
 import android.graphics.drawable.ShapeDrawable;
 import android.graphics.drawable.shapes.OvalShape;
 import android.graphics.drawable.shapes.RectShape;
-import android.icu.text.CompactDecimalFormat;
 import android.text.Spannable;
 import android.text.SpannableString;
 import android.text.SpannableStringBuilder;
@@ -23,11 +22,12 @@ import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.text.NumberFormat;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -41,7 +41,9 @@ import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.shared.PlayerType;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 import app.revanced.integrations.utils.ThemeHelper;
+import app.revanced.integrations.utils.VideoTaskScope;
 
 /**
  * Handles fetching and creation/replacing of RYD dislike text spans.
@@ -83,16 +85,12 @@ public class ReturnYouTubeDislike {
     // Used for segmented dislike spans in Litho regular player.
     private static final Rect leftSeparatorBounds;
     private static final Rect middleSeparatorBounds;
+    private static final DislikeValueFormatter valueFormatter = new DislikeValueFormatter(DislikeValueFormatter.ICU_FORMATTERS);
     /**
-     * For formatting dislikes as number.
+     * Separator span templates, keyed by {@link #separatorTemplateKey(boolean, boolean, int)}.
+     * The spans do not change once created, and are shared by all dislike spans.
      */
-    @GuardedBy("ReturnYouTubeDislike.class") // not thread safe
-    private static CompactDecimalFormat dislikeCountFormatter;
-    /**
-     * For formatting dislikes as percentage.
-     */
-    @GuardedBy("ReturnYouTubeDislike.class")
-    private static NumberFormat dislikePercentageFormatter;
+    private static final Map<Long, Spanned> separatorTemplates = new ConcurrentHashMap<>();
 
     static {
         DisplayMetrics dp = Objects.requireNonNull(ReVancedUtils.getContext()).getResources().getDisplayMetrics();
@@ -143,7 +141,8 @@ public class ReturnYouTubeDislike {
     private ReturnYouTubeDislike(@NonNull String videoId) {
         this.videoId = Objects.requireNonNull(videoId);
         this.timeFetched = System.currentTimeMillis();
-        this.future = ReVancedUtils.submitOnBackgroundThread(() -> ReturnYouTubeDislikeApi.fetchVotes(videoId));
+        this.future = VideoTaskScope.forVideo(videoId).submit(TaskLane.NETWORK,
+                () -> ReturnYouTubeDislikeApi.fetchVotes(videoId), TaskLane.PRIORITY_NORMAL);
     }
 
     /**
@@ -187,33 +186,14 @@ public class ReturnYouTubeDislike {
 
         if (!compactLayout) {
             // left separator
-            String leftSeparatorString = ReVancedUtils.isRightToLeftTextLayout()
-                    ? "\u200F    "  // u200F = right to left character
-                    : "\u200E    "; // u200E = left to right character
-            Spannable leftSeparatorSpan = new SpannableString(leftSeparatorString);
-            ShapeDrawable shapeDrawable = new ShapeDrawable(new RectShape());
-            shapeDrawable.getPaint().setColor(separatorColor);
-            shapeDrawable.setBounds(leftSeparatorBounds);
-            leftSeparatorSpan.setSpan(new VerticallyCenteredImageSpan(shapeDrawable), 1, 2,
-                    Spannable.SPAN_INCLUSIVE_EXCLUSIVE); // drawable cannot overwrite RTL or LTR character
-            builder.append(leftSeparatorSpan);
+            builder.append(getSeparatorTemplate(true, ReVancedUtils.isRightToLeftTextLayout(), separatorColor));
         }
 
         // likes
         builder.append(newSpanUsingStylingOfAnotherSpan(oldSpannable, oldLikesString));
 
         // middle separator
-        String middleSeparatorString = compactLayout
-                ? "  " + MIDDLE_SEPARATOR_CHARACTER + "  "
-                : "  \u2009" + MIDDLE_SEPARATOR_CHARACTER + "\u2009  "; // u2009 = 'narrow space' character
-        final int shapeInsertionIndex = middleSeparatorString.length() / 2;
-        Spannable middleSeparatorSpan = new SpannableString(middleSeparatorString);
-        ShapeDrawable shapeDrawable = new ShapeDrawable(new OvalShape());
-        shapeDrawable.getPaint().setColor(separatorColor);
-        shapeDrawable.setBounds(middleSeparatorBounds);
-        middleSeparatorSpan.setSpan(new VerticallyCenteredImageSpan(shapeDrawable), shapeInsertionIndex, shapeInsertionIndex + 1,
-                Spannable.SPAN_INCLUSIVE_EXCLUSIVE);
-        builder.append(middleSeparatorSpan);
+        builder.append(getSeparatorTemplate(false, compactLayout, separatorColor));
 
         // dislikes
         builder.append(newSpannableWithDislikes(oldSpannable, voteData));
@@ -277,41 +257,59 @@ public class ReturnYouTubeDislike {
         return destination;
     }
 
+    private static long separatorTemplateKey(boolean leftSeparator, boolean option, int color) {
+        return ((color & 0xFFFFFFFFL) << 2) | (leftSeparator ? 0b10 : 0) | (option ? 0b01 : 0);
+    }
+
     /**
-     * @noinspection deprecation
+     * @param leftSeparator If the left separator, otherwise the middle separator.
+     * @param option        For the left separator, if the layout is right to left.
+     *                      For the middle separator, if the layout is compact.
      */
-    private static String formatDislikeCount(long dislikeCount) {
-        synchronized (ReturnYouTubeDislike.class) { // number formatter is not thread safe, must synchronize
-            if (dislikeCountFormatter == null) {
-                // Note: Java number formatters will use the locale specific number characters.
-                // such as Arabic which formats "1.234" into "۱,۲۳٤"
-                // But YouTube disregards locale specific number characters
-                // and instead shows english number characters everywhere.
-                Locale locale = Objects.requireNonNull(ReVancedUtils.getContext()).getResources().getConfiguration().locale;
-                LogHelper.printDebug(ReturnYouTubeDislike.class, "Locale: " + locale);
-                dislikeCountFormatter = CompactDecimalFormat.getInstance(locale, CompactDecimalFormat.CompactStyle.SHORT);
+    @NonNull
+    private static Spanned getSeparatorTemplate(boolean leftSeparator, boolean option, int color) {
+        return separatorTemplates.computeIfAbsent(separatorTemplateKey(leftSeparator, option, color), key -> {
+            if (leftSeparator) {
+                String leftSeparatorString = option
+                        ? "\u200F    "  // u200F = right to left character
+                        : "\u200E    "; // u200E = left to right character
+                SpannableString leftSeparatorSpan = new SpannableString(leftSeparatorString);
+                ShapeDrawable shapeDrawable = new ShapeDrawable(new RectShape());
+                shapeDrawable.getPaint().setColor(color);
+                shapeDrawable.setBounds(leftSeparatorBounds);
+                leftSeparatorSpan.setSpan(new VerticallyCenteredImageSpan(shapeDrawable), 1, 2,
+                        Spannable.SPAN_INCLUSIVE_EXCLUSIVE); // drawable cannot overwrite RTL or LTR character
+                return leftSeparatorSpan;
             }
-            return dislikeCountFormatter.format(dislikeCount);
-        }
+
+            String middleSeparatorString = option
+                    ? "  " + MIDDLE_SEPARATOR_CHARACTER + "  "
+                    : "  \u2009" + MIDDLE_SEPARATOR_CHARACTER + "\u2009  "; // u2009 = 'narrow space' character
+            final int shapeInsertionIndex = middleSeparatorString.length() / 2;
+            SpannableString middleSeparatorSpan = new SpannableString(middleSeparatorString);
+            ShapeDrawable shapeDrawable = new ShapeDrawable(new OvalShape());
+            shapeDrawable.getPaint().setColor(color);
+            shapeDrawable.setBounds(middleSeparatorBounds);
+            middleSeparatorSpan.setSpan(new VerticallyCenteredImageSpan(shapeDrawable), shapeInsertionIndex, shapeInsertionIndex + 1,
+                    Spannable.SPAN_INCLUSIVE_EXCLUSIVE);
+            return middleSeparatorSpan;
+        });
     }
 
     /**
      * @noinspection deprecation
      */
+    @NonNull
+    private static Locale getLocale() {
+        return Objects.requireNonNull(ReVancedUtils.getContext()).getResources().getConfiguration().locale;
+    }
+
+    private static String formatDislikeCount(long dislikeCount) {
+        return valueFormatter.formatCount(getLocale(), dislikeCount);
+    }
+
     private static String formatDislikePercentage(float dislikePercentage) {
-        synchronized (ReturnYouTubeDislike.class) { // number formatter is not thread safe, must synchronize
-            if (dislikePercentageFormatter == null) {
-                Locale locale = Objects.requireNonNull(ReVancedUtils.getContext()).getResources().getConfiguration().locale;
-                LogHelper.printDebug(ReturnYouTubeDislike.class, "Locale: " + locale);
-                dislikePercentageFormatter = NumberFormat.getPercentInstance(locale);
-            }
-            if (dislikePercentage >= 0.01) { // at least 1%
-                dislikePercentageFormatter.setMaximumFractionDigits(0); // show only whole percentage points
-            } else {
-                dislikePercentageFormatter.setMaximumFractionDigits(1); // show up to 1 digit precision
-            }
-            return dislikePercentageFormatter.format(dislikePercentage);
-        }
+        return valueFormatter.formatPercentage(getLocale(), dislikePercentage);
     }
 
     @NonNull
@@ -348,6 +346,9 @@ public class ReturnYouTubeDislike {
     }
 
     private boolean isExpired(long now) {
+        if (future.isCancelled()) {
+            return true; // User changed videos before the fetch completed.
+        }
         final long timeSinceCreation = now - timeFetched;
         if (timeSinceCreation < CACHE_TIMEOUT_FAILURE_MILLISECONDS) {
             return false; // Not expired, even if the API call failed.
@@ -365,6 +366,8 @@ public class ReturnYouTubeDislike {
             return future.get(maxTimeToWait, TimeUnit.MILLISECONDS);
         } catch (TimeoutException ex) {
             LogHelper.printDebug(ReturnYouTubeDislike.class, "Waited but future was not complete after: " + maxTimeToWait + "ms");
+        } catch (CancellationException ex) {
+            LogHelper.printDebug(ReturnYouTubeDislike.class, "Fetch was cancelled: " + videoId);
         } catch (ExecutionException | InterruptedException ex) {
             LogHelper.printException(ReturnYouTubeDislike.class, "Future failure ", ex); // will never happen
         }
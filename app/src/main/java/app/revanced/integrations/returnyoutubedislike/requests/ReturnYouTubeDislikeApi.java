@@ -12,6 +12,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.ProtocolException;
@@ -174,6 +175,10 @@ public class ReturnYouTubeDislikeApi {
         } catch (
                 SocketTimeoutException ex) { // connection timed out, response timeout, or some other network error
             handleConnectionError((str("revanced_ryd_failure_connection_timeout")), ex);
+        } catch (InterruptedIOException ex) {
+            // User changed videos and the fetch was cancelled.
+            LogHelper.printDebug(ReturnYouTubeDislikeApi.class, "Fetch cancelled for: " + videoId);
+            return null;
         } catch (IOException ex) {
             handleConnectionError((str("revanced_ryd_failure_generic", ex.getMessage())), ex);
         } catch (Exception ex) {
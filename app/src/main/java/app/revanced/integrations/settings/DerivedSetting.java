@@ -0,0 +1,124 @@
+package app.revanced.integrations.settings;
+
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import app.revanced.integrations.utils.LogHelper;
+
+/**
+ * A value parsed from a {@link SettingsEnum}, such as a list of strings or a color.
+ * <p>
+ * The value is parsed on first use, and parsed again only after the setting value changes.
+ * Change detection uses the identity of the setting value object, so there is no window
+ * where a value parsed from an old setting value can be returned after the setting has changed.
+ * <p>
+ * Safe to use from any thread. If two threads parse at the same time, both results are equal.
+ */
+public final class DerivedSetting<T> {
+
+    public interface Parser<T> {
+        /**
+         * @param value The setting value, of the setting {@link SettingsEnum.ReturnType}.
+         * @throws Exception If the value is not valid. The fallback value is then used.
+         */
+        @Nullable
+        T parse(@NonNull Object value) throws Exception;
+    }
+
+    private static final class Parsed<T> {
+        @NonNull
+        final Object source;
+        @Nullable
+        final T value;
+
+        Parsed(@NonNull Object source, @Nullable T value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+
+    @NonNull
+    private final SettingsEnum setting;
+    @NonNull
+    private final Parser<T> parser;
+    @Nullable
+    private final T fallback;
+    @Nullable
+    private volatile Parsed<T> parsed;
+
+    public DerivedSetting(@NonNull SettingsEnum setting, @NonNull Parser<T> parser, @Nullable T fallback) {
+        this.setting = Objects.requireNonNull(setting);
+        this.parser = Objects.requireNonNull(parser);
+        this.fallback = fallback;
+    }
+
+    /**
+     * Non empty lines of a string setting.
+     */
+    @NonNull
+    public static DerivedSetting<List<String>> lines(@NonNull SettingsEnum setting) {
+        return new DerivedSetting<>(setting, value -> split((String) value, "\\n"), Collections.emptyList());
+    }
+
+    /**
+     * Non empty lines of a string setting, for exact matching.
+     */
+    @NonNull
+    public static DerivedSetting<Set<String>> lineSet(@NonNull SettingsEnum setting) {
+        return new DerivedSetting<>(setting,
+                value -> Collections.unmodifiableSet(new HashSet<>(split((String) value, "\\n"))),
+                Collections.emptySet());
+    }
+
+    /**
+     * A color string setting, such as <code>#ff0000</code>. Null if the setting is not a valid color.
+     */
+    @NonNull
+    public static DerivedSetting<Integer> color(@NonNull SettingsEnum setting) {
+        return new DerivedSetting<>(setting, value -> Color.parseColor((String) value), null);
+    }
+
+    @NonNull
+    private static List<String> split(@NonNull String value, @NonNull String regex) {
+        List<String> list = new ArrayList<>(Arrays.asList(value.split(regex)));
+        list.removeIf(String::isEmpty);
+        return Collections.unmodifiableList(list);
+    }
+
+    @NonNull
+    public SettingsEnum getSetting() {
+        return setting;
+    }
+
+    /**
+     * @return The parsed value, or the fallback value if the setting is not valid.
+     */
+    @Nullable
+    public T get() {
+        final Object source = setting.getObjectValue();
+        Parsed<T> current = parsed;
+        if (current != null && current.source == source) {
+            return current.value;
+        }
+
+        T value;
+        try {
+            value = parser.parse(source);
+        } catch (Exception ex) {
+            LogHelper.printException(DerivedSetting.class, "Invalid value: " + source + " for: " + setting, ex);
+            value = fallback;
+        }
+        parsed = new Parsed<>(source, value);
+        return value;
+    }
+}
@@ -0,0 +1,267 @@
+package app.revanced.integrations.settings;
+
+import static app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames.REVANCED;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import app.revanced.integrations.utils.LogHelper;
+import app.revanced.integrations.utils.SharedPrefHelper;
+
+/**
+ * Import and export of all {@link SettingsEnum} settings stored in the ReVanced preferences.
+ * <p>
+ * The backup is a JSON object:
+ * <pre>
+ * {
+ *   "format": "revanced-settings",
+ *   "version": 1,
+ *   "settings": { "revanced_some_setting": true, "revanced_other_setting": 5, ... }
+ * }
+ * </pre>
+ * Boolean and number settings are written using their JSON type.
+ * Files exported by older versions (a flat object of preference keys, without a header) are also accepted.
+ * <p>
+ * An import either saves all valid settings in a single preference commit, or saves nothing.
+ * Entries that are unknown or have a value not valid for the setting type are skipped and reported.
+ */
+public final class SettingsBackup {
+    private static final String FORMAT = "revanced-settings";
+    /**
+     * Version 0 is the older headerless format.
+     */
+    private static final int VERSION = 1;
+
+    private static final String KEY_FORMAT = "format";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_SETTINGS = "settings";
+
+    public static final class ImportResult {
+        /**
+         * Number of settings saved.
+         */
+        public final int importedCount;
+        /**
+         * Description of each entry that was skipped.
+         */
+        @NonNull
+        public final List<String> errors;
+        /**
+         * If a changed setting only takes effect after the app is restarted.
+         */
+        public final boolean rebootRequired;
+
+        ImportResult(int importedCount, @NonNull List<String> errors, boolean rebootRequired) {
+            this.importedCount = importedCount;
+            this.errors = Collections.unmodifiableList(errors);
+            this.rebootRequired = rebootRequired;
+        }
+    }
+
+    private SettingsBackup() {
+    } // utility class
+
+    /**
+     * Writes the current value of every setting. The stream is closed when finished.
+     */
+    public static void exportSettings(@NonNull OutputStream out) throws IOException {
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            JSONObject settings = new JSONObject();
+            for (SettingsEnum setting : SettingsEnum.values()) {
+                if (!isExportable(setting)) continue;
+                // Booleans and numbers keep their JSON type.
+                settings.put(setting.path, setting.getObjectValue());
+            }
+
+            JSONObject backup = new JSONObject();
+            backup.put(KEY_FORMAT, FORMAT);
+            backup.put(KEY_VERSION, VERSION);
+            backup.put(KEY_SETTINGS, settings);
+            writer.write(backup.toString(2));
+        } catch (JSONException ex) {
+            throw new IOException("Failed to write backup", ex); // should never happen
+        }
+    }
+
+    /**
+     * Reads a backup and saves all valid settings. Settings that do not need a reboot are applied immediately.
+     * The stream is closed when finished.
+     *
+     * @throws IOException If the data is not a valid backup. If thrown, no settings were changed.
+     */
+    @NonNull
+    public static ImportResult importSettings(@NonNull InputStream in) throws IOException {
+        SharedPreferences preferences = SharedPrefHelper.getPreferences(REVANCED);
+        if (preferences == null) {
+            in.close();
+            throw new IOException("Context is null");
+        }
+        return importSettings(in, preferences);
+    }
+
+    @NonNull
+    static ImportResult importSettings(@NonNull InputStream in, @NonNull SharedPreferences preferences) throws IOException {
+        Map<SettingsEnum, Object> imported = new EnumMap<>(SettingsEnum.class);
+        List<String> errors = new ArrayList<>();
+        int version = 0;
+
+        try {
+            JSONTokener tokener = new JSONTokener(readText(in));
+            if (!(tokener.nextValue() instanceof JSONObject backup)) {
+                throw new IOException("Backup is not a JSON object");
+            }
+            if (tokener.nextClean() != 0) {
+                throw new IOException("Unexpected data after backup");
+            }
+
+            for (Iterator<String> keys = backup.keys(); keys.hasNext(); ) {
+                String name = keys.next();
+                Object value = backup.get(name);
+                switch (name) {
+                    case KEY_FORMAT -> {
+                        if (!FORMAT.equals(value)) {
+                            throw new IOException("Unknown backup format: " + value);
+                        }
+                    }
+                    case KEY_VERSION -> {
+                        if (!(value instanceof Integer number)) {
+                            throw new IOException("Malformed backup version: " + value);
+                        }
+                        version = number;
+                    }
+                    case KEY_SETTINGS -> {
+                        if (!(value instanceof JSONObject settings)) {
+                            throw new IOException("Malformed backup settings");
+                        }
+                        for (Iterator<String> settingKeys = settings.keys(); settingKeys.hasNext(); ) {
+                            String key = settingKeys.next();
+                            readEntry(key, settings.get(key), imported, errors);
+                        }
+                    }
+                    // Version 0 has no header, and all entries are at the top level.
+                    default -> readEntry(name, value, imported, errors);
+                }
+            }
+        } catch (JSONException ex) {
+            throw new IOException("Malformed backup", ex);
+        }
+
+        if (version > VERSION) {
+            throw new IOException("Backup version " + version + " is newer than supported version " + VERSION);
+        }
+
+        return apply(preferences, imported, errors);
+    }
+
+    /**
+     * Reads all text, and closes the stream.
+     */
+    @NonNull
+    private static String readText(@NonNull InputStream in) throws IOException {
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[8192];
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, length);
+            }
+            return builder.toString();
+        }
+    }
+
+    private static boolean isExportable(@NonNull SettingsEnum setting) {
+        return setting.sharedPref == REVANCED;
+    }
+
+    private static void readEntry(@NonNull String key, @NonNull Object jsonValue,
+                                  @NonNull Map<SettingsEnum, Object> imported,
+                                  @NonNull List<String> errors) {
+        SettingsEnum setting = SettingsEnum.settingFromPath(key);
+        if (setting == null || !isExportable(setting)) {
+            errors.add(key + ": unknown setting");
+            return;
+        }
+
+        Object value = toPrimitive(jsonValue);
+        Object parsed = value == null
+                ? null
+                : SettingsLoader.parse(setting.returnType, value);
+        if (parsed == null) {
+            errors.add(key + ": value '" + value + "' is not a valid " + setting.returnType);
+            return;
+        }
+        imported.put(setting, parsed);
+    }
+
+    /**
+     * @return A Boolean, a String (numbers are returned as their text),
+     * or null if the value is not a JSON primitive.
+     */
+    @Nullable
+    private static Object toPrimitive(@NonNull Object jsonValue) {
+        if (jsonValue instanceof Boolean || jsonValue instanceof String) {
+            return jsonValue;
+        }
+        if (jsonValue instanceof Number) {
+            return jsonValue.toString();
+        }
+        return null; // Object, array or null.
+    }
+
+    @NonNull
+    private static ImportResult apply(@NonNull SharedPreferences preferences,
+                                      @NonNull Map<SettingsEnum, Object> imported,
+                                      @NonNull List<String> errors) throws IOException {
+        SharedPreferences.Editor editor = preferences.edit();
+        for (Map.Entry<SettingsEnum, Object> entry : imported.entrySet()) {
+            SettingsEnum setting = entry.getKey();
+            Object value = entry.getValue();
+            if (setting.returnType == SettingsEnum.ReturnType.BOOLEAN) {
+                editor.putBoolean(setting.path, (Boolean) value);
+            } else {
+                editor.putString(setting.path, value.toString());
+            }
+        }
+        if (!editor.commit()) {
+            throw new IOException("Failed to save imported settings");
+        }
+
+        boolean rebootRequired = false;
+        for (Map.Entry<SettingsEnum, Object> entry : imported.entrySet()) {
+            SettingsEnum setting = entry.getKey();
+            Object value = entry.getValue();
+            if (setting.rebootApp && !value.equals(setting.getObjectValue())) {
+                rebootRequired = true;
+            }
+            SettingsEnum.setImportedValue(setting, value);
+        }
+
+        for (String error : errors) {
+            LogHelper.printDebug(SettingsBackup.class, "Skipped: " + error);
+        }
+        LogHelper.printDebug(SettingsBackup.class, "Imported " + imported.size() + " settings, skipped: "
+                + errors.size() + " reboot required: " + rebootRequired);
+        return new ImportResult(imported.size(), errors, rebootRequired);
+    }
+}
@@ -0,0 +1,80 @@
+package app.revanced.integrations.settings;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import app.revanced.integrations.utils.LogHelper;
+
+/**
+ * Notifies listeners when the value of a {@link SettingsEnum} changes.
+ * <p>
+ * Listeners are registered per setting (or for a group of settings),
+ * so a change is dispatched only to the listeners of that one setting and never scans all settings.
+ * A change is published only if the new value is different from the old value.
+ * <p>
+ * Listeners are called on the thread that changed the value, and must not block.
+ */
+public final class SettingsChangeBus {
+
+    public interface Listener {
+        void onSettingChanged(@NonNull SettingsEnum setting);
+    }
+
+    private static final Map<SettingsEnum, CopyOnWriteArrayList<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private SettingsChangeBus() {
+    } // utility class
+
+    /**
+     * Subscribes a listener to changes of each of the given settings.
+     * Subscribing the same listener to the same setting more than once has no effect.
+     */
+    public static void subscribe(@NonNull Listener listener, @NonNull SettingsEnum... settings) {
+        Objects.requireNonNull(listener);
+        for (SettingsEnum setting : settings) {
+            listeners.computeIfAbsent(setting, key -> new CopyOnWriteArrayList<>()).addIfAbsent(listener);
+        }
+    }
+
+    /**
+     * Removes a listener from the given settings.
+     */
+    public static void unsubscribe(@NonNull Listener listener, @NonNull SettingsEnum... settings) {
+        for (SettingsEnum setting : settings) {
+            CopyOnWriteArrayList<Listener> settingListeners = listeners.get(setting);
+            if (settingListeners != null) {
+                settingListeners.remove(listener);
+            }
+        }
+    }
+
+    /**
+     * Removes a listener from all settings it is subscribed to.
+     */
+    public static void unsubscribe(@NonNull Listener listener) {
+        for (CopyOnWriteArrayList<Listener> settingListeners : listeners.values()) {
+            settingListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Called only by {@link SettingsEnum}, after the value has changed.
+     */
+    static void publish(@NonNull SettingsEnum setting) {
+        CopyOnWriteArrayList<Listener> settingListeners = listeners.get(setting);
+        if (settingListeners == null) {
+            return;
+        }
+        for (Listener listener : settingListeners) {
+            try {
+                listener.onSettingChanged(setting);
+            } catch (Exception ex) {
+                LogHelper.printException(SettingsChangeBus.class, "Listener failure for: " + setting, ex);
+            }
+        }
+    }
+}
@@ -14,7 +14,10 @@ import static app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames.S
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -146,7 +149,7 @@ public enum SettingsEnum {
 
     // Layout
     CUSTOM_FILTER("revanced_custom_filter", BOOLEAN, FALSE),
-    CUSTOM_FILTER_STRINGS("revanced_custom_filter_strings", STRING, "", true,
+    CUSTOM_FILTER_STRINGS("revanced_custom_filter_strings", STRING, "",
             parents(CUSTOM_FILTER)),
     HIDE_ALBUM_CARDS("revanced_hide_album_card", BOOLEAN, TRUE),
     HIDE_BROWSE_STORE_BUTTON("revanced_hide_browse_store_button", BOOLEAN, TRUE),
@@ -181,6 +184,8 @@ public enum SettingsEnum {
     BYPASS_AMBIENT_MODE_RESTRICTIONS("revanced_bypass_ambient_mode_restrictions", BOOLEAN, FALSE),
     ENABLE_DEBUG_LOGGING("revanced_enable_debug_logging", BOOLEAN, FALSE),
     ENABLE_DEBUG_BUFFER_LOGGING("revanced_enable_debug_buffer_logging", BOOLEAN, FALSE),
+    ENABLE_DEBUG_LITHO_FILTER_METRICS("revanced_enable_debug_litho_filter_metrics", BOOLEAN, FALSE),
+    ENABLE_DEBUG_LITHO_FILTER_RECORDING("revanced_enable_debug_litho_filter_recording", BOOLEAN, FALSE),
     ENABLE_EXTERNAL_BROWSER("revanced_enable_external_browser", BOOLEAN, TRUE, true),
     ENABLE_LANGUAGE_SWITCH("revanced_enable_language_switch", BOOLEAN, TRUE, true),
     ENABLE_NEW_SPLASH_ANIMATION("revanced_enable_new_splash_animation", BOOLEAN, FALSE, true),
@@ -369,6 +374,11 @@ public enum SettingsEnum {
 
         for (SettingsEnum setting : values()) {
             pathToSetting.put(setting.path, setting);
+            if (setting.parents != null) {
+                for (SettingsEnum parent : setting.parents) {
+                    parent.dependents.add(setting);
+                }
+            }
         }
     }
 
@@ -387,6 +397,10 @@ public enum SettingsEnum {
 
     @Nullable
     private final SettingsEnum[] parents;
+    /**
+     * Settings that use this setting as a parent. Only modified by the class initializer.
+     */
+    private final List<SettingsEnum> dependents = new ArrayList<>(0);
     // Must be volatile, as some settings are read/write from different threads.
     // Of note, the object value is persistently stored using SharedPreferences (which is thread safe).
     @NonNull
@@ -447,20 +461,42 @@ public enum SettingsEnum {
         return pathToSetting.get(str);
     }
 
+    /**
+     * @return Settings whose {@link #isAvailable()} depends on the value of this setting.
+     */
+    @NonNull
+    public List<SettingsEnum> getDependents() {
+        return Collections.unmodifiableList(dependents);
+    }
+
     private static void loadAllSettings() {
-        for (SettingsEnum setting : values()) {
-            setting.load();
-        }
+        SettingsLoader.loadAll(values(), SettingsLoader.APP_PREFERENCES);
+    }
+
+    /**
+     * Only to be used by {@link SettingsLoader}.
+     */
+    static void setLoadedValue(@NonNull SettingsEnum setting, @NonNull Object loadedValue) {
+        setting.returnType.validate(loadedValue);
+        setting.value = loadedValue;
+    }
+
+    /**
+     * Only to be used by {@link SettingsBackup}, after the value is already saved to preferences.
+     */
+    static void setImportedValue(@NonNull SettingsEnum setting, @NonNull Object importedValue) {
+        setting.returnType.validate(importedValue);
+        setting.updateValue(importedValue);
     }
 
     public static void setValue(@NonNull SettingsEnum setting, @NonNull String newValue) {
         Objects.requireNonNull(newValue);
         switch (setting.returnType) {
-            case BOOLEAN -> setting.value = Boolean.valueOf(newValue);
-            case INTEGER -> setting.value = Integer.valueOf(newValue);
-            case LONG -> setting.value = Long.valueOf(newValue);
-            case FLOAT -> setting.value = Float.valueOf(newValue);
-            case STRING -> setting.value = newValue;
+            case BOOLEAN -> setting.updateValue(Boolean.valueOf(newValue));
+            case INTEGER -> setting.updateValue(Integer.valueOf(newValue));
+            case LONG -> setting.updateValue(Long.valueOf(newValue));
+            case FLOAT -> setting.updateValue(Float.valueOf(newValue));
+            case STRING -> setting.updateValue(newValue);
             default -> throw new IllegalStateException(setting.name());
         }
     }
@@ -470,20 +506,17 @@ public enum SettingsEnum {
      */
     public static void setValue(@NonNull SettingsEnum setting, @NonNull Boolean newValue) {
         setting.returnType.validate(newValue);
-        setting.value = newValue;
+        setting.updateValue(newValue);
     }
 
-    private void load() {
-        switch (returnType) {
-            case BOOLEAN ->
-                    value = SharedPrefHelper.getBoolean(sharedPref, path, (boolean) defaultValue);
-            case INTEGER ->
-                    value = SharedPrefHelper.getInt(sharedPref, path, (Integer) defaultValue);
-            case LONG -> value = SharedPrefHelper.getLong(sharedPref, path, (Long) defaultValue);
-            case FLOAT -> value = SharedPrefHelper.getFloat(sharedPref, path, (Float) defaultValue);
-            case STRING ->
-                    value = SharedPrefHelper.getString(sharedPref, path, (String) defaultValue);
-            default -> throw new IllegalStateException(name());
+    /**
+     * Sets the value, and notifies the {@link SettingsChangeBus} if the value is different.
+     */
+    private void updateValue(@NonNull Object newValue) {
+        final Object oldValue = value;
+        value = newValue;
+        if (!newValue.equals(oldValue)) {
+            SettingsChangeBus.publish(this);
         }
     }
 
@@ -492,7 +525,7 @@ public enum SettingsEnum {
      */
     public void saveValue(@NonNull Object newValue) {
         returnType.validate(newValue);
-        value = newValue; // Must set before saving to preferences (otherwise importing fails to update UI correctly).
+        updateValue(newValue); // Must set before saving to preferences (otherwise importing fails to update UI correctly).
 
         switch (returnType) {
             case BOOLEAN -> SharedPrefHelper.saveBoolean(sharedPref, path, (boolean) newValue);
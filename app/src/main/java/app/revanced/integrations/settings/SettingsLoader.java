@@ -0,0 +1,155 @@
+package app.revanced.integrations.settings;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import app.revanced.integrations.utils.LogHelper;
+import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.SharedPrefHelper;
+import app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames;
+import app.revanced.integrations.utils.TaskLane;
+
+/**
+ * Loads all {@link SettingsEnum} values in a single pass.
+ * <p>
+ * Each preference file is read once with {@link SharedPreferences#getAll()},
+ * instead of one lookup per setting.
+ * <p>
+ * Loading is done by the {@link SettingsEnum} class initializer.
+ * If {@link #preloadInBackground()} is called early enough, the class is initialized on a background thread,
+ * and any other thread that uses a setting before loading is finished
+ * waits only on that first access (class initialization is done only once by the JVM).
+ */
+public final class SettingsLoader {
+
+    interface PreferencesSource {
+        /**
+         * @return The preferences, or null if they cannot be read yet.
+         */
+        @Nullable
+        SharedPreferences getPreferences(@NonNull SharedPrefNames name);
+    }
+
+    /**
+     * Preferences of the app context.
+     */
+    static final PreferencesSource APP_PREFERENCES = SharedPrefHelper::getPreferences;
+
+    private SettingsLoader() {
+    } // utility class
+
+    /**
+     * Starts loading all settings on a background thread.
+     * Does nothing if the settings are already loaded or loading.
+     */
+    public static void preloadInBackground() {
+        if (ReVancedUtils.getContext() == null) {
+            return; // Too early, preferences cannot be read yet.
+        }
+        TaskLane.COMPUTATION.execute(() -> {
+            // Using any setting runs the SettingsEnum class initializer.
+            final boolean ignored = SettingsEnum.ENABLE_DEBUG_LOGGING.getBoolean();
+        }, TaskLane.PRIORITY_HIGH);
+    }
+
+    /**
+     * Called only by the {@link SettingsEnum} class initializer, and by tests.
+     *
+     * @param source Each preference file used by the settings is read once from this source.
+     */
+    static void loadAll(@NonNull SettingsEnum[] settings, @NonNull PreferencesSource source) {
+        final long start = System.nanoTime();
+
+        Map<SharedPrefNames, Map<String, ?>> snapshots = new EnumMap<>(SharedPrefNames.class);
+        for (SettingsEnum setting : settings) {
+            Map<String, ?> snapshot = snapshots.get(setting.sharedPref);
+            if (snapshot == null) {
+                snapshot = readSnapshot(source, setting.sharedPref);
+                snapshots.put(setting.sharedPref, snapshot);
+            }
+            SettingsEnum.setLoadedValue(setting,
+                    decode(setting.returnType, snapshot.get(setting.path), setting.defaultValue));
+        }
+
+        final long elapsedMicroseconds = (System.nanoTime() - start) / 1000;
+        LogHelper.printDebug(SettingsLoader.class, "Loaded " + settings.length + " settings in "
+                + elapsedMicroseconds + "us on thread: " + Thread.currentThread().getName());
+    }
+
+    @NonNull
+    private static Map<String, ?> readSnapshot(@NonNull PreferencesSource source, @NonNull SharedPrefNames name) {
+        SharedPreferences preferences = source.getPreferences(name);
+        if (preferences == null) {
+            LogHelper.printException(SettingsLoader.class, "Context is null, using default values for: " + name);
+            return Collections.emptyMap();
+        }
+        return preferences.getAll();
+    }
+
+    /**
+     * Converts a stored preference value to the type of a setting.
+     *
+     * @param stored The stored value, or null if nothing is stored.
+     * @return The decoded value, or the default value if nothing is stored or the stored value is not valid.
+     */
+    @NonNull
+    static Object decode(@NonNull SettingsEnum.ReturnType type, @Nullable Object stored, @NonNull Object defaultValue) {
+        if (stored == null) {
+            return defaultValue;
+        }
+        Object parsed = parse(type, stored);
+        if (parsed == null) {
+            LogHelper.printException(SettingsLoader.class, "Invalid stored value: " + stored + " for type: " + type);
+            return defaultValue;
+        }
+        return parsed;
+    }
+
+    /**
+     * Strictly converts a value to the type of a setting.
+     * <p>
+     * Non boolean settings are saved as strings, but older versions may have saved them using their actual type.
+     * Both forms are accepted.
+     *
+     * @return The converted value, or null if the value is not valid for the type.
+     */
+    @Nullable
+    static Object parse(@NonNull SettingsEnum.ReturnType type, @NonNull Object value) {
+        try {
+            switch (type) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) return value;
+                    if (value instanceof String string) {
+                        if (string.equalsIgnoreCase("true")) return Boolean.TRUE;
+                        if (string.equalsIgnoreCase("false")) return Boolean.FALSE;
+                    }
+                    break;
+                case INTEGER:
+                    if (value instanceof Integer) return value;
+                    if (value instanceof String string) return Integer.valueOf(string.trim());
+                    break;
+                case LONG:
+                    if (value instanceof Long) return value;
+                    if (value instanceof Integer integer) return integer.longValue();
+                    if (value instanceof String string) return Long.valueOf(string.trim());
+                    break;
+                case FLOAT:
+                    if (value instanceof Float) return value;
+                    if (value instanceof String string) return Float.valueOf(string.trim());
+                    break;
+                case STRING:
+                    if (value instanceof String) return value;
+                    return value.toString();
+            }
+        } catch (NumberFormatException ex) {
+            // Fall thru.
+        }
+        return null;
+    }
+}
@@ -2,7 +2,7 @@ package app.revanced.integrations.settingsmenu;
 
 import static app.revanced.integrations.utils.ReVancedHelper.getStringArray;
 import static app.revanced.integrations.utils.ReVancedHelper.isPackageEnabled;
-import static app.revanced.integrations.utils.ReVancedUtils.runOnMainThreadDelayed;
+import static app.revanced.integrations.utils.ReVancedUtils.runOnMainThreadNowOrLater;
 import static app.revanced.integrations.utils.ReVancedUtils.showToastShort;
 import static app.revanced.integrations.utils.ResourceUtils.identifier;
 import static app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames.REVANCED;
@@ -25,28 +25,29 @@ import android.preference.PreferenceFragment;
 import android.preference.PreferenceScreen;
 import android.preference.SwitchPreference;
 import android.provider.Settings;
+import android.text.TextUtils;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
 
 import app.revanced.integrations.BuildConfig;
-import app.revanced.integrations.patches.button.AlwaysRepeat;
-import app.revanced.integrations.patches.button.CopyVideoUrl;
-import app.revanced.integrations.patches.button.CopyVideoUrlTimestamp;
-import app.revanced.integrations.patches.button.ExternalDownload;
-import app.revanced.integrations.patches.button.SpeedDialog;
+import app.revanced.integrations.patches.ads.LithoFilterMetrics;
+import app.revanced.integrations.patches.ads.LithoFilterRecorder;
 import app.revanced.integrations.patches.video.CustomPlaybackSpeedPatch;
+import app.revanced.integrations.settings.SettingsBackup;
+import app.revanced.integrations.settings.SettingsChangeBus;
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedHelper;
+import app.revanced.integrations.utils.ReVancedUtils;
 import app.revanced.integrations.utils.ResourceType;
 import app.revanced.integrations.utils.SharedPrefHelper;
 
@@ -56,45 +57,46 @@ import app.revanced.integrations.utils.SharedPrefHelper;
 public class ReVancedSettingsFragment extends PreferenceFragment {
     private final int READ_REQUEST_CODE = 42;
     private final int WRITE_REQUEST_CODE = 43;
-    @SuppressLint("SuspiciousIndentation")
+    private final int WRITE_RECORDING_REQUEST_CODE = 44;
     SharedPreferences.OnSharedPreferenceChangeListener listener = (sharedPreferences, str) -> {
-        for (SettingsEnum setting : SettingsEnum.values()) {
-            if (!setting.path.equals(str)) continue;
-            Preference pref = findPreference(str);
-            if (pref == null)
-                return;
-
-            if (pref instanceof SwitchPreference) {
-                SwitchPreference switchPref = (SwitchPreference) pref;
-                SettingsEnum.setValue(setting, switchPref.isChecked());
-
-                switch (setting) {
-                    case OVERLAY_BUTTON_ALWAYS_REPEAT -> AlwaysRepeat.refreshVisibility();
-                    case OVERLAY_BUTTON_COPY_VIDEO_URL -> CopyVideoUrl.refreshVisibility();
-                    case OVERLAY_BUTTON_COPY_VIDEO_URL_TIMESTAMP ->
-                            CopyVideoUrlTimestamp.refreshVisibility();
-                    case OVERLAY_BUTTON_EXTERNAL_DOWNLOADER -> ExternalDownload.refreshVisibility();
-                    case OVERLAY_BUTTON_SPEED_DIALOG -> SpeedDialog.refreshVisibility();
-                }
+        SettingsEnum setting = SettingsEnum.settingFromPath(str);
+        if (setting == null)
+            return;
+        Preference pref = findPreference(str);
+        if (pref == null)
+            return;
 
-            } else if (pref instanceof EditTextPreference) {
-                EditTextPreference editPreference = (EditTextPreference) pref;
-                SettingsEnum.setValue(setting, editPreference.getText());
-            } else if (pref instanceof ListPreference) {
-                switch (setting) {
-                    case DEFAULT_PLAYBACK_SPEED -> setPlaybackSpeed();
-                    case DEFAULT_VIDEO_QUALITY_WIFI -> setVideoQuality(true);
-                    case DEFAULT_VIDEO_QUALITY_MOBILE -> setVideoQuality(false);
-                    case SPOOF_APP_VERSION_TARGET -> setSpoofAppVersionTarget();
-                }
+        // Read the saved value and not the view, as an import changes the preferences before the views.
+        // Preferences that depend on this setting are updated by settingChangeListener.
+        if (pref instanceof SwitchPreference switchPref) {
+            SettingsEnum.setValue(setting, sharedPreferences.getBoolean(str, switchPref.isChecked()));
+        } else if (pref instanceof EditTextPreference editPreference) {
+            SettingsEnum.setValue(setting, sharedPreferences.getString(str, editPreference.getText()));
+        } else if (pref instanceof ListPreference) {
+            switch (setting) {
+                case DEFAULT_PLAYBACK_SPEED -> setPlaybackSpeed();
+                case DEFAULT_VIDEO_QUALITY_WIFI -> setVideoQuality(true);
+                case DEFAULT_VIDEO_QUALITY_MOBILE -> setVideoQuality(false);
+                case SPOOF_APP_VERSION_TARGET -> setSpoofAppVersionTarget();
             }
-
-            enableDisablePreferences();
-
-            if (setting.rebootApp)
-                rebootDialog();
         }
+
+        if (setting.rebootApp)
+            rebootDialog();
     };
+    /**
+     * Updates only the preferences that depend on the changed setting.
+     */
+    private final SettingsChangeBus.Listener settingChangeListener = setting ->
+            runOnMainThreadNowOrLater(() -> updateDependentPreferences(setting));
+    /**
+     * Conditions that disable a preference, keyed by the preference setting.
+     */
+    private final Map<SettingsEnum, List<BooleanSupplier>> disableConditions = new EnumMap<>(SettingsEnum.class);
+    /**
+     * Preferences with a disable condition, keyed by the settings used by the condition.
+     */
+    private final Map<SettingsEnum, List<SettingsEnum>> linkedPreferences = new EnumMap<>(SettingsEnum.class);
     private PreferenceScreen externalDownloaderPreferenceScreen;
 
     public ReVancedSettingsFragment() {
@@ -119,11 +121,12 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
             SharedPreferences sharedPreferences = getPreferenceManager().getSharedPreferences();
             sharedPreferences.registerOnSharedPreferenceChangeListener(listener);
 
-            enableDisablePreferences();
-
             externalDownloaderPreferenceScreen = (PreferenceScreen) getPreferenceScreen().findPreference("external_downloader");
 
             initializeReVancedSettings();
+
+            enableDisablePreferences();
+            subscribeToSettingChanges();
         } catch (Throwable th) {
             LogHelper.printException(ReVancedSettingsFragment.class, "Error during onCreate()", th);
         }
@@ -131,27 +134,85 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
 
     @Override // android.preference.PreferenceFragment, android.app.Fragment
     public void onDestroy() {
+        SettingsChangeBus.unsubscribe(settingChangeListener);
         getPreferenceManager().getSharedPreferences().unregisterOnSharedPreferenceChangeListener(listener);
         super.onDestroy();
     }
 
+    /**
+     * Subscribes only to settings that other preferences depend on.
+     */
+    private void subscribeToSettingChanges() {
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            if (!setting.getDependents().isEmpty() || linkedPreferences.containsKey(setting)) {
+                SettingsChangeBus.subscribe(settingChangeListener, setting);
+            }
+        }
+    }
+
     private void enableDisablePreferences() {
         for (SettingsEnum setting : SettingsEnum.values()) {
-            Preference preference = findPreference(setting.path);
-            if (preference != null)
-                preference.setEnabled(setting.isAvailable());
+            updatePreferenceEnabled(setting);
+        }
+    }
+
+    private void updateDependentPreferences(SettingsEnum setting) {
+        if (!isAdded())
+            return;
+
+        for (SettingsEnum dependent : setting.getDependents()) {
+            updatePreferenceEnabled(dependent);
+        }
+        List<SettingsEnum> linked = linkedPreferences.get(setting);
+        if (linked != null) {
+            for (SettingsEnum linkedSetting : linked) {
+                updatePreferenceEnabled(linkedSetting);
+            }
+        }
+    }
+
+    private void updatePreferenceEnabled(SettingsEnum setting) {
+        Preference preference = findPreference(setting.path);
+        if (preference == null)
+            return;
+
+        boolean enabled = setting.isAvailable();
+        List<BooleanSupplier> conditions = disableConditions.get(setting);
+        if (enabled && conditions != null) {
+            for (BooleanSupplier condition : conditions) {
+                if (condition.getAsBoolean()) {
+                    enabled = false;
+                    break;
+                }
+            }
         }
+        preference.setEnabled(enabled);
     }
 
-    private void enableDisablePreferences(final boolean isAvailable, final SettingsEnum... unavailableEnum) {
-        if (!isAvailable) return;
+    /**
+     * Disables preferences while a condition is true.
+     *
+     * @param conditionSettings settings used by the condition. The preferences are updated when any of these change.
+     */
+    private void disablePreferencesWhen(final BooleanSupplier condition,
+                                        final SettingsEnum[] conditionSettings,
+                                        final SettingsEnum... unavailableEnum) {
         for (SettingsEnum setting : unavailableEnum) {
-            Preference preference = findPreference(setting.path);
-            if (preference != null)
-                preference.setEnabled(false);
+            disableConditions.computeIfAbsent(setting, key -> new ArrayList<>()).add(condition);
+        }
+        for (SettingsEnum conditionSetting : conditionSettings) {
+            List<SettingsEnum> linked = linkedPreferences.computeIfAbsent(conditionSetting, key -> new ArrayList<>());
+            for (SettingsEnum setting : unavailableEnum) {
+                if (!linked.contains(setting))
+                    linked.add(setting);
+            }
         }
     }
 
+    private static SettingsEnum[] conditionSettings(SettingsEnum... settings) {
+        return settings;
+    }
+
     private void initializeReVancedSettings() {
         EnableHDRCodecPreferenceLinks();
         FullScreenPanelPreferenceLinks();
@@ -162,6 +223,8 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
         TabletLayoutLinks();
         setBackupRestorePreference();
         setExternalDownloaderPreference();
+        setLithoFilterMetricsPreference();
+        setLithoFilterRecordingPreference();
         setOpenSettingsPreference();
         setPatchesInformation();
         setPlaybackSpeed();
@@ -173,13 +236,15 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Layout Override Preference
      */
-    public void LayoutOverrideLinks() {
-        enableDisablePreferences(
-                ReVancedHelper.isTablet,
+    private void LayoutOverrideLinks() {
+        disablePreferencesWhen(
+                () -> ReVancedHelper.isTablet,
+                conditionSettings(),
                 SettingsEnum.ENABLE_TABLET_LAYOUT
         );
-        enableDisablePreferences(
-                !ReVancedHelper.isTablet,
+        disablePreferencesWhen(
+                () -> !ReVancedHelper.isTablet,
+                conditionSettings(),
                 SettingsEnum.ENABLE_PHONE_LAYOUT
         );
     }
@@ -187,15 +252,16 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preferences not working in tablet layout
      */
-    public void TabletLayoutLinks() {
-        final boolean isTabletDevice = ReVancedHelper.isTablet &&
-                !SettingsEnum.ENABLE_PHONE_LAYOUT.getBoolean();
-        final boolean isEnabledTabletLayout = SettingsEnum.ENABLE_TABLET_LAYOUT.getBoolean();
-
-        final boolean isTablet = isTabletDevice || isEnabledTabletLayout;
-
-        enableDisablePreferences(
-                isTablet,
+    private void TabletLayoutLinks() {
+        disablePreferencesWhen(
+                () -> {
+                    final boolean isTabletDevice = ReVancedHelper.isTablet &&
+                            !SettingsEnum.ENABLE_PHONE_LAYOUT.getBoolean();
+                    final boolean isEnabledTabletLayout = SettingsEnum.ENABLE_TABLET_LAYOUT.getBoolean();
+
+                    return isTabletDevice || isEnabledTabletLayout;
+                },
+                conditionSettings(SettingsEnum.ENABLE_PHONE_LAYOUT, SettingsEnum.ENABLE_TABLET_LAYOUT),
                 SettingsEnum.HIDE_CHANNEL_LIST_SUBMENU,
                 SettingsEnum.HIDE_COMMUNITY_POSTS_HOME,
                 SettingsEnum.HIDE_COMMUNITY_POSTS_SUBSCRIPTIONS,
@@ -218,9 +284,10 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preference related to Enable HDR Codec
      */
-    public void EnableHDRCodecPreferenceLinks() {
-        enableDisablePreferences(
-                SettingsEnum.ENABLE_VIDEO_CODEC.getBoolean() && SettingsEnum.ENABLE_VIDEO_CODEC_TYPE.getBoolean(),
+    private void EnableHDRCodecPreferenceLinks() {
+        disablePreferencesWhen(
+                () -> SettingsEnum.ENABLE_VIDEO_CODEC.getBoolean() && SettingsEnum.ENABLE_VIDEO_CODEC_TYPE.getBoolean(),
+                conditionSettings(SettingsEnum.ENABLE_VIDEO_CODEC, SettingsEnum.ENABLE_VIDEO_CODEC_TYPE),
                 SettingsEnum.DISABLE_HDR_VIDEO
         );
     }
@@ -228,9 +295,10 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preference related to Hide Fullscreen Panel
      */
-    public void FullScreenPanelPreferenceLinks() {
-        enableDisablePreferences(
-                SettingsEnum.HIDE_FULLSCREEN_PANELS.getBoolean(),
+    private void FullScreenPanelPreferenceLinks() {
+        disablePreferencesWhen(
+                SettingsEnum.HIDE_FULLSCREEN_PANELS::getBoolean,
+                conditionSettings(SettingsEnum.HIDE_FULLSCREEN_PANELS),
                 SettingsEnum.HIDE_END_SCREEN_OVERLAY,
                 SettingsEnum.HIDE_QUICK_ACTIONS,
                 SettingsEnum.HIDE_QUICK_ACTIONS_COMMENT_BUTTON,
@@ -247,9 +315,10 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preference related to Speed Overlay
      */
-    public void SpeedOverlayPreferenceLinks() {
-        enableDisablePreferences(
-                SettingsEnum.DISABLE_SPEED_OVERLAY.getBoolean(),
+    private void SpeedOverlayPreferenceLinks() {
+        disablePreferencesWhen(
+                SettingsEnum.DISABLE_SPEED_OVERLAY::getBoolean,
+                conditionSettings(SettingsEnum.DISABLE_SPEED_OVERLAY),
                 SettingsEnum.EDIT_SPEED_OVERLAY_VALUE
         );
     }
@@ -257,11 +326,10 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preference related to Hide Quick Actions
      */
-    public void QuickActionsPreferenceLinks() {
-        final boolean isEnabled = SettingsEnum.HIDE_FULLSCREEN_PANELS.getBoolean() || SettingsEnum.HIDE_QUICK_ACTIONS.getBoolean();
-
-        enableDisablePreferences(
-                isEnabled,
+    private void QuickActionsPreferenceLinks() {
+        disablePreferencesWhen(
+                () -> SettingsEnum.HIDE_FULLSCREEN_PANELS.getBoolean() || SettingsEnum.HIDE_QUICK_ACTIONS.getBoolean(),
+                conditionSettings(SettingsEnum.HIDE_FULLSCREEN_PANELS, SettingsEnum.HIDE_QUICK_ACTIONS),
                 SettingsEnum.HIDE_QUICK_ACTIONS_COMMENT_BUTTON,
                 SettingsEnum.HIDE_QUICK_ACTIONS_DISLIKE_BUTTON,
                 SettingsEnum.HIDE_QUICK_ACTIONS_LIKE_BUTTON,
@@ -276,9 +344,10 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
     /**
      * Enable/Disable Preference related to Navigation settings
      */
-    public void NavigationPreferenceLinks() {
-        enableDisablePreferences(
-                SettingsEnum.SWITCH_CREATE_NOTIFICATION.getBoolean(),
+    private void NavigationPreferenceLinks() {
+        disablePreferencesWhen(
+                SettingsEnum.SWITCH_CREATE_NOTIFICATION::getBoolean,
+                conditionSettings(SettingsEnum.SWITCH_CREATE_NOTIFICATION),
                 SettingsEnum.HIDE_CREATE_BUTTON
         );
     }
@@ -462,6 +531,45 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
         }
     }
 
+    /**
+     * Show the litho filter metrics, with options to copy the report or clear the values.
+     */
+    private void setLithoFilterMetricsPreference() {
+        Preference preference = findPreference("revanced_litho_filter_metrics");
+        if (preference == null)
+            return;
+
+        preference.setOnPreferenceClickListener(pref -> {
+            final String report = LithoFilterMetrics.getReport();
+            new AlertDialog.Builder(getActivity())
+                    .setTitle(pref.getTitle())
+                    .setMessage(report)
+                    .setPositiveButton(android.R.string.ok, null)
+                    .setNeutralButton(android.R.string.copy, (dialog, id) -> ReVancedUtils.setClipboard(report))
+                    .setNegativeButton(str("sb_reset"), (dialog, id) -> LithoFilterMetrics.reset())
+                    .show();
+            return false;
+        });
+    }
+
+    /**
+     * Invoke the SAF(Storage Access Framework) to export the litho filter recording
+     */
+    private void setLithoFilterRecordingPreference() {
+        Preference preference = findPreference("revanced_export_litho_filter_recording");
+        if (preference == null)
+            return;
+
+        preference.setOnPreferenceClickListener(pref -> {
+            var intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+            intent.addCategory(Intent.CATEGORY_OPENABLE);
+            intent.setType("application/octet-stream");
+            intent.putExtra(Intent.EXTRA_TITLE, "litho_filter_recording.bin");
+            startActivityForResult(intent, WRITE_RECORDING_REQUEST_CODE);
+            return false;
+        });
+    }
+
     /**
      * Add Preference to Import/Export settings submenu
      */
@@ -524,86 +632,91 @@ public class ReVancedSettingsFragment extends PreferenceFragment {
             exportJson(data.getData());
         } else if (requestCode == READ_REQUEST_CODE && resultCode == Activity.RESULT_OK && data != null) {
             importJson(data.getData());
+        } else if (requestCode == WRITE_RECORDING_REQUEST_CODE && resultCode == Activity.RESULT_OK && data != null) {
+            exportLithoFilterRecording(data.getData());
+        }
+    }
+
+    private void exportLithoFilterRecording(Uri uri) {
+        Context context = this.getContext();
+
+        try (OutputStream outputStream = context.getContentResolver().openOutputStream(uri)) {
+            LithoFilterRecorder.exportRecording(Objects.requireNonNull(outputStream));
+
+            showToastShort(context, str("settings_export_successful"));
+        } catch (IOException | RuntimeException e) {
+            LogHelper.printException(ReVancedSettingsFragment.class, "exportLithoFilterRecording failure", e);
+            showToastShort(context, str("settings_export_failed"));
         }
     }
 
-    /**
-     * TODO: Implemented as a more ideal serialize method
-     */
     private void exportJson(Uri uri) {
         Context context = this.getContext();
-        SharedPreferences prefs = context.getSharedPreferences(REVANCED.getName(), Context.MODE_PRIVATE);
 
-        try {
-            @SuppressLint("Recycle")
-            FileWriter fileWriter = new FileWriter(
-                    context.getApplicationContext()
-                            .getContentResolver()
-                            .openFileDescriptor(uri, "w")
-                            .getFileDescriptor()
-            );
-            PrintWriter printWriter = new PrintWriter(fileWriter);
-            JSONObject settingsJson = new JSONObject();
-
-            var prefsMap = prefs.getAll();
-            for (Map.Entry entry : prefsMap.entrySet()) {
-                settingsJson.put(entry.getKey().toString(), entry.getValue());
-            }
-            printWriter.write(settingsJson.toString());
-            printWriter.close();
-            fileWriter.close();
+        try (OutputStream outputStream = context.getContentResolver().openOutputStream(uri)) {
+            SettingsBackup.exportSettings(Objects.requireNonNull(outputStream));
 
             showToastShort(context, str("settings_export_successful"));
-        } catch (IOException | JSONException e) {
+        } catch (IOException | RuntimeException e) {
+            LogHelper.printException(ReVancedSettingsFragment.class, "exportJson failure", e);
             showToastShort(context, str("settings_export_failed"));
-            throw new RuntimeException(e);
         }
     }
 
-    /**
-     * TODO: Implemented as a more ideal serialize method
-     */
     private void importJson(Uri uri) {
         Context context = this.getContext();
-        SharedPreferences prefs = context.getSharedPreferences(REVANCED.getName(), Context.MODE_PRIVATE);
-        String json;
+        SettingsBackup.ImportResult result;
+
+        // The import saves and applies all settings itself.
+        // Remove the listener so it does not apply each setting again and show a reboot dialog for each.
+        // Preference listeners are called on the thread that commits the changes, which is this thread.
+        SharedPreferences sharedPreferences = getPreferenceManager().getSharedPreferences();
+        sharedPreferences.unregisterOnSharedPreferenceChangeListener(listener);
+        try (InputStream inputStream = context.getContentResolver().openInputStream(uri)) {
+            result = SettingsBackup.importSettings(Objects.requireNonNull(inputStream));
+            updatePreferenceValues();
+        } catch (IOException | RuntimeException e) {
+            LogHelper.printException(ReVancedSettingsFragment.class, "importJson failure", e);
+            showToastShort(context, str("settings_import_failed"));
+            return;
+        } finally {
+            sharedPreferences.registerOnSharedPreferenceChangeListener(listener);
+        }
 
-        try {
-            @SuppressLint("Recycle")
-            FileReader fileReader = new FileReader(
-                    context.getApplicationContext()
-                            .getContentResolver()
-                            .openFileDescriptor(uri, "r")
-                            .getFileDescriptor()
-            );
-            BufferedReader bufferedReader = new BufferedReader(fileReader);
-            SharedPreferences.Editor editor = SharedPrefHelper.getPreferences(context, SharedPrefHelper.SharedPrefNames.REVANCED).edit();
-
-            while ((json = bufferedReader.readLine()) != null) {
-                JSONObject settingsJson = new JSONObject(json);
-
-                var prefsMap = prefs.getAll();
-                for (Map.Entry entry : prefsMap.entrySet()) {
-                    String key = entry.getKey().toString().trim();
-                    Object value = entry.getValue();
-
-                    if (value instanceof Boolean) {
-                        editor.putBoolean(key, settingsJson.optBoolean(key, (boolean) value));
-                    } else {
-                        editor.putString(key, settingsJson.optString(key, value.toString()));
-                    }
-                }
-            }
-            editor.apply();
-            bufferedReader.close();
-            fileReader.close();
+        showToastShort(context, str("settings_import_successful"));
+
+        if (!result.errors.isEmpty()) {
+            new AlertDialog.Builder(getActivity())
+                    .setMessage(TextUtils.join("\n", result.errors))
+                    .setPositiveButton(android.R.string.ok, null)
+                    .setOnDismissListener(dialog -> {
+                        if (result.rebootRequired)
+                            rebootDialog();
+                    })
+                    .show();
+        } else if (result.rebootRequired) {
+            rebootDialog();
+        }
+    }
 
-            showToastShort(context, str("settings_import_successful"));
-            runOnMainThreadDelayed(() -> reboot(getActivity()), 1000L);
-        } catch (IOException | JSONException e) {
-            showToastShort(context, str("settings_import_failed"));
-            throw new RuntimeException(e);
+    /**
+     * Updates the preference views after settings were changed without using the views.
+     */
+    private void updatePreferenceValues() {
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            Preference preference = findPreference(setting.path);
+            if (preference instanceof SwitchPreference switchPreference) {
+                switchPreference.setChecked(setting.getBoolean());
+            } else if (preference instanceof EditTextPreference editTextPreference) {
+                editTextPreference.setText(setting.getObjectValue().toString());
+            } else if (preference instanceof ListPreference listPreference) {
+                listPreference.setValue(setting.getObjectValue().toString());
+            }
         }
+        setPlaybackSpeed();
+        setSpoofAppVersionTarget();
+        setVideoQuality(false);
+        setVideoQuality(true);
     }
 
     void rebootDialog() {
@@ -26,10 +26,10 @@ import android.widget.EditText;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.text.DecimalFormat;
 
 import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.sponsorblock.SegmentPlaybackController;
+import app.revanced.integrations.sponsorblock.SponsorBlockFormatter;
 import app.revanced.integrations.sponsorblock.SponsorBlockSettings;
 import app.revanced.integrations.sponsorblock.SponsorBlockUtils;
 import app.revanced.integrations.sponsorblock.objects.SegmentCategory;
@@ -39,11 +39,11 @@ import app.revanced.integrations.sponsorblock.requests.SBRequester;
 import app.revanced.integrations.sponsorblock.ui.SponsorBlockViewController;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 
 @SuppressWarnings("deprecation")
 public class SponsorBlockSettingsFragment extends PreferenceFragment {
 
-    private static final DecimalFormat statsNumberOfSegmentsSkippedFormatter = new DecimalFormat("#,###,###");
     private SwitchPreference sbEnabled;
     private SwitchPreference addNewSegment;
     private SwitchPreference votingEnabled;
@@ -431,7 +431,7 @@ public class SponsorBlockSettingsFragment extends PreferenceFragment {
             statsCategory.addPreference(loadingPlaceholderPreference);
             if (SettingsEnum.SB_ENABLED.getBoolean()) {
                 loadingPlaceholderPreference.setTitle(str("sb_stats_loading"));
-                ReVancedUtils.runOnBackgroundThread(() -> {
+                TaskLane.NETWORK.execute(() -> {
                     UserStats stats = SBRequester.retrieveUserStats();
                     ReVancedUtils.runOnMainThread(() -> { // get back on main thread to modify UI elements
                         addUserStats(loadingPlaceholderPreference, stats);
@@ -465,7 +465,7 @@ public class SponsorBlockSettingsFragment extends PreferenceFragment {
                 preference.setSummary(str("sb_stats_username_change"));
                 preference.setText(userName);
                 preference.setOnPreferenceChangeListener((preference1, value) -> {
-                    ReVancedUtils.runOnBackgroundThread(() -> {
+                    TaskLane.NETWORK.execute(() -> {
                         String newUserName = (String) value;
                         String errorMessage = SBRequester.setUsername(newUserName);
                         ReVancedUtils.runOnMainThread(() -> {
@@ -487,7 +487,7 @@ public class SponsorBlockSettingsFragment extends PreferenceFragment {
                 // number of segment submissions (does not include ignored segments)
                 Preference preference = new Preference(context);
                 statsCategory.addPreference(preference);
-                String formatted = statsNumberOfSegmentsSkippedFormatter.format(stats.segmentCount);
+                String formatted = SponsorBlockFormatter.formatCount(stats.segmentCount);
                 preference.setTitle(fromHtml(str("sb_stats_submissions", formatted)));
                 if (stats.totalSegmentCountIncludingIgnored == 0) {
                     preference.setSelectable(false);
@@ -523,7 +523,7 @@ public class SponsorBlockSettingsFragment extends PreferenceFragment {
                     stats_saved = str("sb_stats_saved_zero");
                     stats_saved_sum = str("sb_stats_saved_sum_zero");
                 } else {
-                    stats_saved = str("sb_stats_saved", statsNumberOfSegmentsSkippedFormatter.format(stats.viewCount));
+                    stats_saved = str("sb_stats_saved", SponsorBlockFormatter.formatCount(stats.viewCount));
                     stats_saved_sum = str("sb_stats_saved_sum", SponsorBlockUtils.getTimeSavedString((long) (60 * stats.minutesSaved)));
                 }
                 preference.setTitle(fromHtml(stats_saved));
@@ -546,7 +546,7 @@ public class SponsorBlockSettingsFragment extends PreferenceFragment {
         statsCategory.addPreference(preference);
 
         Runnable updateStatsSelfSaved = () -> {
-            String formatted = statsNumberOfSegmentsSkippedFormatter.format(SettingsEnum.SB_LOCAL_TIME_SAVED_NUMBER_SEGMENTS.getInt());
+            String formatted = SponsorBlockFormatter.formatCount(SettingsEnum.SB_LOCAL_TIME_SAVED_NUMBER_SEGMENTS.getInt());
             preference.setTitle(fromHtml(str("sb_stats_self_saved", formatted)));
             String formattedSaved = SponsorBlockUtils.getTimeSavedString(SettingsEnum.SB_LOCAL_TIME_SAVED_MILLISECONDS.getLong() / 1000);
             preference.setSummary(fromHtml(str("sb_stats_self_saved_sum", formattedSaved)));
@@ -81,10 +81,11 @@ enum class PlayerType {
         private var currentPlayerType = NONE
 
         /**
-         * player type change listener
+         * player type change listener.
+         * Called on the main thread, and only with the latest value if changes come in a burst.
          */
         @JvmStatic
-        val onChange = Event<PlayerType>()
+        val onChange = Event<PlayerType>(Event.MAIN_THREAD, coalesce = true)
     }
 
     /**
@@ -1,5 +1,7 @@
 package app.revanced.integrations.shared
 
+import app.revanced.integrations.utils.Event
+
 /**
  * VideoState playback state.
  */
@@ -19,7 +21,7 @@ enum class VideoState {
         fun setFromString(enumName: String) {
             val state = nameToVideoState[enumName]
             if (state != null && currentVideoState != state)
-                currentVideoState = state
+                current = state
         }
 
         /**
@@ -31,8 +33,17 @@ enum class VideoState {
             get() = currentVideoState
             private set(value) {
                 currentVideoState = value
+                if (value != null) onChange(value)
             }
 
+        @Volatile // value is read/write from different threads
         private var currentVideoState: VideoState? = null
+
+        /**
+         * video state change listener.
+         * Called on the main thread, and only with the latest value if changes come in a burst.
+         */
+        @JvmStatic
+        val onChange = Event<VideoState>(Event.MAIN_THREAD, coalesce = true)
     }
 }
\ No newline at end of file
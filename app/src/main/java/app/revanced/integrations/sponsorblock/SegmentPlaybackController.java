@@ -28,7 +28,9 @@ import app.revanced.integrations.sponsorblock.requests.SBRequester;
 import app.revanced.integrations.sponsorblock.ui.SponsorBlockViewController;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 import app.revanced.integrations.utils.VideoHelpers;
+import app.revanced.integrations.utils.VideoTaskScope;
 
 /**
  * Handles showing, scheduling, and skipping of all {@link SponsorSegment} for the current video.
@@ -216,14 +218,16 @@ public class SegmentPlaybackController {
 
             currentVideoId = videoId;
             LogHelper.printDebug(SegmentPlaybackController.class, "setCurrentVideoId: " + videoId);
+            // This hook can be called before the VideoInformation hook.
+            VideoTaskScope.setCurrentVideoId(videoId);
 
-            ReVancedUtils.runOnBackgroundThread(() -> {
+            VideoTaskScope.forVideo(videoId).execute(TaskLane.NETWORK, () -> {
                 try {
                     executeDownloadSegments(videoId);
                 } catch (Exception e) {
                     LogHelper.printException(SegmentPlaybackController.class, "Failed to download segments", e);
                 }
-            });
+            }, TaskLane.PRIORITY_HIGH);
         } catch (Exception ex) {
             LogHelper.printException(SegmentPlaybackController.class, "setCurrentVideoId failure", ex);
         }
@@ -245,7 +249,7 @@ public class SegmentPlaybackController {
                 }
                 setSegments(segments);
 
-                final long videoTime = VideoInformation.getVideoTime();
+                final long videoTime = VideoInformation.getPlaybackTime();
                 if (highlightSegment != null) {
                     // If the current video time is before the highlight.
                     final long timeUntilHighlight = highlightSegment.start - videoTime;
@@ -408,7 +412,7 @@ public class SegmentPlaybackController {
                             return;
                         }
 
-                        final long videoTime = VideoInformation.getVideoTime();
+                        final long videoTime = VideoInformation.getPlaybackTime();
                         if (!segmentToHide.endIsNear(videoTime, speedAdjustedTimeThreshold)) {
                             // current video time is not what's expected.  User paused playback
                             LogHelper.printDebug(SegmentPlaybackController.class, "Ignoring outdated scheduled hide: " + segmentToHide
@@ -447,7 +451,7 @@ public class SegmentPlaybackController {
                             return;
                         }
 
-                        final long videoTime = VideoInformation.getVideoTime();
+                        final long videoTime = VideoInformation.getPlaybackTime();
                         if (!segmentToSkip.startIsNear(videoTime, speedAdjustedTimeThreshold)) {
                             // current video time is not what's expected.  User paused playback
                             LogHelper.printDebug(SegmentPlaybackController.class, "Ignoring outdated scheduled segment: " + segmentToSkip
@@ -709,14 +713,9 @@ public class SegmentPlaybackController {
             return;
         }
 
-        final long hours = timeWithoutSegmentsValue / 3600000;
-        final long minutes = (timeWithoutSegmentsValue / 60000) % 60;
-        final long seconds = (timeWithoutSegmentsValue / 1000) % 60;
-        if (hours > 0) {
-            timeWithoutSegments = String.format("\u2009(%d:%02d:%02d)", hours, minutes, seconds);
-        } else {
-            timeWithoutSegments = String.format("\u2009(%d:%02d)", minutes, seconds);
-        }
+        StringBuilder builder = new StringBuilder("\u2009(");
+        timeWithoutSegments = SponsorBlockFormatter.appendDuration(builder, timeWithoutSegmentsValue)
+                .append(')').toString();
     }
 
     private static int getHighlightSegmentTimeBarScreenWidth() {
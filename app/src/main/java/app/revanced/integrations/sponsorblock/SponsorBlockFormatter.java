@@ -0,0 +1,197 @@
+package app.revanced.integrations.sponsorblock;
+
+import static app.revanced.integrations.utils.StringRef.str;
+
+import androidx.annotation.NonNull;
+
+import java.text.DecimalFormat;
+import java.text.ParseException;
+
+/**
+ * Time, duration and number formatting for the SponsorBlock UI and stats.
+ * <p>
+ * All methods are thread safe. Times are formatted with arithmetic and appended to a caller supplied builder,
+ * so formatting many segments does not create date objects or format parsers.
+ * <p>
+ * Times always use ASCII digits, to match the times shown by the video player
+ * and so formatted times can be parsed again regardless of the device locale.
+ */
+public final class SponsorBlockFormatter {
+    /**
+     * Format of {@link #formatEditTime(long)}, shown as a hint to the user.
+     */
+    public static final String EDIT_TIME_FORMAT = "HH:mm:ss.SSS";
+
+    private static final long MILLISECONDS_PER_SECOND = 1000;
+    private static final long MILLISECONDS_PER_MINUTE = 60 * MILLISECONDS_PER_SECOND;
+    private static final long MILLISECONDS_PER_HOUR = 60 * MILLISECONDS_PER_MINUTE;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Not thread safe, so each thread uses its own.
+     */
+    private static final ThreadLocal<DecimalFormat> countFormatter =
+            ThreadLocal.withInitial(() -> new DecimalFormat("#,###,###"));
+
+    private SponsorBlockFormatter() {
+    } // utility class
+
+    /**
+     * Appends a segment time using the same style as the video player,
+     * such as <code>1:05.250</code> or <code>1:02:05.250</code>.
+     * Longer videos use more digits, so all times of a video have the same width.
+     *
+     * @param videoLength Length of the video in milliseconds.
+     */
+    @NonNull
+    public static StringBuilder appendPlayerTime(@NonNull StringBuilder builder, long millis, long videoLength) {
+        millis = Math.max(0, millis);
+        final long hours = millis / MILLISECONDS_PER_HOUR;
+        final long minutes = (millis / MILLISECONDS_PER_MINUTE) % 60;
+        if (videoLength < 10 * MILLISECONDS_PER_MINUTE) {
+            builder.append(millis / MILLISECONDS_PER_MINUTE); // m:ss.SSS
+        } else if (videoLength < MILLISECONDS_PER_HOUR) {
+            appendPadded(builder, millis / MILLISECONDS_PER_MINUTE, 2); // mm:ss.SSS
+        } else {
+            // H:mm:ss.SSS, or HH:mm:ss.SSS for videos of 10 hours or longer
+            appendPadded(builder, hours, videoLength < 10 * MILLISECONDS_PER_HOUR ? 1 : 2);
+            builder.append(':');
+            appendPadded(builder, minutes, 2);
+        }
+        return appendSecondsAndMilliseconds(builder, millis);
+    }
+
+    /**
+     * @return The time using {@link #EDIT_TIME_FORMAT}, such as <code>00:01:05.250</code>.
+     */
+    @NonNull
+    public static String formatEditTime(long millis) {
+        millis = Math.max(0, millis);
+        StringBuilder builder = new StringBuilder(EDIT_TIME_FORMAT.length());
+        appendPadded(builder, millis / MILLISECONDS_PER_HOUR, 2);
+        builder.append(':');
+        appendPadded(builder, (millis / MILLISECONDS_PER_MINUTE) % 60, 2);
+        return appendSecondsAndMilliseconds(builder, millis).toString();
+    }
+
+    /**
+     * Parses a time entered by the user. Accepts <code>H:m:s</code> and <code>m:s</code>,
+     * with optional fractional seconds, such as <code>00:01:05.250</code> or <code>1:05.25</code>.
+     *
+     * @return The time in milliseconds.
+     * @throws ParseException If the text is not a valid time.
+     */
+    public static long parseEditTime(@NonNull String text) throws ParseException {
+        text = text.trim();
+        final int length = text.length();
+        long millis = 0;
+        long field = 0;
+        int fieldDigits = 0;
+        int separators = 0;
+        int index = 0;
+        for (; index < length; index++) {
+            final char c = text.charAt(index);
+            if (c >= '0' && c <= '9') {
+                field = field * 10 + (c - '0');
+                if (++fieldDigits > 9) throw new ParseException("Number too long: " + text, index);
+            } else if (c == ':') {
+                if (fieldDigits == 0 || ++separators > 2) throw new ParseException("Unexpected ':' in: " + text, index);
+                millis = (millis + field) * 60;
+                field = 0;
+                fieldDigits = 0;
+            } else if (c == '.') {
+                break;
+            } else {
+                throw new ParseException("Unexpected character in: " + text, index);
+            }
+        }
+        if (fieldDigits == 0 || separators == 0) {
+            throw new ParseException("Not a time: " + text, index);
+        }
+        millis = (millis + field) * MILLISECONDS_PER_SECOND;
+
+        if (index < length) { // Fractional seconds.
+            long fractionScale = 100;
+            if (++index == length) throw new ParseException("Missing fraction: " + text, index);
+            for (; index < length; index++) {
+                final char c = text.charAt(index);
+                if (c < '0' || c > '9') throw new ParseException("Unexpected character in: " + text, index);
+                millis += (c - '0') * fractionScale; // Digits beyond milliseconds are ignored.
+                fractionScale /= 10;
+            }
+        }
+        return millis;
+    }
+
+    /**
+     * Appends a duration such as <code>1:05</code> or <code>1:02:05</code>.
+     */
+    @NonNull
+    public static StringBuilder appendDuration(@NonNull StringBuilder builder, long millis) {
+        millis = Math.max(0, millis);
+        final long hours = millis / MILLISECONDS_PER_HOUR;
+        final long minutes = (millis / MILLISECONDS_PER_MINUTE) % 60;
+        if (hours > 0) {
+            builder.append(hours).append(':');
+            appendPadded(builder, minutes, 2);
+        } else {
+            builder.append(minutes);
+        }
+        builder.append(':');
+        return appendPadded(builder, (millis / MILLISECONDS_PER_SECOND) % 60, 2);
+    }
+
+    /**
+     * @return The localized time saved, in hours and minutes, minutes and seconds, or only seconds.
+     */
+    @NonNull
+    public static String formatTimeSaved(long totalSecondsSaved) {
+        final long hoursSaved = totalSecondsSaved / 3600;
+        final long minutesSaved = (totalSecondsSaved / 60) % 60;
+        if (hoursSaved > 0) {
+            return str("sb_stats_saved_hour_format", hoursSaved, minutesSaved);
+        }
+        final long secondsSaved = totalSecondsSaved % 60;
+        if (minutesSaved > 0) {
+            return str("sb_stats_saved_minute_format", minutesSaved, secondsSaved);
+        }
+        return str("sb_stats_saved_second_format", secondsSaved);
+    }
+
+    /**
+     * @return A count with grouping separators of the device locale, such as <code>1,234,567</code>.
+     */
+    @NonNull
+    public static String formatCount(long count) {
+        return countFormatter.get().format(count);
+    }
+
+    /**
+     * Appends a HTML color, such as <code>#FF0000</code>. The alpha channel is ignored.
+     */
+    @NonNull
+    public static StringBuilder appendHexColor(@NonNull StringBuilder builder, int color) {
+        builder.append('#');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            builder.append(HEX_DIGITS[(color >> shift) & 0xF]);
+        }
+        return builder;
+    }
+
+    @NonNull
+    private static StringBuilder appendSecondsAndMilliseconds(@NonNull StringBuilder builder, long millis) {
+        builder.append(':');
+        appendPadded(builder, (millis / MILLISECONDS_PER_SECOND) % 60, 2);
+        builder.append('.');
+        return appendPadded(builder, millis % MILLISECONDS_PER_SECOND, 3);
+    }
+
+    @NonNull
+    private static StringBuilder appendPadded(@NonNull StringBuilder builder, long value, int minimumDigits) {
+        for (long limit = 10, digits = 1; digits < minimumDigits; limit *= 10, digits++) {
+            if (value < limit) builder.append('0');
+        }
+        return builder.append(value);
+    }
+}
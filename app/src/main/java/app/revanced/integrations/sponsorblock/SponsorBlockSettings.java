@@ -7,6 +7,7 @@ import static app.revanced.integrations.utils.StringRef.str;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.graphics.Color;
 import android.util.Patterns;
 
 import androidx.annotation.NonNull;
@@ -16,6 +17,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import app.revanced.integrations.settings.SettingsEnum;
@@ -39,15 +42,16 @@ public class SponsorBlockSettings {
             JSONObject barTypesObject = settingsJson.getJSONObject("barTypes");
             JSONArray categorySelectionsArray = settingsJson.getJSONArray("categorySelections");
 
+            // Read and validate everything before changing anything, so an invalid import leaves all settings unchanged.
+            Map<SegmentCategory, Integer> colors = new HashMap<>();
             for (SegmentCategory category : SegmentCategory.categoriesWithoutUnsubmitted()) {
-                // clear existing behavior, as browser plugin exports no behavior for ignored categories
-                category.behaviour = CategoryBehaviour.IGNORE;
                 if (barTypesObject.has(category.key)) {
                     JSONObject categoryObject = barTypesObject.getJSONObject(category.key);
-                    category.setColor(categoryObject.getString("color"));
+                    colors.put(category, Color.parseColor(categoryObject.getString("color")));
                 }
             }
 
+            Map<SegmentCategory, CategoryBehaviour> behaviours = new HashMap<>();
             for (int i = 0; i < categorySelectionsArray.length(); i++) {
                 JSONObject categorySelectionObject = categorySelectionsArray.getJSONObject(i);
 
@@ -63,9 +67,48 @@ public class SponsorBlockSettings {
                     ReVancedUtils.showToastLong(categoryKey + " unknown behavior key: " + desktopKey);
                 } else if (category == SegmentCategory.HIGHLIGHT && behaviour == CategoryBehaviour.SKIP_AUTOMATICALLY_ONCE) {
                     ReVancedUtils.showToastLong("Skip-once behavior not allowed for " + category.key);
-                    category.behaviour = CategoryBehaviour.SKIP_AUTOMATICALLY; // use closest match
+                    behaviours.put(category, CategoryBehaviour.SKIP_AUTOMATICALLY); // use closest match
                 } else {
-                    category.behaviour = behaviour;
+                    behaviours.put(category, behaviour);
+                }
+            }
+
+            // User id does not exist if user never voted or created any segments.
+            String userID = settingsJson.has("userID") ? settingsJson.getString("userID") : null;
+            final boolean isVip = settingsJson.getBoolean("isVip");
+            final boolean dontShowNotice = settingsJson.getBoolean("dontShowNotice");
+            final boolean trackViewCount = settingsJson.getBoolean("trackViewCount");
+            final boolean showTimeWithSkips = settingsJson.getBoolean("showTimeWithSkips");
+            String serverAddress = settingsJson.getString("serverAddress");
+
+            final float minDuration = (float) settingsJson.getDouble("minDuration");
+            if (minDuration < 0) {
+                throw new IllegalArgumentException("invalid minDuration: " + minDuration);
+            }
+
+            Integer skipCount = null;
+            if (settingsJson.has("skipCount")) { // Value not exported in old versions of ReVanced
+                skipCount = settingsJson.getInt("skipCount");
+                if (skipCount < 0) {
+                    throw new IllegalArgumentException("invalid skipCount: " + skipCount);
+                }
+            }
+
+            Double minutesSaved = null;
+            if (settingsJson.has("minutesSaved")) {
+                minutesSaved = settingsJson.getDouble("minutesSaved");
+                if (minutesSaved < 0) {
+                    throw new IllegalArgumentException("invalid minutesSaved: " + minutesSaved);
+                }
+            }
+
+            for (SegmentCategory category : SegmentCategory.categoriesWithoutUnsubmitted()) {
+                // clear existing behavior, as browser plugin exports no behavior for ignored categories
+                CategoryBehaviour behaviour = behaviours.get(category);
+                category.behaviour = behaviour == null ? CategoryBehaviour.IGNORE : behaviour;
+                Integer color = colors.get(category);
+                if (color != null) {
+                    category.setColor(color);
                 }
             }
             SegmentCategory.updateEnabledCategories();
@@ -77,42 +120,25 @@ public class SponsorBlockSettings {
             }
             editor.apply();
 
-            if (settingsJson.has("userID")) {
-                // User id does not exist if user never voted or created any segments.
-                String userID = settingsJson.getString("userID");
-                if (isValidSBUserId(userID)) {
-                    SettingsEnum.SB_PRIVATE_USER_ID.saveValue(userID);
-                }
+            if (userID != null && isValidSBUserId(userID)) {
+                SettingsEnum.SB_PRIVATE_USER_ID.saveValue(userID);
             }
-            SettingsEnum.SB_USER_IS_VIP.saveValue(settingsJson.getBoolean("isVip"));
-            SettingsEnum.SB_TOAST_ON_SKIP.saveValue(!settingsJson.getBoolean("dontShowNotice"));
-            SettingsEnum.SB_TRACK_SKIP_COUNT.saveValue(settingsJson.getBoolean("trackViewCount"));
-            SettingsEnum.SB_VIDEO_LENGTH_WITHOUT_SEGMENTS.saveValue(settingsJson.getBoolean("showTimeWithSkips"));
+            SettingsEnum.SB_USER_IS_VIP.saveValue(isVip);
+            SettingsEnum.SB_TOAST_ON_SKIP.saveValue(!dontShowNotice);
+            SettingsEnum.SB_TRACK_SKIP_COUNT.saveValue(trackViewCount);
+            SettingsEnum.SB_VIDEO_LENGTH_WITHOUT_SEGMENTS.saveValue(showTimeWithSkips);
 
-            String serverAddress = settingsJson.getString("serverAddress");
             if (isValidSBServerAddress(serverAddress)) { // Old versions of ReVanced exported wrong url format
                 SettingsEnum.SB_API_URL.saveValue(serverAddress);
             }
 
-            final float minDuration = (float) settingsJson.getDouble("minDuration");
-            if (minDuration < 0) {
-                throw new IllegalArgumentException("invalid minDuration: " + minDuration);
-            }
             SettingsEnum.SB_SEGMENT_MIN_DURATION.saveValue(minDuration);
 
-            if (settingsJson.has("skipCount")) { // Value not exported in old versions of ReVanced
-                int skipCount = settingsJson.getInt("skipCount");
-                if (skipCount < 0) {
-                    throw new IllegalArgumentException("invalid skipCount: " + skipCount);
-                }
+            if (skipCount != null) {
                 SettingsEnum.SB_LOCAL_TIME_SAVED_NUMBER_SEGMENTS.saveValue(skipCount);
             }
 
-            if (settingsJson.has("minutesSaved")) {
-                final double minutesSaved = settingsJson.getDouble("minutesSaved");
-                if (minutesSaved < 0) {
-                    throw new IllegalArgumentException("invalid minutesSaved: " + minutesSaved);
-                }
+            if (minutesSaved != null) {
                 SettingsEnum.SB_LOCAL_TIME_SAVED_MILLISECONDS.saveValue((long) (minutesSaved * 60 * 1000));
             }
 
@@ -2,7 +2,6 @@ package app.revanced.integrations.sponsorblock;
 
 import static app.revanced.integrations.utils.StringRef.str;
 
-import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
@@ -13,11 +12,6 @@ import androidx.annotation.NonNull;
 
 import java.lang.ref.WeakReference;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.Duration;
-import java.util.Date;
-import java.util.Objects;
-import java.util.TimeZone;
 
 import app.revanced.integrations.patches.video.VideoInformation;
 import app.revanced.integrations.settings.SettingsEnum;
@@ -29,16 +23,12 @@ import app.revanced.integrations.sponsorblock.requests.SBRequester;
 import app.revanced.integrations.sponsorblock.ui.SponsorBlockViewController;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 
 /**
  * Not thread safe. All fields/methods must be accessed from the main thread.
  */
 public class SponsorBlockUtils {
-    private static final String MANUAL_EDIT_TIME_FORMAT = "HH:mm:ss.SSS";
-    @SuppressLint("SimpleDateFormat")
-    private static final SimpleDateFormat manualEditTimeFormatter = new SimpleDateFormat(MANUAL_EDIT_TIME_FORMAT);
-    @SuppressLint("SimpleDateFormat")
-    private static final SimpleDateFormat voteSegmentTimeFormatter = new SimpleDateFormat();
     private static final String LOCKED_COLOR = "#FFC83D";
     private static final EditByHandSaveDialogListener editByHandSaveDialogListener = new EditByHandSaveDialogListener();
     private static final DialogInterface.OnClickListener segmentVoteClickListener = (dialog, which) -> {
@@ -61,7 +51,7 @@ public class SponsorBlockUtils {
                 SegmentVote voteOption = voteOptions[i];
                 String title = voteOption.title.toString();
                 if (SettingsEnum.SB_USER_IS_VIP.getBoolean() && segment.isLocked && voteOption.shouldHighlight) {
-                    items[i] = Html.fromHtml(String.format("<font color=\"%s\">%s</font>", LOCKED_COLOR, title));
+                    items[i] = Html.fromHtml("<font color=\"" + LOCKED_COLOR + "\">" + title + "</font>");
                 } else {
                     items[i] = title;
                 }
@@ -109,13 +99,13 @@ public class SponsorBlockUtils {
             final boolean isStart = DialogInterface.BUTTON_NEGATIVE == which;
 
             final EditText textView = new EditText(context);
-            textView.setHint(MANUAL_EDIT_TIME_FORMAT);
+            textView.setHint(SponsorBlockFormatter.EDIT_TIME_FORMAT);
             if (isStart) {
                 if (newSponsorSegmentStartMillis >= 0)
-                    textView.setText(manualEditTimeFormatter.format(new Date(newSponsorSegmentStartMillis)));
+                    textView.setText(SponsorBlockFormatter.formatEditTime(newSponsorSegmentStartMillis));
             } else {
                 if (newSponsorSegmentEndMillis >= 0)
-                    textView.setText(manualEditTimeFormatter.format(new Date(newSponsorSegmentEndMillis)));
+                    textView.setText(SponsorBlockFormatter.formatEditTime(newSponsorSegmentEndMillis));
             }
 
             editByHandSaveDialogListener.settingStart = isStart;
@@ -190,12 +180,6 @@ public class SponsorBlockUtils {
         }
     };
 
-    static {
-        TimeZone utc = TimeZone.getTimeZone("UTC");
-        manualEditTimeFormatter.setTimeZone(utc);
-        voteSegmentTimeFormatter.setTimeZone(utc);
-    }
-
     private SponsorBlockUtils() {
     }
 
@@ -222,7 +206,7 @@ public class SponsorBlockUtils {
                 return;
             }
             clearUnsubmittedSegmentTimes();
-            ReVancedUtils.runOnBackgroundThread(() -> {
+            TaskLane.NETWORK.execute(() -> {
                 SBRequester.submitSegments(videoId, segmentCategory.key, start, end, videoLength);
                 SegmentPlaybackController.executeDownloadSegments(videoId);
             });
@@ -234,7 +218,7 @@ public class SponsorBlockUtils {
     public static void onMarkLocationClicked() {
         try {
             ReVancedUtils.verifyOnMainThread();
-            newSponsorSegmentDialogShownMillis = VideoInformation.getVideoTime();
+            newSponsorSegmentDialogShownMillis = VideoInformation.getPlaybackTime();
 
             new AlertDialog.Builder(SponsorBlockViewController.getOverLaysViewGroupContext())
                     .setTitle(str("sb_new_segment_title"))
@@ -293,31 +277,23 @@ public class SponsorBlockUtils {
 
             // use same time formatting as shown in the video player
             final long videoLength = VideoInformation.getVideoLength();
-            final String formatPattern;
-            if (videoLength < (10 * 60 * 1000)) {
-                formatPattern = "m:ss.SSS"; // less than 10 minutes
-            } else if (videoLength < (60 * 60 * 1000)) {
-                formatPattern = "mm:ss.SSS"; // less than 1 hour
-            } else if (videoLength < (10 * 60 * 60 * 1000)) {
-                formatPattern = "H:mm:ss.SSS"; // less than 10 hours
-            } else {
-                formatPattern = "HH:mm:ss.SSS"; // why is this on YouTube
-            }
-            voteSegmentTimeFormatter.applyPattern(formatPattern);
 
             final int numberOfSegments = segments.length;
             CharSequence[] titles = new CharSequence[numberOfSegments];
+            StringBuilder htmlBuilder = new StringBuilder();
             for (int i = 0; i < numberOfSegments; i++) {
                 SponsorSegment segment = segments[i];
                 if (segment.category == SegmentCategory.UNSUBMITTED) {
                     continue;
                 }
-                StringBuilder htmlBuilder = new StringBuilder();
-                htmlBuilder.append(String.format("<b><font color=\"#%06X\">⬤</font> %s<br>",
-                        segment.category.color, segment.category.title));
-                htmlBuilder.append(voteSegmentTimeFormatter.format(new Date(segment.start)));
+                htmlBuilder.setLength(0);
+                htmlBuilder.append("<b><font color=\"");
+                SponsorBlockFormatter.appendHexColor(htmlBuilder, segment.category.color);
+                htmlBuilder.append("\">⬤</font> ").append(segment.category.title).append("<br>");
+                SponsorBlockFormatter.appendPlayerTime(htmlBuilder, segment.start, videoLength);
                 if (segment.category != SegmentCategory.HIGHLIGHT) {
-                    htmlBuilder.append(" to ").append(voteSegmentTimeFormatter.format(new Date(segment.end)));
+                    htmlBuilder.append(" to ");
+                    SponsorBlockFormatter.appendPlayerTime(htmlBuilder, segment.end, videoLength);
                 }
                 htmlBuilder.append("</b>");
                 if (i + 1 != numberOfSegments) // prevents trailing new line after last segment
@@ -381,7 +357,7 @@ public class SponsorBlockUtils {
         SettingsEnum.SB_LOCAL_TIME_SAVED_NUMBER_SEGMENTS.saveValue(SettingsEnum.SB_LOCAL_TIME_SAVED_NUMBER_SEGMENTS.getInt() + 1);
 
         if (SettingsEnum.SB_TRACK_SKIP_COUNT.getBoolean()) {
-            ReVancedUtils.runOnBackgroundThread(() -> SBRequester.sendSegmentSkippedViewedRequest(segment));
+            TaskLane.NETWORK.execute(() -> SBRequester.sendSegmentSkippedViewedRequest(segment), TaskLane.PRIORITY_LOW);
         }
     }
 
@@ -401,17 +377,7 @@ public class SponsorBlockUtils {
     }
 
     public static String getTimeSavedString(long totalSecondsSaved) {
-        Duration duration = Duration.ofSeconds(totalSecondsSaved);
-        final long hoursSaved = duration.toHours();
-        final long minutesSaved = duration.toMinutes() % 60;
-        if (hoursSaved > 0) {
-            return str("sb_stats_saved_hour_format", hoursSaved, minutesSaved);
-        }
-        final long secondsSaved = duration.getSeconds() % 60;
-        if (minutesSaved > 0) {
-            return str("sb_stats_saved_minute_format", minutesSaved, secondsSaved);
-        }
-        return str("sb_stats_saved_second_format", secondsSaved);
+        return SponsorBlockFormatter.formatTimeSaved(totalSecondsSaved);
     }
 
     private static class EditByHandSaveDialogListener implements DialogInterface.OnClickListener {
@@ -425,8 +391,8 @@ public class SponsorBlockUtils {
                 if (editText == null) return;
 
                 long time = (which == DialogInterface.BUTTON_NEUTRAL) ?
-                        VideoInformation.getVideoTime() :
-                        (Objects.requireNonNull(manualEditTimeFormatter.parse(editText.getText().toString())).getTime());
+                        VideoInformation.getPlaybackTime() :
+                        SponsorBlockFormatter.parseEditTime(editText.getText().toString());
 
                 if (settingStart)
                     newSponsorSegmentStartMillis = Math.max(time, 0);
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Objects;
 
 import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.sponsorblock.SponsorBlockFormatter;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.StringRef;
 
@@ -227,8 +228,8 @@ public enum SegmentCategory {
 
     @NonNull
     private static String getCategoryColorDotHTML(int color) {
-        color &= 0xFFFFFF;
-        return String.format("<font color=\"#%06X\">⬤</font>", color);
+        StringBuilder builder = new StringBuilder("<font color=\"");
+        return SponsorBlockFormatter.appendHexColor(builder, color).append("\">⬤</font>").toString();
     }
 
     @NonNull
@@ -323,7 +324,7 @@ public enum SegmentCategory {
      */
     @NonNull
     public String colorString() {
-        return String.format("#%06X", color);
+        return SponsorBlockFormatter.appendHexColor(new StringBuilder(7), color).toString();
     }
 
     public void setColor(@NonNull String colorString) throws IllegalArgumentException {
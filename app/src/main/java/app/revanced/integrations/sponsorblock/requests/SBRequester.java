@@ -27,6 +27,7 @@ import app.revanced.integrations.sponsorblock.objects.SponsorSegment.SegmentVote
 import app.revanced.integrations.sponsorblock.objects.UserStats;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ReVancedUtils;
+import app.revanced.integrations.utils.TaskLane;
 
 public class SBRequester {
     private static final String TIME_TEMPLATE = "%.3f";
@@ -156,7 +157,7 @@ public class SBRequester {
     }
 
     private static void voteOrRequestCategoryChange(@NonNull SponsorSegment segment, @NonNull SegmentVote voteOption, SegmentCategory categoryToVoteFor) {
-        ReVancedUtils.runOnBackgroundThread(() -> {
+        TaskLane.NETWORK.execute(() -> {
             try {
                 String segmentUuid = segment.UUID;
                 String uuid = SponsorBlockSettings.getSBPrivateUserID();
@@ -228,7 +229,7 @@ public class SBRequester {
         if (now < (SettingsEnum.SB_LAST_VIP_CHECK.getLong() + TimeUnit.DAYS.toMillis(3))) {
             return;
         }
-        ReVancedUtils.runOnBackgroundThread(() -> {
+        TaskLane.NETWORK.execute(() -> {
             try {
                 JSONObject json = getJSONObject(SBRoutes.IS_USER_VIP, SponsorBlockSettings.getSBPrivateUserID());
                 boolean vip = json.getBoolean("vip");
@@ -17,14 +17,14 @@ import app.revanced.integrations.sponsorblock.SponsorBlockUtils;
 import app.revanced.integrations.utils.LogHelper;
 import app.revanced.integrations.utils.ResourceType;
 
-public final class NewSegmentLayout extends FrameLayout {
+public final class NewSegmentLayout extends FrameLayout implements SponsorBlockViewController.OverlayElement {
     private static final ColorStateList rippleColorStateList = new ColorStateList(
             new int[][]{new int[]{android.R.attr.state_enabled}},
             new int[]{0x33ffffff} // sets the ripple color to white
     );
-    final int defaultBottomMargin;
-    final int ctaBottomMargin;
-    final int hiddenBottomMargin;
+    private final int defaultBottomMargin;
+    private final int ctaBottomMargin;
+    private final int hiddenBottomMargin;
     private final int rippleEffectId;
 
     public NewSegmentLayout(final Context context) {
@@ -97,6 +97,21 @@ public final class NewSegmentLayout extends FrameLayout {
         hiddenBottomMargin = (int) Math.round((ctaBottomMargin) * 0.5);  // margin when the button container is hidden
     }
 
+    @Override
+    public int getDefaultBottomMargin() {
+        return defaultBottomMargin;
+    }
+
+    @Override
+    public int getCtaBottomMargin() {
+        return ctaBottomMargin;
+    }
+
+    @Override
+    public int getHiddenBottomMargin() {
+        return hiddenBottomMargin;
+    }
+
     /**
      * Initializes a segment button with the given resource identifier name with the given handler and a ripple effect.
      *
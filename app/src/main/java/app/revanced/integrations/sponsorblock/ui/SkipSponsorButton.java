@@ -21,11 +21,11 @@ import app.revanced.integrations.sponsorblock.SegmentPlaybackController;
 import app.revanced.integrations.sponsorblock.objects.SponsorSegment;
 import app.revanced.integrations.utils.ResourceType;
 
-public class SkipSponsorButton extends FrameLayout {
+public class SkipSponsorButton extends FrameLayout implements SponsorBlockViewController.SkipButton {
     private static final boolean highContrast = true;
-    final int defaultBottomMargin;
-    final int ctaBottomMargin;
-    final int hiddenBottomMargin;
+    private final int defaultBottomMargin;
+    private final int ctaBottomMargin;
+    private final int hiddenBottomMargin;
     private final LinearLayout skipSponsorBtnContainer;
     private final TextView skipSponsorTextView;
     private final Paint background;
@@ -88,9 +88,22 @@ public class SkipSponsorButton extends FrameLayout {
         super.dispatchDraw(canvas);
     }
 
-    /**
-     * @return true, if this button state was changed
-     */
+    @Override
+    public int getDefaultBottomMargin() {
+        return defaultBottomMargin;
+    }
+
+    @Override
+    public int getCtaBottomMargin() {
+        return ctaBottomMargin;
+    }
+
+    @Override
+    public int getHiddenBottomMargin() {
+        return hiddenBottomMargin;
+    }
+
+    @Override
     public boolean updateSkipButtonText(@NonNull SponsorSegment segment) {
         this.segment = segment;
         CharSequence newText = segment.getSkipButtonText();
@@ -14,7 +14,10 @@ import androidx.annotation.Nullable;
 
 import java.lang.ref.WeakReference;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
+import app.revanced.integrations.settings.SettingsChangeBus;
+import app.revanced.integrations.settings.SettingsEnum;
 import app.revanced.integrations.shared.PlayerType;
 import app.revanced.integrations.sponsorblock.objects.SponsorSegment;
 import app.revanced.integrations.utils.LogHelper;
@@ -22,11 +25,83 @@ import app.revanced.integrations.utils.ReVancedUtils;
 import app.revanced.integrations.utils.ResourceType;
 
 public class SponsorBlockViewController {
-    private static WeakReference<RelativeLayout> inlineSponsorOverlayRef = new WeakReference<>(null);
+
+    /**
+     * A view of the inline overlay. Implemented by {@link NewSegmentLayout} and {@link SkipSponsorButton}.
+     * The visibility and layout methods are implemented by {@link View}.
+     */
+    interface OverlayElement {
+        int getVisibility();
+
+        void setVisibility(int visibility);
+
+        ViewGroup.LayoutParams getLayoutParams();
+
+        void setLayoutParams(ViewGroup.LayoutParams params);
+
+        int getDefaultBottomMargin();
+
+        int getCtaBottomMargin();
+
+        int getHiddenBottomMargin();
+    }
+
+    interface SkipButton extends OverlayElement {
+        /**
+         * @return true, if this button state was changed
+         */
+        boolean updateSkipButtonText(@NonNull SponsorSegment segment);
+    }
+
+    /**
+     * Views of an inflated inline overlay.
+     */
+    static final class InlineOverlay {
+        /**
+         * Added to the player overlay group.
+         */
+        @NonNull
+        final ViewGroup layout;
+        @NonNull
+        final SkipButton skipHighlightButton;
+        @NonNull
+        final SkipButton skipSponsorButton;
+        @NonNull
+        final OverlayElement newSegmentLayout;
+
+        InlineOverlay(@NonNull ViewGroup layout, @NonNull SkipButton skipHighlightButton,
+                      @NonNull SkipButton skipSponsorButton, @NonNull OverlayElement newSegmentLayout) {
+            this.layout = Objects.requireNonNull(layout);
+            this.skipHighlightButton = Objects.requireNonNull(skipHighlightButton);
+            this.skipSponsorButton = Objects.requireNonNull(skipSponsorButton);
+            this.newSegmentLayout = Objects.requireNonNull(newSegmentLayout);
+        }
+    }
+
+    interface OverlayInflater {
+        /**
+         * @return A new overlay, not yet added to the player overlay group.
+         */
+        @NonNull
+        InlineOverlay inflate();
+    }
+
+    /**
+     * Only changed by tests.
+     */
+    @NonNull
+    private static OverlayInflater overlayInflater = SponsorBlockViewController::inflateFromResources;
+    /**
+     * Only changed by tests.
+     */
+    @NonNull
+    private static Executor mainThreadExecutor = ReVancedUtils::runOnMainThreadNowOrLater;
+
+    private static WeakReference<ViewGroup> inlineSponsorOverlayRef = new WeakReference<>(null);
     private static WeakReference<ViewGroup> youtubeOverlaysLayoutRef = new WeakReference<>(null);
-    private static WeakReference<SkipSponsorButton> skipHighlightButtonRef = new WeakReference<>(null);
-    private static WeakReference<SkipSponsorButton> skipSponsorButtonRef = new WeakReference<>(null);
-    private static WeakReference<NewSegmentLayout> newSegmentLayoutRef = new WeakReference<>(null);
+    private static WeakReference<SkipButton> skipHighlightButtonRef = new WeakReference<>(null);
+    private static WeakReference<SkipButton> skipSponsorButtonRef = new WeakReference<>(null);
+    private static WeakReference<OverlayElement> newSegmentLayoutRef = new WeakReference<>(null);
     private static boolean canShowViewElements;
     private static boolean newSegmentLayoutVisible;
     @Nullable
@@ -39,6 +114,19 @@ public class SponsorBlockViewController {
             playerTypeChanged(type);
             return null;
         });
+        SettingsChangeBus.subscribe(setting -> {
+            if (!SettingsEnum.SB_ENABLED.getBoolean()) {
+                mainThreadExecutor.execute(SponsorBlockViewController::tearDown);
+            }
+        }, SettingsEnum.SB_ENABLED);
+    }
+
+    /**
+     * Uses fake views and runs main thread work on the calling thread. Only for tests.
+     */
+    static void setTestDependencies(@NonNull OverlayInflater inflater, @NonNull Executor mainThread) {
+        overlayInflater = Objects.requireNonNull(inflater);
+        mainThreadExecutor = Objects.requireNonNull(mainThread);
     }
 
     public static Context getOverLaysViewGroupContext() {
@@ -51,26 +139,69 @@ public class SponsorBlockViewController {
 
     /**
      * Injection point.
+     * <p>
+     * The overlay is not inflated here, but only when a segment button or the new segment layout is first shown.
+     * Most videos have no segments to skip, and then the overlay is never inflated.
      */
     public static void initialize(ViewGroup viewGroup) {
         try {
             LogHelper.printDebug(SponsorBlockViewController.class, "initializing");
 
-            // hide any old components, just in case they somehow are still hanging around
-            hideAll();
+            // remove any old components, just in case they somehow are still hanging around
+            tearDown();
 
-            Context context = ReVancedUtils.getContext();
-            RelativeLayout layout = new RelativeLayout(context);
-            layout.setLayoutParams(new RelativeLayout.LayoutParams(RelativeLayout.LayoutParams.MATCH_PARENT, RelativeLayout.LayoutParams.MATCH_PARENT));
-            LayoutInflater.from(ReVancedUtils.getContext()).inflate(identifier("inline_sponsor_overlay", ResourceType.LAYOUT), layout);
-            inlineSponsorOverlayRef = new WeakReference<>(layout);
+            youtubeOverlaysLayoutRef = new WeakReference<>(viewGroup);
+            newSegmentLayoutVisible = false;
+            skipHighlight = null;
+            skipSegment = null;
+        } catch (Exception ex) {
+            LogHelper.printException(SponsorBlockViewController.class, "initialize failure", ex);
+        }
+    }
+
+    @NonNull
+    private static InlineOverlay inflateFromResources() {
+        Context context = Objects.requireNonNull(ReVancedUtils.getContext());
+        RelativeLayout layout = new RelativeLayout(context);
+        layout.setLayoutParams(new RelativeLayout.LayoutParams(RelativeLayout.LayoutParams.MATCH_PARENT, RelativeLayout.LayoutParams.MATCH_PARENT));
+        LayoutInflater.from(context).inflate(identifier("inline_sponsor_overlay", ResourceType.LAYOUT), layout);
+
+        return new InlineOverlay(layout,
+                Objects.requireNonNull(layout.<SkipSponsorButton>findViewById(identifier("sb_skip_highlight_button", ResourceType.ID))),
+                Objects.requireNonNull(layout.<SkipSponsorButton>findViewById(identifier("sb_skip_sponsor_button", ResourceType.ID))),
+                Objects.requireNonNull(layout.<NewSegmentLayout>findViewById(identifier("sb_new_segment_view", ResourceType.ID))));
+    }
+
+    /**
+     * @return The inline overlay, inflated now if needed.
+     * Null if SponsorBlock is disabled or the player overlay is not available.
+     */
+    @Nullable
+    private static ViewGroup getOrInflateOverlay() {
+        ViewGroup layout = inlineSponsorOverlayRef.get();
+        if (layout != null) {
+            return layout;
+        }
+        if (!SettingsEnum.SB_ENABLED.getBoolean()) {
+            return null;
+        }
+        ViewGroup viewGroup = youtubeOverlaysLayoutRef.get();
+        if (viewGroup == null) {
+            return null;
+        }
+
+        try {
+            LogHelper.printDebug(SponsorBlockViewController.class, "inflating overlay");
+
+            InlineOverlay overlay = overlayInflater.inflate();
+            layout = overlay.layout;
 
             viewGroup.addView(layout);
             viewGroup.setOnHierarchyChangeListener(new ViewGroup.OnHierarchyChangeListener() {
                 @Override
                 public void onChildViewAdded(View parent, View child) {
                     // ensure SB buttons and controls are always on top, otherwise the endscreen cards can cover the skip button
-                    RelativeLayout layout = inlineSponsorOverlayRef.get();
+                    ViewGroup layout = inlineSponsorOverlayRef.get();
                     if (layout != null) {
                         layout.bringToFront();
                     }
@@ -80,21 +211,38 @@ public class SponsorBlockViewController {
                 public void onChildViewRemoved(View parent, View child) {
                 }
             });
-            youtubeOverlaysLayoutRef = new WeakReference<>(viewGroup);
 
-            skipHighlightButtonRef = new WeakReference<>(
-                    Objects.requireNonNull(layout.findViewById(identifier("sb_skip_highlight_button", ResourceType.ID))));
-            skipSponsorButtonRef = new WeakReference<>(
-                    Objects.requireNonNull(layout.findViewById(identifier("sb_skip_sponsor_button", ResourceType.ID))));
-            newSegmentLayoutRef = new WeakReference<>(
-                    Objects.requireNonNull(layout.findViewById(identifier("sb_new_segment_view", ResourceType.ID))));
+            inlineSponsorOverlayRef = new WeakReference<>(layout);
+            skipHighlightButtonRef = new WeakReference<>(overlay.skipHighlightButton);
+            skipSponsorButtonRef = new WeakReference<>(overlay.skipSponsorButton);
+            newSegmentLayoutRef = new WeakReference<>(overlay.newSegmentLayout);
 
-            newSegmentLayoutVisible = false;
-            skipHighlight = null;
-            skipSegment = null;
+            // Apply the margins and visibility of the current player type.
+            playerTypeChanged(PlayerType.getCurrent());
+            return layout;
         } catch (Exception ex) {
-            LogHelper.printException(SponsorBlockViewController.class, "initialize failure", ex);
+            LogHelper.printException(SponsorBlockViewController.class, "inflate overlay failure", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Removes the inline overlay from the player, if it was inflated.
+     * The overlay is inflated again if it is needed later.
+     */
+    private static void tearDown() {
+        hideAll();
+
+        ViewGroup layout = inlineSponsorOverlayRef.get();
+        ViewGroup viewGroup = youtubeOverlaysLayoutRef.get();
+        if (viewGroup != null && layout != null) {
+            viewGroup.setOnHierarchyChangeListener(null);
+            viewGroup.removeView(layout);
         }
+        inlineSponsorOverlayRef = new WeakReference<>(null);
+        skipHighlightButtonRef = new WeakReference<>(null);
+        skipSponsorButtonRef = new WeakReference<>(null);
+        newSegmentLayoutRef = new WeakReference<>(null);
     }
 
     public static void hideAll() {
@@ -105,7 +253,8 @@ public class SponsorBlockViewController {
 
     public static void showSkipHighlightButton(@NonNull SponsorSegment segment) {
         skipHighlight = Objects.requireNonNull(segment);
-        NewSegmentLayout newSegmentLayout = newSegmentLayoutRef.get();
+        getOrInflateOverlay();
+        OverlayElement newSegmentLayout = newSegmentLayoutRef.get();
         // don't show highlight button if create new segment is visible
         final boolean buttonVisibility = newSegmentLayout == null || newSegmentLayout.getVisibility() != View.VISIBLE;
         updateSkipButton(skipHighlightButtonRef.get(), segment, buttonVisibility);
@@ -113,6 +262,7 @@ public class SponsorBlockViewController {
 
     public static void showSkipSegmentButton(@NonNull SponsorSegment segment) {
         skipSegment = Objects.requireNonNull(segment);
+        getOrInflateOverlay();
         updateSkipButton(skipSponsorButtonRef.get(), segment, true);
     }
 
@@ -126,7 +276,7 @@ public class SponsorBlockViewController {
         updateSkipButton(skipSponsorButtonRef.get(), null, false);
     }
 
-    private static void updateSkipButton(@Nullable SkipSponsorButton button,
+    private static void updateSkipButton(@Nullable SkipButton button,
                                          @Nullable SponsorSegment segment, boolean visible) {
         if (button == null) {
             return;
@@ -138,7 +288,8 @@ public class SponsorBlockViewController {
     }
 
     public static void toggleNewSegmentLayoutVisibility() {
-        NewSegmentLayout newSegmentLayout = newSegmentLayoutRef.get();
+        getOrInflateOverlay();
+        OverlayElement newSegmentLayout = newSegmentLayoutRef.get();
         if (newSegmentLayout == null) { // should never happen
             LogHelper.printException(SponsorBlockViewController.class, "toggleNewSegmentLayoutVisibility failure");
             return;
@@ -155,7 +306,7 @@ public class SponsorBlockViewController {
         setViewVisibility(newSegmentLayoutRef.get(), false);
     }
 
-    private static void setViewVisibility(@Nullable View view, boolean visible) {
+    private static void setViewVisibility(@Nullable OverlayElement view, boolean visible) {
         if (view == null) {
             return;
         }
@@ -166,47 +317,39 @@ public class SponsorBlockViewController {
         }
     }
 
-    private static void playerTypeChanged(@NonNull PlayerType playerType) {
+    static void playerTypeChanged(@NonNull PlayerType playerType) {
         try {
             final boolean isWatchFullScreen = playerType == PlayerType.WATCH_WHILE_FULLSCREEN;
             canShowViewElements = (isWatchFullScreen || playerType == PlayerType.WATCH_WHILE_MAXIMIZED);
 
-            NewSegmentLayout newSegmentLayout = newSegmentLayoutRef.get();
-            setNewSegmentLayoutMargins(newSegmentLayout, isWatchFullScreen);
-            setViewVisibility(newSegmentLayoutRef.get(), newSegmentLayoutVisible);
+            OverlayElement newSegmentLayout = newSegmentLayoutRef.get();
+            setLayoutMargins(newSegmentLayout, isWatchFullScreen);
+            setViewVisibility(newSegmentLayout, newSegmentLayoutVisible);
 
-            SkipSponsorButton skipHighlightButton = skipHighlightButtonRef.get();
-            setSkipButtonMargins(skipHighlightButton, isWatchFullScreen);
+            SkipButton skipHighlightButton = skipHighlightButtonRef.get();
+            setLayoutMargins(skipHighlightButton, isWatchFullScreen);
             setViewVisibility(skipHighlightButton, skipHighlight != null);
 
-            SkipSponsorButton skipSponsorButton = skipSponsorButtonRef.get();
-            setSkipButtonMargins(skipSponsorButton, isWatchFullScreen);
+            SkipButton skipSponsorButton = skipSponsorButtonRef.get();
+            setLayoutMargins(skipSponsorButton, isWatchFullScreen);
             setViewVisibility(skipSponsorButton, skipSegment != null);
         } catch (Exception ex) {
             LogHelper.printException(SponsorBlockViewController.class, "Player type changed failure", ex);
         }
     }
 
-    private static void setNewSegmentLayoutMargins(@Nullable NewSegmentLayout layout, boolean fullScreen) {
-        if (layout != null) {
-            setLayoutMargins(layout, fullScreen, layout.defaultBottomMargin, layout.ctaBottomMargin, layout.hiddenBottomMargin);
-        }
-    }
-
-    private static void setSkipButtonMargins(@Nullable SkipSponsorButton button, boolean fullScreen) {
-        if (button != null) {
-            setLayoutMargins(button, fullScreen, button.defaultBottomMargin, button.ctaBottomMargin, button.hiddenBottomMargin);
+    private static void setLayoutMargins(@Nullable OverlayElement view, boolean fullScreen) {
+        if (view == null) {
+            return;
         }
-    }
-
-    private static void setLayoutMargins(@NonNull View view, boolean fullScreen,
-                                         int defaultBottomMargin, int ctaBottomMargin, int hiddenBottomMargin) {
         RelativeLayout.LayoutParams params = (RelativeLayout.LayoutParams) view.getLayoutParams();
         if (params == null) {
-            LogHelper.printException(SponsorBlockViewController.class, "Unable to setNewSegmentLayoutMargins (params are null)");
+            LogHelper.printException(SponsorBlockViewController.class, "Unable to setLayoutMargins (params are null)");
             return;
         }
-        params.bottomMargin = fullScreen ? (isFullscreenHidden() ? hiddenBottomMargin : ctaBottomMargin) : defaultBottomMargin;
+        params.bottomMargin = fullScreen
+                ? (isFullscreenHidden() ? view.getHiddenBottomMargin() : view.getCtaBottomMargin())
+                : view.getDefaultBottomMargin();
 
         view.setLayoutParams(params);
     }
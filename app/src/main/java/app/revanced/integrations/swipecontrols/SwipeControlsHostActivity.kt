@@ -110,6 +110,13 @@ class SwipeControlsHostActivity : Activity() {
         contentRoot.addView(overlay)
     }
 
+    override fun onPause() {
+        // apply changes waiting for the next frame, as there may be no next frame
+        audio?.flush()
+        screen?.flush()
+        super.onPause()
+    }
+
     override fun dispatchTouchEvent(ev: MotionEvent?): Boolean {
         return if ((ev != null) && gesture.submitTouchEvent(ev)) true else {
             super.dispatchTouchEvent(ev)
@@ -143,6 +150,8 @@ class SwipeControlsHostActivity : Activity() {
                 screen?.restore()
                 screen?.save()
                 screen?.restoreDefaultBrightness()
+                // save the brightness before the player is gone
+                screen?.flush()
             }
         }
     }
@@ -3,6 +3,7 @@ package app.revanced.integrations.swipecontrols.controller
 import android.content.Context
 import android.media.AudioManager
 import android.os.Build
+import app.revanced.integrations.swipecontrols.misc.FrameCoalescer
 import app.revanced.integrations.swipecontrols.misc.clamp
 import kotlin.properties.Delegates
 
@@ -64,9 +65,38 @@ class AudioVolumeController(
         get() = maximumVolumeIndex - minimumVolumeIndex
 
     /**
-     * the current volume index of the target stream
+     * volume index set but not yet applied to the stream, or [NO_PENDING_VOLUME]
+     */
+    private var pendingVolumeIndex = NO_PENDING_VOLUME
+
+    /**
+     * applies the pending volume once per display frame,
+     * so a fast swipe does not call the audio service for each volume step
+     */
+    private val volumeUpdate = FrameCoalescer {
+        if (pendingVolumeIndex != NO_PENDING_VOLUME) {
+            audioManager.setStreamVolume(targetStream, pendingVolumeIndex, 0)
+            pendingVolumeIndex = NO_PENDING_VOLUME
+        }
+    }
+
+    /**
+     * the current volume index of the target stream, including a change not yet applied
      */
     private var currentVolumeIndex: Int
-        get() = audioManager.getStreamVolume(targetStream)
-        set(value) = audioManager.setStreamVolume(targetStream, value, 0)
+        get() = if (pendingVolumeIndex != NO_PENDING_VOLUME) pendingVolumeIndex
+        else audioManager.getStreamVolume(targetStream)
+        set(value) {
+            pendingVolumeIndex = value
+            volumeUpdate.request()
+        }
+
+    /**
+     * apply a pending volume change now, instead of on the next frame
+     */
+    fun flush() = volumeUpdate.flush()
+
+    private companion object {
+        const val NO_PENDING_VOLUME = -1
+    }
 }
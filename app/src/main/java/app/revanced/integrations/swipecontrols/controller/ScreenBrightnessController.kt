@@ -3,6 +3,7 @@ package app.revanced.integrations.swipecontrols.controller
 import android.app.Activity
 import android.view.WindowManager
 import app.revanced.integrations.settings.SettingsEnum
+import app.revanced.integrations.swipecontrols.misc.FrameCoalescer
 import app.revanced.integrations.swipecontrols.misc.clamp
 
 /**
@@ -39,7 +40,8 @@ class ScreenBrightnessController(
      * save the current screen brightness, to be brought back using [restore]
      */
     fun save() {
-        SettingsEnum.SWIPE_BRIGHTNESS_VALUE.saveValue(rawScreenBrightness)
+        pendingSavedBrightness = rawScreenBrightness
+        brightnessUpdate.request()
     }
 
     /**
@@ -47,17 +49,50 @@ class ScreenBrightnessController(
      */
     fun restore() {
         if (!SettingsEnum.SWIPE_BRIGHTNESS_AUTO.boolean)
-            rawScreenBrightness = SettingsEnum.SWIPE_BRIGHTNESS_VALUE.float
+            rawScreenBrightness = pendingSavedBrightness ?: SettingsEnum.SWIPE_BRIGHTNESS_VALUE.float
     }
 
     /**
-     * wrapper for the raw screen brightness in [WindowManager.LayoutParams.screenBrightness]
+     * apply a pending brightness change and save now, instead of on the next frame
      */
-    private var rawScreenBrightness: Float
-        get() = host.window.attributes.screenBrightness
-        private set(value) {
+    fun flush() = brightnessUpdate.flush()
+
+    /**
+     * brightness set but not yet applied to the window
+     */
+    private var pendingScreenBrightness: Float? = null
+
+    /**
+     * brightness saved but not yet written to the settings
+     */
+    private var pendingSavedBrightness: Float? = null
+
+    /**
+     * applies the pending brightness to the window and the settings once per display frame,
+     * so a fast swipe does not update the window attributes and preferences for each brightness step
+     */
+    private val brightnessUpdate = FrameCoalescer {
+        pendingScreenBrightness?.let {
             val attr = host.window.attributes
-            attr.screenBrightness = value
+            attr.screenBrightness = it
             host.window.attributes = attr
+            pendingScreenBrightness = null
+        }
+        pendingSavedBrightness?.let {
+            if (it != SettingsEnum.SWIPE_BRIGHTNESS_VALUE.float)
+                SettingsEnum.SWIPE_BRIGHTNESS_VALUE.saveValue(it)
+            pendingSavedBrightness = null
+        }
+    }
+
+    /**
+     * wrapper for the raw screen brightness in [WindowManager.LayoutParams.screenBrightness],
+     * including a change not yet applied
+     */
+    private var rawScreenBrightness: Float
+        get() = pendingScreenBrightness ?: host.window.attributes.screenBrightness
+        private set(value) {
+            pendingScreenBrightness = value
+            brightnessUpdate.request()
         }
 }
\ No newline at end of file
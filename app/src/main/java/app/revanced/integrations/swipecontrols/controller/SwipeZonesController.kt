@@ -60,61 +60,88 @@ class SwipeZonesController(
     private val playerViewId = ResourceUtils.identifier("player_view", ResourceType.ID, host)
 
     /**
-     * current bounding rectangle of the player
+     * the volume and brightness zones
      */
-    private var playerRect: Rectangle? = null
+    private class Zones(
+        val volume: Rectangle,
+        val brightness: Rectangle
+    )
 
     /**
-     * rectangle of the area that is effectively usable for swipe controls
+     * zones of the current bounding rectangle of the player.
+     * calculated only when the player layout changes, so touch events do not create any rectangles
      */
-    private val effectiveSwipeRect: Rectangle
+    private var playerZones: Zones? = null
+
+    /**
+     * was the layout listener attached to the player_view?
+     */
+    private var playerBoundsListenerAttached = false
+
+    /**
+     * the player rectangle [playerZones] was created from
+     */
+    private var lastPlayerRect: Rectangle? = null
+
+    /**
+     * the current zones, using the screen rectangle until the player bounds are known
+     */
+    private val zones: Zones
         get() {
             maybeAttachPlayerBoundsListener()
-            val p = if (playerRect != null) playerRect!! else fallbackScreenRect()
-            return Rectangle(
-                p.x + _20dp,
-                p.y + _40dp,
-                p.width - _20dp,
-                p.height - _20dp - _80dp
-            )
+            return playerZones ?: createZones(fallbackScreenRect())
         }
 
     /**
      * the rectangle of the volume control zone
      */
     val volume: Rectangle
-        get() {
-            val eRect = effectiveSwipeRect
-            val zoneWidth = (eRect.width * 3) / 8
-            return Rectangle(
-                eRect.right - zoneWidth,
-                eRect.top,
-                zoneWidth,
-                eRect.height
-            )
-        }
+        get() = zones.volume
 
     /**
      * the rectangle of the screen brightness control zone
      */
     val brightness: Rectangle
-        get() {
-            val zoneWidth = (effectiveSwipeRect.width * 3) / 8
-            return Rectangle(
+        get() = zones.brightness
+
+    /**
+     * create the zones for a player rectangle
+     *
+     * @param p the player rectangle
+     */
+    private fun createZones(p: Rectangle): Zones {
+        // rectangle of the area that is effectively usable for swipe controls
+        val effectiveSwipeRect = Rectangle(
+            p.x + _20dp,
+            p.y + _40dp,
+            p.width - _20dp,
+            p.height - _20dp - _80dp
+        )
+        val zoneWidth = (effectiveSwipeRect.width * 3) / 8
+        return Zones(
+            volume = Rectangle(
+                effectiveSwipeRect.right - zoneWidth,
+                effectiveSwipeRect.top,
+                zoneWidth,
+                effectiveSwipeRect.height
+            ),
+            brightness = Rectangle(
                 effectiveSwipeRect.left,
                 effectiveSwipeRect.top,
                 zoneWidth,
                 effectiveSwipeRect.height
             )
-        }
+        )
+    }
 
     /**
      * try to attach a listener to the player_view and update the player rectangle.
      * once a listener is attached, this function does nothing
      */
     private fun maybeAttachPlayerBoundsListener() {
-        if (playerRect != null) return
+        if (playerBoundsListenerAttached) return
         host.findViewById<ViewGroup>(playerViewId)?.let {
+            playerBoundsListenerAttached = true
             onPlayerViewLayout(it)
             it.addOnLayoutChangeListener { _, _, _, _, _, _, _, _, _ ->
                 onPlayerViewLayout(it)
@@ -134,12 +161,16 @@ class SwipeZonesController(
             // and use that width for the player rectangle size
             // this automatically excludes any engagement panel from the rect
             val playerWidthWithPadding = playerSurface.width + (playerSurface.x.toInt() * 2)
-            playerRect = Rectangle(
+            val playerRect = Rectangle(
                 playerView.x.toInt(),
                 playerView.y.toInt(),
                 min(playerView.width, playerWidthWithPadding),
                 playerView.height
             )
+            if (playerZones == null || playerRect != lastPlayerRect) {
+                lastPlayerRect = playerRect
+                playerZones = createZones(playerRect)
+            }
         }
     }
 }
\ No newline at end of file
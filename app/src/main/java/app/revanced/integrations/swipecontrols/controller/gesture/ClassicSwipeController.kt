@@ -7,7 +7,6 @@ import app.revanced.integrations.swipecontrols.SwipeControlsHostActivity
 import app.revanced.integrations.swipecontrols.controller.gesture.core.BaseGestureController
 import app.revanced.integrations.swipecontrols.controller.gesture.core.SwipeDetector
 import app.revanced.integrations.swipecontrols.misc.contains
-import app.revanced.integrations.swipecontrols.misc.toPoint
 
 /**
  * provides the classic swipe controls experience, as it was with 'XFenster'
@@ -27,8 +26,8 @@ class ClassicSwipeController(
         get() = currentSwipe == SwipeDetector.SwipeDirection.VERTICAL
 
     override fun isInSwipeZone(motionEvent: MotionEvent): Boolean {
-        val inVolumeZone = motionEvent.toPoint() in controller.zones.volume
-        val inBrightnessZone = motionEvent.toPoint() in controller.zones.brightness
+        val inVolumeZone = motionEvent in controller.zones.volume
+        val inBrightnessZone = motionEvent in controller.zones.brightness
 
         return inVolumeZone || inBrightnessZone
     }
@@ -94,7 +93,7 @@ class ClassicSwipeController(
     ): Boolean {
         // cancel if not vertical
         if (currentSwipe != SwipeDetector.SwipeDirection.VERTICAL) return false
-        return when (from.toPoint()) {
+        return when (from) {
             in controller.zones.volume -> {
                 scrollVolume(distanceY)
                 true
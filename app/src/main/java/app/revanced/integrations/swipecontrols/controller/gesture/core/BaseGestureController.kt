@@ -41,17 +41,15 @@ abstract class BaseGestureController(
         // ignore if swipe is disabled
         if (!controller.config.enableSwipeControls) return false
 
-        // create a copy of the event so we can modify it
-        // without causing any issues downstream
-        val me = MotionEvent.obtain(motionEvent)
-
         // check if we should drop this motion
+        val dropped = shouldDropMotion(motionEvent)
 
-        val dropped = shouldDropMotion(me)
-
-        if (dropped) {
-            me.action = MotionEvent.ACTION_CANCEL
-        }
+        // a dropped event is sent to the detector as a cancel event.
+        // only then a copy is needed, so the original is not modified for downstream.
+        // the detector keeps its own copies of the events it needs later
+        val me = if (dropped) {
+            MotionEvent.obtain(motionEvent).apply { action = MotionEvent.ACTION_CANCEL }
+        } else motionEvent
 
         // send the event to the detector
         // if we force intercept events, the event is always consumed
@@ -62,12 +60,14 @@ abstract class BaseGestureController(
             onUp(me)
         }
 
-        // recycle the copy
-        me.recycle()
-
         // do not consume dropped events
         // or events outside of any swipe zone
-        return !dropped && consumed && isInSwipeZone(me)
+        val result = !dropped && consumed && isInSwipeZone(me)
+
+        // recycle the copy
+        if (dropped) me.recycle()
+
+        return result
     }
 
     /**
@@ -64,6 +64,8 @@ class SwipeDetectorImpl(
 ) : SwipeDetector {
     override var currentSwipe = SwipeDetector.SwipeDirection.NONE
 
+    private val swipeMagnitudeThresholdSquared = swipeMagnitudeThreshold.pow(2)
+
     override fun submitForSwipe(
         from: MotionEvent,
         to: MotionEvent,
@@ -78,7 +80,7 @@ class SwipeDetectorImpl(
             val deltaX = abs(to.x - from.x)
             val deltaY = abs(to.y - from.y)
             val swipeMagnitudeSquared = deltaX.pow(2) + deltaY.pow(2)
-            if (swipeMagnitudeSquared > swipeMagnitudeThreshold.pow(2)) {
+            if (swipeMagnitudeSquared > swipeMagnitudeThresholdSquared) {
                 currentSwipe = if (deltaY > deltaX) {
                     SwipeDetector.SwipeDirection.VERTICAL
                 } else {
@@ -0,0 +1,43 @@
+package app.revanced.integrations.swipecontrols.misc
+
+import android.view.Choreographer
+
+/**
+ * runs an action at most once per display frame, no matter how often it is requested.
+ * must be used on a thread with a looper (the main thread)
+ *
+ * @param scheduler schedules the frame callbacks
+ * @param action the action to run on the next frame
+ */
+class FrameCoalescer(
+    private val scheduler: FrameScheduler = FrameScheduler.CHOREOGRAPHER,
+    private val action: () -> Unit
+) : Choreographer.FrameCallback {
+    /**
+     * is the action already waiting for the next frame?
+     */
+    private var scheduled = false
+
+    /**
+     * run the action on the next frame, unless it is already scheduled
+     */
+    fun request() {
+        if (scheduled) return
+        scheduled = true
+        scheduler.postFrameCallback(this)
+    }
+
+    /**
+     * run a scheduled action now, instead of waiting for the next frame
+     */
+    fun flush() {
+        if (!scheduled) return
+        scheduler.removeFrameCallback(this)
+        doFrame(0)
+    }
+
+    override fun doFrame(frameTimeNanos: Long) {
+        scheduled = false
+        action()
+    }
+}
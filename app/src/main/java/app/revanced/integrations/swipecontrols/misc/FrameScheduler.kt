@@ -0,0 +1,33 @@
+package app.revanced.integrations.swipecontrols.misc
+
+import android.view.Choreographer
+
+/**
+ * posts callbacks to run on the next display frame.
+ * the app uses [CHOREOGRAPHER], and unit tests run frames by hand
+ */
+interface FrameScheduler {
+    /**
+     * run the callback once on the next frame
+     */
+    fun postFrameCallback(callback: Choreographer.FrameCallback)
+
+    /**
+     * remove a callback posted using [postFrameCallback], if it did not run yet
+     */
+    fun removeFrameCallback(callback: Choreographer.FrameCallback)
+
+    companion object {
+        /**
+         * schedules using the [Choreographer] of the calling thread
+         */
+        @JvmField
+        val CHOREOGRAPHER = object : FrameScheduler {
+            override fun postFrameCallback(callback: Choreographer.FrameCallback) =
+                Choreographer.getInstance().postFrameCallback(callback)
+
+            override fun removeFrameCallback(callback: Choreographer.FrameCallback) =
+                Choreographer.getInstance().removeFrameCallback(callback)
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package app.revanced.integrations.swipecontrols.misc
 
+import android.view.MotionEvent
+
 /**
  * a simple rectangle class
  */
@@ -21,3 +23,10 @@ data class Rectangle(
  */
 operator fun Rectangle.contains(p: Point): Boolean =
     p.x in left..right && p.y in top..bottom
+
+/**
+ * is the location of the motion event within this rectangle?
+ * same as `event.toPoint() in rect`, without creating a [Point]
+ */
+operator fun Rectangle.contains(event: MotionEvent): Boolean =
+    event.x.toInt() in left..right && event.y.toInt() in top..bottom
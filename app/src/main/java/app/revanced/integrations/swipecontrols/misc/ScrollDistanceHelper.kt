@@ -11,8 +11,14 @@ import kotlin.math.sign
  */
 class ScrollDistanceHelper(
     private val unitDistance: Int,
-    private val callback: (oldDistance: Double, newDistance: Double, direction: Int) -> Unit
+    private val callback: Callback
 ) {
+    /**
+     * callback with primitive parameters, so invoking it does not box the distances
+     */
+    fun interface Callback {
+        fun onUnitDistance(oldDistance: Double, newDistance: Double, direction: Int)
+    }
 
     /**
      * total distance scrolled
@@ -32,7 +38,7 @@ class ScrollDistanceHelper(
         while (abs(scrolledDistance) >= unitDistance) {
             val oldDistance = scrolledDistance
             subtractUnitDistance()
-            callback.invoke(
+            callback.onUnitDistance(
                 oldDistance,
                 scrolledDistance,
                 sign(scrolledDistance).toInt()
@@ -12,6 +12,7 @@ import android.widget.RelativeLayout
 import android.widget.TextView
 import app.revanced.integrations.settings.SettingsEnum
 import app.revanced.integrations.swipecontrols.SwipeControlsConfigurationProvider
+import app.revanced.integrations.swipecontrols.misc.FrameCoalescer
 import app.revanced.integrations.swipecontrols.misc.SwipeControlsOverlay
 import app.revanced.integrations.swipecontrols.misc.applyDimension
 import app.revanced.integrations.utils.ResourceType
@@ -96,14 +97,20 @@ class SwipeControlsOverlayLayout(
     }
 
     /**
-     * show the feedback view for a given time
-     *
-     * @param message the message to show
-     * @param icon the icon to use
+     * message and icon to show on the next frame
      */
-    private fun showFeedbackView(message: String, icon: Drawable) {
-        feedbackHideHandler.removeCallbacks(feedbackHideCallback)
-        feedbackHideHandler.postDelayed(feedbackHideCallback, config.overlayShowTimeoutMillis)
+    private var pendingFeedbackMessage: String? = null
+    private var pendingFeedbackIcon: Drawable? = null
+
+    /**
+     * updates the feedback view once per display frame,
+     * so a fast swipe does not relayout the text view for each volume or brightness step
+     */
+    private val feedbackUpdate = FrameCoalescer {
+        val message = pendingFeedbackMessage ?: return@FrameCoalescer
+        val icon = pendingFeedbackIcon
+        pendingFeedbackMessage = null
+        pendingFeedbackIcon = null
         feedbackTextView.apply {
             text = message
             setCompoundDrawablesRelative(
@@ -116,6 +123,28 @@ class SwipeControlsOverlayLayout(
         }
     }
 
+    /**
+     * show the feedback view for a given time
+     *
+     * @param message the message to show
+     * @param icon the icon to use
+     */
+    private fun showFeedbackView(message: String, icon: Drawable) {
+        feedbackHideHandler.removeCallbacks(feedbackHideCallback)
+        feedbackHideHandler.postDelayed(feedbackHideCallback, config.overlayShowTimeoutMillis)
+        pendingFeedbackMessage = message
+        pendingFeedbackIcon = icon
+        feedbackUpdate.request()
+    }
+
+    /**
+     * save the auto brightness state, if it changed
+     */
+    private fun saveBrightnessAuto(auto: Boolean) {
+        if (SettingsEnum.SWIPE_BRIGHTNESS_AUTO.boolean != auto)
+            SettingsEnum.SWIPE_BRIGHTNESS_AUTO.saveValue(auto)
+    }
+
     override fun onVolumeChanged(newVolume: Int, maximumVolume: Int) {
         showFeedbackView(
             "$newVolume",
@@ -124,7 +153,7 @@ class SwipeControlsOverlayLayout(
     }
 
     override fun onBrightnessChanged(brightness: Double) {
-        SettingsEnum.SWIPE_BRIGHTNESS_AUTO.saveValue(false)
+        saveBrightnessAuto(false)
         if (!SettingsEnum.ENABLE_SWIPE_AUTO_BRIGHTNESS.boolean) {
             if (brightness >= 0) {
                 showFeedbackView("${round(brightness).toInt()}%", manualBrightnessIcon)
@@ -136,7 +165,7 @@ class SwipeControlsOverlayLayout(
                 showFeedbackView("${round(brightness).toInt()}%", manualBrightnessIcon)
             } else {
                 showFeedbackView(str("quality_auto"), autoBrightnessIcon)
-                SettingsEnum.SWIPE_BRIGHTNESS_AUTO.saveValue(true)
+                saveBrightnessAuto(true)
             }
         }
     }
@@ -0,0 +1,244 @@
+package app.revanced.integrations.utils;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import app.revanced.integrations.utils.ReVancedUtils.NetworkType;
+
+/**
+ * Cached state of the default network.
+ * <p>
+ * A network callback is registered once, on first use, and the state is updated only when the system reports a change.
+ * Reading the state is a field read and never makes a call to the system connectivity service.
+ * Safe to use from any thread.
+ */
+public final class NetworkStateService {
+
+    /**
+     * Immutable snapshot of the default network.
+     */
+    public static final class NetworkState {
+        public static final NetworkState NONE = new NetworkState(NetworkType.NONE, true, 0);
+
+        @NonNull
+        public final NetworkType type;
+        /**
+         * If the user may be charged for data usage.
+         */
+        public final boolean metered;
+        /**
+         * Downstream bandwidth estimate, in kilobits per second. Zero if unknown.
+         * Not included in {@link #equals(Object)}, as the system reports a new estimate
+         * every few seconds and that is not a change of network.
+         */
+        public final int downstreamBandwidthKbps;
+
+        public NetworkState(@NonNull NetworkType type, boolean metered, int downstreamBandwidthKbps) {
+            this.type = Objects.requireNonNull(type);
+            this.metered = metered;
+            this.downstreamBandwidthKbps = Math.max(0, downstreamBandwidthKbps);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NetworkState other)) return false;
+            return type == other.type && metered == other.metered;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, metered);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "NetworkState{type=" + type + ", metered=" + metered
+                    + ", downstreamBandwidthKbps=" + downstreamBandwidthKbps + '}';
+        }
+    }
+
+    public interface NetworkStateListener {
+        /**
+         * Called on the thread that reported the change, and only if the network type or metered state changed.
+         */
+        void onNetworkStateChanged(@NonNull NetworkState previous, @NonNull NetworkState current);
+    }
+
+    /**
+     * Source of network changes. The real implementation uses {@link ConnectivityManager}.
+     */
+    public interface ConnectivitySource {
+        /**
+         * @return The state right now.
+         */
+        @NonNull
+        NetworkState queryCurrentState();
+
+        /**
+         * Start reporting all future changes to the service.
+         *
+         * @throws RuntimeException If registering failed, such as if there is no context yet.
+         *                          Registering is tried again on the next use of the service.
+         */
+        void register(@NonNull NetworkStateService service);
+    }
+
+    private static final NetworkStateService instance = new NetworkStateService(new AndroidConnectivitySource());
+
+    @NonNull
+    private final ConnectivitySource source;
+    private final CopyOnWriteArrayList<NetworkStateListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Only set after registering succeeded. Written while holding this object.
+     */
+    private volatile boolean registered;
+    @Nullable
+    private volatile NetworkState state;
+
+    public NetworkStateService(@NonNull ConnectivitySource source) {
+        this.source = Objects.requireNonNull(source);
+    }
+
+    @NonNull
+    public static NetworkStateService getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return The current state. The first call registers the network callback.
+     */
+    @NonNull
+    public NetworkState getState() {
+        NetworkState current = state;
+        if (current != null && registered) {
+            return current;
+        }
+        synchronized (this) {
+            if (!registered) {
+                // Query before registering, so the state is never null after this call
+                // even if the callback is slow to report the initial network.
+                updateState(source.queryCurrentState());
+                try {
+                    source.register(this);
+                    registered = true;
+                } catch (Exception ex) {
+                    // Until registered, the state is queried on each use.
+                    LogHelper.printException(NetworkStateService.class, "Failed to register network callback", ex);
+                }
+            }
+        }
+        return Objects.requireNonNull(state);
+    }
+
+    @NonNull
+    public NetworkType getNetworkType() {
+        return getState().type;
+    }
+
+    public boolean isMetered() {
+        return getState().metered;
+    }
+
+    public void addListener(@NonNull NetworkStateListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(@NonNull NetworkStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Called by the {@link ConnectivitySource}.
+     */
+    public void updateState(@NonNull NetworkState newState) {
+        Objects.requireNonNull(newState);
+        NetworkState previous;
+        synchronized (this) {
+            previous = state;
+            // Always keep the latest bandwidth estimate.
+            state = newState;
+        }
+        if (previous == null) {
+            return; // Initial state, nothing has changed.
+        }
+        if (newState.equals(previous)) {
+            return; // Only the bandwidth estimate changed.
+        }
+        LogHelper.printDebug(NetworkStateService.class, "Network changed: " + newState);
+        for (NetworkStateListener listener : listeners) {
+            try {
+                listener.onNetworkStateChanged(previous, newState);
+            } catch (Exception ex) {
+                LogHelper.printException(NetworkStateService.class, "Listener failure", ex);
+            }
+        }
+    }
+
+    private static final class AndroidConnectivitySource implements ConnectivitySource {
+        @NonNull
+        private static ConnectivityManager getConnectivityManager() {
+            Context context = Objects.requireNonNull(ReVancedUtils.getContext());
+            return (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        }
+
+        @NonNull
+        private static NetworkState toState(@Nullable NetworkCapabilities capabilities) {
+            if (capabilities == null
+                    || !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)) {
+                return NetworkState.NONE;
+            }
+            final NetworkType type;
+            if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)
+                    || capabilities.hasTransport(NetworkCapabilities.TRANSPORT_BLUETOOTH)) {
+                type = NetworkType.MOBILE;
+            } else {
+                type = NetworkType.WIFI;
+            }
+            final boolean metered = !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+            return new NetworkState(type, metered, capabilities.getLinkDownstreamBandwidthKbps());
+        }
+
+        @SuppressLint("MissingPermission") // permission already included in YouTube
+        @NonNull
+        @Override
+        public NetworkState queryCurrentState() {
+            try {
+                ConnectivityManager cm = getConnectivityManager();
+                Network network = cm.getActiveNetwork();
+                return network == null
+                        ? NetworkState.NONE
+                        : toState(cm.getNetworkCapabilities(network));
+            } catch (Exception ex) {
+                LogHelper.printException(NetworkStateService.class, "queryCurrentState failure", ex);
+                return NetworkState.NONE;
+            }
+        }
+
+        @SuppressLint("MissingPermission")
+        @Override
+        public void register(@NonNull NetworkStateService service) {
+            getConnectivityManager().registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                    service.updateState(toState(capabilities));
+                }
+
+                @Override
+                public void onLost(@NonNull Network network) {
+                    service.updateState(NetworkState.NONE);
+                }
+            });
+        }
+    }
+}
@@ -7,6 +7,7 @@ import android.view.View
 import android.view.animation.AnimationUtils
 import app.revanced.integrations.utils.ReVancedUtils.getContext
 import app.revanced.integrations.utils.ResourceHelper.resources
+import java.util.concurrent.ConcurrentHashMap
 
 @SuppressLint("DiscouragedApi")
 object ResourceUtils {
@@ -14,9 +15,20 @@ object ResourceUtils {
     fun identifier(name: String, type: ResourceType) =
         identifier(name, type, getContext())
 
+    /**
+     * Resolved identifiers, indexed by [ResourceType.ordinal].
+     * Identifiers never change while the process is running,
+     * so each name is looked up only once (including names that do not exist).
+     */
+    private val identifiers = Array(ResourceType.values().size) { ConcurrentHashMap<String, Int>() }
+
     @JvmStatic
     fun identifier(name: String, type: ResourceType, context: Context): Int {
-        return resources.getIdentifier(name, type.value, context.packageName)
+        val typeIdentifiers = identifiers[type.ordinal]
+        typeIdentifiers[name]?.let { return it }
+        return resources.getIdentifier(name, type.value, context.packageName).also {
+            typeIdentifiers[name] = it
+        }
     }
 
     @JvmStatic
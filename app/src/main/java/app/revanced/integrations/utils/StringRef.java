@@ -1,8 +1,10 @@
 package app.revanced.integrations.utils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StringRef {
     /**
@@ -11,14 +13,18 @@ public class StringRef {
      */
     @NonNull
     public static final StringRef empty = constant("");
-    private static final HashMap<String, StringRef> strings = new HashMap<>();
+    private static final Map<String, StringRef> strings = new ConcurrentHashMap<>();
     @NonNull
-    private String value;
-    private boolean resolved;
+    private final String resName;
+    /**
+     * Null until resolved.
+     */
+    @Nullable
+    private volatile String value;
 
 
     public StringRef(@NonNull String resName) {
-        this.value = resName;
+        this.resName = resName;
     }
 
     /**
@@ -31,11 +37,10 @@ public class StringRef {
     @NonNull
     public static StringRef sf(@NonNull String id) {
         StringRef ref = strings.get(id);
-        if (ref == null) {
-            ref = new StringRef(id);
-            strings.put(id, ref);
+        if (ref != null) {
+            return ref;
         }
-        return ref;
+        return strings.computeIfAbsent(id, StringRef::new);
     }
 
     /**
@@ -71,17 +76,19 @@ public class StringRef {
     @NonNull
     public static StringRef constant(@NonNull String value) {
         final StringRef ref = new StringRef(value);
-        ref.resolved = true;
+        ref.value = value;
         return ref;
     }
 
     @Override
     @NonNull
     public String toString() {
-        if (!resolved) {
-            resolved = true;
-            value = ResourceUtils.string(value);
+        String resolved = value;
+        if (resolved == null) {
+            // Resolving more than once on different threads is harmless, as the result is the same.
+            resolved = ResourceUtils.string(resName);
+            value = resolved;
         }
-        return value;
+        return resolved;
     }
 }
\ No newline at end of file
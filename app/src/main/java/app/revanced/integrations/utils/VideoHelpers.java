@@ -40,7 +40,7 @@ public class VideoHelpers {
     public static void copyUrl(@NonNull Context context, Boolean withTimestamp) {
         String url = String.format("https://youtu.be/%s", VideoInformation.getVideoId());
         if (withTimestamp) {
-            long seconds = VideoInformation.getVideoTime() / 1000;
+            long seconds = VideoInformation.getPlaybackTime() / 1000;
             url += String.format("?t=%s", seconds);
         }
 
@@ -50,7 +50,7 @@ public class VideoHelpers {
 
     @SuppressLint("DefaultLocale")
     public static void copyTimeStamp(@NonNull Context context) {
-        final long videoTime = VideoInformation.getVideoTime();
+        final long videoTime = VideoInformation.getPlaybackTime();
 
         final Duration duration = Duration.ofMillis(videoTime);
 
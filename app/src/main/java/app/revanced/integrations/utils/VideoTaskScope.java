@@ -0,0 +1,260 @@
+package app.revanced.integrations.utils;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background work done on behalf of a single video id.
+ * <p>
+ * When the current video changes, all work for videos that were previously playing is cancelled.
+ * Work for videos that have never played (prefetches) is kept, but moved to the back of the queue.
+ * If a prefetched video then plays, its work gets back the priority it was submitted with.
+ * Tasks still waiting in a lane queue are removed and never start,
+ * and running tasks are interrupted so {@link app.revanced.integrations.requests.Requester}
+ * can stop before doing more network work.
+ * <p>
+ * Callers of a cancelled {@link Future} will get a {@link java.util.concurrent.CancellationException}.
+ */
+public final class VideoTaskScope {
+    /**
+     * Maximum number of prefetch scopes to keep. If exceeded, the oldest prefetch is no longer tracked
+     * and its tasks are moved to the back of the queue. The tasks are not cancelled,
+     * as the video may still play and use the results.
+     */
+    private static final int MAX_PREFETCH_SCOPES = 5;
+
+    @GuardedBy("VideoTaskScope.class")
+    private static final Map<String, VideoTaskScope> scopes = new LinkedHashMap<>();
+    @GuardedBy("VideoTaskScope.class")
+    @NonNull
+    private static String currentVideoId = "";
+
+    /**
+     * Tasks removed from a queue before they started.
+     */
+    private static final AtomicLong savedCount = new AtomicLong();
+    /**
+     * Tasks that were already running when cancelled.
+     */
+    private static final AtomicLong interruptedCount = new AtomicLong();
+
+    private static final class ScopedTask {
+        final TaskLane lane;
+        final Future<?> future;
+        /**
+         * Priority the task was submitted with.
+         */
+        final int priority;
+
+        ScopedTask(TaskLane lane, Future<?> future, int priority) {
+            this.lane = lane;
+            this.future = future;
+            this.priority = priority;
+        }
+    }
+
+    @NonNull
+    private final String videoId;
+    @GuardedBy("this")
+    private final List<ScopedTask> tasks = new ArrayList<>();
+    @GuardedBy("this")
+    private boolean cancelled;
+    /**
+     * If this video was ever the current video.
+     */
+    @GuardedBy("VideoTaskScope.class")
+    private boolean wasCurrent;
+
+    private VideoTaskScope(@NonNull String videoId) {
+        this.videoId = videoId;
+    }
+
+    /**
+     * @return The scope for a video id. If the video is not the current video, the work is treated as a prefetch.
+     */
+    @NonNull
+    public static VideoTaskScope forVideo(@NonNull String videoId) {
+        Objects.requireNonNull(videoId);
+        VideoTaskScope scope;
+        List<VideoTaskScope> trimmed;
+        synchronized (VideoTaskScope.class) {
+            scope = scopes.get(videoId);
+            if (scope != null) {
+                return scope;
+            }
+            scope = new VideoTaskScope(videoId);
+            scope.wasCurrent = videoId.equals(currentVideoId);
+            scopes.put(videoId, scope);
+            trimmed = trimPrefetchScopes();
+        }
+        // Change priority outside the class lock, same as when the video changes.
+        for (VideoTaskScope trimmedScope : trimmed) {
+            trimmedScope.setPriority(TaskLane.PRIORITY_LOW);
+        }
+        return scope;
+    }
+
+    /**
+     * Cancels all work of previously playing videos.
+     * Safe to call multiple times with the same video id.
+     */
+    public static void setCurrentVideoId(@NonNull String videoId) {
+        Objects.requireNonNull(videoId);
+        List<VideoTaskScope> toCancel = new ArrayList<>();
+        List<VideoTaskScope> toDeprioritize = new ArrayList<>();
+        VideoTaskScope toRestore = null;
+        synchronized (VideoTaskScope.class) {
+            if (videoId.equals(currentVideoId)) {
+                return;
+            }
+            currentVideoId = videoId;
+            for (Iterator<VideoTaskScope> iterator = scopes.values().iterator(); iterator.hasNext(); ) {
+                VideoTaskScope scope = iterator.next();
+                if (scope.videoId.equals(videoId)) {
+                    if (!scope.wasCurrent) {
+                        // A prefetch that was moved to the back of the queue by a previous video change.
+                        scope.wasCurrent = true;
+                        toRestore = scope;
+                    }
+                } else if (scope.wasCurrent) {
+                    iterator.remove();
+                    toCancel.add(scope);
+                } else {
+                    toDeprioritize.add(scope);
+                }
+            }
+        }
+        // Cancel outside the class lock, as interrupting can be slow.
+        for (VideoTaskScope scope : toCancel) {
+            scope.cancel();
+        }
+        for (VideoTaskScope scope : toDeprioritize) {
+            scope.setPriority(TaskLane.PRIORITY_LOW);
+        }
+        if (toRestore != null) {
+            toRestore.restorePriority();
+        }
+        if (!toCancel.isEmpty()) {
+            LogHelper.printDebug(VideoTaskScope.class, "Video changed to: " + videoId
+                    + " tasks cancelled before starting: " + savedCount.get()
+                    + " tasks interrupted: " + interruptedCount.get());
+        }
+    }
+
+    /**
+     * @return The oldest prefetch scopes over {@link #MAX_PREFETCH_SCOPES}, which are no longer tracked.
+     */
+    @GuardedBy("VideoTaskScope.class")
+    @NonNull
+    private static List<VideoTaskScope> trimPrefetchScopes() {
+        int prefetchCount = 0;
+        for (VideoTaskScope scope : scopes.values()) {
+            if (!scope.wasCurrent) prefetchCount++;
+        }
+        List<VideoTaskScope> trimmed = new ArrayList<>();
+        for (Iterator<VideoTaskScope> iterator = scopes.values().iterator();
+             prefetchCount > MAX_PREFETCH_SCOPES && iterator.hasNext(); ) {
+            VideoTaskScope scope = iterator.next();
+            if (!scope.wasCurrent) {
+                iterator.remove();
+                trimmed.add(scope);
+                prefetchCount--;
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * @return Number of tasks that were removed from a queue before they could start.
+     */
+    public static long getSavedCount() {
+        return savedCount.get();
+    }
+
+    /**
+     * @return Number of tasks that were interrupted while running.
+     */
+    public static long getInterruptedCount() {
+        return interruptedCount.get();
+    }
+
+    @NonNull
+    public String getVideoId() {
+        return videoId;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @NonNull
+    public Future<?> execute(@NonNull TaskLane lane, @NonNull Runnable task, int priority) {
+        synchronized (this) {
+            Future<?> future = lane.execute(task, priority);
+            track(lane, future, priority);
+            return future;
+        }
+    }
+
+    @NonNull
+    public <T> Future<T> submit(@NonNull TaskLane lane, @NonNull Callable<T> call, int priority) {
+        synchronized (this) {
+            Future<T> future = lane.submit(call, priority);
+            track(lane, future, priority);
+            return future;
+        }
+    }
+
+    @GuardedBy("this")
+    private void track(@NonNull TaskLane lane, @NonNull Future<?> future, int priority) {
+        if (cancelled) {
+            // Scope was cancelled by another thread after it was looked up.
+            lane.remove(future);
+            future.cancel(false);
+            return;
+        }
+        tasks.removeIf(task -> task.future.isDone());
+        tasks.add(new ScopedTask(lane, future, priority));
+    }
+
+    private synchronized void setPriority(int priority) {
+        for (ScopedTask task : tasks) {
+            task.lane.setPriority(task.future, priority);
+        }
+    }
+
+    private synchronized void restorePriority() {
+        for (ScopedTask task : tasks) {
+            task.lane.setPriority(task.future, task.priority);
+        }
+    }
+
+    private synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (ScopedTask task : tasks) {
+            if (task.future.isDone()) {
+                continue;
+            }
+            if (task.lane.remove(task.future)) {
+                savedCount.incrementAndGet();
+            } else {
+                interruptedCount.incrementAndGet();
+            }
+            task.future.cancel(true);
+        }
+        tasks.clear();
+    }
+}
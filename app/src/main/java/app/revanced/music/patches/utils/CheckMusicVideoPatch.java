@@ -30,6 +30,8 @@ public class CheckMusicVideoPatch {
     @SuppressLint("DefaultLocale")
     public static void playbackStart(@NonNull String videoId, @NonNull String playlistId, final int playlistIndex) {
         try {
+            ReturnYouTubeDislikePatch.prefetchQueue(playlistId, playlistIndex);
+
             if (!SettingsEnum.REPLACE_PLAYER_CAST_BUTTON.getBoolean())
                 return;
 
@@ -11,6 +11,7 @@ import app.revanced.music.returnyoutubedislike.ReturnYouTubeDislike;
 import app.revanced.music.returnyoutubedislike.requests.ReturnYouTubeDislikeApi;
 import app.revanced.music.settings.SettingsEnum;
 import app.revanced.music.utils.LogHelper;
+import app.revanced.music.utils.TaskLane;
 
 /**
  * Handles all interaction of UI patch components.
@@ -21,6 +22,13 @@ public class ReturnYouTubeDislikePatch {
     @Nullable
     private static String currentVideoId;
 
+    /**
+     * Queue position of the last prefetch.
+     */
+    @NonNull
+    private static volatile String lastPrefetchPlaylistId = "";
+    private static volatile int lastPrefetchPlaylistIndex = -1;
+
     /**
      * Injection point
      * <p>
@@ -47,6 +55,35 @@ public class ReturnYouTubeDislikePatch {
         }
     }
 
+    /**
+     * Called when playback of a playlist or queue starts, and prefetches the votes of the next tracks.
+     *
+     * @param playlistId    Playlist id of the playback queue.
+     * @param playlistIndex Index of the current track in the playlist.
+     */
+    public static void prefetchQueue(@NonNull String playlistId, final int playlistIndex) {
+        try {
+            if (!SettingsEnum.RYD_ENABLED.getBoolean()) return;
+            if (playlistId.isEmpty() || playlistIndex < 0) return;
+
+            if (playlistId.equals(lastPrefetchPlaylistId) && playlistIndex == lastPrefetchPlaylistIndex) {
+                return;
+            }
+            lastPrefetchPlaylistId = playlistId;
+            lastPrefetchPlaylistIndex = playlistIndex;
+
+            TaskLane.NETWORK.execute(() -> {
+                try {
+                    ReturnYouTubeDislike.prefetchQueue(playlistId, playlistIndex);
+                } catch (Exception ex) {
+                    LogHelper.printException(ReturnYouTubeDislikePatch.class, "Failed to prefetch queue", ex);
+                }
+            }, TaskLane.PRIORITY_LOW);
+        } catch (Exception ex) {
+            LogHelper.printException(ReturnYouTubeDislikePatch.class, "prefetchQueue failure", ex);
+        }
+    }
+
     /**
      * Injection point.
      * <p>
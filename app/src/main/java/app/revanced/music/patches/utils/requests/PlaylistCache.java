@@ -0,0 +1,145 @@
+package app.revanced.music.patches.utils.requests;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Video ids of Piped playlists, fetched one page at a time.
+ * <p>
+ * Pages are fetched only until the requested index is found, and the ids already fetched are kept
+ * for {@link #CACHE_TIMEOUT_MILLISECONDS}. Each playlist has its own lock,
+ * so concurrent lookups of the same playlist wait for one fetch instead of each fetching the same pages,
+ * and lookups of different playlists do not wait on each other.
+ */
+final class PlaylistCache {
+
+    /**
+     * Source of playlist pages. A page is a Piped JSON object with a <code>relatedStreams</code> array,
+     * and a <code>nextpage</code> token if more pages are available.
+     */
+    interface PageSource {
+        /**
+         * @param nextPage Token of the page to fetch, or null for the first page.
+         */
+        @NonNull
+        JSONObject fetchPage(@NonNull String playlistId, @Nullable String nextPage) throws IOException, JSONException;
+    }
+
+    /**
+     * How long fetched video ids are used.
+     * Playlists such as mixes can change, so ids are not kept for the entire session.
+     */
+    private static final long CACHE_TIMEOUT_MILLISECONDS = 10 * 60 * 1000; // 10 Minutes
+
+    /**
+     * Maximum number of playlists kept.
+     */
+    private static final int CACHE_LIMIT = 10;
+
+    private static final class Playlist {
+        final long fetchTime = System.currentTimeMillis();
+
+        @GuardedBy("this")
+        final List<String> videoIds = new ArrayList<>();
+
+        /**
+         * Token of the next page to fetch, or null if the first page is not fetched yet.
+         */
+        @GuardedBy("this")
+        @Nullable
+        String nextPage;
+
+        /**
+         * If all pages are fetched.
+         */
+        @GuardedBy("this")
+        boolean complete;
+
+        boolean isExpired(long now) {
+            return now - fetchTime > CACHE_TIMEOUT_MILLISECONDS;
+        }
+    }
+
+    @NonNull
+    private final PageSource source;
+
+    @GuardedBy("itself")
+    private final Map<String, Playlist> playlists = new LinkedHashMap<>(CACHE_LIMIT, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > CACHE_LIMIT;
+        }
+    };
+
+    PlaylistCache(@NonNull PageSource source) {
+        this.source = source;
+    }
+
+    @NonNull
+    private Playlist getPlaylist(@NonNull String playlistId) {
+        synchronized (playlists) {
+            Playlist playlist = playlists.get(playlistId);
+            if (playlist == null || playlist.isExpired(System.currentTimeMillis())) {
+                playlist = new Playlist();
+                playlists.put(playlistId, playlist);
+            }
+            return playlist;
+        }
+    }
+
+    /**
+     * Must be called off the main thread, as pages may be fetched.
+     *
+     * @return The video id at the index, or null if the playlist is shorter than the index.
+     * @throws IOException If a page could not be fetched. Ids fetched before the failure are kept.
+     */
+    @Nullable
+    String getVideoId(@NonNull String playlistId, final int index) throws IOException, JSONException {
+        if (index < 0) return null;
+
+        Playlist playlist = getPlaylist(playlistId);
+        synchronized (playlist) {
+            while (playlist.videoIds.size() <= index && !playlist.complete) {
+                addPage(playlist, source.fetchPage(playlistId, playlist.nextPage));
+            }
+            return index < playlist.videoIds.size()
+                    ? playlist.videoIds.get(index)
+                    : null;
+        }
+    }
+
+    @GuardedBy("playlist")
+    private static void addPage(@NonNull Playlist playlist, @NonNull JSONObject page) throws JSONException {
+        JSONArray streams = page.getJSONArray("relatedStreams");
+        final int length = streams.length();
+        for (int i = 0; i < length; i++) {
+            playlist.videoIds.add(parseVideoId(streams.getJSONObject(i).getString("url")));
+        }
+
+        String nextPage = page.optString("nextpage", "");
+        if (nextPage.isEmpty() || nextPage.equals("null") || length == 0) {
+            playlist.complete = true;
+        } else {
+            playlist.nextPage = nextPage;
+        }
+    }
+
+    /**
+     * @param url Url path of a stream, such as <code>/watch?v=dQw4w9WgXcQ</code>.
+     */
+    @NonNull
+    private static String parseVideoId(@NonNull String url) {
+        return url.replaceAll("/.+=", "");
+    }
+}
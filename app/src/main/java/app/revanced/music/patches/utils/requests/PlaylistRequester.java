@@ -3,17 +3,19 @@ package app.revanced.music.patches.utils.requests;
 import static app.revanced.music.patches.utils.CheckMusicVideoPatch.clearInformation;
 import static app.revanced.music.patches.utils.CheckMusicVideoPatch.setSongId;
 import static app.revanced.music.patches.utils.requests.PlaylistRoutes.GET_PLAYLIST;
+import static app.revanced.music.patches.utils.requests.PlaylistRoutes.GET_PLAYLIST_NEXT_PAGE;
 import static app.revanced.music.patches.utils.requests.PlaylistRoutes.getPlaylistConnectionFromRoute;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
+import java.net.URLEncoder;
 
 import app.revanced.music.patches.utils.CheckMusicVideoPatch;
 import app.revanced.music.requests.Requester;
@@ -39,33 +41,24 @@ public class PlaylistRequester {
     private PlaylistRequester() {
     }
 
+    /**
+     * Playlist pages fetched from Piped.
+     */
+    private static final PlaylistCache playlistCache = new PlaylistCache(PlaylistRequester::fetchPage);
+
     public static void fetchPlaylist(@NonNull String videoId, @NonNull String playlistId, final int playlistIndex) {
         try {
             ReVancedUtils.verifyOffMainThread();
-            HttpURLConnection connection = getPlaylistConnectionFromRoute(GET_PLAYLIST, playlistId);
-            connection.setConnectTimeout(TIMEOUT_TCP_DEFAULT_MILLISECONDS);
-            connection.setReadTimeout(TIMEOUT_HTTP_DEFAULT_MILLISECONDS);
+            final String songId = playlistCache.getVideoId(playlistId, playlistIndex);
 
-            final int responseCode = connection.getResponseCode();
-
-            if (responseCode != HTTP_STATUS_CODE_SUCCESS) {
-                handleConnectionError("API not available: " + responseCode);
-                connection.disconnect();
-                return;
-            }
-
-            final JSONObject playerResponse = Requester.parseJSONObject(connection);
-            final JSONArray playlistArray = playerResponse.getJSONArray("relatedStreams");
-            final JSONObject songInfo = playlistArray.getJSONObject(playlistIndex);
-            final String songId = songInfo.getString("url").replaceAll("/.+=", "");
-
-            if (songId.isEmpty()) {
+            if (songId == null) {
+                handleConnectionError("Playlist index not found: " + playlistIndex);
+            } else if (songId.isEmpty()) {
                 handleConnectionError("Url is empty!");
             } else if (!songId.equals(videoId)) {
                 LogHelper.printDebug(CheckMusicVideoPatch.class, String.format("Fetched successfully\nVideoId: %s\nPlaylistId:%s\nSongId: %s", videoId, playlistId, songId));
                 setSongId(songId);
             }
-            connection.disconnect();
         } catch (SocketTimeoutException ex) {
             handleConnectionError("API timed out", ex);
         } catch (IOException ex) {
@@ -75,6 +68,34 @@ public class PlaylistRequester {
         }
     }
 
+    /**
+     * Must be called off the main thread, as playlist pages may be fetched.
+     *
+     * @return The video id at the playlist index, or null if the playlist is shorter than the index.
+     */
+    @Nullable
+    public static String getVideoId(@NonNull String playlistId, final int playlistIndex) throws IOException, JSONException {
+        ReVancedUtils.verifyOffMainThread();
+        return playlistCache.getVideoId(playlistId, playlistIndex);
+    }
+
+    @NonNull
+    private static JSONObject fetchPage(@NonNull String playlistId, @Nullable String nextPage) throws IOException, JSONException {
+        HttpURLConnection connection = nextPage == null
+                ? getPlaylistConnectionFromRoute(GET_PLAYLIST, playlistId)
+                : getPlaylistConnectionFromRoute(GET_PLAYLIST_NEXT_PAGE, playlistId, URLEncoder.encode(nextPage, "UTF-8"));
+        connection.setConnectTimeout(TIMEOUT_TCP_DEFAULT_MILLISECONDS);
+        connection.setReadTimeout(TIMEOUT_HTTP_DEFAULT_MILLISECONDS);
+
+        final int responseCode = connection.getResponseCode();
+        if (responseCode != HTTP_STATUS_CODE_SUCCESS) {
+            connection.disconnect();
+            throw new IOException("API not available: " + responseCode);
+        }
+
+        return Requester.parseJSONObjectAndDisconnect(connection);
+    }
+
     private static void handleConnectionError(@NonNull String errorMessage) {
         LogHelper.printException(PlaylistRequester.class, errorMessage);
         clearInformation();
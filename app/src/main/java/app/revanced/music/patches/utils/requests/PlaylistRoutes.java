@@ -11,6 +11,10 @@ import app.revanced.music.requests.Route;
 class PlaylistRoutes {
     static final String PIPED_URL = "https://pipedapi.kavin.rocks/";
     static final Route GET_PLAYLIST = new Route(GET, "playlists/{playlist_id}");
+    /**
+     * The next page parameter must be url encoded.
+     */
+    static final Route GET_PLAYLIST_NEXT_PAGE = new Route(GET, "nextpage/playlists/{playlist_id}?nextpage={next_page}");
 
     private PlaylistRoutes() {
     }
@@ -25,11 +25,13 @@ import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import org.json.JSONException;
+
+import java.io.IOException;
 import java.text.NumberFormat;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,6 +39,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import app.revanced.music.patches.utils.requests.PlaylistRequester;
 import app.revanced.music.returnyoutubedislike.requests.RYDVoteData;
 import app.revanced.music.returnyoutubedislike.requests.ReturnYouTubeDislikeApi;
 import app.revanced.music.settings.SettingsEnum;
@@ -61,10 +64,10 @@ public class ReturnYouTubeDislike {
      */
     private static final char MIDDLE_SEPARATOR_CHARACTER = '\u2009'; // 'narrow space' character
     /**
-     * Cached lookup of RYD fetches.
+     * Fetches of the current video and of upcoming tracks in the playback queue.
      */
-    @GuardedBy("videoIdLockObject")
-    private static final Map<String, RYDCachedFetch> futureCache = new HashMap<>();
+    private static final VoteFetchCache fetchCache = new VoteFetchCache(VoteFetchCache.RYD_API,
+            PlaylistRequester::getVideoId, VoteFetchCache.NETWORK_LANE, System::currentTimeMillis);
     /**
      * Used to send votes, one by one, in the same order the user created them.
      */
@@ -133,8 +136,7 @@ public class ReturnYouTubeDislike {
 
     public static void setCurrentVideoId(@Nullable String videoId) {
         synchronized (videoIdLockObject) {
-            final long now = System.currentTimeMillis();
-            futureCache.values().removeIf(value -> value.isExpired(now));
+            fetchCache.removeExpired();
             currentVideoId = videoId;
             userVote = null;
             voteFetchFuture = null;
@@ -158,17 +160,21 @@ public class ReturnYouTubeDislike {
                 return; // already loaded
             }
             setCurrentVideoId(videoId);
-
-            RYDCachedFetch entry = futureCache.get(videoId);
-            if (entry != null && entry.futureInProgressOrFinishedSuccessfully()) {
-                voteFetchFuture = entry.future;
-                return;
-            }
-            voteFetchFuture = ReVancedUtils.submitOnBackgroundThread(() -> ReturnYouTubeDislikeApi.fetchVotes(videoId));
-            futureCache.put(videoId, new RYDCachedFetch(voteFetchFuture, videoId));
+            voteFetchFuture = fetchCache.fetchForLoadedVideo(videoId);
         }
     }
 
+    /**
+     * Starts low priority fetches of the next tracks of a playback queue,
+     * so the votes are available as soon as the track is loaded.
+     * Must be called off the main thread, as playlist pages may be fetched.
+     *
+     * @param playlistIndex Index of the current track in the playlist.
+     */
+    public static void prefetchQueue(@NonNull String playlistId, int playlistIndex) throws IOException, JSONException {
+        fetchCache.prefetchQueue(playlistId, playlistIndex);
+    }
+
     public static Spanned onComponentCreated(Spanned span) {
         try {
             if (SettingsEnum.RYD_ENABLED.getBoolean()) {
@@ -228,7 +234,8 @@ public class ReturnYouTubeDislike {
 
                 return replacementLikeDislikeSpan;
             }
-        } catch (TimeoutException ignored) {
+        } catch (TimeoutException | CancellationException ignored) {
+            // Fetch not finished, or rejected because the network lane was full.
         } catch (Exception e) {
             LogHelper.printException(ReturnYouTubeDislike.class, "waitForFetchAndUpdateReplacementSpan failure", e); // should never happen
         }
@@ -271,6 +278,9 @@ public class ReturnYouTubeDislike {
                 RYDVoteData voteData;
                 try {
                     voteData = future.get(MAX_MILLISECONDS_TO_BLOCK_UI_WAITING_FOR_FETCH, TimeUnit.MILLISECONDS);
+                } catch (CancellationException ex) {
+                    // Fetch was rejected, and the vote is applied if the video is fetched again.
+                    voteData = null;
                 } catch (ExecutionException | InterruptedException | TimeoutException ex) {
                     // Should never happen
                     LogHelper.printException(ReturnYouTubeDislike.class, "Could not update vote data", ex);
@@ -497,40 +507,6 @@ public class ReturnYouTubeDislike {
             this.value = value;
         }
     }
-
-    /**
-     * Simple wrapper to cache a Future.
-     */
-    private static class RYDCachedFetch {
-        /**
-         * How long to retain cached RYD fetches.
-         */
-        static final long CACHE_TIMEOUT_MILLISECONDS = 10 * 60 * 1000; // 10 Minutes
-
-        @NonNull
-        final Future<RYDVoteData> future;
-        final String videoId;
-        final long timeFetched;
-
-        RYDCachedFetch(@NonNull Future<RYDVoteData> future, @NonNull String videoId) {
-            this.future = Objects.requireNonNull(future);
-            this.videoId = Objects.requireNonNull(videoId);
-            this.timeFetched = System.currentTimeMillis();
-        }
-
-        boolean isExpired(long now) {
-            return (now - timeFetched) > CACHE_TIMEOUT_MILLISECONDS;
-        }
-
-        boolean futureInProgressOrFinishedSuccessfully() {
-            try {
-                return !future.isDone() || future.get(MAX_MILLISECONDS_TO_BLOCK_UI_WAITING_FOR_FETCH, TimeUnit.MILLISECONDS) != null;
-            } catch (ExecutionException | InterruptedException | TimeoutException ex) {
-                LogHelper.printException(ReturnYouTubeDislike.class, "failed to lookup cache", ex); // will never happen
-            }
-            return false;
-        }
-    }
 }
 
 class VerticallyCenteredImageSpan extends ImageSpan {
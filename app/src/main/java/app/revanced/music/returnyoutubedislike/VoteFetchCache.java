@@ -0,0 +1,270 @@
+package app.revanced.music.returnyoutubedislike;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import app.revanced.music.returnyoutubedislike.requests.RYDVoteData;
+import app.revanced.music.returnyoutubedislike.requests.ReturnYouTubeDislikeApi;
+import app.revanced.music.utils.LogHelper;
+import app.revanced.music.utils.TaskLane;
+
+/**
+ * Vote fetches by video id, including low priority prefetches of the next tracks in the playback queue.
+ * <p>
+ * The least recently used fetch is removed when more than {@link #CACHE_LIMIT} videos are cached,
+ * and fetches are used for {@link #CACHE_TIMEOUT_MILLISECONDS}.
+ * A prefetch is raised to high priority when its video loads, as the UI is then waiting for it.
+ * Safe to use from any thread.
+ */
+final class VoteFetchCache {
+
+    interface VoteSource {
+        /**
+         * Called on a fetch thread.
+         *
+         * @return The votes, or null if the fetch failed.
+         */
+        @Nullable
+        RYDVoteData fetchVotes(@NonNull String videoId);
+
+        /**
+         * @return If fetches are currently rejected by the server.
+         */
+        boolean isRateLimitInEffect();
+    }
+
+    interface QueueSource {
+        /**
+         * Called off the main thread, and may fetch playlist pages.
+         *
+         * @return The video id at the playlist index, or null if the playlist is shorter than the index.
+         */
+        @Nullable
+        String getVideoId(@NonNull String playlistId, int playlistIndex) throws IOException, JSONException;
+    }
+
+    /**
+     * Runs the fetches. The real implementation uses {@link TaskLane#NETWORK}.
+     */
+    interface FetchLane {
+        @NonNull
+        Future<RYDVoteData> submit(@NonNull Callable<RYDVoteData> fetch, int priority);
+
+        /**
+         * Changes the priority of a fetch that has not yet started.
+         */
+        void setPriority(@NonNull Future<RYDVoteData> fetch, int priority);
+    }
+
+    interface TimeSource {
+        long currentTimeMillis();
+    }
+
+    static final VoteSource RYD_API = new VoteSource() {
+        @Nullable
+        @Override
+        public RYDVoteData fetchVotes(@NonNull String videoId) {
+            return ReturnYouTubeDislikeApi.fetchVotes(videoId);
+        }
+
+        @Override
+        public boolean isRateLimitInEffect() {
+            return ReturnYouTubeDislikeApi.checkIfRateLimitInEffect();
+        }
+    };
+
+    static final FetchLane NETWORK_LANE = new FetchLane() {
+        @NonNull
+        @Override
+        public Future<RYDVoteData> submit(@NonNull Callable<RYDVoteData> fetch, int priority) {
+            return TaskLane.NETWORK.submit(fetch, priority);
+        }
+
+        @Override
+        public void setPriority(@NonNull Future<RYDVoteData> fetch, int priority) {
+            TaskLane.NETWORK.setPriority(fetch, priority);
+        }
+    };
+
+    /**
+     * Maximum number of videos with cached fetches, including fetches of upcoming tracks in the playback queue.
+     */
+    static final int CACHE_LIMIT = 25;
+    /**
+     * How long to retain cached RYD fetches.
+     */
+    static final long CACHE_TIMEOUT_MILLISECONDS = 10 * 60 * 1000; // 10 Minutes
+    /**
+     * Number of upcoming tracks in the playback queue to prefetch votes for.
+     */
+    static final int QUEUE_PREFETCH_COUNT = 3;
+    /**
+     * Maximum amount of time to wait for a fetch that is already done.
+     */
+    private static final long MAX_MILLISECONDS_TO_WAIT_FOR_DONE_FETCH = 4000;
+
+    /**
+     * Simple wrapper to cache a Future.
+     */
+    private static final class CachedFetch {
+        @NonNull
+        final Future<RYDVoteData> future;
+        final long timeFetched;
+
+        CachedFetch(@NonNull Future<RYDVoteData> future, long timeFetched) {
+            this.future = Objects.requireNonNull(future);
+            this.timeFetched = timeFetched;
+        }
+
+        boolean isExpired(long now) {
+            if (future.isCancelled()) {
+                return true; // Fetch was rejected because the network lane was full.
+            }
+            return (now - timeFetched) > CACHE_TIMEOUT_MILLISECONDS;
+        }
+
+        boolean futureInProgressOrFinishedSuccessfully() {
+            if (future.isCancelled()) {
+                return false;
+            }
+            try {
+                return !future.isDone() || future.get(MAX_MILLISECONDS_TO_WAIT_FOR_DONE_FETCH, TimeUnit.MILLISECONDS) != null;
+            } catch (CancellationException ex) {
+                return false; // Cancelled after checking.
+            } catch (ExecutionException | InterruptedException | TimeoutException ex) {
+                LogHelper.printException(VoteFetchCache.class, "failed to lookup cache", ex); // will never happen
+            }
+            return false;
+        }
+    }
+
+    @NonNull
+    private final VoteSource voteSource;
+    @NonNull
+    private final QueueSource queueSource;
+    @NonNull
+    private final FetchLane lane;
+    @NonNull
+    private final TimeSource timeSource;
+
+    /**
+     * Cached lookup of RYD fetches, with the least recently used fetch removed first.
+     */
+    @GuardedBy("itself")
+    private final Map<String, CachedFetch> cache = new LinkedHashMap<>(CACHE_LIMIT, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > CACHE_LIMIT;
+        }
+    };
+
+    VoteFetchCache(@NonNull VoteSource voteSource, @NonNull QueueSource queueSource,
+                   @NonNull FetchLane lane, @NonNull TimeSource timeSource) {
+        this.voteSource = Objects.requireNonNull(voteSource);
+        this.queueSource = Objects.requireNonNull(queueSource);
+        this.lane = Objects.requireNonNull(lane);
+        this.timeSource = Objects.requireNonNull(timeSource);
+    }
+
+    /**
+     * @return The cached fetch that is in progress or finished successfully, or null if there is none.
+     */
+    @GuardedBy("cache")
+    @Nullable
+    private CachedFetch getUsableFetch(@NonNull String videoId) {
+        CachedFetch entry = cache.get(videoId);
+        if (entry != null && !entry.isExpired(timeSource.currentTimeMillis())
+                && entry.futureInProgressOrFinishedSuccessfully()) {
+            return entry;
+        }
+        return null;
+    }
+
+    @GuardedBy("cache")
+    @NonNull
+    private Future<RYDVoteData> startFetch(@NonNull String videoId, int priority) {
+        Future<RYDVoteData> future = lane.submit(() -> voteSource.fetchVotes(videoId), priority);
+        cache.put(videoId, new CachedFetch(future, timeSource.currentTimeMillis()));
+        return future;
+    }
+
+    /**
+     * For the video that just loaded. Uses the cached fetch if there is one, otherwise starts a new fetch.
+     *
+     * @return The fetch the UI waits on.
+     */
+    @NonNull
+    Future<RYDVoteData> fetchForLoadedVideo(@NonNull String videoId) {
+        Objects.requireNonNull(videoId);
+        synchronized (cache) {
+            CachedFetch entry = getUsableFetch(videoId);
+            if (entry != null) {
+                // Fetch may have been started by a prefetch, and the UI is now waiting for it.
+                lane.setPriority(entry.future, TaskLane.PRIORITY_HIGH);
+                return entry.future;
+            }
+            return startFetch(videoId, TaskLane.PRIORITY_NORMAL);
+        }
+    }
+
+    /**
+     * Starts a low priority fetch of a video that is likely to play soon,
+     * so the votes are available as soon as the video is loaded.
+     * Does nothing if the video is already fetched or fetching, or if a rate limit is in effect.
+     *
+     * @return If a fetch was started.
+     */
+    boolean prefetch(@NonNull String videoId) {
+        Objects.requireNonNull(videoId);
+        if (voteSource.isRateLimitInEffect()) {
+            return false; // Fetch would fail, and a failed fetch is fetched again when the video loads anyways.
+        }
+        synchronized (cache) {
+            if (getUsableFetch(videoId) != null) {
+                return false;
+            }
+            startFetch(videoId, TaskLane.PRIORITY_LOW);
+            return true;
+        }
+    }
+
+    /**
+     * Prefetches the next {@link #QUEUE_PREFETCH_COUNT} tracks of a playback queue.
+     * Must be called off the main thread, as playlist pages may be fetched.
+     *
+     * @param playlistIndex Index of the current track in the playlist.
+     */
+    void prefetchQueue(@NonNull String playlistId, int playlistIndex) throws IOException, JSONException {
+        for (int i = 1; i <= QUEUE_PREFETCH_COUNT; i++) {
+            if (voteSource.isRateLimitInEffect()) {
+                return;
+            }
+            String videoId = queueSource.getVideoId(playlistId, playlistIndex + i);
+            if (videoId == null || videoId.isEmpty()) {
+                return; // End of queue.
+            }
+            prefetch(videoId);
+        }
+    }
+
+    void removeExpired() {
+        final long now = timeSource.currentTimeMillis();
+        synchronized (cache) {
+            cache.values().removeIf(value -> value.isExpired(now));
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class ReturnYouTubeDislikeApi {
     /**
      * @return True, if api rate limit is in effect.
      */
-    private static boolean checkIfRateLimitInEffect() {
+    public static boolean checkIfRateLimitInEffect() {
         if (lastTimeRateLimitWasHit == 0) {
             return false;
         }
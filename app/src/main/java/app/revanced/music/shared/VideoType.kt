@@ -48,10 +48,11 @@ enum class VideoType {
         private var currentVideoType = MUSIC_VIDEO_TYPE_UNKNOWN
 
         /**
-         * player type change listener
+         * video type change listener.
+         * Called on the main thread, and only with the latest value if changes come in a burst.
          */
         @JvmStatic
-        val onChange = Event<VideoType>()
+        val onChange = Event<VideoType>(Event.MAIN_THREAD, coalesce = true)
     }
 
     fun isMusicVideo(): Boolean {
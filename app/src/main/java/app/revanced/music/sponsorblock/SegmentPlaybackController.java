@@ -19,6 +19,7 @@ import app.revanced.music.sponsorblock.objects.SponsorSegment;
 import app.revanced.music.sponsorblock.requests.SBRequester;
 import app.revanced.music.utils.LogHelper;
 import app.revanced.music.utils.ReVancedUtils;
+import app.revanced.music.utils.TaskLane;
 import app.revanced.music.utils.VideoHelpers;
 
 /**
@@ -113,13 +114,13 @@ public class SegmentPlaybackController {
             currentVideoId = videoId;
             LogHelper.printDebug(SegmentPlaybackController.class, "setCurrentVideoId: " + videoId);
 
-            ReVancedUtils.runOnBackgroundThread(() -> {
+            TaskLane.NETWORK.execute(() -> {
                 try {
                     executeDownloadSegments(videoId);
                 } catch (Exception e) {
                     LogHelper.printException(SegmentPlaybackController.class, "Failed to download segments", e);
                 }
-            });
+            }, TaskLane.PRIORITY_HIGH);
         } catch (Exception ex) {
             LogHelper.printException(SegmentPlaybackController.class, "setCurrentVideoId failure", ex);
         }
@@ -18,6 +18,7 @@ import app.revanced.music.sponsorblock.objects.SegmentCategory;
 import app.revanced.music.sponsorblock.objects.SponsorSegment;
 import app.revanced.music.utils.LogHelper;
 import app.revanced.music.utils.ReVancedUtils;
+import app.revanced.music.utils.TaskLane;
 
 public class SBRequester {
     /**
@@ -90,7 +91,7 @@ public class SBRequester {
         if (now < (SettingsEnum.SB_LAST_VIP_CHECK.getLong() + TimeUnit.DAYS.toMillis(3))) {
             return;
         }
-        ReVancedUtils.runOnBackgroundThread(() -> {
+        TaskLane.NETWORK.execute(() -> {
             try {
                 SettingsEnum.SB_LAST_VIP_CHECK.saveValue(now);
             } catch (Exception ex) {
@@ -1,10 +1,47 @@
 package app.revanced.music.utils
 
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+
 /**
  * generic event provider class
+ *
+ * Safe to use from any thread. Observers can be added or removed while an event is being dispatched,
+ * and each dispatch uses a snapshot of the observers.
+ *
+ * @param executor If not null, observers are called using this executor
+ * (such as [MAIN_THREAD]) instead of the thread that invoked the event.
+ * @param coalesce If true, values invoked while a dispatch is still waiting to run are merged,
+ * and only the latest value is delivered. A value equal to the last delivered value is not delivered again.
+ * Requires an executor.
  */
-class Event<T> {
-    private val eventListeners = mutableSetOf<(T) -> Unit>()
+class Event<T>(
+    private val executor: Executor? = null,
+    private val coalesce: Boolean = false
+) {
+    private val eventListeners = CopyOnWriteArraySet<(T) -> Unit>()
+
+    /**
+     * Latest value not yet delivered, or [NO_VALUE] if no dispatch is waiting.
+     */
+    private val pendingValue = AtomicReference<Any?>(NO_VALUE)
+
+    /**
+     * If a coalescing dispatch is running. Values invoked during a dispatch, including by an observer
+     * on the dispatching thread, are delivered by that dispatch after it finishes the current value.
+     */
+    private val dispatching = AtomicBoolean()
+
+    /**
+     * Only used while holding [dispatching].
+     */
+    private var lastDeliveredValue: Any? = NO_VALUE
+
+    init {
+        require(!coalesce || executor != null) { "Coalescing requires an executor" }
+    }
 
     operator fun plusAssign(observer: (T) -> Unit) {
         addObserver(observer)
@@ -23,8 +60,50 @@ class Event<T> {
     }
 
     operator fun invoke(value: T) {
-        for (observer in eventListeners)
-            observer.invoke(value)
+        when {
+            executor == null -> dispatch(value)
+            !coalesce -> executor.execute { dispatch(value) }
+            // Only the first value of a burst schedules a dispatch. Later values replace it.
+            pendingValue.getAndSet(value) === NO_VALUE -> executor.execute { dispatchPending() }
+        }
     }
-}
 
+    private fun dispatchPending() {
+        while (dispatching.compareAndSet(false, true)) {
+            try {
+                while (true) {
+                    val latest = pendingValue.getAndSet(NO_VALUE)
+                    if (latest === NO_VALUE) break
+                    if (latest == lastDeliveredValue) continue
+                    lastDeliveredValue = latest
+                    @Suppress("UNCHECKED_CAST")
+                    dispatch(latest as T)
+                }
+            } finally {
+                dispatching.set(false)
+            }
+            // A value invoked after the last check, that found the dispatch still running.
+            if (pendingValue.get() === NO_VALUE) return
+        }
+    }
+
+    private fun dispatch(value: T) {
+        for (observer in eventListeners) {
+            try {
+                observer.invoke(value)
+            } catch (ex: Exception) {
+                LogHelper.printException(Event::class.java, "Observer failure", ex)
+            }
+        }
+    }
+
+    companion object {
+        private val NO_VALUE = Any()
+
+        /**
+         * Dispatches on the main thread. Runs immediately if already on the main thread.
+         */
+        @JvmField
+        val MAIN_THREAD = Executor { ReVancedUtils.runOnMainThreadNowOrLater(it) }
+    }
+}
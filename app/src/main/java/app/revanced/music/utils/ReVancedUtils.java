@@ -2,7 +2,6 @@ package app.revanced.music.utils;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
-import android.net.ConnectivityManager;
 import android.os.Handler;
 import android.os.Looper;
 import android.view.View;
@@ -19,28 +18,8 @@ import androidx.annotation.Nullable;
 import java.text.Bidi;
 import java.util.Locale;
 import java.util.Objects;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 public class ReVancedUtils {
-    /**
-     * General purpose pool for network calls and other background tasks.
-     * All tasks run at max thread priority.
-     */
-    private static final ThreadPoolExecutor backgroundThreadPool = new ThreadPoolExecutor(
-            2, // 2 threads always ready to go
-            Integer.MAX_VALUE,
-            10, // For any threads over the minimum, keep them alive 10 seconds after they go idle
-            TimeUnit.SECONDS,
-            new SynchronousQueue<>(),
-            r -> { // ThreadFactory
-                Thread t = new Thread(r);
-                t.setPriority(Thread.MAX_PRIORITY); // run at max priority
-                return t;
-            });
     @SuppressLint("StaticFieldLeak")
     public static Context context;
     @Nullable
@@ -96,15 +75,6 @@ public class ReVancedUtils {
         return -1;
     }
 
-    public static void runOnBackgroundThread(@NonNull Runnable task) {
-        backgroundThreadPool.execute(task);
-    }
-
-    @NonNull
-    public static <T> Future<T> submitOnBackgroundThread(@NonNull Callable<T> call) {
-        return backgroundThreadPool.submit(call);
-    }
-
     /**
      * If the device language uses right to left text layout (hebrew, arabic, etc)
      */
@@ -197,20 +167,12 @@ public class ReVancedUtils {
         }
     }
 
-    @SuppressLint("MissingPermission") // permission already included in YouTube
+    /**
+     * @return The cached type of the current network.
+     * @see NetworkStateService
+     */
     public static NetworkType getNetworkType() {
-        assert context != null;
-        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        var networkInfo = cm.getActiveNetworkInfo();
-
-        if (networkInfo == null || !networkInfo.isConnected())
-            return NetworkType.NONE;
-
-        return switch (networkInfo.getType()) {
-            case ConnectivityManager.TYPE_MOBILE, ConnectivityManager.TYPE_BLUETOOTH ->
-                    NetworkType.MOBILE;
-            default -> NetworkType.WIFI;
-        };
+        return NetworkStateService.getInstance().getNetworkType();
     }
 
     public enum NetworkType {
@@ -7,6 +7,7 @@ import android.content.res.Resources
 import android.view.View
 import android.view.animation.AnimationUtils
 import app.revanced.music.utils.ReVancedUtils.getContext
+import java.util.concurrent.ConcurrentHashMap
 
 @SuppressLint("DiscouragedApi")
 object ResourceUtils {
@@ -17,9 +18,20 @@ object ResourceUtils {
     @JvmStatic
     val resources: Resources get() = getContext().resources
 
+    /**
+     * Resolved identifiers, indexed by [ResourceType.ordinal].
+     * Identifiers never change while the process is running,
+     * so each name is looked up only once (including names that do not exist).
+     */
+    private val identifiers = Array(ResourceType.values().size) { ConcurrentHashMap<String, Int>() }
+
     @JvmStatic
     fun identifier(name: String, type: ResourceType, context: Context): Int {
-        return resources.getIdentifier(name, type.value, context.packageName)
+        val typeIdentifiers = identifiers[type.ordinal]
+        typeIdentifiers[name]?.let { return it }
+        return resources.getIdentifier(name, type.value, context.packageName).also {
+            typeIdentifiers[name] = it
+        }
     }
 
     @JvmStatic
@@ -0,0 +1,248 @@
+package app.revanced.music.utils;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded background executors, each for a different kind of work.
+ * <p>
+ * Each lane has a fixed maximum number of threads, a bounded priority queue,
+ * and runs at a thread priority below the UI and media decoder threads.
+ * Tasks with a higher {@link #PRIORITY_HIGH priority} are started first,
+ * and tasks of equal priority run in the order they were submitted.
+ * <p>
+ * If a lane queue is full, newly submitted tasks are rejected and counted in the lane statistics.
+ * A rejected {@link Future} is cancelled, so callers waiting on it do not block forever.
+ */
+public enum TaskLane {
+    /**
+     * Network calls. Most of the time is spent waiting on the server,
+     * so this lane allows more threads than there are cpu cores.
+     */
+    NETWORK("network", 6, 256, Process.THREAD_PRIORITY_BACKGROUND),
+    /**
+     * Cpu bound work such as proof of work puzzles and parsing.
+     */
+    COMPUTATION("computation", Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1)), 64, Process.THREAD_PRIORITY_BACKGROUND),
+    /**
+     * Short work that something on screen (or the main thread) is actively waiting on.
+     */
+    LATENCY_CRITICAL("critical", 2, 32, Process.THREAD_PRIORITY_DEFAULT);
+
+    public static final int PRIORITY_LOW = -10;
+    public static final int PRIORITY_NORMAL = 0;
+    public static final int PRIORITY_HIGH = 10;
+
+    /**
+     * Idle threads are kept alive this long before they exit.
+     */
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 10;
+
+    /**
+     * Tie breaker for tasks of equal priority. Shared by all lanes.
+     */
+    private static final AtomicLong taskSequence = new AtomicLong();
+
+    @NonNull
+    private final String name;
+    private final int queueCapacity;
+    @NonNull
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicInteger peakQueueSize = new AtomicInteger();
+
+    TaskLane(@NonNull String name, int threadCount, int queueCapacity, int threadPriority) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(() -> {
+                Process.setThreadPriority(threadPriority);
+                r.run();
+            }, "revanced-" + name + "-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        RejectedExecutionHandler rejectedHandler = (r, executor) -> {
+            rejectedCount.incrementAndGet();
+            if (r instanceof Future<?> future) {
+                future.cancel(false);
+            }
+            LogHelper.printException(TaskLane.class, "Task rejected, lane is saturated: " + this);
+        };
+        // The executor only grows beyond the core size when the queue refuses an element,
+        // and a priority queue never refuses. So core and max size are equal
+        // and idle core threads are allowed to time out instead.
+        executor = new ThreadPoolExecutor(threadCount, threadCount,
+                THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), factory, rejectedHandler) {
+            @Override
+            public void execute(Runnable command) {
+                // Priority queue is unbounded, so enforce the capacity here.
+                final int queueSize = getQueue().size();
+                if (queueSize >= TaskLane.this.queueCapacity) {
+                    getRejectedExecutionHandler().rejectedExecution(command, this);
+                    return;
+                }
+                peakQueueSize.accumulateAndGet(queueSize + 1, Math::max);
+                submittedCount.incrementAndGet();
+                super.execute(command);
+            }
+
+            @Override
+            protected void afterExecute(Runnable r, Throwable t) {
+                completedCount.incrementAndGet();
+            }
+        };
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @NonNull
+    public Future<?> execute(@NonNull Runnable task) {
+        return execute(task, PRIORITY_NORMAL);
+    }
+
+    /**
+     * @return A future that can be used to cancel the task. Exceptions thrown by the task are logged.
+     */
+    @NonNull
+    public Future<?> execute(@NonNull Runnable task, int priority) {
+        PrioritizedTask<Void> prioritized = new PrioritizedTask<>(task, priority);
+        executor.execute(prioritized);
+        return prioritized;
+    }
+
+    @NonNull
+    public <T> Future<T> submit(@NonNull Callable<T> call) {
+        return submit(call, PRIORITY_NORMAL);
+    }
+
+    @NonNull
+    public <T> Future<T> submit(@NonNull Callable<T> call, int priority) {
+        PrioritizedTask<T> task = new PrioritizedTask<>(call, priority);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Changes the priority of a task that has not yet started.
+     *
+     * @return If the task was still waiting in the queue of this lane.
+     */
+    public boolean setPriority(@NonNull Future<?> task, int priority) {
+        if (!(task instanceof PrioritizedTask<?> prioritized)) {
+            return false;
+        }
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (!queue.remove(prioritized)) {
+            return false; // Already running or finished.
+        }
+        prioritized.priority = priority;
+        queue.offer(prioritized);
+        if (executor.getPoolSize() == 0) {
+            // All threads timed out while the task was out of the queue.
+            executor.prestartCoreThread();
+        }
+        return true;
+    }
+
+    /**
+     * Removes a task that has not yet started.
+     *
+     * @return If the task was still waiting in the queue of this lane, and it will now never run.
+     */
+    public boolean remove(@NonNull Future<?> task) {
+        return task instanceof Runnable runnable && executor.remove(runnable);
+    }
+
+    /**
+     * @return If the queue is currently full and new tasks will be rejected.
+     */
+    public boolean isSaturated() {
+        return executor.getQueue().size() >= queueCapacity;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getPeakQueueSize() {
+        return peakQueueSize.get();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return name + " active: " + getActiveCount()
+                + " queued: " + getQueueSize()
+                + " peak queued: " + getPeakQueueSize()
+                + " submitted: " + getSubmittedCount()
+                + " completed: " + getCompletedCount()
+                + " rejected: " + getRejectedCount();
+    }
+
+    private static final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private volatile int priority;
+        private final long sequence;
+
+        PrioritizedTask(@NonNull Callable<T> callable, int priority) {
+            super(callable);
+            this.priority = priority;
+            this.sequence = taskSequence.getAndIncrement();
+        }
+
+        PrioritizedTask(@NonNull Runnable runnable, int priority) {
+            super(() -> {
+                try {
+                    runnable.run();
+                } catch (Exception ex) {
+                    // Nothing ever calls get() on a plain runnable, so log here or the exception is lost.
+                    LogHelper.printException(TaskLane.class, runnable.getClass() + ": " + ex.getMessage(), ex);
+                }
+            }, null);
+            this.priority = priority;
+            this.sequence = taskSequence.getAndIncrement();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority); // Higher priority first.
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
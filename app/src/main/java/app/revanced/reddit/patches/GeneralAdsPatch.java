@@ -1,26 +1,11 @@
 package app.revanced.reddit.patches;
 
-import com.reddit.domain.model.ILink;
-
-import java.util.ArrayList;
 import java.util.List;
 
 import app.revanced.reddit.settings.SettingsEnum;
 
 public final class GeneralAdsPatch {
 
-    private static List<?> filterChildren(final Iterable<?> links) {
-        final List<Object> filteredList = new ArrayList<>();
-
-        for (Object item : links) {
-            if (item instanceof ILink && ((ILink) item).getPromoted()) continue;
-
-            filteredList.add(item);
-        }
-
-        return filteredList;
-    }
-
     public static boolean hideCommentAds() {
         return SettingsEnum.HIDE_COMMENT_ADS.getBoolean();
     }
@@ -29,7 +14,7 @@ public final class GeneralAdsPatch {
         if (!SettingsEnum.HIDE_OLD_POST_ADS.getBoolean())
             return list;
 
-        return filterChildren(list);
+        return PromotedLinkFilter.filter(list);
     }
 
     public static boolean hideNewPostAds() {
@@ -0,0 +1,73 @@
+package app.revanced.reddit.patches;
+
+import com.reddit.domain.model.ILink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Removes promoted links from a feed page.
+ * <p>
+ * Most pages contain no promoted links, so the page is first scanned without copying it.
+ * If nothing is removed, the original list is returned.
+ * Otherwise a new list is returned, and the original list is never modified
+ * (it may be an immutable list owned by the app).
+ */
+final class PromotedLinkFilter {
+
+    private PromotedLinkFilter() {
+    } // utility class
+
+    static boolean isAd(Object item) {
+        return item instanceof ILink link && link.getPromoted();
+    }
+
+    /**
+     * @return The original list if it contains no ads, otherwise a new list without the ads.
+     */
+    static List<?> filter(final Iterable<?> items) {
+        if (items instanceof List<?> list && list instanceof RandomAccess) {
+            final int size = list.size();
+            for (int i = 0; i < size; i++) {
+                if (isAd(list.get(i))) {
+                    return copyWithoutAds(list, i, size);
+                }
+            }
+            return list;
+        }
+
+        if (items instanceof List<?> list) {
+            boolean hasAds = false;
+            for (Object item : list) {
+                if (isAd(item)) {
+                    hasAds = true;
+                    break;
+                }
+            }
+            if (!hasAds) return list;
+        }
+
+        final List<Object> filteredList = items instanceof Collection<?> collection
+                ? new ArrayList<>(collection.size())
+                : new ArrayList<>();
+        for (Object item : items) {
+            if (!isAd(item)) filteredList.add(item);
+        }
+        return filteredList;
+    }
+
+    /**
+     * @param firstAdIndex Index of the first ad. Items before it are copied without checking them again.
+     */
+    private static List<?> copyWithoutAds(final List<?> list, final int firstAdIndex, final int size) {
+        final List<Object> filteredList = new ArrayList<>(size - 1);
+        filteredList.addAll(list.subList(0, firstAdIndex));
+        for (int i = firstAdIndex + 1; i < size; i++) {
+            Object item = list.get(i);
+            if (!isAd(item)) filteredList.add(item);
+        }
+        return filteredList;
+    }
+}
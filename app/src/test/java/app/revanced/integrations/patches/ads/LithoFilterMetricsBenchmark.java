@@ -0,0 +1,75 @@
+package app.revanced.integrations.patches.ads;
+
+import java.util.Locale;
+
+import app.revanced.integrations.settings.SettingsEnum;
+
+/**
+ * Measures the cost of {@link LithoFilterMetrics} for each filter call, with metrics off and on.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.patches.ads.LithoFilterMetricsBenchmark [threads]
+ * </pre>
+ */
+public final class LithoFilterMetricsBenchmark {
+    private static final int CALLS = 2_000_000;
+    private static final int ROUNDS = 10;
+    private static final String[] GROUP_NAMES = {
+            "AdsFilter / a", "AdsFilter / b", "AdsFilter / c", "AdsFilter / d",
+    };
+
+    /**
+     * Prevents the measured work from being optimized away.
+     */
+    private static volatile long sink;
+
+    private LithoFilterMetricsBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) throws InterruptedException {
+        final int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+
+        SettingsEnum.setValue(SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_METRICS, false);
+        report("Off", threadCount);
+        SettingsEnum.setValue(SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_METRICS, true);
+        report("On", threadCount);
+        SettingsEnum.setValue(SettingsEnum.ENABLE_DEBUG_LITHO_FILTER_METRICS, false);
+    }
+
+    private static void report(String name, int threadCount) throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            Thread[] threads = new Thread[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                threads[i] = new Thread(LithoFilterMetricsBenchmark::run);
+            }
+            final long start = System.nanoTime();
+            for (Thread thread : threads) thread.start();
+            for (Thread thread : threads) thread.join();
+            best = Math.min(best, System.nanoTime() - start);
+            LithoFilterMetrics.reset();
+        }
+        System.out.println(String.format(Locale.ROOT, "%-3s %.1fns per call (%d threads)",
+                name, best / (double) CALLS, threadCount));
+    }
+
+    /**
+     * Same steps as the filter callback of {@link LithoFilterPatch}, without calling a filter.
+     */
+    private static void run() {
+        long result = 0;
+        for (int i = 0; i < CALLS; i++) {
+            if (LithoFilterMetrics.isEnabled()) {
+                final long start = System.nanoTime();
+                result += start;
+                LithoFilterMetrics.recordFilter("AdsFilter", GROUP_NAMES[i & 3],
+                        System.nanoTime() - start, (i & 7) == 0, false);
+            } else {
+                result += i;
+            }
+        }
+        sink = result;
+    }
+}
@@ -0,0 +1,125 @@
+package app.revanced.integrations.patches.ads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import app.revanced.integrations.patches.ads.LithoFilterMetrics.Metric;
+
+public class LithoFilterMetricsTest {
+
+    @After
+    public void reset() {
+        LithoFilterMetrics.reset();
+    }
+
+    @Test
+    public void buckets() {
+        assertEquals(0, LithoFilterMetrics.bucketOf(-1));
+        assertEquals(0, LithoFilterMetrics.bucketOf(0));
+        assertEquals(1, LithoFilterMetrics.bucketOf(1));
+        assertEquals(2, LithoFilterMetrics.bucketOf(2));
+        assertEquals(2, LithoFilterMetrics.bucketOf(3));
+        assertEquals(11, LithoFilterMetrics.bucketOf(1024));
+        assertEquals(LithoFilterMetrics.NUMBER_OF_BUCKETS - 1, LithoFilterMetrics.bucketOf(Long.MAX_VALUE));
+
+        // Every value is below the upper bound of its bucket, and at least the bound of the previous bucket.
+        for (long nanoseconds = 1; nanoseconds < (1L << 30); nanoseconds = nanoseconds * 3 + 1) {
+            final int bucket = LithoFilterMetrics.bucketOf(nanoseconds);
+            assertTrue(nanoseconds < LithoFilterMetrics.bucketUpperBound(bucket));
+            assertTrue(nanoseconds >= LithoFilterMetrics.bucketUpperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        Metric metric = new Metric("test");
+        assertEquals(0, metric.percentileNanoseconds(0.5));
+
+        for (int i = 0; i < 90; i++) {
+            metric.record(100, false); // Bucket [64, 128)
+        }
+        for (int i = 0; i < 9; i++) {
+            metric.record(1000, false); // Bucket [512, 1024)
+        }
+        metric.record(1_000_000, true); // Bucket [524288, 1048576)
+
+        assertEquals(128, metric.percentileNanoseconds(0.5));
+        assertEquals(128, metric.percentileNanoseconds(0.9));
+        assertEquals(1024, metric.percentileNanoseconds(0.99));
+        assertEquals(1L << 20, metric.percentileNanoseconds(1));
+        assertEquals(100, metric.calls.sum());
+        assertEquals(1, metric.matches.sum());
+        assertEquals(90 * 100 + 9 * 1000 + 1_000_000, metric.totalNanoseconds.sum());
+
+        metric.reset();
+        assertEquals(0, metric.calls.sum());
+        assertEquals(0, metric.percentileNanoseconds(0.99));
+    }
+
+    @Test
+    public void recordsFiltersAndGroups() {
+        LithoFilterMetrics.recordFilter("AdsFilter", "AdsFilter / a", 100, true, false);
+        LithoFilterMetrics.recordFilter("AdsFilter", "AdsFilter / b", 200, false, false);
+        LithoFilterMetrics.recordFilter("ShortsFilter", "ShortsFilter / c", 5000, false, true);
+        LithoFilterMetrics.recordSearch(10_000, true);
+
+        String report = LithoFilterMetrics.getReport();
+        assertTrue(report, report.startsWith("All filters (complete search)\n  calls: 1 matched: 1 failed: 0\n"));
+        assertTrue(report, report.contains("AdsFilter\n  calls: 2 matched: 1 failed: 0\n  total: 0.0ms mean: 0.2us"));
+        assertTrue(report, report.contains("ShortsFilter\n  calls: 1 matched: 0 failed: 1\n"));
+        assertTrue(report, report.contains("AdsFilter / b\n  calls: 1 matched: 0 failed: 0\n"));
+
+        // Most expensive first.
+        final int filters = report.indexOf("\nFilters:\n");
+        final int groups = report.indexOf("\nFilter groups:\n");
+        assertTrue(report.indexOf("ShortsFilter\n", filters) < report.indexOf("AdsFilter\n", filters));
+        assertTrue(report.indexOf("ShortsFilter / c", groups) < report.indexOf("AdsFilter / b", groups));
+        assertTrue(report.indexOf("AdsFilter / b", groups) < report.indexOf("AdsFilter / a", groups));
+
+        LithoFilterMetrics.reset();
+        report = LithoFilterMetrics.getReport();
+        assertTrue(report, report.contains("\nFilters:\n(none)\n"));
+        assertTrue(report, report.contains("\nFilter groups:\n(none)\n"));
+        assertTrue(report, report.startsWith("All filters (complete search)\n  calls: 0 matched: 0 failed: 0\n"));
+    }
+
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+        final int threadCount = 8;
+        final int callsPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final String groupName = "Filter / " + (i % 2);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int j = 0; j < callsPerThread; j++) {
+                    LithoFilterMetrics.recordFilter("Filter", groupName, j % 1000, j % 10 == 0, false);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final long total = (long) threadCount * callsPerThread;
+        String report = LithoFilterMetrics.getReport();
+        assertTrue(report, report.contains("Filter\n  calls: " + total + " matched: " + total / 10 + " failed: 0\n"));
+        assertTrue(report, report.contains("Filter / 0\n  calls: " + total / 2 + " "));
+        assertTrue(report, report.contains("Filter / 1\n  calls: " + total / 2 + " "));
+    }
+}
@@ -0,0 +1,189 @@
+package app.revanced.integrations.patches.ads;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import app.revanced.integrations.patches.ads.LithoFilterRecording.Record;
+
+public class LithoFilterRecordingTest {
+    private static final int FILE_MAGIC = 0x52564C52;
+
+    private static List<Record> randomRecords(Random random, int count) {
+        String[] components = {"video_action_bar.eml", "shorts_shelf.eml", "comment_thread.eml",
+                "ad_badge.eml", "rich_item_single_column.eml", "コメント.eml"};
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder path = new StringBuilder();
+            for (int j = 1 + random.nextInt(6); j > 0; j--) {
+                path.append(components[random.nextInt(components.length)]).append('|');
+            }
+            String identifier = random.nextBoolean()
+                    ? null
+                    : components[random.nextInt(components.length)];
+            byte[] buffer = new byte[random.nextInt(4) == 0 ? 0 : random.nextInt(5000)];
+            random.nextBytes(buffer);
+            records.add(new Record(path.toString(), identifier, path + (identifier == null ? "" : identifier),
+                    buffer, random.nextBoolean()));
+        }
+        return records;
+    }
+
+    private static void assertRecordEquals(Record expected, Record actual) {
+        assertEquals(expected.path, actual.path);
+        assertEquals(expected.identifier, actual.identifier);
+        assertEquals(expected.allValue, actual.allValue);
+        assertArrayEquals(expected.buffer, actual.buffer);
+        assertEquals(expected.filtered, actual.filtered);
+    }
+
+    private static List<Record> readAll(@NonNull byte[] file, boolean expectTruncated) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (LithoFilterRecording.Reader reader = new LithoFilterRecording.Reader(new ByteArrayInputStream(file))) {
+            Record record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+            assertEquals(expectTruncated, reader.isTruncated());
+            assertNull(reader.read());
+        }
+        return records;
+    }
+
+    private static byte[] header(int magic, int version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(magic);
+        out.writeInt(version);
+        out.writeLong(0);
+        return bytes.toByteArray();
+    }
+
+    private static void assertNotReadable(byte[] file) {
+        try {
+            new LithoFilterRecording.Reader(new ByteArrayInputStream(file)).close();
+            fail("File was read");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        List<Record> records = randomRecords(new Random(1), 500);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (LithoFilterRecording.Writer writer = new LithoFilterRecording.Writer(file)) {
+            for (Record record : records) {
+                writer.write(record);
+            }
+        }
+
+        List<Record> read = readAll(file.toByteArray(), false);
+        assertEquals(records.size(), read.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertRecordEquals(records.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void emptyRecording() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        new LithoFilterRecording.Writer(file).close();
+        assertTrue(readAll(file.toByteArray(), false).isEmpty());
+    }
+
+    /**
+     * Recording that was not closed, such as when the app is closed, is read up to the last flush.
+     */
+    @Test
+    public void readsFlushedRecordsOfUnclosedRecording() throws IOException {
+        List<Record> records = randomRecords(new Random(2), 100);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        LithoFilterRecording.Writer writer = new LithoFilterRecording.Writer(file);
+        for (int i = 0; i < 50; i++) {
+            writer.write(records.get(i));
+        }
+        writer.flush();
+        final int flushedLength = file.size();
+        for (int i = 50; i < 100; i++) {
+            writer.write(records.get(i));
+        }
+        writer.flush();
+        byte[] complete = file.toByteArray();
+
+        assertEquals(50, readAll(Arrays.copyOf(complete, flushedLength), true).size());
+
+        // Cut part way into the second batch, where all records before the cut can be read.
+        List<Record> read = readAll(Arrays.copyOf(complete, (flushedLength + complete.length) / 2), true);
+        assertTrue(read.size() >= 50 && read.size() < 100);
+        for (int i = 0; i < read.size(); i++) {
+            assertRecordEquals(records.get(i), read.get(i));
+        }
+        assertEquals(100, readAll(complete, true).size());
+    }
+
+    @Test
+    public void rejectsOtherFilesAndVersions() throws IOException {
+        assertNotReadable(new byte[0]);
+        assertNotReadable(new byte[]{0x52, 0x56});
+        assertNotReadable(header(0x52565451, LithoFilterRecording.FILE_VERSION));
+        assertNotReadable(header(FILE_MAGIC, LithoFilterRecording.FILE_VERSION + 1));
+        assertNotReadable(header(FILE_MAGIC, 0));
+        assertNotReadable("<html></html>".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void rejectsCorruptFieldLength() throws IOException {
+        // Record with flags and then a negative path length.
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(header(FILE_MAGIC, LithoFilterRecording.FILE_VERSION), 0, 8);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(file))) {
+            out.writeByte(0);
+            out.writeInt(-1);
+        }
+
+        try (LithoFilterRecording.Reader reader = new LithoFilterRecording.Reader(
+                new ByteArrayInputStream(file.toByteArray()))) {
+            reader.read();
+            fail("Corrupt record was read");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void replayIsDeterministic() throws IOException {
+        List<Record> records = randomRecords(new Random(3), 200);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (LithoFilterRecording.Writer writer = new LithoFilterRecording.Writer(file)) {
+            for (Record record : records) {
+                writer.write(record);
+            }
+        }
+
+        LithoFilterReplay.Report first = LithoFilterReplay.replay(new ByteArrayInputStream(file.toByteArray()), 3);
+        LithoFilterReplay.Report second = LithoFilterReplay.replay(new ByteArrayInputStream(file.toByteArray()), 3);
+        assertEquals(records.size(), first.records);
+        assertFalse(first.truncated);
+        assertEquals(0, first.unstable);
+        assertEquals(first.filtered, second.filtered);
+        assertEquals(first.differences, second.differences);
+        assertEquals(first.differenceDescriptions, second.differenceDescriptions);
+    }
+}
@@ -0,0 +1,136 @@
+package app.revanced.integrations.patches.ads;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays a recording made by {@link LithoFilterRecorder} through the current filters,
+ * and reports decisions that differ from the recorded decisions and the filtering throughput.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath,
+ * where Android methods are stubs that return default values:
+ * <pre>
+ * java app.revanced.integrations.patches.ads.LithoFilterReplay recording.bin [iterations]
+ * </pre>
+ * Records are read into memory before replaying, so the reported time includes only filtering.
+ * If more than 1 iteration is used, any decision that changes between iterations is reported as unstable.
+ */
+public final class LithoFilterReplay {
+    /**
+     * Maximum number of differences to include in the report.
+     */
+    private static final int MAX_DIFFERENCES_REPORTED = 50;
+
+    static final class Report {
+        int records;
+        int iterations;
+        boolean truncated;
+        int filtered;
+        int differences;
+        int unstable;
+        long bufferBytes;
+        long nanoseconds;
+        final List<String> differenceDescriptions = new ArrayList<>();
+
+        @NonNull
+        @Override
+        public String toString() {
+            final long replayed = (long) records * iterations;
+            final double seconds = nanoseconds / 1_000_000_000.0;
+            StringBuilder builder = new StringBuilder();
+            builder.append("Records: ").append(records)
+                    .append(truncated ? " (recording is truncated)" : "")
+                    .append("\nFiltered: ").append(filtered)
+                    .append("\nDifferent from recording: ").append(differences)
+                    .append("\nUnstable between iterations: ").append(unstable)
+                    .append("\nIterations: ").append(iterations);
+            if (replayed > 0 && seconds > 0) {
+                builder.append(String.format(Locale.ROOT,
+                        "\nTime: %.1fms (%.2fus per record, %.0f records/s, %.1f MB/s of buffers)",
+                        nanoseconds / 1_000_000.0,
+                        nanoseconds / 1000.0 / replayed,
+                        replayed / seconds,
+                        bufferBytes * (double) iterations / seconds / (1024 * 1024)));
+            }
+            for (String description : differenceDescriptions) {
+                builder.append('\n').append(description);
+            }
+            return builder.toString();
+        }
+    }
+
+    private LithoFilterReplay() {
+    } // utility class
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: LithoFilterReplay <recording file> [iterations]");
+            System.exit(2);
+            return;
+        }
+        final int iterations = args.length == 2 ? Integer.parseInt(args[1]) : 1;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            Report report = replay(in, iterations);
+            System.out.println(report);
+            System.exit(report.differences == 0 && report.unstable == 0 ? 0 : 1);
+        }
+    }
+
+    @NonNull
+    static Report replay(@NonNull InputStream in, int iterations) throws IOException {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations: " + iterations);
+        }
+        Report report = new Report();
+        report.iterations = iterations;
+
+        List<LithoFilterRecording.Record> records = new ArrayList<>();
+        try (LithoFilterRecording.Reader reader = new LithoFilterRecording.Reader(in)) {
+            LithoFilterRecording.Record record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+                report.bufferBytes += record.buffer.length;
+            }
+            report.truncated = reader.isTruncated();
+        }
+        report.records = records.size();
+
+        final int count = records.size();
+        boolean[] firstDecisions = new boolean[count];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < count; i++) {
+                LithoFilterRecording.Record record = records.get(i);
+                final long start = System.nanoTime();
+                LithoFilterPatch.setProtoBuffer(ByteBuffer.wrap(record.buffer));
+                final boolean filtered = LithoFilterPatch.filter(record.path, record.identifier, record.allValue);
+                report.nanoseconds += System.nanoTime() - start;
+
+                if (iteration == 0) {
+                    firstDecisions[i] = filtered;
+                    if (filtered) report.filtered++;
+                    if (filtered != record.filtered) {
+                        report.differences++;
+                        if (report.differenceDescriptions.size() < MAX_DIFFERENCES_REPORTED) {
+                            report.differenceDescriptions.add("#" + i + " recorded: " + record.filtered
+                                    + " replayed: " + filtered + " identifier: " + record.identifier
+                                    + " path: " + record.path);
+                        }
+                    }
+                } else if (filtered != firstDecisions[i]) {
+                    report.unstable++;
+                    firstDecisions[i] = filtered; // Count each change once.
+                }
+            }
+        }
+        return report;
+    }
+}
@@ -0,0 +1,162 @@
+package app.revanced.integrations.patches.ads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RebuildableSearchTest {
+
+    @Test
+    public void rebuildsOnlyAfterInvalidate() {
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableSearch<Integer> search = new RebuildableSearch<>(builds::incrementAndGet);
+
+        assertEquals(1, (int) search.get());
+        assertEquals(1, (int) search.get());
+        assertEquals(1, builds.get());
+
+        search.invalidate();
+        search.invalidate();
+        assertEquals(2, (int) search.get());
+        assertEquals(2, (int) search.get());
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    public void returnsPreviousSearchWhileRebuilding() throws Exception {
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch finishBuild = new CountDownLatch(1);
+        AtomicBoolean blockBuild = new AtomicBoolean();
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableSearch<Integer> search = new RebuildableSearch<>(() -> {
+            if (blockBuild.get()) {
+                buildStarted.countDown();
+                await(finishBuild);
+            }
+            return builds.incrementAndGet();
+        });
+        assertEquals(1, (int) search.get());
+
+        blockBuild.set(true);
+        search.invalidate();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> rebuild = executor.submit(search::get);
+            assertTrue(buildStarted.await(10, TimeUnit.SECONDS));
+
+            // Does not wait for the rebuild.
+            assertEquals(1, (int) search.get());
+            assertFalse(rebuild.isDone());
+
+            finishBuild.countDown();
+            assertEquals(2, (int) rebuild.get(10, TimeUnit.SECONDS));
+            assertEquals(2, (int) search.get());
+            assertEquals(2, builds.get());
+        } finally {
+            finishBuild.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void firstBuildIsSharedByAllThreads() throws Exception {
+        final int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableSearch<Object> search = new RebuildableSearch<>(() -> {
+            builds.incrementAndGet();
+            return new Object();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<Object>[] results = new Future[threads];
+            for (int i = 0; i < threads; i++) {
+                results[i] = executor.submit(() -> {
+                    await(start);
+                    return search.get();
+                });
+            }
+            start.countDown();
+            Object first = results[0].get(10, TimeUnit.SECONDS);
+            assertNotNull(first);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, builds.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Readers searching while the settings change many times
+     * always get a search, and the search after the changes stop uses the latest settings.
+     */
+    @Test
+    public void concurrentInvalidation() throws Exception {
+        final int readers = 8;
+        final int invalidations = 20000;
+        AtomicInteger settingsVersion = new AtomicInteger();
+        RebuildableSearch<Integer> search = new RebuildableSearch<>(settingsVersion::get);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] threads = new Thread[readers];
+        for (int i = 0; i < readers; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    int last = -1;
+                    while (!done.get()) {
+                        Integer value = search.get();
+                        if (value == null || value < last) {
+                            throw new AssertionError("value: " + value + " last: " + last);
+                        }
+                        last = value;
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads[i].start();
+        }
+        for (int i = 0; i < invalidations; i++) {
+            // Same order as a setting change: the value changes, then listeners are called.
+            settingsVersion.incrementAndGet();
+            search.invalidate();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(invalidations, (int) search.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new AssertionError("Timed out");
+            }
+        } catch (InterruptedException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package app.revanced.integrations.patches.ads;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import app.revanced.integrations.patches.ads.ReturnYouTubeDislikeFilterPatch.RecentVideoIds;
+import app.revanced.integrations.patches.ads.ReturnYouTubeDislikeFilterPatchTest.ReferenceVideoIds;
+
+/**
+ * Compares the single pass video id search of {@link ReturnYouTubeDislikeFilterPatch}
+ * with the search of each id it replaced.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.patches.ads.ReturnYouTubeDislikeFilterBenchmark [buffer length]
+ * </pre>
+ * Buffers are shaped like a Shorts dislike button component, where the id of the Short follows the icon name
+ * near the end of the buffer. The default length of 3KB is typical for that component.
+ */
+public final class ReturnYouTubeDislikeFilterBenchmark {
+    private static final int BUFFER_COUNT = 1000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private ReturnYouTubeDislikeFilterBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) {
+        final int bufferLength = args.length > 0 ? Integer.parseInt(args[0]) : 3072;
+        Random random = new Random(1);
+
+        RecentVideoIds window = RecentVideoIds.EMPTY;
+        ReferenceVideoIds reference = new ReferenceVideoIds();
+        List<String> videoIds = new ArrayList<>();
+        for (int i = 0; i < ReturnYouTubeDislikeFilterPatch.NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK; i++) {
+            String videoId = ReturnYouTubeDislikeFilterPatchTest.randomVideoId(random, ALPHABET);
+            videoIds.add(videoId);
+            window = window.with(videoId);
+            reference.add(videoId);
+        }
+
+        byte[][] buffers = new byte[BUFFER_COUNT][];
+        byte[] icon = "ic_right_dislike_off_shadowed".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            byte[] buffer = ReturnYouTubeDislikeFilterPatchTest.randomBuffer(random, bufferLength, List.of());
+            // Mostly the newest id, as that is the Short that was just opened.
+            String videoId = videoIds.get(random.nextInt(4) == 0
+                    ? random.nextInt(videoIds.size())
+                    : videoIds.size() - 1);
+            byte[] id = videoId.getBytes(StandardCharsets.US_ASCII);
+            final int iconIndex = bufferLength * 3 / 4;
+            System.arraycopy(icon, 0, buffer, iconIndex, icon.length);
+            System.arraycopy(id, 0, buffer, iconIndex + icon.length + 20, id.length);
+            buffers[i] = buffer;
+        }
+
+        for (byte[] buffer : buffers) {
+            if (!String.valueOf(reference.find(buffer)).equals(window.find(buffer))) {
+                throw new IllegalStateException("Results differ");
+            }
+        }
+
+        final RecentVideoIds search = window;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (byte[] buffer : buffers) reference.find(buffer);
+            for (byte[] buffer : buffers) search.find(buffer);
+        }
+        long referenceBest = Long.MAX_VALUE;
+        long searchBest = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            for (byte[] buffer : buffers) reference.find(buffer);
+            referenceBest = Math.min(referenceBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (byte[] buffer : buffers) search.find(buffer);
+            searchBest = Math.min(searchBest, System.nanoTime() - start);
+        }
+        System.out.println(String.format(Locale.ROOT, "Each id:     %.2fus per buffer",
+                referenceBest / 1000.0 / BUFFER_COUNT));
+        System.out.println(String.format(Locale.ROOT, "Single pass: %.2fus per buffer",
+                searchBest / 1000.0 / BUFFER_COUNT));
+    }
+}
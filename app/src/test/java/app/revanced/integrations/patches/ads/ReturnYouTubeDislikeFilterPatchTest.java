@@ -0,0 +1,150 @@
+package app.revanced.integrations.patches.ads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import static app.revanced.integrations.patches.ads.ReturnYouTubeDislikeFilterPatch.NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import app.revanced.integrations.patches.ads.ReturnYouTubeDislikeFilterPatch.RecentVideoIds;
+
+public class ReturnYouTubeDislikeFilterPatchTest {
+
+    /**
+     * The window and search used before {@link RecentVideoIds} was added.
+     */
+    static final class ReferenceVideoIds {
+        private final Map<String, Boolean> videoIds = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK;
+            }
+        };
+
+        void add(@NonNull String videoId) {
+            videoIds.put(videoId, Boolean.TRUE);
+        }
+
+        @Nullable
+        String find(@NonNull byte[] buffer) {
+            for (String videoId : videoIds.keySet()) {
+                if (byteArrayContainsString(buffer, videoId)) {
+                    return videoId;
+                }
+            }
+            return null;
+        }
+
+        private static boolean byteArrayContainsString(@NonNull byte[] array, @NonNull String text) {
+            for (int i = 0, lastArrayStartIndex = array.length - text.length(); i <= lastArrayStartIndex; i++) {
+                boolean found = true;
+                for (int j = 0, textLength = text.length(); j < textLength; j++) {
+                    if (array[i + j] != (byte) text.charAt(j)) {
+                        found = false;
+                        break;
+                    }
+                }
+                if (found) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static String randomVideoId(@NonNull Random random, @NonNull String alphabet) {
+        StringBuilder builder = new StringBuilder(11);
+        for (int i = 0; i < 11; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return Random bytes with some of the ids, and partial ids, written at random positions.
+     */
+    static byte[] randomBuffer(@NonNull Random random, int length, @NonNull List<String> videoIds) {
+        byte[] buffer = new byte[length];
+        random.nextBytes(buffer);
+        final int insertions = random.nextInt(4);
+        for (int i = 0; i < insertions && !videoIds.isEmpty(); i++) {
+            byte[] id = videoIds.get(random.nextInt(videoIds.size())).getBytes(StandardCharsets.US_ASCII);
+            final int idLength = random.nextInt(3) == 0 ? 1 + random.nextInt(id.length) : id.length;
+            if (idLength > length) continue;
+            System.arraycopy(id, 0, buffer, random.nextInt(length - idLength + 1), idLength);
+        }
+        return buffer;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void emptyWindow() {
+        assertNull(RecentVideoIds.EMPTY.find(bytes("dQw4w9WgXcQ")));
+        assertNull(RecentVideoIds.EMPTY.find(new byte[0]));
+    }
+
+    @Test
+    public void oldestIdIsFound() {
+        RecentVideoIds window = RecentVideoIds.EMPTY
+                .with("aaaaaaaaaaa").with("bbbbbbbbbbb").with("ccccccccccc");
+        assertSame(window, window.with("bbbbbbbbbbb"));
+        assertEquals("bbbbbbbbbbb", window.find(bytes("xx_ccccccccccc_bbbbbbbbbbb_")));
+        assertEquals("aaaaaaaaaaa", window.find(bytes("cccccccccccaaaaaaaaaaabbbbbbbbbbb")));
+        assertEquals("ccccccccccc", window.find(bytes("ccccccccccc")));
+        assertNull(window.find(bytes("aaaaaaaaaa_bbbbbbbbbb")));
+    }
+
+    @Test
+    public void oldestIdLeavesWindow() {
+        RecentVideoIds window = RecentVideoIds.EMPTY;
+        for (int i = 0; i <= NUMBER_OF_LAST_VIDEO_IDS_TO_TRACK; i++) {
+            window = window.with("video_id_" + (char) ('a' + i) + "_");
+        }
+        assertNull(window.find(bytes("video_id_a_")));
+        assertEquals("video_id_b_", window.find(bytes("video_id_f_video_id_b_")));
+    }
+
+    /**
+     * Random windows and buffers, using ids with few distinct characters so ids often share prefixes
+     * and overlap in the buffer.
+     */
+    @Test
+    public void sameResultAsReference() {
+        Random random = new Random(1);
+        for (String alphabet : new String[]{"ab", "abc-_", "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"}) {
+            for (int run = 0; run < 100; run++) {
+                RecentVideoIds window = RecentVideoIds.EMPTY;
+                ReferenceVideoIds reference = new ReferenceVideoIds();
+                List<String> seen = new ArrayList<>();
+                for (int video = 0; video < 20; video++) {
+                    String videoId = !seen.isEmpty() && random.nextInt(4) == 0
+                            ? seen.get(random.nextInt(seen.size()))
+                            : randomVideoId(random, alphabet);
+                    seen.add(videoId);
+                    window = window.with(videoId);
+                    reference.add(videoId);
+
+                    for (int i = 0; i < 10; i++) {
+                        byte[] buffer = randomBuffer(random, random.nextInt(200), seen);
+                        assertEquals(reference.find(buffer), window.find(buffer));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package app.revanced.integrations.patches.button;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+import android.view.animation.Animation;
+import android.widget.ImageView;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import app.revanced.integrations.settings.SettingsEnum;
+
+/**
+ * Visibility changes are immediate, so the fade animations (loaded from the patched app resources) are not used.
+ * Hiding a button when its setting is turned off runs on the main thread, which unit tests do not have,
+ * so only the enabled state and dispatching are checked for that transition.
+ */
+public class PlayerOverlayButtonTest {
+    private static final SettingsEnum SETTING = SettingsEnum.OVERLAY_BUTTON_COPY_VIDEO_URL;
+
+    /**
+     * Records visibility without any Android view behavior.
+     */
+    private static final class FakeImageView extends ImageView {
+        int visibility = View.VISIBLE;
+        int visibilityChanges;
+        int animationsStarted;
+
+        FakeImageView() {
+            super(null);
+        }
+
+        @Override
+        public void setVisibility(int visibility) {
+            this.visibility = visibility;
+            visibilityChanges++;
+        }
+
+        @Override
+        public int getVisibility() {
+            return visibility;
+        }
+
+        @Override
+        public void startAnimation(Animation animation) {
+            animationsStarted++;
+        }
+
+        @Override
+        public void clearAnimation() {
+        }
+    }
+
+    @After
+    public void restore() {
+        SettingsEnum.setValue(SETTING, (Boolean) SETTING.defaultValue);
+    }
+
+    private static PlayerOverlayButton attachedButton(FakeImageView view, AtomicBoolean condition) {
+        PlayerOverlayButton button = new PlayerOverlayButton("test", condition::get, SETTING);
+        button.attach(view);
+        return button;
+    }
+
+    @Test
+    public void attachHidesUntilControlsAreShown() {
+        SettingsEnum.setValue(SETTING, true);
+        FakeImageView view = new FakeImageView();
+        attachedButton(view, new AtomicBoolean(true));
+        assertEquals(View.GONE, view.visibility);
+    }
+
+    @Test
+    public void showAndHide() {
+        SettingsEnum.setValue(SETTING, true);
+        FakeImageView view = new FakeImageView();
+        PlayerOverlayButton button = attachedButton(view, new AtomicBoolean(true));
+
+        button.changeVisibility(true, true);
+        assertEquals(View.VISIBLE, view.visibility);
+        button.changeVisibility(false, true);
+        assertEquals(View.GONE, view.visibility);
+        assertEquals(0, view.animationsStarted);
+
+        // Repeated events do not change the view again.
+        final int changes = view.visibilityChanges;
+        button.changeVisibility(false, true);
+        button.changeVisibility(false, false);
+        assertEquals(changes, view.visibilityChanges);
+    }
+
+    @Test
+    public void showConditionIsCheckedEachTime() {
+        SettingsEnum.setValue(SETTING, true);
+        FakeImageView view = new FakeImageView();
+        AtomicBoolean condition = new AtomicBoolean(false);
+        PlayerOverlayButton button = attachedButton(view, condition);
+
+        button.changeVisibility(true, true);
+        assertEquals(View.GONE, view.visibility);
+        button.changeVisibility(false, true);
+
+        condition.set(true);
+        button.changeVisibility(true, true);
+        assertEquals(View.VISIBLE, view.visibility);
+    }
+
+    @Test
+    public void scrubbingHidesWithoutFadeIn() {
+        SettingsEnum.setValue(SETTING, true);
+        FakeImageView view = new FakeImageView();
+        PlayerOverlayButton button = attachedButton(view, new AtomicBoolean(true));
+        button.changeVisibility(true, true);
+
+        button.changeVisibilityNegatedImmediate(true);
+        assertEquals(View.GONE, view.visibility);
+        // Controls are shown again after scrubbing, and the button is not faded in.
+        button.changeVisibility(true, false);
+        assertEquals(View.VISIBLE, view.visibility);
+        assertEquals(0, view.animationsStarted);
+    }
+
+    @Test
+    public void enabledFollowsSettings() {
+        SettingsEnum.setValue(SETTING, false);
+        PlayerOverlayButton button = new PlayerOverlayButton("test", null, SETTING);
+        assertFalse(button.isEnabled());
+        SettingsEnum.setValue(SETTING, true);
+        assertTrue(button.isEnabled());
+    }
+
+    @Test
+    public void dispatcherSkipsDisabledButtons() {
+        SettingsEnum.setValue(SETTING, true);
+        FakeImageView view = new FakeImageView();
+        PlayerOverlayButtons.register(attachedButton(view, new AtomicBoolean(true)));
+
+        PlayerOverlayButtons.changeVisibilityImmediate(true);
+        assertEquals(View.VISIBLE, view.visibility);
+        PlayerOverlayButtons.changeVisibilityImmediate(false);
+        assertEquals(View.GONE, view.visibility);
+
+        SettingsEnum.setValue(SETTING, false);
+        final int changes = view.visibilityChanges;
+        PlayerOverlayButtons.changeVisibilityImmediate(true);
+        PlayerOverlayButtons.changeVisibilityNegatedImmediate(true);
+        assertEquals(changes, view.visibilityChanges);
+        assertEquals(View.GONE, view.visibility);
+    }
+}
@@ -0,0 +1,159 @@
+package app.revanced.integrations.patches.layout;
+
+import java.util.Locale;
+import java.util.Random;
+
+import app.revanced.integrations.settings.SettingsEnum;
+
+/**
+ * Measures {@link AlternativeThumbnailsPatch#mightBeThumbnailUrl(String)} and
+ * {@link AlternativeThumbnailsPatch.RewrittenUrlCache} over a generated stream of image urls,
+ * against the url decoding and rebuilding they let most calls skip.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.patches.layout.AlternativeThumbnailsBenchmark [thumbnail percent]
+ * </pre>
+ * Feeds load avatars, channel banners and other images along with video thumbnails,
+ * so the default is 60% of urls being video thumbnails.
+ * Thumbnails use a working set of videos that fits in the cache, as recycled feed cells load the same urls again.
+ */
+public final class AlternativeThumbnailsBenchmark {
+    private static final int URL_COUNT = 10_000;
+    private static final int VIDEO_COUNT = 200;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+    private static final String TRACKING = "?sqp=-oaymwEcCNACELwBSFXyq4qpAw4IARUAAIhCGAFwAcABBg&rs=AOn4CLB";
+    private static final String VIDEO_ID_CHARACTERS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    /**
+     * Video ids are 64 bits, so the last of the 11 characters has only 4 bits.
+     */
+    private static final String VIDEO_ID_LAST_CHARACTERS = "AEIMQUYcgkosw048";
+
+    private interface UrlFunction {
+        int apply(String url);
+    }
+
+    /**
+     * Prevents the measured work from being optimized away.
+     */
+    private static volatile long sink;
+
+    private AlternativeThumbnailsBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) {
+        final int thumbnailPercent = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        Random random = new Random(1);
+
+        String[] videoIds = new String[VIDEO_COUNT];
+        String[] thumbnailUrls = new String[VIDEO_COUNT];
+        for (int i = 0; i < VIDEO_COUNT; i++) {
+            StringBuilder builder = new StringBuilder(11);
+            for (int c = 0; c < 10; c++) {
+                builder.append(VIDEO_ID_CHARACTERS.charAt(random.nextInt(VIDEO_ID_CHARACTERS.length())));
+            }
+            builder.append(VIDEO_ID_LAST_CHARACTERS.charAt(random.nextInt(VIDEO_ID_LAST_CHARACTERS.length())));
+            videoIds[i] = builder.toString();
+            thumbnailUrls[i] = thumbnailUrl(random, videoIds[i]);
+        }
+        String[] urls = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            urls[i] = random.nextInt(100) < thumbnailPercent
+                    ? thumbnailUrls[random.nextInt(VIDEO_COUNT)]
+                    : otherImageUrl(random, videoIds[random.nextInt(VIDEO_COUNT)]);
+        }
+
+        // Verified qualities, so no network requests are made.
+        for (String videoId : videoIds) {
+            VerifiedThumbnailStore.getInstance().put(videoId, 4 /* HQ720 */, VerifiedThumbnailStore.QUALITY_NONE);
+        }
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_ENABLED, true);
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING, false);
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_DEARROW, false);
+
+        final UrlFunction prefilter = url -> AlternativeThumbnailsPatch.mightBeThumbnailUrl(url) ? 1 : 0;
+        final UrlFunction decode = url -> AlternativeThumbnailsPatch.DecodedThumbnailUrl.decodeImageUrl(url) == null ? 0 : 1;
+        final UrlFunction cacheLookup = url -> {
+            if (!AlternativeThumbnailsPatch.mightBeThumbnailUrl(url)) return 0;
+            final int settingsKey = AlternativeThumbnailsPatch.RewrittenUrlCache.currentSettingsKey();
+            String cached = AlternativeThumbnailsPatch.RewrittenUrlCache.get(url, settingsKey);
+            return cached == null ? 0 : cached.length();
+        };
+        final UrlFunction rebuild = AlternativeThumbnailsBenchmark::rebuildUrl;
+        final UrlFunction overrideImageUrl = url -> AlternativeThumbnailsPatch.overrideImageURL(url).length();
+
+        // Fills the cache.
+        run(urls, overrideImageUrl);
+
+        // Alternate so all get the same JIT warmup.
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(urls, prefilter);
+            run(urls, decode);
+            run(urls, cacheLookup);
+            run(urls, rebuild);
+            run(urls, overrideImageUrl);
+        }
+        System.out.println(String.format(Locale.ROOT, "%d urls, %d%% video thumbnails of %d videos",
+                URL_COUNT, thumbnailPercent, VIDEO_COUNT));
+        report("mightBeThumbnailUrl", urls, prefilter);
+        report("decode each url", urls, decode);
+        report("cache lookup", urls, cacheLookup);
+        report("decode and rebuild", urls, rebuild);
+        report("overrideImageURL", urls, overrideImageUrl);
+
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_ENABLED, false);
+    }
+
+    private static String thumbnailUrl(Random random, String videoId) {
+        final String host = random.nextInt(4) == 0 ? "https://i9.ytimg.com/vi/" : "https://i.ytimg.com/vi/";
+        final String quality = random.nextBoolean() ? "hq720" : "mqdefault";
+        return host + videoId + "/" + quality + ".jpg" + (random.nextBoolean() ? TRACKING : "");
+    }
+
+    private static String otherImageUrl(Random random, String videoId) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return "https://yt3.ggpht.com/ytc/AIdro_" + videoId + "=s88-c-k-c0x00ffffff-no-rj";
+            case 1:
+                return "https://i.ytimg.com/an_webp/" + videoId + "/mqdefault_6s.webp?du=3000&sqp=CJjg";
+            case 2:
+                return "https://yt3.googleusercontent.com/" + videoId + "=w1060-fcrop64=1,00005a57ffffa5a8-k-c0xffffffff-no-nd-rj";
+            default:
+                return "https://www.gstatic.com/youtube/img/emojis/emojis-svg-9.json";
+        }
+    }
+
+    /**
+     * Work done for each thumbnail url before the cache: decoding, and building the alt url.
+     * Does not include the verification lookup.
+     */
+    private static int rebuildUrl(String url) {
+        if (url.contains("_live.")) return 0;
+        AlternativeThumbnailsPatch.DecodedThumbnailUrl decoded = AlternativeThumbnailsPatch.DecodedThumbnailUrl.decodeImageUrl(url);
+        if (decoded == null) return 0;
+        return (decoded.urlPrefix + decoded.videoId + '/' + decoded.imageQuality + "_1."
+                + decoded.imageExtension + decoded.urlTrackingParameters).length();
+    }
+
+    private static void report(String name, String[] urls, UrlFunction function) {
+        long bestNanoseconds = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            final long start = System.nanoTime();
+            run(urls, function);
+            bestNanoseconds = Math.min(bestNanoseconds, System.nanoTime() - start);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-20s %.1fns per url",
+                name, bestNanoseconds / (double) urls.length));
+    }
+
+    private static void run(String[] urls, UrlFunction function) {
+        long result = 0;
+        for (String url : urls) {
+            result += function.apply(url);
+        }
+        sink = result;
+    }
+}
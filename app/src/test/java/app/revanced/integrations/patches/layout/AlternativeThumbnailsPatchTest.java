@@ -0,0 +1,141 @@
+package app.revanced.integrations.patches.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.chromium.net.UrlResponseInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import app.revanced.integrations.settings.SettingsEnum;
+
+/**
+ * Verification is seeded using {@link VerifiedThumbnailStore} and 404 callbacks, so no network requests are made.
+ * Verified qualities are kept for the life of the process, so each test uses different video ids.
+ */
+public class AlternativeThumbnailsPatchTest {
+    /**
+     * Ordinals of the thumbnail qualities.
+     */
+    private static final int HQ720 = 4;
+    private static final int NONE = VerifiedThumbnailStore.QUALITY_NONE;
+
+    private static final String TRACKING = "?sqp=-oaymwEcCNACELwBSFXyq4qpAw4IARUAAIhCGAFwAcABBg&rs=AOn4CLB";
+
+    @Before
+    public void enable() {
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_ENABLED, true);
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING, false);
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_DEARROW, false);
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_TYPE, "1");
+    }
+
+    @After
+    public void restoreDefaults() {
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_ENABLED, false);
+    }
+
+    private static String thumbnail(String videoId, String quality) {
+        return "https://i.ytimg.com/vi/" + videoId + "/" + quality + ".jpg" + TRACKING;
+    }
+
+    private static void respond(String url, int statusCode) {
+        AlternativeThumbnailsPatch.handleCronetSuccess(new UrlResponseInfo() {
+            @Override
+            public String getUrl() {
+                return url;
+            }
+
+            @Override
+            public int getHttpStatusCode() {
+                return statusCode;
+            }
+        });
+    }
+
+    @Test
+    public void otherImagesAreNotChanged() {
+        String[] urls = {
+                "https://yt3.ggpht.com/ytc/AIdro_kX4=s88-c-k-c0x00ffffff-no-rj",
+                "https://i.ytimg.com/an_webp/dQw4w9WgXcQ/mqdefault_6s.webp?du=3000",
+                "https://i9.ytimg.com/vi/dQw4w9WgXcQ/hq720_live.jpg",
+                "https://i.ytimg.com/vi/dQw4w9WgXcQ/oardefault.jpg" + TRACKING,
+                "https://www.youtube.com/",
+                "",
+        };
+        for (String url : urls) {
+            assertSame(url, AlternativeThumbnailsPatch.overrideImageURL(url));
+            assertSame(url, AlternativeThumbnailsPatch.overrideImageURL(url));
+        }
+    }
+
+    @Test
+    public void verifiedQualityIsRewrittenAndMemoized() {
+        final String videoId = "abcdefghijA";
+        VerifiedThumbnailStore.getInstance().put(videoId, HQ720, NONE);
+
+        String original = thumbnail(videoId, "hq720");
+        String expected = thumbnail(videoId, "hq720_1");
+        assertEquals(expected, AlternativeThumbnailsPatch.overrideImageURL(original));
+        // Memoized result is identical.
+        assertEquals(expected, AlternativeThumbnailsPatch.overrideImageURL(original));
+        // The rewritten url can be passed in again, and is not changed.
+        assertEquals(expected, AlternativeThumbnailsPatch.overrideImageURL(expected));
+
+        // Memo is discarded when a setting changes.
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_TYPE, "2");
+        assertEquals(thumbnail(videoId, "hq720_2"), AlternativeThumbnailsPatch.overrideImageURL(original));
+    }
+
+    @Test
+    public void missingQualityUsesOriginal() {
+        final String videoId = "bcdefghijkA";
+        // Lowest quality is missing, so no alt quality exists.
+        respond(thumbnail(videoId, "1"), 404);
+
+        String original = thumbnail(videoId, "hq720");
+        assertEquals(original, AlternativeThumbnailsPatch.overrideImageURL(original));
+        assertEquals(original, AlternativeThumbnailsPatch.overrideImageURL(original));
+    }
+
+    @Test
+    public void notFoundReplacesMemoizedUrl() {
+        final String videoId = "cdefghijklA";
+        VerifiedThumbnailStore.getInstance().put(videoId, HQ720, NONE);
+        String original = thumbnail(videoId, "hq720");
+        String rewritten = AlternativeThumbnailsPatch.overrideImageURL(original);
+        assertEquals(thumbnail(videoId, "hq720_1"), rewritten);
+
+        respond(rewritten, 404);
+        assertEquals(original, AlternativeThumbnailsPatch.overrideImageURL(original));
+        assertEquals(VerifiedThumbnailStore.encodeValue(VerifiedThumbnailStore.valueHours(
+                        VerifiedThumbnailStore.getInstance().get(videoId)), 3, HQ720),
+                VerifiedThumbnailStore.getInstance().get(videoId));
+    }
+
+    @Test
+    public void fastThumbnailsAreNotMemoized() {
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_SKIP_CHECKING, true);
+        final String videoId = "defghijklmA";
+        String original = thumbnail(videoId, "hq720");
+        // Fast thumbnails use sd quality, and are assumed to exist.
+        String assumed = thumbnail(videoId, "sd1");
+        assertEquals(assumed, AlternativeThumbnailsPatch.overrideImageURL(original));
+
+        // Assumed url failed to load, and the original is used when it reloads.
+        respond(assumed, 404);
+        assertEquals(original, AlternativeThumbnailsPatch.overrideImageURL(original));
+    }
+
+    @Test
+    public void deArrow() {
+        SettingsEnum.setValue(SettingsEnum.ALT_THUMBNAIL_DEARROW, true);
+        final String videoId = "efghijklmnA";
+        VerifiedThumbnailStore.getInstance().put(videoId, HQ720, NONE);
+        String original = thumbnail(videoId, "mqdefault");
+        assertEquals("https://dearrow-thumb.ajay.app/api/v1/getThumbnail?videoID=" + videoId
+                        + "&redirectUrl=" + thumbnail(videoId, "mq1"),
+                AlternativeThumbnailsPatch.overrideImageURL(original));
+    }
+}
@@ -0,0 +1,185 @@
+package app.revanced.integrations.patches.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import app.revanced.integrations.patches.layout.VerifiedThumbnailStore.Snapshot;
+
+public class VerifiedThumbnailStoreTest {
+    private static final String BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    /**
+     * Valid last characters of a video id. Only the upper 4 bits of the last character are used.
+     */
+    private static final String LAST_CHARACTERS = "AEIMQUYcgkosw048";
+    private static final int NOW_HOURS = 480_000;
+    private static final int NONE = VerifiedThumbnailStore.QUALITY_NONE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String randomVideoId(Random random) {
+        StringBuilder builder = new StringBuilder(11);
+        for (int i = 0; i < 10; i++) {
+            builder.append(BASE64_URL.charAt(random.nextInt(64)));
+        }
+        builder.append(LAST_CHARACTERS.charAt(random.nextInt(16)));
+        return builder.toString();
+    }
+
+    private static Map<Long, Integer> randomEntries(Random random, int count, int hours) {
+        Map<Long, Integer> entries = new HashMap<>();
+        while (entries.size() < count) {
+            entries.put(VerifiedThumbnailStore.encodeVideoId(randomVideoId(random)),
+                    VerifiedThumbnailStore.encodeValue(hours, random.nextInt(6), NONE));
+        }
+        return entries;
+    }
+
+    @Test
+    public void videoIdRoundTrip() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            String videoId = randomVideoId(random);
+            final long packed = VerifiedThumbnailStore.encodeVideoId(videoId);
+            assertEquals(videoId, VerifiedThumbnailStore.decodeVideoId(packed));
+        }
+        assertEquals("__________w", VerifiedThumbnailStore.decodeVideoId(
+                VerifiedThumbnailStore.encodeVideoId("__________w")));
+    }
+
+    @Test
+    public void invalidVideoIds() {
+        assertEquals(0, VerifiedThumbnailStore.encodeVideoId(""));
+        assertEquals(0, VerifiedThumbnailStore.encodeVideoId("dQw4w9WgXc"));
+        assertEquals(0, VerifiedThumbnailStore.encodeVideoId("dQw4w9WgXcQQ"));
+        assertEquals(0, VerifiedThumbnailStore.encodeVideoId("dQw4w9WgX.Q"));
+        // Last character uses bits that are always zero in a real video id.
+        assertEquals(0, VerifiedThumbnailStore.encodeVideoId("dQw4w9WgXcR"));
+        assertTrue(VerifiedThumbnailStore.encodeVideoId("dQw4w9WgXcQ") != 0);
+    }
+
+    @Test
+    public void valueRoundTrip() {
+        final int value = VerifiedThumbnailStore.encodeValue(NOW_HOURS, 4, 5);
+        assertEquals(NOW_HOURS, VerifiedThumbnailStore.valueHours(value));
+        assertEquals(4, VerifiedThumbnailStore.valueHighestVerified(value));
+        assertEquals(5, VerifiedThumbnailStore.valueLowestNotAvailable(value));
+    }
+
+    @Test
+    public void mergeReplacesAndExpires() {
+        final long replaced = VerifiedThumbnailStore.encodeVideoId("dQw4w9WgXcQ");
+        final long notAvailable = VerifiedThumbnailStore.encodeVideoId("aaaaaaaaaaA");
+        final long onlyNotAvailable = VerifiedThumbnailStore.encodeVideoId("bbbbbbbbbbA");
+        final long old = VerifiedThumbnailStore.encodeVideoId("ccccccccccA");
+        final long future = VerifiedThumbnailStore.encodeVideoId("ddddddddddA");
+
+        Map<Long, Integer> first = new HashMap<>();
+        first.put(replaced, VerifiedThumbnailStore.encodeValue(NOW_HOURS, 1, NONE));
+        first.put(notAvailable, VerifiedThumbnailStore.encodeValue(NOW_HOURS - 13, 2, 4));
+        first.put(onlyNotAvailable, VerifiedThumbnailStore.encodeValue(NOW_HOURS - 13, NONE, 4));
+        first.put(old, VerifiedThumbnailStore.encodeValue(NOW_HOURS - 31 * 24, 3, NONE));
+        first.put(future, VerifiedThumbnailStore.encodeValue(NOW_HOURS + 1, 3, NONE));
+        Snapshot snapshot = VerifiedThumbnailStore.merge(Snapshot.EMPTY, first, NOW_HOURS);
+
+        // Quality not available expires after 12 hours, but the verified quality is kept.
+        assertEquals(VerifiedThumbnailStore.encodeValue(NOW_HOURS - 13, 2, NONE), snapshot.get(notAvailable));
+        assertEquals(0, snapshot.get(onlyNotAvailable));
+        assertEquals(0, snapshot.get(old));
+        assertEquals(0, snapshot.get(future));
+        assertEquals(2, snapshot.ids.length);
+
+        Map<Long, Integer> second = new HashMap<>();
+        second.put(replaced, VerifiedThumbnailStore.encodeValue(NOW_HOURS, 5, NONE));
+        snapshot = VerifiedThumbnailStore.merge(snapshot, second, NOW_HOURS);
+        assertEquals(VerifiedThumbnailStore.encodeValue(NOW_HOURS, 5, NONE), snapshot.get(replaced));
+        assertEquals(2, snapshot.ids.length);
+    }
+
+    @Test
+    public void evictsOldestEntries() {
+        Random random = new Random(2);
+        final int maxEntries = 20000;
+        Map<Long, Integer> older = randomEntries(random, maxEntries, NOW_HOURS - 2);
+        Map<Long, Integer> newer = randomEntries(random, 1000, NOW_HOURS);
+        newer.keySet().removeAll(older.keySet());
+
+        Snapshot snapshot = VerifiedThumbnailStore.merge(Snapshot.EMPTY, older, NOW_HOURS);
+        snapshot = VerifiedThumbnailStore.merge(snapshot, newer, NOW_HOURS);
+
+        assertEquals(maxEntries, snapshot.ids.length);
+        for (Map.Entry<Long, Integer> entry : newer.entrySet()) {
+            assertEquals((int) entry.getValue(), snapshot.get(entry.getKey()));
+        }
+        for (int i = 1; i < snapshot.ids.length; i++) {
+            assertTrue("Ids must be sorted", snapshot.ids[i - 1] < snapshot.ids[i]);
+        }
+    }
+
+    /**
+     * Entries saved by one app launch are all found by the next launch,
+     * and the bloom filter rejects almost all ids that were never saved.
+     */
+    @Test
+    public void warmStart() throws IOException {
+        Random random = new Random(3);
+        Map<Long, Integer> entries = randomEntries(random, 5000, NOW_HOURS);
+        File file = new File(folder.getRoot(), "store.bin");
+        assertTrue(VerifiedThumbnailStore.writeSnapshot(file,
+                VerifiedThumbnailStore.merge(Snapshot.EMPTY, entries, NOW_HOURS)));
+
+        Snapshot loaded = VerifiedThumbnailStore.readSnapshot(file, NOW_HOURS + 1);
+        assertEquals(entries.size(), loaded.ids.length);
+        for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+            assertTrue(loaded.mightContain(entry.getKey()));
+            assertEquals((int) entry.getValue(), loaded.get(entry.getKey()));
+        }
+
+        final int misses = 100000;
+        int falsePositives = 0;
+        for (int i = 0; i < misses; i++) {
+            final long id = VerifiedThumbnailStore.encodeVideoId(randomVideoId(random));
+            if (!entries.containsKey(id) && loaded.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        // 10 bits and 4 hashes per entry is about 1.2% false positives.
+        assertTrue("False positives: " + falsePositives, falsePositives < misses * 3 / 100);
+    }
+
+    @Test
+    public void unknownOrMissingFile() throws IOException {
+        assertSame(Snapshot.EMPTY, VerifiedThumbnailStore.readSnapshot(
+                new File(folder.getRoot(), "missing.bin"), NOW_HOURS));
+
+        File otherVersion = folder.newFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(otherVersion))) {
+            out.writeInt(0x52565451);
+            out.writeInt(2);
+            out.writeInt(0);
+        }
+        assertSame(Snapshot.EMPTY, VerifiedThumbnailStore.readSnapshot(otherVersion, NOW_HOURS));
+
+        File truncated = folder.newFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(truncated))) {
+            out.writeInt(0x52565451);
+            out.writeInt(1);
+            out.writeInt(10);
+            out.writeLong(1);
+        }
+        assertSame(Snapshot.EMPTY, VerifiedThumbnailStore.readSnapshot(truncated, NOW_HOURS));
+    }
+}
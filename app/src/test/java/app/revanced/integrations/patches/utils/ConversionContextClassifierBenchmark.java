@@ -0,0 +1,63 @@
+package app.revanced.integrations.patches.utils;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares {@link ConversionContextClassifier} with the <code>contains()</code> checks it replaced.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.patches.utils.ConversionContextClassifierBenchmark [match percent]
+ * </pre>
+ * Almost all litho text elements are not dislike buttons, so the default is 1% of contexts matching.
+ */
+public final class ConversionContextClassifierBenchmark {
+    private static final int CONTEXT_COUNT = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    private interface Classifier {
+        int classify(String conversionContext);
+    }
+
+    private ConversionContextClassifierBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) {
+        final int matchPercent = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        Random random = new Random(1);
+        String[] contexts = new String[CONTEXT_COUNT];
+        for (int i = 0; i < CONTEXT_COUNT; i++) {
+            contexts[i] = ConversionContextSamples.random(random, matchPercent);
+        }
+
+        // Alternate so both get the same JIT warmup.
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(contexts, ConversionContextClassifierTest::classifyUsingContains);
+            run(contexts, ConversionContextClassifier::classify);
+        }
+        report("contains()", contexts, ConversionContextClassifierTest::classifyUsingContains);
+        report("classifier", contexts, ConversionContextClassifier::classify);
+    }
+
+    private static void report(String name, String[] contexts, Classifier classifier) {
+        long bestNanoseconds = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            final long start = System.nanoTime();
+            run(contexts, classifier);
+            bestNanoseconds = Math.min(bestNanoseconds, System.nanoTime() - start);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-10s %.1fns per context",
+                name, bestNanoseconds / (double) contexts.length));
+    }
+
+    private static int run(String[] contexts, Classifier classifier) {
+        int result = 0;
+        for (String context : contexts) {
+            result += classifier.classify(context);
+        }
+        return result;
+    }
+}
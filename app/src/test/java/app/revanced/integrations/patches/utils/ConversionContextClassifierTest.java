@@ -0,0 +1,78 @@
+package app.revanced.integrations.patches.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static app.revanced.integrations.patches.utils.ConversionContextClassifier.SEGMENTED_LIKE_DISLIKE_BUTTON;
+import static app.revanced.integrations.patches.utils.ConversionContextClassifier.SHORTS_DISLIKE_BUTTON;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ConversionContextClassifierTest {
+
+    /**
+     * The checks used before the classifier was added.
+     */
+    static int classifyUsingContains(@NonNull String conversionContext) {
+        int classification = 0;
+        if (conversionContext.contains("|segmented_like_dislike_button.eml|")) {
+            classification |= SEGMENTED_LIKE_DISLIKE_BUTTON;
+        }
+        if (conversionContext.contains("|shorts_dislike_button.eml|")) {
+            classification |= SHORTS_DISLIKE_BUTTON;
+        }
+        return classification;
+    }
+
+    private static void assertClassification(int expected, String conversionContext) {
+        assertEquals(conversionContext, expected, ConversionContextClassifier.classify(conversionContext));
+        assertEquals(conversionContext, expected, classifyUsingContains(conversionContext));
+    }
+
+    @Test
+    public void classifiesButtons() {
+        assertClassification(0, "");
+        assertClassification(0, "dislike_button.eml|");
+        assertClassification(0, "|dislike_button.eml|");
+        assertClassification(0, "shorts_dislike_button.eml|");
+        assertClassification(0, "|shorts_dislike_button.eml");
+        assertClassification(0, "|segmented_like_shorts_dislike_button.eml|");
+        assertClassification(SEGMENTED_LIKE_DISLIKE_BUTTON,
+                "video_action_bar.eml|0ff3|segmented_like_dislike_button.eml|2b1a");
+        assertClassification(SHORTS_DISLIKE_BUTTON, "reel_action_bar.eml|shorts_dislike_button.eml|");
+        assertClassification(SEGMENTED_LIKE_DISLIKE_BUTTON | SHORTS_DISLIKE_BUTTON,
+                "|shorts_dislike_button.eml|segmented_like_dislike_button.eml|");
+        // Second occurrence of the suffix is the match.
+        assertClassification(SHORTS_DISLIKE_BUTTON, "|dislike_button.eml|shorts_dislike_button.eml|");
+    }
+
+    @Test
+    public void objectUsesToString() {
+        Object context = new Object() {
+            @NonNull
+            @Override
+            public String toString() {
+                return "pathInternal=video_action_bar.eml|segmented_like_dislike_button.eml|";
+            }
+        };
+        assertEquals(SEGMENTED_LIKE_DISLIKE_BUTTON, ConversionContextClassifier.classify(context));
+    }
+
+    @Test
+    public void sameResultAsContains() {
+        Random random = new Random(1);
+        int matches = 0;
+        for (int i = 0; i < 200_000; i++) {
+            String context = ConversionContextSamples.random(random, 20);
+            final int expected = classifyUsingContains(context);
+            assertEquals(context, expected, ConversionContextClassifier.classify(context));
+            if (expected != 0) matches++;
+        }
+        // Both matching and non matching contexts were checked.
+        assertTrue(matches > 1000 && matches < 190_000);
+    }
+}
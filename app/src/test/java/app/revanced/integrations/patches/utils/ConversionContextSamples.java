@@ -0,0 +1,66 @@
+package app.revanced.integrations.patches.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Generates conversion context strings in the form litho uses,
+ * with paths built from component names seen in the app.
+ */
+final class ConversionContextSamples {
+    private static final String[] COMPONENTS = {
+            "video_action_bar.eml", "segmented_like_dislike_button.eml", "shorts_dislike_button.eml",
+            "dislike_button.eml", "like_button.eml", "shorts_like_button.eml", "reel_player_overlay.eml",
+            "video_with_context.eml", "compact_video.eml", "comment_thread.eml", "comment.eml",
+            "horizontal_shelf.eml", "rich_item_single_column.eml", "video_metadata_carousel.eml",
+            "reel_action_bar.eml", "shorts_pivot_item.eml", "segmented_like_shorts_dislike_button.eml",
+    };
+
+    /**
+     * Fragments that are close to the names the classifier looks for.
+     */
+    private static final String[] NEAR_MISSES = {
+            "|dislike_button.eml", "dislike_button.eml|", "segmented_like_", "|shorts_", "|segmented_like_",
+            "_dislike_button.eml|", "|shorts_dislike_button.em|", "|Shorts_dislike_button.eml|",
+            "|segmented_like_dislike_button.eml", "shorts_dislike_button.eml|",
+    };
+
+    private ConversionContextSamples() {
+    } // utility class
+
+    /**
+     * @param matchPercent Approximate percentage of contexts that are a dislike button.
+     */
+    @NonNull
+    static String random(@NonNull Random random, int matchPercent) {
+        StringBuilder path = new StringBuilder();
+        final int depth = 1 + random.nextInt(12);
+        for (int i = 0; i < depth; i++) {
+            if (i > 0) path.append('|');
+            if (random.nextInt(100) < 5) {
+                path.append(NEAR_MISSES[random.nextInt(NEAR_MISSES.length)]);
+                continue;
+            }
+            String component = COMPONENTS[random.nextInt(COMPONENTS.length)];
+            if (component.contains("dislike_button") && random.nextInt(100) >= matchPercent) {
+                component = "like_button.eml";
+            }
+            path.append(component);
+            if (random.nextBoolean()) {
+                path.append('|').append(Long.toHexString(random.nextLong()));
+            }
+        }
+        if (random.nextBoolean()) path.append('|');
+
+        return "ConversionContext{containerInternal=com.google.android.libraries.youtube.rendering.ui.elements"
+                + "@" + Integer.toHexString(random.nextInt())
+                + ", widthConstraint=" + random.nextInt(2000)
+                + ", heightConstraint=" + random.nextInt(2000)
+                + ", templateLoggerFactory=" + Integer.toHexString(random.nextInt())
+                + ", rootDisposableContainer=" + Integer.toHexString(random.nextInt())
+                + ", identifierProperty=" + Integer.toHexString(random.nextInt())
+                + ", elementId=" + random.nextInt(100000)
+                + ", pathInternal=" + path + "}";
+    }
+}
@@ -0,0 +1,138 @@
+package app.revanced.integrations.patches.video;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Player events are scripted against a virtual time source, in the order the player calls them.
+ */
+public class PlaybackClockTest {
+
+    private static final class VirtualTime implements PlaybackClock.TimeSource {
+        long now = 10_000;
+
+        @Override
+        public long uptimeMillis() {
+            return now;
+        }
+
+        void advance(long milliseconds) {
+            now += milliseconds;
+        }
+    }
+
+    private final VirtualTime time = new VirtualTime();
+    private final PlaybackClock clock = new PlaybackClock(time);
+
+    @Test
+    public void unknownUntilReported() {
+        assertEquals(-1, clock.getPosition(1));
+        clock.reset(true);
+        time.advance(500);
+        assertEquals(-1, clock.getPosition(1));
+
+        clock.onPositionReported(0);
+        time.advance(250);
+        assertEquals(250, clock.getPosition(1));
+    }
+
+    @Test
+    public void extrapolatesBetweenReports() {
+        clock.reset(true);
+        clock.onPositionReported(5000);
+        for (int i = 0; i < 1000; i += 100) {
+            assertEquals(5000 + i, clock.getPosition(1));
+            time.advance(100);
+        }
+
+        // Next report is slightly behind the estimate, and the report is used.
+        clock.onPositionReported(5990);
+        assertEquals(5990, clock.getPosition(1));
+        time.advance(10);
+        assertEquals(6000, clock.getPosition(1));
+    }
+
+    @Test
+    public void usesPlaybackSpeed() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        time.advance(400);
+        assertEquals(1800, clock.getPosition(2));
+        assertEquals(1100, clock.getPosition(0.25f));
+        // Speed not yet known.
+        assertEquals(1400, clock.getPosition(0));
+    }
+
+    @Test
+    public void pauseFreezesPosition() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        time.advance(300);
+        clock.onPlayingChanged(false, 1);
+        assertEquals(1300, clock.getPosition(1));
+        time.advance(60_000);
+        assertEquals(1300, clock.getPosition(1));
+
+        // Repeated callbacks do not move the anchor.
+        clock.onPlayingChanged(false, 1);
+        time.advance(100);
+        clock.onPlayingChanged(true, 1);
+        time.advance(200);
+        assertEquals(1500, clock.getPosition(1));
+        clock.onPlayingChanged(true, 1);
+        assertEquals(1500, clock.getPosition(1));
+    }
+
+    @Test
+    public void seekMovesPosition() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        time.advance(200);
+        clock.onSeek(90_000);
+        assertEquals(90_000, clock.getPosition(1));
+        time.advance(100);
+        assertEquals(90_100, clock.getPosition(1));
+
+        // Seek while paused.
+        clock.onPlayingChanged(false, 1);
+        clock.onSeek(500);
+        time.advance(1000);
+        assertEquals(500, clock.getPosition(1));
+    }
+
+    @Test
+    public void bufferingDoesNotRunAhead() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        // Player stops reporting while buffering.
+        time.advance(10_000);
+        final long limit = 1000 + PlaybackClock.MAXIMUM_EXTRAPOLATION_MILLISECONDS;
+        assertEquals(limit, clock.getPosition(1));
+        assertEquals(1000 + 2 * PlaybackClock.MAXIMUM_EXTRAPOLATION_MILLISECONDS, clock.getPosition(2));
+
+        // Playback resumes from where the buffering started.
+        clock.onPositionReported(1100);
+        time.advance(100);
+        assertEquals(1200, clock.getPosition(1));
+    }
+
+    @Test
+    public void resetClearsPosition() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        clock.reset(false);
+        assertEquals(-1, clock.getPosition(1));
+        clock.onPositionReported(0);
+        time.advance(1000);
+        assertEquals(0, clock.getPosition(1));
+    }
+
+    @Test
+    public void timeGoingBackwardsIsIgnored() {
+        clock.reset(true);
+        clock.onPositionReported(1000);
+        time.advance(-50);
+        assertEquals(1000, clock.getPosition(1));
+    }
+}
@@ -0,0 +1,103 @@
+package app.revanced.integrations.returnyoutubedislike;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the multithreaded throughput of {@link DislikeValueFormatter}
+ * with the single formatter behind a global lock that it replaced.
+ * Both use the JDK formatters of {@link DislikeValueFormatterTest}, as the Android ICU formatters are not available.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.returnyoutubedislike.DislikeValueFormatterBenchmark [threads]
+ * </pre>
+ */
+public final class DislikeValueFormatterBenchmark {
+    private static final int CALLS = 1_000_000;
+    private static final int ROUNDS = 10;
+    private static final int VALUE_COUNT = 4096;
+
+    private interface CountFormatter {
+        String format(long dislikeCount);
+    }
+
+    /**
+     * The previous implementation: one formatter, used while holding a global lock.
+     */
+    private static final class GlobalLockFormatter implements CountFormatter {
+        private DislikeValueFormatterTest.JdkFormatters formatters;
+
+        @Override
+        public synchronized String format(long dislikeCount) {
+            if (formatters == null) {
+                formatters = new DislikeValueFormatterTest.JdkFormatters(Locale.US);
+            }
+            return formatters.formatCount(dislikeCount);
+        }
+    }
+
+    /**
+     * Prevents the measured work from being optimized away.
+     */
+    private static volatile long sink;
+
+    private DislikeValueFormatterBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) throws InterruptedException {
+        final int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        // Many videos and comments show the same small counts, and some show large counts.
+        Random random = new Random(1);
+        long[] values = new long[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = random.nextInt(4) != 0 ? random.nextInt(100) : random.nextInt(10_000_000);
+        }
+
+        DislikeValueFormatter valueFormatter = new DislikeValueFormatter(DislikeValueFormatterTest.JdkFormatters::new);
+        CountFormatter perThread = count -> valueFormatter.formatCount(Locale.US, count);
+        CountFormatter globalLock = new GlobalLockFormatter();
+
+        // Alternate so both get the same JIT warmup.
+        for (int i = 0; i < 3; i++) {
+            measure(globalLock, values, threadCount);
+            measure(perThread, values, threadCount);
+        }
+        report("global lock", globalLock, values, threadCount);
+        report("per thread", perThread, values, threadCount);
+    }
+
+    private static void report(String name, CountFormatter formatter, long[] values, int threadCount)
+            throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            best = Math.min(best, measure(formatter, values, threadCount));
+        }
+        final double totalCalls = (double) CALLS * threadCount;
+        System.out.println(String.format(Locale.ROOT, "%-11s %.1fns per call, %.1f million calls per second (%d threads)",
+                name, best / totalCalls, totalCalls * 1000 / best, threadCount));
+    }
+
+    /**
+     * @return Nanoseconds for all threads to format {@link #CALLS} values each.
+     */
+    private static long measure(CountFormatter formatter, long[] values, int threadCount) throws InterruptedException {
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int offset = t * 101;
+            threads[t] = new Thread(() -> {
+                long result = 0;
+                for (int i = 0; i < CALLS; i++) {
+                    result += formatter.format(values[(offset + i) & (VALUE_COUNT - 1)]).length();
+                }
+                sink = result;
+            });
+        }
+        final long start = System.nanoTime();
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,129 @@
+package app.revanced.integrations.returnyoutubedislike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Android ICU formatters are not available to unit tests, so the JDK formatters are used instead.
+ */
+public class DislikeValueFormatterTest {
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY, Locale.FRANCE};
+
+    /**
+     * Same formatter settings as the ICU formatters, except counts are not compact.
+     */
+    static final class JdkFormatters implements DislikeValueFormatter.Formatters {
+        private final NumberFormat countFormatter;
+        private final NumberFormat percentageFormatter;
+        private final NumberFormat smallPercentageFormatter;
+
+        JdkFormatters(@NonNull Locale locale) {
+            countFormatter = NumberFormat.getIntegerInstance(locale);
+            percentageFormatter = NumberFormat.getPercentInstance(locale);
+            percentageFormatter.setMaximumFractionDigits(0);
+            smallPercentageFormatter = NumberFormat.getPercentInstance(locale);
+            smallPercentageFormatter.setMaximumFractionDigits(1);
+        }
+
+        @NonNull
+        @Override
+        public String formatCount(long dislikeCount) {
+            return countFormatter.format(dislikeCount);
+        }
+
+        @NonNull
+        @Override
+        public String formatPercentage(float dislikePercentage) {
+            return (dislikePercentage >= 0.01)
+                    ? percentageFormatter.format(dislikePercentage)
+                    : smallPercentageFormatter.format(dislikePercentage);
+        }
+    }
+
+    private final AtomicInteger formattersCreated = new AtomicInteger();
+    private final DislikeValueFormatter formatter = new DislikeValueFormatter(locale -> {
+        formattersCreated.incrementAndGet();
+        return new JdkFormatters(locale);
+    });
+
+    private static long randomCount(Random random) {
+        // Repeats common values, and has more distinct values than the cache holds.
+        return random.nextBoolean() ? random.nextInt(50) : random.nextInt(1_000_000);
+    }
+
+    private static float randomPercentage(Random random) {
+        return random.nextInt(2000) / 10_000f;
+    }
+
+    @Test
+    public void cachedValuesMatchDirectFormatting() {
+        Random random = new Random(1);
+        for (Locale locale : LOCALES) {
+            JdkFormatters direct = new JdkFormatters(locale);
+            for (int i = 0; i < 5 * DislikeValueFormatter.CACHE_LIMIT; i++) {
+                final long count = randomCount(random);
+                assertEquals(direct.formatCount(count), formatter.formatCount(locale, count));
+                final float percentage = randomPercentage(random);
+                assertEquals(direct.formatPercentage(percentage), formatter.formatPercentage(locale, percentage));
+            }
+        }
+        assertEquals(LOCALES.length, formattersCreated.get());
+    }
+
+    @Test
+    public void localeChangeIsNotServedFromCache() {
+        assertEquals("1,234", formatter.formatCount(Locale.US, 1234));
+        assertEquals("1.234", formatter.formatCount(Locale.GERMANY, 1234));
+        assertEquals("1,234", formatter.formatCount(Locale.US, 1234));
+        assertNotEquals(formatter.formatPercentage(Locale.US, 0.005f),
+                formatter.formatPercentage(Locale.GERMANY, 0.005f));
+        assertEquals(new JdkFormatters(Locale.GERMANY).formatPercentage(0.005f),
+                formatter.formatPercentage(Locale.GERMANY, 0.005f));
+    }
+
+    @Test
+    public void smallPercentagesShowFraction() {
+        assertEquals("0.5%", formatter.formatPercentage(Locale.US, 0.005f));
+        assertEquals("1%", formatter.formatPercentage(Locale.US, 0.0125f));
+        assertEquals("13%", formatter.formatPercentage(Locale.US, 0.13f));
+    }
+
+    @Test
+    public void threadsMatchDirectFormatting() throws InterruptedException {
+        final int threadCount = 4;
+        List<String> mismatches = new ArrayList<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final Random random = new Random(t);
+            threads[t] = new Thread(() -> {
+                JdkFormatters direct = new JdkFormatters(Locale.US);
+                for (int i = 0; i < 20_000; i++) {
+                    final long count = randomCount(random);
+                    String formatted = formatter.formatCount(Locale.US, count);
+                    if (!formatted.equals(direct.formatCount(count))) {
+                        synchronized (mismatches) {
+                            mismatches.add(count + ": " + formatted);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(List.of(), mismatches);
+        assertTrue(formattersCreated.get() <= threadCount); // Each thread creates its own, if it formatted a new value.
+    }
+}
@@ -0,0 +1,120 @@
+package app.revanced.integrations.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DerivedSettingTest {
+    private static final SettingsEnum SETTING = SettingsEnum.SPOOF_APP_VERSION_TARGET;
+
+    @After
+    public void restore() {
+        SettingsEnum.setValue(SETTING, (String) SETTING.defaultValue);
+    }
+
+    @Test
+    public void parsesOnlyAfterChange() {
+        AtomicInteger parseCount = new AtomicInteger();
+        DerivedSetting<Integer> length = new DerivedSetting<>(SETTING, value -> {
+            parseCount.incrementAndGet();
+            return ((String) value).length();
+        }, -1);
+
+        SettingsEnum.setValue(SETTING, "abc");
+        assertEquals(3, (int) length.get());
+        assertEquals(3, (int) length.get());
+        assertEquals(1, parseCount.get());
+
+        SettingsEnum.setValue(SETTING, "abcde");
+        assertEquals(5, (int) length.get());
+        assertEquals(5, (int) length.get());
+        assertEquals(2, parseCount.get());
+    }
+
+    @Test
+    public void invalidValueUsesFallback() {
+        DerivedSetting<Integer> number = new DerivedSetting<>(SETTING, value -> Integer.valueOf((String) value), -1);
+        SettingsEnum.setValue(SETTING, "12");
+        assertEquals(12, (int) number.get());
+        SettingsEnum.setValue(SETTING, "twelve");
+        assertEquals(-1, (int) number.get());
+        SettingsEnum.setValue(SETTING, "13");
+        assertEquals(13, (int) number.get());
+    }
+
+    @Test
+    public void lines() {
+        DerivedSetting<List<String>> lines = DerivedSetting.lines(SETTING);
+        DerivedSetting<Set<String>> lineSet = DerivedSetting.lineSet(SETTING);
+        assertSame(SETTING, lines.getSetting());
+
+        SettingsEnum.setValue(SETTING, "first\n\nsecond\nfirst\n");
+        assertEquals(List.of("first", "second", "first"), lines.get());
+        assertEquals(Set.of("first", "second"), lineSet.get());
+        assertSame(lines.get(), lines.get());
+
+        SettingsEnum.setValue(SETTING, "");
+        assertTrue(lines.get().isEmpty());
+        assertTrue(lineSet.get().isEmpty());
+    }
+
+    /**
+     * Readers racing a writer always get the value parsed from the setting value at that time or later,
+     * and never a value parsed from an older setting value once the newer one is visible.
+     */
+    @Test
+    public void concurrentReadersAndWriter() throws InterruptedException {
+        DerivedSetting<Integer> number = new DerivedSetting<>(SETTING, value -> Integer.valueOf((String) value), -1);
+        SettingsEnum.setValue(SETTING, "0");
+        final int writes = 20_000;
+        final int readerCount = 4;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                int last = 0;
+                while (!done.get()) {
+                    final int setBefore = Integer.parseInt(SETTING.getString());
+                    final int parsed = number.get();
+                    if (parsed < setBefore || parsed < last) {
+                        failure.compareAndSet(null, "Parsed: " + parsed + " set: " + setBefore + " last: " + last);
+                    }
+                    last = parsed;
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        start.countDown();
+        for (int i = 1; i <= writes; i++) {
+            SettingsEnum.setValue(SETTING, String.valueOf(i));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(writes, (int) number.get());
+    }
+}
@@ -0,0 +1,192 @@
+package app.revanced.integrations.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames;
+
+public class SettingsBackupTest {
+    private static final SettingsEnum BOOLEAN_SETTING = SettingsEnum.HIDE_ALBUM_CARDS;
+    private static final SettingsEnum INTEGER_SETTING = SettingsEnum.DOUBLE_BACK_TIMEOUT; // Requires a reboot.
+    private static final SettingsEnum LONG_SETTING = SettingsEnum.SWIPE_OVERLAY_TIMEOUT;
+    private static final SettingsEnum FLOAT_SETTING = SettingsEnum.EDIT_SPEED_OVERLAY_VALUE;
+    private static final SettingsEnum STRING_SETTING = SettingsEnum.SPOOF_APP_VERSION_TARGET;
+    /**
+     * Stored in the SponsorBlock preferences, and not part of a backup.
+     */
+    private static final SettingsEnum OTHER_PREFERENCES_SETTING = SettingsEnum.SB_LAST_VIP_CHECK;
+
+    private final FakeSharedPreferences preferences = new FakeSharedPreferences();
+
+    @After
+    public void restore() {
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            if (!setting.defaultValue.equals(setting.getObjectValue())) {
+                SettingsEnum.setImportedValue(setting, setting.defaultValue);
+            }
+        }
+    }
+
+    private static String export() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SettingsBackup.exportSettings(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private SettingsBackup.ImportResult importText(String text) throws IOException {
+        return SettingsBackup.importSettings(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), preferences);
+    }
+
+    private static int exportableCount() {
+        int count = 0;
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            if (setting.sharedPref == SharedPrefNames.REVANCED) count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void exportThenImport() throws Exception {
+        SettingsEnum.setImportedValue(BOOLEAN_SETTING, false);
+        SettingsEnum.setImportedValue(INTEGER_SETTING, 5);
+        SettingsEnum.setImportedValue(LONG_SETTING, 1234L);
+        SettingsEnum.setImportedValue(FLOAT_SETTING, 1.5f);
+        SettingsEnum.setImportedValue(STRING_SETTING, "17.33.42");
+        String backup = export();
+
+        JSONObject json = new JSONObject(backup);
+        assertEquals("revanced-settings", json.getString("format"));
+        assertEquals(1, json.getInt("version"));
+        JSONObject settings = json.getJSONObject("settings");
+        assertEquals(exportableCount(), settings.length());
+        assertEquals(Boolean.FALSE, settings.get(BOOLEAN_SETTING.path));
+        assertTrue(settings.get(INTEGER_SETTING.path) instanceof Number);
+        assertFalse(settings.has(OTHER_PREFERENCES_SETTING.path));
+
+        restore();
+        SettingsBackup.ImportResult result = importText(backup);
+        assertEquals(List.of(), result.errors);
+        assertEquals(exportableCount(), result.importedCount);
+        assertTrue(result.rebootRequired);
+
+        assertEquals(false, BOOLEAN_SETTING.getBoolean());
+        assertEquals(5, INTEGER_SETTING.getInt());
+        assertEquals(1234L, LONG_SETTING.getLong());
+        assertEquals(1.5f, FLOAT_SETTING.getFloat(), 0);
+        assertEquals("17.33.42", STRING_SETTING.getString());
+        // Non boolean settings are saved as strings.
+        assertEquals(false, preferences.values.get(BOOLEAN_SETTING.path));
+        assertEquals("5", preferences.values.get(INTEGER_SETTING.path));
+        assertEquals("1.5", preferences.values.get(FLOAT_SETTING.path));
+    }
+
+    @Test
+    public void defaultsDoNotRequireReboot() throws Exception {
+        SettingsBackup.ImportResult result = importText(export());
+        assertEquals(exportableCount(), result.importedCount);
+        assertFalse(result.rebootRequired);
+    }
+
+    @Test
+    public void legacyBackupWithoutHeader() throws Exception {
+        SettingsBackup.ImportResult result = importText("{"
+                + "\"" + BOOLEAN_SETTING.path + "\": false,"
+                + "\"" + INTEGER_SETTING.path + "\": \"7\","
+                + "\"" + FLOAT_SETTING.path + "\": 1.25,"
+                + "\"" + STRING_SETTING.path + "\": \"18.20.39\""
+                + "}");
+        assertEquals(List.of(), result.errors);
+        assertEquals(4, result.importedCount);
+        assertEquals(false, BOOLEAN_SETTING.getBoolean());
+        assertEquals(7, INTEGER_SETTING.getInt());
+        assertEquals(1.25f, FLOAT_SETTING.getFloat(), 0);
+        assertEquals("18.20.39", STRING_SETTING.getString());
+    }
+
+    @Test
+    public void newerVersionIsRejected() {
+        assertRejected("{\"format\": \"revanced-settings\", \"version\": 2, \"settings\": {"
+                + "\"" + BOOLEAN_SETTING.path + "\": false}}");
+    }
+
+    @Test
+    public void otherFormatIsRejected() {
+        assertRejected("{\"format\": \"other\", \"version\": 1, \"settings\": {"
+                + "\"" + BOOLEAN_SETTING.path + "\": false}}");
+    }
+
+    @Test
+    public void malformedBackupIsRejected() throws Exception {
+        SettingsEnum.setImportedValue(BOOLEAN_SETTING, false);
+        String backup = export();
+        restore();
+
+        assertRejected(backup.substring(0, backup.length() / 2)); // Truncated.
+        assertRejected(backup + " {}");
+        assertRejected("");
+        assertRejected("not a backup");
+        assertRejected("[]");
+        assertRejected("{\"" + BOOLEAN_SETTING.path + "\": false");
+        assertRejected("{\"version\": \"one\"}");
+        assertRejected("{\"version\": 1.5}");
+        assertRejected("{\"version\": 1, \"settings\": [\"" + BOOLEAN_SETTING.path + "\"]}");
+    }
+
+    /**
+     * Import must fail, and nothing is changed.
+     */
+    private void assertRejected(String backup) {
+        try {
+            importText(backup);
+            fail("Imported: " + backup);
+        } catch (IOException expected) {
+        }
+        assertEquals(Map.of(), preferences.values);
+        assertTrue(BOOLEAN_SETTING.getBoolean());
+    }
+
+    @Test
+    public void invalidEntriesAreSkipped() throws Exception {
+        SettingsBackup.ImportResult result = importText("{\"format\": \"revanced-settings\", \"version\": 1, \"settings\": {"
+                + "\"" + BOOLEAN_SETTING.path + "\": \"maybe\","
+                + "\"" + INTEGER_SETTING.path + "\": 2.5,"
+                + "\"" + LONG_SETTING.path + "\": {},"
+                + "\"" + FLOAT_SETTING.path + "\": null,"
+                + "\"" + OTHER_PREFERENCES_SETTING.path + "\": 5,"
+                + "\"revanced_unknown_setting\": true,"
+                + "\"" + STRING_SETTING.path + "\": 5"
+                + "}}");
+
+        assertEquals(1, result.importedCount);
+        assertEquals("5", STRING_SETTING.getString());
+        assertEquals(Map.of(STRING_SETTING.path, "5"), preferences.values);
+
+        List<String> skippedKeys = new ArrayList<>();
+        for (String error : result.errors) {
+            skippedKeys.add(error.substring(0, error.indexOf(':')));
+        }
+        skippedKeys.sort(null);
+        List<String> expected = new ArrayList<>(List.of(BOOLEAN_SETTING.path, INTEGER_SETTING.path,
+                LONG_SETTING.path, FLOAT_SETTING.path, OTHER_PREFERENCES_SETTING.path, "revanced_unknown_setting"));
+        expected.sort(null);
+        assertEquals(expected, skippedKeys);
+
+        // Skipped settings are unchanged.
+        assertTrue(BOOLEAN_SETTING.getBoolean());
+        assertEquals(INTEGER_SETTING.defaultValue, INTEGER_SETTING.getInt());
+    }
+}
@@ -0,0 +1,122 @@
+package app.revanced.integrations.settings;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SettingsChangeBusTest {
+    private static final SettingsEnum FIRST = SettingsEnum.HIDE_ALBUM_CARDS;
+    private static final SettingsEnum SECOND = SettingsEnum.HIDE_CHIPS_SHELF;
+    private static final SettingsEnum STRING_SETTING = SettingsEnum.SPOOF_APP_VERSION_TARGET;
+
+    private final List<SettingsChangeBus.Listener> subscribed = new ArrayList<>();
+
+    private static final class CountingListener implements SettingsChangeBus.Listener {
+        final List<SettingsEnum> changes = new ArrayList<>();
+
+        @Override
+        public void onSettingChanged(@NonNull SettingsEnum setting) {
+            changes.add(setting);
+        }
+    }
+
+    private <T extends SettingsChangeBus.Listener> T subscribe(T listener, SettingsEnum... settings) {
+        SettingsChangeBus.subscribe(listener, settings);
+        subscribed.add(listener);
+        return listener;
+    }
+
+    @After
+    public void restore() {
+        for (SettingsChangeBus.Listener listener : subscribed) {
+            SettingsChangeBus.unsubscribe(listener);
+        }
+        SettingsEnum.setValue(FIRST, (Boolean) FIRST.defaultValue);
+        SettingsEnum.setValue(SECOND, (Boolean) SECOND.defaultValue);
+        SettingsEnum.setValue(STRING_SETTING, (String) STRING_SETTING.defaultValue);
+    }
+
+    @Test
+    public void dispatchesOnlyToSubscribersOfTheSetting() {
+        CountingListener first = subscribe(new CountingListener(), FIRST);
+        CountingListener both = subscribe(new CountingListener(), FIRST, SECOND);
+        CountingListener string = subscribe(new CountingListener(), STRING_SETTING);
+
+        SettingsEnum.setValue(FIRST, !FIRST.getBoolean());
+        SettingsEnum.setValue(SECOND, !SECOND.getBoolean());
+        SettingsEnum.setValue(STRING_SETTING, "1.0.0");
+
+        assertEquals(List.of(FIRST), first.changes);
+        assertEquals(List.of(FIRST, SECOND), both.changes);
+        assertEquals(List.of(STRING_SETTING), string.changes);
+    }
+
+    @Test
+    public void unchangedValueIsNotPublished() {
+        CountingListener listener = subscribe(new CountingListener(), FIRST, STRING_SETTING);
+        SettingsEnum.setValue(FIRST, FIRST.getBoolean());
+        SettingsEnum.setValue(STRING_SETTING, STRING_SETTING.getString());
+        // Equal but not the same instance.
+        SettingsEnum.setValue(STRING_SETTING, new String(STRING_SETTING.getString()));
+        assertEquals(List.of(), listener.changes);
+    }
+
+    @Test
+    public void subscribingTwiceHasNoEffect() {
+        CountingListener listener = subscribe(new CountingListener(), FIRST);
+        SettingsChangeBus.subscribe(listener, FIRST, FIRST);
+        SettingsEnum.setValue(FIRST, !FIRST.getBoolean());
+        assertEquals(List.of(FIRST), listener.changes);
+    }
+
+    @Test
+    public void unsubscribe() {
+        CountingListener listener = subscribe(new CountingListener(), FIRST, SECOND);
+        SettingsChangeBus.unsubscribe(listener, FIRST);
+        SettingsEnum.setValue(FIRST, !FIRST.getBoolean());
+        SettingsEnum.setValue(SECOND, !SECOND.getBoolean());
+        assertEquals(List.of(SECOND), listener.changes);
+
+        SettingsChangeBus.unsubscribe(listener);
+        SettingsEnum.setValue(SECOND, !SECOND.getBoolean());
+        assertEquals(List.of(SECOND), listener.changes);
+    }
+
+    @Test
+    public void failingListenerDoesNotStopOthers() {
+        subscribe(setting -> {
+            throw new IllegalStateException("test");
+        }, FIRST);
+        CountingListener listener = subscribe(new CountingListener(), FIRST);
+        SettingsEnum.setValue(FIRST, !FIRST.getBoolean());
+        assertEquals(List.of(FIRST), listener.changes);
+    }
+
+    /**
+     * A change calls only the listeners of that setting, regardless of how many listeners other settings have.
+     */
+    @Test
+    public void costIsIndependentOfOtherSettings() {
+        AtomicInteger otherCalls = new AtomicInteger();
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            if (setting == FIRST) continue;
+            for (int i = 0; i < 10; i++) {
+                subscribe(changed -> otherCalls.incrementAndGet(), setting);
+            }
+        }
+        CountingListener listener = subscribe(new CountingListener(), FIRST);
+
+        for (int i = 0; i < 1000; i++) {
+            SettingsEnum.setValue(FIRST, !FIRST.getBoolean());
+        }
+        assertEquals(1000, listener.changes.size());
+        assertEquals(0, otherCalls.get());
+    }
+}
@@ -0,0 +1,119 @@
+package app.revanced.integrations.settings;
+
+import android.content.SharedPreferences;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames;
+
+/**
+ * Times {@link SettingsLoader#loadAll(SettingsEnum[], SettingsLoader.PreferencesSource)} on a cold JVM,
+ * and compares it with one preference lookup for each setting (how settings were loaded before).
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath, in a new JVM for each cold start measurement:
+ * <pre>
+ * java app.revanced.integrations.settings.SettingsLoaderColdStartBenchmark [loadAll | lookups]
+ * </pre>
+ * The argument selects what runs first on the cold JVM, and the default is loadAll.
+ * The preferences are in memory, and are locked for each call as Android preferences are.
+ * Reading the preference files from storage is not included.
+ */
+public final class SettingsLoaderColdStartBenchmark {
+    private static final int WARM_ROUNDS = 1_000;
+
+    /**
+     * Locks each call, the same as the Android preferences implementation.
+     */
+    private static final class LockingPreferences extends FakeSharedPreferences {
+        @Override
+        public synchronized Map<String, ?> getAll() {
+            return super.getAll();
+        }
+
+        @Override
+        public synchronized String getString(String key, String defValue) {
+            return super.getString(key, defValue);
+        }
+
+        @Override
+        public synchronized boolean getBoolean(String key, boolean defValue) {
+            return super.getBoolean(key, defValue);
+        }
+    }
+
+    private SettingsLoaderColdStartBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) {
+        // Class initialization loads the settings once (using default values, as there is no context).
+        long start = System.nanoTime();
+        SettingsEnum[] settings = SettingsEnum.values();
+        final long classInitNanos = System.nanoTime() - start;
+
+        Map<SharedPrefNames, LockingPreferences> files = new EnumMap<>(SharedPrefNames.class);
+        for (SettingsEnum setting : settings) {
+            Object stored = setting.returnType == SettingsEnum.ReturnType.BOOLEAN
+                    ? setting.defaultValue
+                    : setting.defaultValue.toString();
+            files.computeIfAbsent(setting.sharedPref, name -> new LockingPreferences()).values.put(setting.path, stored);
+        }
+        SettingsLoader.PreferencesSource source = files::get;
+
+        final boolean lookupsFirst = args.length > 0 && args[0].equals("lookups");
+        long firstLookupsNanos = 0;
+        if (lookupsFirst) {
+            start = System.nanoTime();
+            loadEachSetting(settings, files);
+            firstLookupsNanos = System.nanoTime() - start;
+        }
+
+        start = System.nanoTime();
+        SettingsLoader.loadAll(settings, source);
+        final long firstLoadNanos = System.nanoTime() - start;
+
+        if (!lookupsFirst) {
+            start = System.nanoTime();
+            loadEachSetting(settings, files);
+            firstLookupsNanos = System.nanoTime() - start;
+        }
+
+        long bestLoadNanos = Long.MAX_VALUE;
+        long bestLookupsNanos = Long.MAX_VALUE;
+        for (int i = 0; i < WARM_ROUNDS; i++) {
+            start = System.nanoTime();
+            SettingsLoader.loadAll(settings, source);
+            bestLoadNanos = Math.min(bestLoadNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            loadEachSetting(settings, files);
+            bestLookupsNanos = Math.min(bestLookupsNanos, System.nanoTime() - start);
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%d settings, class initialization %.2fms",
+                settings.length, classInitNanos / 1e6));
+        System.out.println(String.format(Locale.ROOT, "%-16s first %.2fms, warm %.1fus",
+                "loadAll", firstLoadNanos / 1e6, bestLoadNanos / 1e3));
+        System.out.println(String.format(Locale.ROOT, "%-16s first %.2fms, warm %.1fus",
+                "lookup each", firstLookupsNanos / 1e6, bestLookupsNanos / 1e3));
+    }
+
+    /**
+     * One lookup for each setting, as the individual preference getters did.
+     */
+    private static Map<SettingsEnum, Object> loadEachSetting(SettingsEnum[] settings,
+                                                             Map<SharedPrefNames, LockingPreferences> files) {
+        Map<SettingsEnum, Object> loaded = new HashMap<>();
+        for (SettingsEnum setting : settings) {
+            SharedPreferences preferences = files.get(setting.sharedPref);
+            Object stored = setting.returnType == SettingsEnum.ReturnType.BOOLEAN
+                    ? preferences.getBoolean(setting.path, (Boolean) setting.defaultValue)
+                    : preferences.getString(setting.path, setting.defaultValue.toString());
+            loaded.put(setting, SettingsLoader.decode(setting.returnType, stored, setting.defaultValue));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,167 @@
+package app.revanced.integrations.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import app.revanced.integrations.settings.SettingsEnum.ReturnType;
+import app.revanced.integrations.utils.SharedPrefHelper.SharedPrefNames;
+
+public class SettingsLoaderTest {
+    private static final SettingsEnum BOOLEAN_SETTING = SettingsEnum.HIDE_ALBUM_CARDS;
+    private static final SettingsEnum INTEGER_SETTING = SettingsEnum.DOUBLE_BACK_TIMEOUT;
+    private static final SettingsEnum LONG_SETTING = SettingsEnum.SWIPE_OVERLAY_TIMEOUT;
+    private static final SettingsEnum FLOAT_SETTING = SettingsEnum.EDIT_SPEED_OVERLAY_VALUE;
+    private static final SettingsEnum STRING_SETTING = SettingsEnum.SPOOF_APP_VERSION_TARGET;
+    /**
+     * Stored in the SponsorBlock preferences.
+     */
+    private static final SettingsEnum OTHER_PREFERENCES_SETTING = SettingsEnum.SB_LOCAL_TIME_SAVED_MILLISECONDS;
+
+    private final Map<SharedPrefNames, FakeSharedPreferences> files = new EnumMap<>(SharedPrefNames.class);
+    private final Map<SharedPrefNames, Integer> reads = new EnumMap<>(SharedPrefNames.class);
+
+    @After
+    public void restoreDefaults() {
+        SettingsLoader.loadAll(SettingsEnum.values(), name -> new FakeSharedPreferences());
+    }
+
+    private FakeSharedPreferences file(SharedPrefNames name) {
+        return files.computeIfAbsent(name, key -> new FakeSharedPreferences());
+    }
+
+    private void store(SettingsEnum setting, Object value) {
+        file(setting.sharedPref).values.put(setting.path, value);
+    }
+
+    private void load() {
+        SettingsLoader.loadAll(SettingsEnum.values(), name -> {
+            reads.merge(name, 1, Integer::sum);
+            return files.get(name);
+        });
+    }
+
+    /**
+     * @return The value in the form {@link SettingsEnum#saveValue(Object)} stores it.
+     */
+    private static Object storedForm(SettingsEnum setting, Object value) {
+        return setting.returnType == ReturnType.BOOLEAN ? value : value.toString();
+    }
+
+    /**
+     * Every setting decodes to the same value it was saved with,
+     * using a snapshot with an entry for all settings (the size of a real preferences file).
+     */
+    @Test
+    public void decodesEverySavedSetting() {
+        Map<String, Object> snapshot = new HashMap<>();
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            snapshot.put(setting.path, storedForm(setting, setting.defaultValue));
+        }
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            assertEquals(setting.name(), setting.defaultValue,
+                    SettingsLoader.decode(setting.returnType, snapshot.get(setting.path), setting.defaultValue));
+        }
+    }
+
+    @Test
+    public void loadsEachFileOnce() {
+        store(BOOLEAN_SETTING, false);
+        store(INTEGER_SETTING, "5");
+        store(LONG_SETTING, "1234");
+        store(FLOAT_SETTING, "1.5");
+        store(STRING_SETTING, "17.33.42");
+        store(OTHER_PREFERENCES_SETTING, "60000");
+        // Same path in another file is not used.
+        file(SharedPrefNames.YOUTUBE).values.put(INTEGER_SETTING.path, "6");
+        load();
+
+        assertEquals(false, BOOLEAN_SETTING.getBoolean());
+        assertEquals(5, INTEGER_SETTING.getInt());
+        assertEquals(1234L, LONG_SETTING.getLong());
+        assertEquals(1.5f, FLOAT_SETTING.getFloat(), 0);
+        assertEquals("17.33.42", STRING_SETTING.getString());
+        assertEquals(60000L, OTHER_PREFERENCES_SETTING.getLong());
+
+        Map<SharedPrefNames, Integer> expectedReads = new EnumMap<>(SharedPrefNames.class);
+        for (SettingsEnum setting : SettingsEnum.values()) {
+            expectedReads.put(setting.sharedPref, 1);
+        }
+        assertEquals(expectedReads, reads);
+    }
+
+    /**
+     * Older versions saved non boolean settings using their actual type.
+     */
+    @Test
+    public void loadsLegacyTypedValues() {
+        store(BOOLEAN_SETTING, "false");
+        store(INTEGER_SETTING, 5);
+        store(LONG_SETTING, 1234); // Saved as an int.
+        store(FLOAT_SETTING, 1.5f);
+        store(STRING_SETTING, 18);
+        store(OTHER_PREFERENCES_SETTING, 60000L);
+        load();
+
+        assertEquals(false, BOOLEAN_SETTING.getBoolean());
+        assertEquals(5, INTEGER_SETTING.getInt());
+        assertEquals(1234L, LONG_SETTING.getLong());
+        assertEquals(1.5f, FLOAT_SETTING.getFloat(), 0);
+        assertEquals("18", STRING_SETTING.getString());
+        assertEquals(60000L, OTHER_PREFERENCES_SETTING.getLong());
+    }
+
+    @Test
+    public void invalidOrUnreadableValuesUseDefaults() {
+        store(BOOLEAN_SETTING, 0);
+        store(INTEGER_SETTING, 5L);
+        store(LONG_SETTING, "soon");
+        store(FLOAT_SETTING, 1.5);
+        store(OTHER_PREFERENCES_SETTING, "60000");
+        files.remove(OTHER_PREFERENCES_SETTING.sharedPref); // Context is not yet available.
+        load();
+
+        for (SettingsEnum setting : new SettingsEnum[]{BOOLEAN_SETTING, INTEGER_SETTING,
+                LONG_SETTING, FLOAT_SETTING, OTHER_PREFERENCES_SETTING}) {
+            assertEquals(setting.name(), setting.defaultValue, setting.getObjectValue());
+        }
+    }
+
+    @Test
+    public void missingValueUsesDefault() {
+        Object defaultValue = 5;
+        assertSame(defaultValue, SettingsLoader.decode(ReturnType.INTEGER, null, defaultValue));
+    }
+
+    @Test
+    public void invalidValueUsesDefault() {
+        Object defaultValue = 5;
+        assertSame(defaultValue, SettingsLoader.decode(ReturnType.INTEGER, "five", defaultValue));
+        assertSame(Boolean.TRUE, SettingsLoader.decode(ReturnType.BOOLEAN, "yes", Boolean.TRUE));
+        assertSame(defaultValue, SettingsLoader.decode(ReturnType.INTEGER, 5.0f, defaultValue));
+    }
+
+    @Test
+    public void parsesStringsAndLegacyTypes() {
+        assertEquals(Boolean.TRUE, SettingsLoader.parse(ReturnType.BOOLEAN, "TRUE"));
+        assertEquals(Boolean.FALSE, SettingsLoader.parse(ReturnType.BOOLEAN, false));
+        assertEquals(42, SettingsLoader.parse(ReturnType.INTEGER, " 42 "));
+        assertEquals(42, SettingsLoader.parse(ReturnType.INTEGER, 42));
+        assertEquals(42L, SettingsLoader.parse(ReturnType.LONG, "42"));
+        // Older versions saved some long settings as an int.
+        assertEquals(42L, SettingsLoader.parse(ReturnType.LONG, 42));
+        assertEquals(1.5f, SettingsLoader.parse(ReturnType.FLOAT, "1.5"));
+        assertEquals("1.5", SettingsLoader.parse(ReturnType.STRING, 1.5f));
+
+        assertNull(SettingsLoader.parse(ReturnType.BOOLEAN, 1));
+        assertNull(SettingsLoader.parse(ReturnType.INTEGER, "4294967296"));
+        assertNull(SettingsLoader.parse(ReturnType.FLOAT, ""));
+    }
+}
@@ -0,0 +1,139 @@
+package app.revanced.integrations.sponsorblock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SponsorBlockFormatterTest {
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+
+    /**
+     * Locales with different grouping separators, digits and text direction.
+     */
+    private static final Locale[] LOCALES = {
+            Locale.US,
+            Locale.GERMANY,
+            Locale.FRANCE,
+            new Locale("de", "CH"),
+            new Locale("hi", "IN"),
+            Locale.forLanguageTag("ar-EG"),
+            Locale.forLanguageTag("fa-IR"),
+    };
+
+    private final Locale originalLocale = Locale.getDefault();
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(originalLocale);
+    }
+
+    private static String playerTime(long millis, long videoLength) {
+        return SponsorBlockFormatter.appendPlayerTime(new StringBuilder(), millis, videoLength).toString();
+    }
+
+    private static String duration(long millis) {
+        return SponsorBlockFormatter.appendDuration(new StringBuilder(), millis).toString();
+    }
+
+    /**
+     * Count formatters are created per thread using the locale at that time,
+     * so each locale is formatted on a new thread.
+     */
+    private static String formatCountOnNewThread(long count) throws InterruptedException {
+        AtomicReference<String> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> result.set(SponsorBlockFormatter.formatCount(count)));
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    private static void assertTimes() throws ParseException {
+        assertEquals("0:00.000", playerTime(0, 5 * MINUTE));
+        assertEquals("1:05.250", playerTime(MINUTE + 5 * SECOND + 250, 5 * MINUTE));
+        assertEquals("01:05.250", playerTime(MINUTE + 5 * SECOND + 250, 30 * MINUTE));
+        assertEquals("0:01:05.250", playerTime(MINUTE + 5 * SECOND + 250, 2 * HOUR));
+        assertEquals("01:02:05.009", playerTime(HOUR + 2 * MINUTE + 5 * SECOND + 9, 11 * HOUR));
+        assertEquals("0:00.000", playerTime(-5, 5 * MINUTE));
+
+        assertEquals("00:00:00.000", SponsorBlockFormatter.formatEditTime(0));
+        assertEquals("00:01:05.250", SponsorBlockFormatter.formatEditTime(MINUTE + 5 * SECOND + 250));
+        assertEquals("12:34:56.789", SponsorBlockFormatter.formatEditTime(
+                12 * HOUR + 34 * MINUTE + 56 * SECOND + 789));
+
+        assertEquals("0:00", duration(0));
+        assertEquals("1:05", duration(MINUTE + 5 * SECOND + 999));
+        assertEquals("1:02:05", duration(HOUR + 2 * MINUTE + 5 * SECOND));
+
+        assertEquals(MINUTE + 5 * SECOND + 250, SponsorBlockFormatter.parseEditTime("00:01:05.250"));
+    }
+
+    @Test
+    public void timesUseAsciiDigitsInAllLocales() throws ParseException {
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            assertTimes();
+        }
+    }
+
+    @Test
+    public void editTimeRoundTrip() throws ParseException {
+        for (long millis = 0; millis < 30 * HOUR; millis += 7 * MINUTE + 13 * SECOND + 17) {
+            assertEquals(millis, SponsorBlockFormatter.parseEditTime(SponsorBlockFormatter.formatEditTime(millis)));
+        }
+    }
+
+    @Test
+    public void parsesShortEditTimes() throws ParseException {
+        assertEquals(MINUTE + 5 * SECOND + 250, SponsorBlockFormatter.parseEditTime("1:05.25"));
+        assertEquals(MINUTE + 5 * SECOND, SponsorBlockFormatter.parseEditTime(" 1:5 "));
+        assertEquals(HOUR + 5 * SECOND + 1, SponsorBlockFormatter.parseEditTime("1:0:05.0019"));
+        assertEquals(90 * MINUTE, SponsorBlockFormatter.parseEditTime("90:00"));
+    }
+
+    @Test
+    public void rejectsInvalidEditTimes() {
+        String[] invalid = {"", "5", "5.5", ":05", "1::05", "1:2:3:4", "1:05.", "1:05.x", "1:05,250",
+                "a:05", "1:-5", "1234567890:00"};
+        for (String text : invalid) {
+            try {
+                SponsorBlockFormatter.parseEditTime(text);
+                fail("Parsed invalid time: " + text);
+            } catch (ParseException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void countsUseLocaleGrouping() throws InterruptedException {
+        Locale.setDefault(Locale.US);
+        assertEquals("0", formatCountOnNewThread(0));
+        assertEquals("1,234,567", formatCountOnNewThread(1_234_567));
+        Locale.setDefault(Locale.GERMANY);
+        assertEquals("1.234.567", formatCountOnNewThread(1_234_567));
+
+        // Each locale uses its own separator, but never loses digits.
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            String formatted = formatCountOnNewThread(1_234_567);
+            StringBuilder digits = new StringBuilder();
+            formatted.codePoints().filter(Character::isDigit)
+                    .forEach(c -> digits.append(Character.getNumericValue(c)));
+            assertEquals(locale.toString(), "1234567", digits.toString());
+        }
+    }
+
+    @Test
+    public void hexColor() {
+        assertEquals("#FF0000", SponsorBlockFormatter.appendHexColor(new StringBuilder(), 0xFFFF0000).toString());
+        assertEquals("#00D400", SponsorBlockFormatter.appendHexColor(new StringBuilder(), 0x0000D400).toString());
+        assertEquals("#0A0B0C", SponsorBlockFormatter.appendHexColor(new StringBuilder(), 0x800A0B0C).toString());
+    }
+}
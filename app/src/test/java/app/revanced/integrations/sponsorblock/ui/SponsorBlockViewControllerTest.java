@@ -0,0 +1,242 @@
+package app.revanced.integrations.sponsorblock.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RelativeLayout;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.revanced.integrations.settings.SettingsEnum;
+import app.revanced.integrations.shared.PlayerType;
+import app.revanced.integrations.sponsorblock.objects.SegmentCategory;
+import app.revanced.integrations.sponsorblock.objects.SponsorSegment;
+
+/**
+ * Inflates fake views, and runs main thread work on the calling thread.
+ * The current player type of unit tests is {@link PlayerType#NONE}, and it is applied when the overlay inflates,
+ * so tests change the player type after inflating to show the views.
+ */
+public class SponsorBlockViewControllerTest {
+
+    /**
+     * Records the children and the hierarchy listener, without any Android view behavior.
+     */
+    private static class FakeViewGroup extends ViewGroup {
+        final List<View> children = new ArrayList<>();
+        OnHierarchyChangeListener listener;
+
+        FakeViewGroup() {
+            super(null);
+        }
+
+        @Override
+        public void addView(View child) {
+            children.add(child);
+        }
+
+        @Override
+        public void removeView(View view) {
+            children.remove(view);
+        }
+
+        @Override
+        public void setOnHierarchyChangeListener(OnHierarchyChangeListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        }
+    }
+
+    private static class FakeElement extends View implements SponsorBlockViewController.OverlayElement {
+        int visibility = View.GONE;
+        ViewGroup.LayoutParams params = new RelativeLayout.LayoutParams(0, 0);
+
+        FakeElement() {
+            super(null);
+        }
+
+        @Override
+        public int getVisibility() {
+            return visibility;
+        }
+
+        @Override
+        public void setVisibility(int visibility) {
+            this.visibility = visibility;
+        }
+
+        @Override
+        public ViewGroup.LayoutParams getLayoutParams() {
+            return params;
+        }
+
+        @Override
+        public void setLayoutParams(ViewGroup.LayoutParams params) {
+            this.params = params;
+        }
+
+        @Override
+        public int getDefaultBottomMargin() {
+            return 1;
+        }
+
+        @Override
+        public int getCtaBottomMargin() {
+            return 2;
+        }
+
+        @Override
+        public int getHiddenBottomMargin() {
+            return 3;
+        }
+    }
+
+    private static final class FakeSkipButton extends FakeElement implements SponsorBlockViewController.SkipButton {
+        SponsorSegment segment;
+
+        @Override
+        public boolean updateSkipButtonText(@NonNull SponsorSegment segment) {
+            this.segment = segment;
+            return true;
+        }
+    }
+
+    private final List<SponsorBlockViewController.InlineOverlay> inflated = new ArrayList<>();
+
+    private final SponsorSegment segment = new SponsorSegment(SegmentCategory.SPONSOR, "uuid", 1000, 2000, false);
+
+    @Before
+    public void setUp() {
+        SettingsEnum.setValue(SettingsEnum.SB_ENABLED, true);
+        SponsorBlockViewController.setTestDependencies(() -> {
+            SponsorBlockViewController.InlineOverlay overlay = new SponsorBlockViewController.InlineOverlay(
+                    new FakeViewGroup(), new FakeSkipButton(), new FakeSkipButton(), new FakeElement());
+            inflated.add(overlay);
+            return overlay;
+        }, Runnable::run);
+    }
+
+    @After
+    public void restore() {
+        SettingsEnum.setValue(SettingsEnum.SB_ENABLED, (Boolean) SettingsEnum.SB_ENABLED.defaultValue);
+        SponsorBlockViewController.initialize(null); // Removes the overlay of the last test.
+        SponsorBlockViewController.playerTypeChanged(PlayerType.NONE);
+    }
+
+    private SponsorBlockViewController.InlineOverlay onlyInflated() {
+        assertEquals(1, inflated.size());
+        return inflated.get(0);
+    }
+
+    @Test
+    public void initializeDoesNotInflate() {
+        FakeViewGroup group = new FakeViewGroup();
+        SponsorBlockViewController.initialize(group);
+        SponsorBlockViewController.hideAll();
+        assertEquals(0, inflated.size());
+        assertEquals(List.of(), group.children);
+        assertNull(group.listener);
+    }
+
+    @Test
+    public void skipButtonInflatesOnce() {
+        FakeViewGroup group = new FakeViewGroup();
+        SponsorBlockViewController.initialize(group);
+
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        SponsorBlockViewController.InlineOverlay overlay = onlyInflated();
+        assertEquals(List.of(overlay.layout), group.children);
+        assertNotNull(group.listener);
+
+        FakeSkipButton button = (FakeSkipButton) overlay.skipSponsorButton;
+        assertSame(segment, button.segment);
+        assertEquals(View.GONE, button.visibility);
+        SponsorBlockViewController.playerTypeChanged(PlayerType.WATCH_WHILE_MAXIMIZED);
+        assertEquals(View.VISIBLE, button.visibility);
+        assertEquals(1, ((RelativeLayout.LayoutParams) button.params).bottomMargin);
+
+        SponsorBlockViewController.hideSkipSegmentButton();
+        assertEquals(View.GONE, button.visibility);
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        SponsorBlockViewController.toggleNewSegmentLayoutVisibility();
+        onlyInflated();
+        assertEquals(1, group.children.size());
+    }
+
+    @Test
+    public void newSegmentLayoutInflatesOnce() {
+        FakeViewGroup group = new FakeViewGroup();
+        SponsorBlockViewController.initialize(group);
+
+        SponsorBlockViewController.toggleNewSegmentLayoutVisibility();
+        FakeElement layout = (FakeElement) onlyInflated().newSegmentLayout;
+        SponsorBlockViewController.playerTypeChanged(PlayerType.WATCH_WHILE_MAXIMIZED);
+        assertEquals(View.VISIBLE, layout.visibility);
+
+        SponsorBlockViewController.toggleNewSegmentLayoutVisibility();
+        assertEquals(View.GONE, layout.visibility);
+        SponsorBlockViewController.showSkipHighlightButton(segment);
+        onlyInflated();
+        assertEquals(1, group.children.size());
+    }
+
+    @Test
+    public void disablingTearsDown() {
+        FakeViewGroup group = new FakeViewGroup();
+        SponsorBlockViewController.initialize(group);
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        FakeSkipButton button = (FakeSkipButton) onlyInflated().skipSponsorButton;
+        SponsorBlockViewController.playerTypeChanged(PlayerType.WATCH_WHILE_MAXIMIZED);
+        assertEquals(View.VISIBLE, button.visibility);
+
+        SettingsEnum.setValue(SettingsEnum.SB_ENABLED, false);
+        assertEquals(List.of(), group.children);
+        assertNull(group.listener);
+        assertEquals(View.GONE, button.visibility);
+
+        // Not inflated again while disabled.
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        SponsorBlockViewController.toggleNewSegmentLayoutVisibility();
+        onlyInflated();
+
+        SettingsEnum.setValue(SettingsEnum.SB_ENABLED, true);
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        assertEquals(2, inflated.size());
+        assertEquals(List.of(inflated.get(1).layout), group.children);
+    }
+
+    @Test
+    public void initializeReplacesOverlay() {
+        FakeViewGroup oldGroup = new FakeViewGroup();
+        SponsorBlockViewController.initialize(oldGroup);
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        SponsorBlockViewController.InlineOverlay oldOverlay = onlyInflated();
+        SponsorBlockViewController.playerTypeChanged(PlayerType.WATCH_WHILE_MAXIMIZED);
+
+        FakeViewGroup newGroup = new FakeViewGroup();
+        SponsorBlockViewController.initialize(newGroup);
+        assertEquals(List.of(), oldGroup.children);
+        assertNull(oldGroup.listener);
+        assertEquals(View.GONE, ((FakeSkipButton) oldOverlay.skipSponsorButton).visibility);
+        assertEquals(List.of(), newGroup.children);
+
+        SponsorBlockViewController.showSkipSegmentButton(segment);
+        assertEquals(2, inflated.size());
+        assertEquals(List.of(inflated.get(1).layout), newGroup.children);
+        assertEquals(List.of(), oldGroup.children);
+    }
+}
@@ -0,0 +1,120 @@
+package app.revanced.integrations.swipecontrols.misc;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import kotlin.Unit;
+
+/**
+ * Measures the heap allocations of swipe steps that go through {@link FrameCoalescer},
+ * and how many updates are applied for each step.
+ * <p>
+ * Part of the JVM unit test source set and not included in the app.
+ * Run on a desktop JVM with the unit test classpath:
+ * <pre>
+ * java app.revanced.integrations.swipecontrols.misc.FrameCoalescerBenchmark [steps per frame]
+ * </pre>
+ * A fast swipe has several touch events for each display frame, so the default is 4 steps per frame.
+ */
+public final class FrameCoalescerBenchmark {
+    private static final int FRAMES = 1_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * Holds the posted callbacks in a fixed array, so only the coalescer allocations are measured.
+     */
+    private static final class ArrayFrameScheduler implements FrameScheduler {
+        private final Choreographer.FrameCallback[] posted = new Choreographer.FrameCallback[3];
+        private int count;
+
+        @Override
+        public void postFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            posted[count++] = callback;
+        }
+
+        @Override
+        public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        void runFrame() {
+            final int frameCount = count;
+            count = 0;
+            for (int i = 0; i < frameCount; i++) {
+                posted[i].doFrame(0);
+            }
+        }
+    }
+
+    private static int pendingVolume;
+    private static float pendingBrightness;
+    private static int pendingOverlay;
+    private static long applied;
+
+    private FrameCoalescerBenchmark() {
+    } // utility class
+
+    public static void main(String[] args) {
+        final int stepsPerFrame = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        ArrayFrameScheduler scheduler = new ArrayFrameScheduler();
+        FrameCoalescer volume = new FrameCoalescer(scheduler, () -> {
+            applied += pendingVolume;
+            return Unit.INSTANCE;
+        });
+        FrameCoalescer brightness = new FrameCoalescer(scheduler, () -> {
+            applied += (long) pendingBrightness;
+            return Unit.INSTANCE;
+        });
+        FrameCoalescer overlay = new FrameCoalescer(scheduler, () -> {
+            applied += pendingOverlay;
+            return Unit.INSTANCE;
+        });
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(scheduler, volume, brightness, overlay, stepsPerFrame);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long startBytes = threads.getThreadAllocatedBytes(threadId);
+        final long startNanos = System.nanoTime();
+        final long updates = run(scheduler, volume, brightness, overlay, stepsPerFrame);
+        final long nanos = System.nanoTime() - startNanos;
+        final long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+
+        final long steps = (long) FRAMES * stepsPerFrame;
+        System.out.println(String.format(Locale.ROOT,
+                "%d steps in %d frames: %.3f bytes allocated per step, %.2f updates applied per step, %.1fns per step",
+                steps, FRAMES, bytes / (double) steps, updates / (double) steps, nanos / (double) steps));
+        if (applied == 42) System.out.println(); // Keeps the actions from being removed.
+    }
+
+    /**
+     * @return The number of updates applied.
+     */
+    private static long run(ArrayFrameScheduler scheduler, FrameCoalescer volume,
+                            FrameCoalescer brightness, FrameCoalescer overlay, int stepsPerFrame) {
+        long updates = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            for (int step = 0; step < stepsPerFrame; step++) {
+                // Alternate between volume and brightness swipes, and each step updates the overlay.
+                if ((frame & 1) == 0) {
+                    pendingVolume = step;
+                    volume.request();
+                } else {
+                    pendingBrightness = step;
+                    brightness.request();
+                }
+                pendingOverlay = step;
+                overlay.request();
+            }
+            updates += scheduler.count;
+            scheduler.runFrame();
+        }
+        return updates;
+    }
+}
@@ -0,0 +1,150 @@
+package app.revanced.integrations.swipecontrols.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import kotlin.Unit;
+
+/**
+ * Volume, brightness and overlay updates are fed as a synthetic stream of swipe steps,
+ * with several steps for each frame, and frames are run by hand.
+ */
+public class FrameCoalescerTest {
+
+    static final class FakeFrameScheduler implements FrameScheduler {
+        final List<Choreographer.FrameCallback> posted = new ArrayList<>();
+        int postCount;
+
+        @Override
+        public void postFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            posted.add(callback);
+            postCount++;
+        }
+
+        @Override
+        public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            posted.remove(callback);
+        }
+
+        void runFrame() {
+            List<Choreographer.FrameCallback> callbacks = new ArrayList<>(posted);
+            posted.clear();
+            for (Choreographer.FrameCallback callback : callbacks) {
+                callback.doFrame(0);
+            }
+        }
+    }
+
+    /**
+     * A value set on each swipe step and applied on the next frame,
+     * the same as the pending values of the volume and brightness controllers and the overlay.
+     */
+    static final class PendingValue<T> {
+        final List<T> applied = new ArrayList<>();
+        T pending;
+        final FrameCoalescer update;
+
+        PendingValue(FrameScheduler scheduler) {
+            update = new FrameCoalescer(scheduler, () -> {
+                if (pending != null) {
+                    applied.add(pending);
+                    pending = null;
+                }
+                return Unit.INSTANCE;
+            });
+        }
+
+        void set(T value) {
+            pending = value;
+            update.request();
+        }
+    }
+
+    private final FakeFrameScheduler scheduler = new FakeFrameScheduler();
+    private final PendingValue<Integer> volume = new PendingValue<>(scheduler);
+    private final PendingValue<Float> brightness = new PendingValue<>(scheduler);
+    private final PendingValue<String> overlay = new PendingValue<>(scheduler);
+
+    @Test
+    public void appliesLatestValueOncePerFrame() {
+        for (int step = 1; step <= 10; step++) {
+            volume.set(step);
+            overlay.set(step + "");
+        }
+        assertEquals(List.of(), volume.applied);
+        assertEquals(2, scheduler.postCount);
+
+        scheduler.runFrame();
+        assertEquals(List.of(10), volume.applied);
+        assertEquals(List.of("10"), overlay.applied);
+        assertEquals(List.of(), brightness.applied);
+
+        // Nothing is scheduled without a new change.
+        scheduler.runFrame();
+        assertEquals(List.of(10), volume.applied);
+        assertEquals(2, scheduler.postCount);
+    }
+
+    @Test
+    public void swipeStream() {
+        Random random = new Random(1);
+        final int frames = 200;
+        int changedFrames = 0;
+        int lastVolume = 0;
+        float lastBrightness = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            // Touch events arrive faster than frames, and some frames have no events.
+            final int steps = random.nextInt(5);
+            for (int i = 0; i < steps; i++) {
+                if (random.nextBoolean()) {
+                    lastVolume = random.nextInt(15);
+                    volume.set(lastVolume);
+                    overlay.set(lastVolume + "");
+                } else {
+                    lastBrightness = random.nextInt(100);
+                    brightness.set(lastBrightness);
+                    overlay.set(lastBrightness + "%");
+                }
+            }
+            if (steps > 0) changedFrames++;
+            scheduler.runFrame();
+        }
+
+        assertEquals(changedFrames, overlay.applied.size());
+        assertTrue(volume.applied.size() <= changedFrames);
+        assertTrue(brightness.applied.size() <= changedFrames);
+        assertEquals(lastVolume, (int) volume.applied.get(volume.applied.size() - 1));
+        assertEquals(lastBrightness, brightness.applied.get(brightness.applied.size() - 1), 0);
+        assertEquals(volume.applied.size() + brightness.applied.size() + overlay.applied.size(),
+                scheduler.postCount);
+    }
+
+    @Test
+    public void flushAppliesPendingValueNow() {
+        brightness.set(0.5f);
+        brightness.update.flush();
+        assertEquals(List.of(0.5f), brightness.applied);
+        assertEquals(List.of(), scheduler.posted);
+
+        // Flushing without a pending change does nothing.
+        brightness.update.flush();
+        scheduler.runFrame();
+        assertEquals(List.of(0.5f), brightness.applied);
+
+        // Requesting again after a flush schedules a new frame.
+        brightness.set(0.25f);
+        scheduler.runFrame();
+        assertEquals(List.of(0.5f, 0.25f), brightness.applied);
+        assertEquals(2, scheduler.postCount);
+    }
+}
@@ -0,0 +1,87 @@
+package app.revanced.integrations.swipecontrols.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scroll distances are fed as a synthetic stream of gesture steps.
+ * Steps avoid reaching an exact multiple of the unit distance, where the reported direction is zero.
+ */
+public class ScrollDistanceHelperTest {
+    private final List<Integer> directions = new ArrayList<>();
+    private final List<Double> remaining = new ArrayList<>();
+    private final ScrollDistanceHelper helper = new ScrollDistanceHelper(10, (oldDistance, newDistance, direction) -> {
+        directions.add(direction);
+        remaining.add(newDistance);
+    });
+
+    @Test
+    public void invokesOncePerUnitDistance() {
+        helper.add(4);
+        helper.add(4);
+        assertEquals(List.of(), directions);
+        helper.add(4);
+        assertEquals(List.of(1), directions);
+        assertEquals(2.0, remaining.get(0), 0.0);
+
+        // Several units in one step.
+        helper.add(29);
+        assertEquals(List.of(1, 1, 1, 1), directions);
+        assertEquals(1.0, remaining.get(3), 0.0);
+    }
+
+    @Test
+    public void negativeDirection() {
+        helper.add(-25);
+        assertEquals(List.of(-1, -1), directions);
+        assertEquals(-5.0, remaining.get(1), 0.0);
+
+        // Reversing direction first cancels the remaining distance.
+        helper.add(12);
+        assertEquals(List.of(-1, -1), directions);
+        helper.add(4);
+        assertEquals(List.of(-1, -1, 1), directions);
+    }
+
+    @Test
+    public void resetClearsDistance() {
+        helper.add(9);
+        helper.reset();
+        helper.add(9);
+        assertEquals(List.of(), directions);
+        helper.add(2);
+        assertEquals(List.of(1), directions);
+    }
+
+    /**
+     * Total callbacks equal the total distance in units, regardless of how the distance is split into steps.
+     */
+    @Test
+    public void stepSizeDoesNotChangeResult() {
+        for (double step : new double[]{0.5, 1.25, 3, 9.99, 40}) {
+            directions.clear();
+            helper.reset();
+            double total = 0;
+            while (total < 1000) {
+                helper.add(step);
+                total += step;
+            }
+            assertEquals("step " + step, (int) (total / 10), directions.size());
+        }
+    }
+
+    @Test
+    public void rectangleContainsPoint() {
+        Rectangle rectangle = new Rectangle(10, 20, 100, 50);
+        assertTrue(RectangleKt.contains(rectangle, new Point(10, 20)));
+        assertTrue(RectangleKt.contains(rectangle, new Point(110, 70)));
+        assertFalse(RectangleKt.contains(rectangle, new Point(9, 20)));
+        assertFalse(RectangleKt.contains(rectangle, new Point(50, 71)));
+    }
+}
@@ -0,0 +1,106 @@
+package app.revanced.integrations.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.revanced.integrations.utils.NetworkStateService.NetworkState;
+import app.revanced.integrations.utils.ReVancedUtils.NetworkType;
+
+public class NetworkStateServiceTest {
+
+    private static final class FakeSource implements NetworkStateService.ConnectivitySource {
+        @NonNull
+        final NetworkState initial;
+        int registerCount;
+        int failuresLeft;
+
+        FakeSource(@NonNull NetworkState initial) {
+            this.initial = initial;
+        }
+
+        @NonNull
+        @Override
+        public NetworkState queryCurrentState() {
+            return initial;
+        }
+
+        @Override
+        public void register(@NonNull NetworkStateService service) {
+            registerCount++;
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("No context");
+            }
+        }
+    }
+
+    @Test
+    public void registersOnce() {
+        FakeSource source = new FakeSource(new NetworkState(NetworkType.WIFI, false, 1000));
+        NetworkStateService service = new NetworkStateService(source);
+
+        assertEquals(NetworkType.WIFI, service.getNetworkType());
+        service.getState();
+        service.isMetered();
+        assertEquals(1, source.registerCount);
+    }
+
+    @Test
+    public void failedRegisterIsRetried() {
+        FakeSource source = new FakeSource(new NetworkState(NetworkType.WIFI, false, 1000));
+        source.failuresLeft = 2;
+        NetworkStateService service = new NetworkStateService(source);
+
+        // State is still available while not registered.
+        assertEquals(NetworkType.WIFI, service.getNetworkType());
+        assertEquals(1, source.registerCount);
+        service.getState();
+        assertEquals(2, source.registerCount);
+        service.getState();
+        assertEquals(3, source.registerCount);
+
+        // Registered, and not tried again.
+        service.getState();
+        service.isMetered();
+        assertEquals(3, source.registerCount);
+    }
+
+    @Test
+    public void bandwidthChangesDoNotNotify() {
+        NetworkState wifi = new NetworkState(NetworkType.WIFI, false, 1000);
+        NetworkStateService service = new NetworkStateService(new FakeSource(wifi));
+        service.getState();
+        List<NetworkState> changes = new ArrayList<>();
+        service.addListener((previous, current) -> changes.add(current));
+
+        NetworkState fasterWifi = new NetworkState(NetworkType.WIFI, false, 50000);
+        service.updateState(fasterWifi);
+        service.updateState(new NetworkState(NetworkType.WIFI, false, 20000));
+        assertEquals(0, changes.size());
+        // Latest estimate is still available.
+        assertEquals(20000, service.getState().downstreamBandwidthKbps);
+
+        NetworkState mobile = new NetworkState(NetworkType.MOBILE, true, 20000);
+        service.updateState(mobile);
+        assertEquals(1, changes.size());
+        assertSame(mobile, changes.get(0));
+
+        service.updateState(new NetworkState(NetworkType.MOBILE, false, 20000));
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void equalityIgnoresBandwidth() {
+        NetworkState slow = new NetworkState(NetworkType.MOBILE, true, 100);
+        NetworkState fast = new NetworkState(NetworkType.MOBILE, true, 100000);
+        assertEquals(slow, fast);
+        assertEquals(slow.hashCode(), fast.hashCode());
+    }
+}
@@ -0,0 +1,59 @@
+package app.revanced.integrations.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class StringRefTest {
+
+    @Test
+    public void constant() {
+        assertEquals("", StringRef.empty.toString());
+        assertEquals("revanced_constant", StringRef.constant("revanced_constant").toString());
+        // Constants are not shared with resource references of the same name.
+        assertNotSame(StringRef.sf("revanced_constant"), StringRef.constant("revanced_constant"));
+    }
+
+    @Test
+    public void concurrentLookupsShareOneReference() throws Exception {
+        final int threadCount = 8;
+        final int names = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<StringRef[]>> results = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    StringRef[] refs = new StringRef[names];
+                    for (int j = 0; j < names; j++) {
+                        refs[j] = StringRef.sf("revanced_concurrent_" + j);
+                    }
+                    return refs;
+                }));
+            }
+            start.countDown();
+
+            StringRef[] first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<StringRef[]> result : results) {
+                StringRef[] refs = result.get(10, TimeUnit.SECONDS);
+                for (int j = 0; j < names; j++) {
+                    assertSame(first[j], refs[j]);
+                    assertSame(first[j], StringRef.sf("revanced_concurrent_" + j));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package app.revanced.integrations.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uses {@link TaskLane#LATENCY_CRITICAL}, which has 2 threads and a queue capacity of 32.
+ * Both threads are kept busy with blocking tasks, so everything else submitted stays in the queue.
+ */
+public class TaskLaneTest {
+    private static final TaskLane LANE = TaskLane.LATENCY_CRITICAL;
+    private static final int THREAD_COUNT = 2;
+    private static final int QUEUE_CAPACITY = 32;
+
+    private final List<CountDownLatch> blockerReleases = new ArrayList<>();
+    private final List<Future<?>> queued = new ArrayList<>();
+
+    @Before
+    public void blockAllThreads() throws InterruptedException {
+        assertEquals("Lane is not idle", 0, LANE.getQueueSize());
+        CountDownLatch started = new CountDownLatch(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            CountDownLatch release = new CountDownLatch(1);
+            blockerReleases.add(release);
+            LANE.execute(() -> {
+                started.countDown();
+                await(release);
+            }, TaskLane.PRIORITY_HIGH);
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void releaseAllThreads() throws InterruptedException {
+        for (Future<?> future : queued) {
+            LANE.remove(future);
+        }
+        for (CountDownLatch release : blockerReleases) {
+            release.countDown();
+        }
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((LANE.getActiveCount() > 0 || LANE.getQueueSize() > 0) && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void higherPriorityStartsFirst() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(5);
+        queued.add(LANE.execute(() -> record(order, done, "low"), TaskLane.PRIORITY_LOW));
+        queued.add(LANE.execute(() -> record(order, done, "normal 1"), TaskLane.PRIORITY_NORMAL));
+        queued.add(LANE.execute(() -> record(order, done, "high"), TaskLane.PRIORITY_HIGH));
+        queued.add(LANE.execute(() -> record(order, done, "normal 2"), TaskLane.PRIORITY_NORMAL));
+        Future<?> raised = LANE.execute(() -> record(order, done, "raised"), TaskLane.PRIORITY_LOW);
+        queued.add(raised);
+        assertTrue(LANE.setPriority(raised, TaskLane.PRIORITY_HIGH));
+
+        // Release one thread, so the queue is run in order by a single thread.
+        blockerReleases.get(0).countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(List.of("high", "raised", "normal 1", "normal 2", "low"), order);
+        assertFalse("Finished task cannot change priority", LANE.setPriority(raised, TaskLane.PRIORITY_LOW));
+    }
+
+    @Test
+    public void fullQueueRejectsAndCancels() throws Exception {
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            queued.add(LANE.submit(() -> "queued"));
+        }
+        assertTrue(LANE.isSaturated());
+
+        final long rejectedBefore = LANE.getRejectedCount();
+        Future<String> rejected = LANE.submit(() -> "rejected");
+        assertTrue(rejected.isCancelled());
+        assertEquals(rejectedBefore + 1, LANE.getRejectedCount());
+        try {
+            rejected.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (CancellationException expected) {
+        }
+
+        // Removing a queued task makes room for a new one.
+        assertTrue(LANE.remove(queued.get(0)));
+        assertFalse(LANE.isSaturated());
+        Future<String> accepted = LANE.submit(() -> "accepted");
+        queued.add(accepted);
+        assertFalse(accepted.isCancelled());
+        assertTrue(LANE.getPeakQueueSize() >= QUEUE_CAPACITY);
+    }
+
+    /**
+     * Many threads submitting at the same time as tasks are run.
+     * Every task either runs exactly once or is rejected.
+     */
+    @Test
+    public void concurrentSubmitters() throws Exception {
+        blockerReleases.forEach(CountDownLatch::countDown);
+
+        final int submitters = 8;
+        final int tasksPerSubmitter = 5000;
+        AtomicInteger ran = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = Collections.synchronizedList(new ArrayList<>());
+        Thread[] threads = new Thread[submitters];
+        for (int i = 0; i < submitters; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < tasksPerSubmitter; j++) {
+                    Future<?> future = LANE.execute(ran::incrementAndGet, j % 3 - 1);
+                    if (future.isCancelled()) {
+                        rejected.incrementAndGet();
+                    } else {
+                        futures.add(future);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(submitters * tasksPerSubmitter, ran.get() + rejected.get());
+        // The capacity check is not atomic with adding to the queue,
+        // so each concurrent submitter can go over the capacity by at most 1.
+        assertTrue(LANE.getPeakQueueSize() <= QUEUE_CAPACITY + submitters);
+    }
+
+    private static void record(List<String> order, CountDownLatch done, String name) {
+        order.add(name);
+        done.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
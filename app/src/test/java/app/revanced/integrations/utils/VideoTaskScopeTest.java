@@ -0,0 +1,187 @@
+package app.revanced.integrations.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tasks are queued on {@link TaskLane#LATENCY_CRITICAL} while both of its threads are blocked,
+ * so the tests control when queued tasks can start.
+ * Scopes are global, so each test uses its own video ids.
+ */
+public class VideoTaskScopeTest {
+    private static final TaskLane LANE = TaskLane.LATENCY_CRITICAL;
+    private static final int THREAD_COUNT = 2;
+
+    private static final AtomicInteger videoIdCounter = new AtomicInteger();
+
+    private final List<CountDownLatch> blockerReleases = new ArrayList<>();
+
+    @Before
+    public void blockAllThreads() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            CountDownLatch release = new CountDownLatch(1);
+            blockerReleases.add(release);
+            LANE.execute(() -> {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }, TaskLane.PRIORITY_HIGH);
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void releaseAllThreads() throws InterruptedException {
+        releaseThreads();
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((LANE.getActiveCount() > 0 || LANE.getQueueSize() > 0) && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void releaseThreads() {
+        for (CountDownLatch release : blockerReleases) {
+            release.countDown();
+        }
+    }
+
+    private static String newVideoId() {
+        return "video" + videoIdCounter.incrementAndGet();
+    }
+
+    @Test
+    public void previousVideoTasksAreRemoved() throws Exception {
+        String first = newVideoId();
+        VideoTaskScope.setCurrentVideoId(first);
+        VideoTaskScope scope = VideoTaskScope.forVideo(first);
+        assertSame(scope, VideoTaskScope.forVideo(first));
+        Future<?> task = scope.execute(LANE, () -> {
+        }, TaskLane.PRIORITY_NORMAL);
+
+        final long savedBefore = VideoTaskScope.getSavedCount();
+        VideoTaskScope.setCurrentVideoId(newVideoId());
+
+        assertTrue(scope.isCancelled());
+        assertTrue(task.isCancelled());
+        assertEquals(savedBefore + 1, VideoTaskScope.getSavedCount());
+        assertEquals(0, LANE.getQueueSize());
+
+        // Late submission to a cancelled scope never runs.
+        Future<String> late = scope.submit(LANE, () -> "late", TaskLane.PRIORITY_NORMAL);
+        assertTrue(late.isCancelled());
+        assertEquals(0, LANE.getQueueSize());
+    }
+
+    @Test
+    public void prefetchesAreKeptAndDeprioritized() throws Exception {
+        VideoTaskScope.setCurrentVideoId(newVideoId());
+        String prefetchVideoId = newVideoId();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        Future<?> prefetch = VideoTaskScope.forVideo(prefetchVideoId).execute(LANE, () -> {
+            order.add("prefetch");
+            done.countDown();
+        }, TaskLane.PRIORITY_NORMAL);
+        VideoTaskScope.setCurrentVideoId(newVideoId());
+        LANE.execute(() -> {
+            order.add("other");
+            done.countDown();
+        }, TaskLane.PRIORITY_NORMAL);
+
+        assertFalse(prefetch.isCancelled());
+        releaseThreads();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("other", "prefetch"), order);
+    }
+
+    @Test
+    public void prefetchThatPlaysGetsPriorityBack() throws Exception {
+        VideoTaskScope.setCurrentVideoId(newVideoId());
+        String prefetchVideoId = newVideoId();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        VideoTaskScope.forVideo(prefetchVideoId).execute(LANE, () -> {
+            order.add("prefetch");
+            done.countDown();
+        }, TaskLane.PRIORITY_NORMAL);
+        VideoTaskScope.setCurrentVideoId(newVideoId()); // Prefetch moved to the back of the queue.
+        LANE.execute(() -> {
+            order.add("newer");
+            done.countDown();
+        }, TaskLane.PRIORITY_NORMAL);
+
+        // Prefetched video plays, and is ahead of the newer work again.
+        VideoTaskScope.setCurrentVideoId(prefetchVideoId);
+        releaseThreads();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("prefetch", "newer"), order);
+    }
+
+    @Test
+    public void oldPrefetchesAreNotCancelled() throws Exception {
+        VideoTaskScope.setCurrentVideoId(newVideoId());
+        List<Future<?>> prefetches = new ArrayList<>();
+        AtomicInteger ran = new AtomicInteger();
+        final int prefetchCount = 10; // More than the 5 scopes that are tracked.
+        for (int i = 0; i < prefetchCount; i++) {
+            prefetches.add(VideoTaskScope.forVideo(newVideoId())
+                    .execute(LANE, ran::incrementAndGet, TaskLane.PRIORITY_NORMAL));
+        }
+        for (Future<?> prefetch : prefetches) {
+            assertFalse(prefetch.isCancelled());
+        }
+
+        releaseThreads();
+        for (Future<?> prefetch : prefetches) {
+            prefetch.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(prefetchCount, ran.get());
+    }
+
+    /**
+     * Simulates quickly swiping through Shorts, where each video queues a few requests
+     * and the next video plays before the lane can start them.
+     */
+    @Test
+    public void rapidSwipingRemovesQueuedWork() throws Exception {
+        final int videos = 50;
+        final int tasksPerVideo = 3;
+        AtomicInteger ran = new AtomicInteger();
+        final long savedBefore = VideoTaskScope.getSavedCount();
+
+        String videoId = null;
+        for (int i = 0; i < videos; i++) {
+            videoId = newVideoId();
+            VideoTaskScope.setCurrentVideoId(videoId);
+            VideoTaskScope scope = VideoTaskScope.forVideo(videoId);
+            for (int j = 0; j < tasksPerVideo; j++) {
+                scope.execute(LANE, ran::incrementAndGet, TaskLane.PRIORITY_NORMAL);
+            }
+        }
+        releaseAllThreads();
+
+        // Only the last video's tasks ran, and nothing else was started.
+        assertEquals(tasksPerVideo, ran.get());
+        assertEquals((long) (videos - 1) * tasksPerVideo, VideoTaskScope.getSavedCount() - savedBefore);
+        assertFalse(VideoTaskScope.forVideo(videoId).isCancelled());
+    }
+}
@@ -0,0 +1,193 @@
+package app.revanced.music.patches.utils.requests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uses Piped responses of a playlist with 2 pages, recorded in the test resources.
+ */
+public class PlaylistCacheTest {
+    private static final String PLAYLIST_ID = "RDdQw4w9WgXcQ";
+    private static final String[] VIDEO_IDS = {"dQw4w9WgXcQ", "9bZkp7q19f0", "kJQP7kiw5Fk", "JGwWNGJdvx8", "OPf0YbXqDm0"};
+
+    private static String readFixture(String name) throws IOException {
+        try (InputStream in = PlaylistCacheTest.class.getResourceAsStream(name)) {
+            if (in == null) throw new IOException("Missing fixture: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Serves the recorded pages, and records each fetch.
+     */
+    private static class RecordedPages implements PlaylistCache.PageSource {
+        final List<String> fetches = Collections.synchronizedList(new ArrayList<>());
+        private final String firstPage;
+        private final String lastPage;
+        private final String nextPageToken;
+
+        RecordedPages() throws IOException, JSONException {
+            firstPage = readFixture("playlist_first_page.json");
+            lastPage = readFixture("playlist_last_page.json");
+            nextPageToken = new JSONObject(firstPage).getString("nextpage");
+        }
+
+        @NonNull
+        @Override
+        public JSONObject fetchPage(@NonNull String playlistId, @Nullable String nextPage)
+                throws IOException, JSONException {
+            fetches.add(playlistId + ":" + (nextPage == null ? "first" : "next"));
+            if (nextPage == null) return new JSONObject(firstPage);
+            if (nextPage.equals(nextPageToken)) return new JSONObject(lastPage);
+            throw new IOException("Unknown page: " + nextPage);
+        }
+    }
+
+    @Test
+    public void fetchesOnlyUntilIndexIsFound() throws Exception {
+        RecordedPages pages = new RecordedPages();
+        PlaylistCache cache = new PlaylistCache(pages);
+
+        assertEquals(VIDEO_IDS[0], cache.getVideoId(PLAYLIST_ID, 0));
+        assertEquals(VIDEO_IDS[2], cache.getVideoId(PLAYLIST_ID, 2));
+        assertEquals(List.of(PLAYLIST_ID + ":first"), pages.fetches);
+
+        assertEquals(VIDEO_IDS[4], cache.getVideoId(PLAYLIST_ID, 4));
+        assertEquals(VIDEO_IDS[3], cache.getVideoId(PLAYLIST_ID, 3));
+        assertEquals(List.of(PLAYLIST_ID + ":first", PLAYLIST_ID + ":next"), pages.fetches);
+    }
+
+    @Test
+    public void indexOutsidePlaylist() throws Exception {
+        RecordedPages pages = new RecordedPages();
+        PlaylistCache cache = new PlaylistCache(pages);
+
+        assertNull(cache.getVideoId(PLAYLIST_ID, -1));
+        assertEquals(List.of(), pages.fetches);
+        assertNull(cache.getVideoId(PLAYLIST_ID, VIDEO_IDS.length));
+        assertNull(cache.getVideoId(PLAYLIST_ID, 100));
+        // Last page has no next page, so nothing more is fetched.
+        assertEquals(2, pages.fetches.size());
+    }
+
+    @Test
+    public void playlistsAreCachedSeparately() throws Exception {
+        RecordedPages pages = new RecordedPages();
+        PlaylistCache cache = new PlaylistCache(pages);
+        assertEquals(VIDEO_IDS[1], cache.getVideoId("first", 1));
+        assertEquals(VIDEO_IDS[1], cache.getVideoId("second", 1));
+        assertEquals(VIDEO_IDS[1], cache.getVideoId("first", 1));
+        assertEquals(List.of("first:first", "second:first"), pages.fetches);
+    }
+
+    @Test
+    public void leastRecentlyUsedPlaylistIsRemoved() throws Exception {
+        RecordedPages pages = new RecordedPages();
+        PlaylistCache cache = new PlaylistCache(pages);
+        for (int i = 0; i <= 10; i++) {
+            cache.getVideoId("playlist" + i, 0);
+            cache.getVideoId("playlist0", 0); // Keep the first playlist recently used.
+        }
+        pages.fetches.clear();
+
+        cache.getVideoId("playlist0", 0);
+        cache.getVideoId("playlist10", 0);
+        assertEquals(List.of(), pages.fetches);
+        cache.getVideoId("playlist1", 0);
+        assertEquals(List.of("playlist1:first"), pages.fetches);
+    }
+
+    @Test
+    public void failedFetchKeepsFetchedIds() throws Exception {
+        RecordedPages pages = new RecordedPages() {
+            boolean failNextPage = true;
+
+            @NonNull
+            @Override
+            public JSONObject fetchPage(@NonNull String playlistId, @Nullable String nextPage)
+                    throws IOException, JSONException {
+                if (nextPage != null && failNextPage) {
+                    failNextPage = false;
+                    throw new IOException("test");
+                }
+                return super.fetchPage(playlistId, nextPage);
+            }
+        };
+        PlaylistCache cache = new PlaylistCache(pages);
+        try {
+            cache.getVideoId(PLAYLIST_ID, 3);
+            fail();
+        } catch (IOException expected) {
+        }
+        assertEquals(VIDEO_IDS[2], cache.getVideoId(PLAYLIST_ID, 2));
+        assertEquals(VIDEO_IDS[3], cache.getVideoId(PLAYLIST_ID, 3));
+        assertEquals(List.of(PLAYLIST_ID + ":first", PLAYLIST_ID + ":next"), pages.fetches);
+    }
+
+    @Test
+    public void concurrentLookupsShareOneFetch() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        RecordedPages pages = new RecordedPages() {
+            @NonNull
+            @Override
+            public JSONObject fetchPage(@NonNull String playlistId, @Nullable String nextPage)
+                    throws IOException, JSONException {
+                if (playlistId.equals(PLAYLIST_ID)) {
+                    fetchStarted.countDown();
+                    try {
+                        releaseFetch.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        throw new IOException(ex);
+                    }
+                }
+                return super.fetchPage(playlistId, nextPage);
+            }
+        };
+        PlaylistCache cache = new PlaylistCache(pages);
+        final int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<String>> lookups = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                final int index = i % VIDEO_IDS.length;
+                lookups.add(executor.submit(() -> cache.getVideoId(PLAYLIST_ID, index)));
+            }
+            fetchStarted.await(10, TimeUnit.SECONDS);
+            // A different playlist is not blocked by the fetch in progress.
+            assertEquals(VIDEO_IDS[0], cache.getVideoId("other", 0));
+
+            releaseFetch.countDown();
+            for (int i = 0; i < threadCount; i++) {
+                assertEquals(VIDEO_IDS[i % VIDEO_IDS.length], lookups.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            releaseFetch.countDown();
+            executor.shutdownNow();
+        }
+        // Each page was fetched once.
+        List<String> fetches = new ArrayList<>(pages.fetches);
+        Collections.sort(fetches);
+        assertEquals(List.of(PLAYLIST_ID + ":first", PLAYLIST_ID + ":next", "other:first"), fetches);
+    }
+}
@@ -0,0 +1,225 @@
+package app.revanced.music.returnyoutubedislike;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import app.revanced.music.returnyoutubedislike.requests.RYDVoteData;
+import app.revanced.music.utils.TaskLane;
+import app.revanced.music.utils.TestContext;
+
+/**
+ * Fetches are queued on a fake lane, and only run when a test runs them.
+ */
+public class VoteFetchCacheTest {
+    private static final String PLAYLIST_ID = "RDAMVM0";
+
+    @BeforeClass
+    public static void installContext() {
+        TestContext.install(); // Used by the debug logging setting.
+    }
+
+    private static final class Fetch {
+        final FutureTask<RYDVoteData> task;
+        int priority;
+
+        Fetch(Callable<RYDVoteData> call, int priority) {
+            this.task = new FutureTask<>(call);
+            this.priority = priority;
+        }
+    }
+
+    private final List<Fetch> fetches = new ArrayList<>();
+    private final List<String> fetchedVideoIds = new ArrayList<>();
+    private final Set<String> failingVideoIds = new HashSet<>();
+    private final List<Integer> queueLookups = new ArrayList<>();
+    private boolean rateLimited;
+    private long now = 1_000_000;
+
+    private final VoteFetchCache cache = new VoteFetchCache(new VoteFetchCache.VoteSource() {
+        @Nullable
+        @Override
+        public RYDVoteData fetchVotes(@NonNull String videoId) {
+            fetchedVideoIds.add(videoId);
+            if (failingVideoIds.contains(videoId)) {
+                return null;
+            }
+            try {
+                return new RYDVoteData(new JSONObject().put("id", videoId)
+                        .put("viewCount", 100).put("likes", 10).put("dislikes", 2));
+            } catch (JSONException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public boolean isRateLimitInEffect() {
+            return rateLimited;
+        }
+    }, (playlistId, playlistIndex) -> {
+        assertEquals(PLAYLIST_ID, playlistId);
+        queueLookups.add(playlistIndex);
+        return playlistIndex < 10 ? videoId(playlistIndex) : null;
+    }, new VoteFetchCache.FetchLane() {
+        @NonNull
+        @Override
+        public Future<RYDVoteData> submit(@NonNull Callable<RYDVoteData> fetch, int priority) {
+            Fetch queued = new Fetch(fetch, priority);
+            fetches.add(queued);
+            return queued.task;
+        }
+
+        @Override
+        public void setPriority(@NonNull Future<RYDVoteData> future, int priority) {
+            for (Fetch fetch : fetches) {
+                if (fetch.task == future) fetch.priority = priority;
+            }
+        }
+    }, () -> now);
+
+    private static String videoId(int index) {
+        return "video" + index;
+    }
+
+    private void runAll() {
+        for (Fetch fetch : fetches) {
+            fetch.task.run();
+        }
+    }
+
+    private Fetch lastFetch() {
+        return fetches.get(fetches.size() - 1);
+    }
+
+    @Test
+    public void prefetchesNextTracksOfQueue() throws Exception {
+        cache.prefetchQueue(PLAYLIST_ID, 2);
+        assertEquals(VoteFetchCache.QUEUE_PREFETCH_COUNT, fetches.size());
+        for (Fetch fetch : fetches) {
+            assertEquals(TaskLane.PRIORITY_LOW, fetch.priority);
+        }
+        runAll();
+        assertEquals(List.of(videoId(3), videoId(4), videoId(5)), fetchedVideoIds);
+
+        // End of queue.
+        queueLookups.clear();
+        cache.prefetchQueue(PLAYLIST_ID, 8);
+        assertEquals(List.of(9, 10), queueLookups);
+        assertEquals(VoteFetchCache.QUEUE_PREFETCH_COUNT + 1, fetches.size());
+    }
+
+    @Test
+    public void cachedVideosAreNotFetchedAgain() throws Exception {
+        cache.prefetchQueue(PLAYLIST_ID, 0);
+        cache.prefetchQueue(PLAYLIST_ID, 1); // Only the last track is new.
+        assertEquals(VoteFetchCache.QUEUE_PREFETCH_COUNT + 1, fetches.size());
+
+        runAll();
+        assertFalse(cache.prefetch(videoId(2)));
+        assertSame(fetches.get(1).task, cache.fetchForLoadedVideo(videoId(2)));
+        assertEquals(VoteFetchCache.QUEUE_PREFETCH_COUNT + 1, fetches.size());
+    }
+
+    @Test
+    public void failedFetchIsFetchedAgain() {
+        failingVideoIds.add(videoId(0));
+        assertTrue(cache.prefetch(videoId(0)));
+        runAll();
+        assertTrue(cache.prefetch(videoId(0)));
+        assertEquals(2, fetches.size());
+    }
+
+    @Test
+    public void cancelledFetchIsFetchedAgain() {
+        assertTrue(cache.prefetch(videoId(0)));
+        fetches.get(0).task.cancel(false); // Rejected by a full lane.
+        assertTrue(cache.prefetch(videoId(0)));
+        assertEquals(2, fetches.size());
+
+        lastFetch().task.cancel(false);
+        Future<RYDVoteData> future = cache.fetchForLoadedVideo(videoId(0));
+        assertSame(lastFetch().task, future);
+        assertEquals(3, fetches.size());
+        assertEquals(TaskLane.PRIORITY_NORMAL, lastFetch().priority);
+    }
+
+    @Test
+    public void leastRecentlyUsedIsRemoved() {
+        for (int i = 0; i < VoteFetchCache.CACHE_LIMIT; i++) {
+            assertTrue(cache.prefetch(videoId(i)));
+        }
+        // Use the oldest video, so the next oldest is removed first.
+        cache.fetchForLoadedVideo(videoId(0));
+        assertTrue(cache.prefetch(videoId(VoteFetchCache.CACHE_LIMIT)));
+        assertEquals(VoteFetchCache.CACHE_LIMIT + 1, fetches.size());
+
+        assertFalse(cache.prefetch(videoId(0)));
+        assertFalse(cache.prefetch(videoId(2)));
+        assertTrue(cache.prefetch(videoId(1)));
+    }
+
+    @Test
+    public void fetchesExpire() {
+        assertTrue(cache.prefetch(videoId(0)));
+        runAll();
+        now += VoteFetchCache.CACHE_TIMEOUT_MILLISECONDS;
+        assertFalse(cache.prefetch(videoId(0)));
+        now++;
+        assertTrue(cache.prefetch(videoId(0)));
+
+        assertTrue(cache.prefetch(videoId(1)));
+        now += VoteFetchCache.CACHE_TIMEOUT_MILLISECONDS + 1;
+        cache.removeExpired();
+        Future<RYDVoteData> future = cache.fetchForLoadedVideo(videoId(1));
+        assertSame(lastFetch().task, future);
+        assertEquals(4, fetches.size());
+    }
+
+    @Test
+    public void loadRaisesPrefetchToHighPriority() {
+        assertTrue(cache.prefetch(videoId(0)));
+        assertEquals(TaskLane.PRIORITY_LOW, fetches.get(0).priority);
+
+        assertSame(fetches.get(0).task, cache.fetchForLoadedVideo(videoId(0)));
+        assertEquals(TaskLane.PRIORITY_HIGH, fetches.get(0).priority);
+        assertEquals(1, fetches.size());
+
+        // Not prefetched.
+        cache.fetchForLoadedVideo(videoId(1));
+        assertEquals(TaskLane.PRIORITY_NORMAL, lastFetch().priority);
+    }
+
+    @Test
+    public void noPrefetchDuringRateLimit() throws Exception {
+        rateLimited = true;
+        assertFalse(cache.prefetch(videoId(0)));
+        cache.prefetchQueue(PLAYLIST_ID, 0);
+        assertEquals(List.of(), queueLookups);
+        assertEquals(0, fetches.size());
+
+        // Loaded video is still fetched, and the api handles the rate limit.
+        cache.fetchForLoadedVideo(videoId(0));
+        assertEquals(1, fetches.size());
+
+        rateLimited = false;
+        cache.prefetchQueue(PLAYLIST_ID, 0);
+        assertEquals(1 + VoteFetchCache.QUEUE_PREFETCH_COUNT, fetches.size());
+    }
+}
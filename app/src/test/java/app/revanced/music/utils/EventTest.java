@@ -0,0 +1,79 @@
+package app.revanced.music.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import kotlin.Unit;
+
+public class EventTest {
+
+    /**
+     * Runs immediately, the same as {@link Event#MAIN_THREAD} when already on the main thread.
+     */
+    private static final Executor INLINE = Runnable::run;
+
+    @Test
+    public void reentrantValueIsDeliveredAfterCurrentValue() {
+        Event<Integer> event = new Event<>(INLINE, true);
+        List<String> delivered = new ArrayList<>();
+        event.addObserver(value -> {
+            delivered.add("first:" + value);
+            if (value == 1) {
+                event.invoke(2); // Observer changes the value while it is being delivered.
+            }
+            return Unit.INSTANCE;
+        });
+        event.addObserver(value -> {
+            delivered.add("second:" + value);
+            return Unit.INSTANCE;
+        });
+
+        event.invoke(1);
+
+        assertEquals(Arrays.asList("first:1", "second:1", "first:2", "second:2"), delivered);
+    }
+
+    @Test
+    public void coalescesQueuedValues() {
+        List<Runnable> queue = new ArrayList<>();
+        Event<Integer> event = new Event<>(queue::add, true);
+        List<Integer> delivered = new ArrayList<>();
+        event.addObserver(value -> {
+            delivered.add(value);
+            return Unit.INSTANCE;
+        });
+
+        event.invoke(1);
+        event.invoke(2);
+        event.invoke(3);
+        assertEquals(1, queue.size());
+        queue.remove(0).run();
+        assertEquals(Arrays.asList(3), delivered);
+
+        // Same as the last delivered value.
+        event.invoke(3);
+        queue.remove(0).run();
+        assertEquals(Arrays.asList(3), delivered);
+    }
+
+    @Test
+    public void uncoalescedDeliversAllValues() {
+        Event<Integer> event = new Event<>(INLINE, false);
+        List<Integer> delivered = new ArrayList<>();
+        event.addObserver(value -> {
+            delivered.add(value);
+            return Unit.INSTANCE;
+        });
+
+        event.invoke(1);
+        event.invoke(1);
+        event.invoke(2);
+        assertEquals(Arrays.asList(1, 1, 2), delivered);
+    }
+}
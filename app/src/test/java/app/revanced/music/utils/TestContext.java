@@ -0,0 +1,31 @@
+package app.revanced.music.utils;
+
+import android.content.ContextWrapper;
+import android.content.SharedPreferences;
+
+import app.revanced.integrations.settings.FakeSharedPreferences;
+
+/**
+ * Context with in memory preferences, so the settings can be loaded on the JVM.
+ */
+public final class TestContext extends ContextWrapper {
+    private static final FakeSharedPreferences preferences = new FakeSharedPreferences();
+
+    private TestContext() {
+        super(null);
+    }
+
+    /**
+     * Must be called before the settings are first used.
+     */
+    public static synchronized void install() {
+        if (ReVancedUtils.context == null) {
+            ReVancedUtils.context = new TestContext();
+        }
+    }
+
+    @Override
+    public SharedPreferences getSharedPreferences(String name, int mode) {
+        return preferences;
+    }
+}
@@ -0,0 +1,113 @@
+package app.revanced.reddit.patches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.reddit.domain.model.ILink;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+public class PromotedLinkFilterTest {
+
+    private static final class Link extends ILink {
+        final int id;
+        final boolean promoted;
+
+        Link(int id, boolean promoted) {
+            this.id = id;
+            this.promoted = promoted;
+        }
+
+        @Override
+        public boolean getPromoted() {
+            return promoted;
+        }
+
+        @Override
+        public String toString() {
+            return (promoted ? "ad" : "link") + id;
+        }
+    }
+
+    private static List<Object> page(boolean... promoted) {
+        List<Object> page = new ArrayList<>();
+        for (int i = 0; i < promoted.length; i++) {
+            page.add(new Link(i, promoted[i]));
+        }
+        return page;
+    }
+
+    private static List<Object> withoutAds(List<?> page) {
+        List<Object> expected = new ArrayList<>();
+        for (Object item : page) {
+            if (!(item instanceof Link link && link.promoted)) expected.add(item);
+        }
+        return expected;
+    }
+
+    @Test
+    public void pageWithoutAdsIsNotCopied() {
+        List<Object> page = page(false, false, false);
+        assertSame(page, PromotedLinkFilter.filter(page));
+        List<Object> unmodifiable = Collections.unmodifiableList(page);
+        assertSame(unmodifiable, PromotedLinkFilter.filter(unmodifiable));
+        List<Object> linked = new LinkedList<>(page);
+        assertSame(linked, PromotedLinkFilter.filter(linked));
+        List<Object> empty = List.of();
+        assertSame(empty, PromotedLinkFilter.filter(empty));
+    }
+
+    @Test
+    public void adsAreRemoved() {
+        List<Object> page = page(false, true, false, true, true, false);
+        List<Object> original = new ArrayList<>(page);
+        List<?> filtered = PromotedLinkFilter.filter(Collections.unmodifiableList(page));
+        assertEquals(withoutAds(page), filtered);
+        assertNotSame(page, filtered);
+        // Original is not modified.
+        assertEquals(original, page);
+
+        assertEquals(List.of(), PromotedLinkFilter.filter(page(true, true)));
+        assertEquals(withoutAds(page), PromotedLinkFilter.filter(new LinkedList<>(page)));
+        assertEquals(withoutAds(page), PromotedLinkFilter.filter(new LinkedHashSet<>(page)));
+    }
+
+    @Test
+    public void otherItemsAreKept() {
+        List<Object> page = page(true, false);
+        page.add(0, "header");
+        page.add(null);
+        page.add(3);
+        List<Object> expected = new ArrayList<>();
+        expected.add("header");
+        expected.add(page.get(2));
+        expected.add(null);
+        expected.add(3);
+        assertEquals(expected, PromotedLinkFilter.filter(page));
+    }
+
+    @Test
+    public void randomPages() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            boolean[] promoted = new boolean[random.nextInt(30)];
+            for (int j = 0; j < promoted.length; j++) {
+                promoted[j] = random.nextInt(8) == 0;
+            }
+            List<Object> page = page(promoted);
+            List<?> filtered = PromotedLinkFilter.filter(page);
+            assertEquals(withoutAds(page), filtered);
+            if (filtered.size() == page.size()) {
+                assertSame(page, filtered);
+            }
+        }
+    }
+}